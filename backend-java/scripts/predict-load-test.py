@@ -0,0 +1,127 @@
+#!/usr/bin/env python3
+"""
+Prueba de carga local del control de admisión de /api/churn/predict.
+
+Simula un script de lotes (varios hilos sin pausa) y un dashboard (un hilo con pausa)
+con usuarios distintos. Reporta por perfil los códigos de estado y la latencia de las
+respuestas exitosas, y al final el límite de concurrencia y los rechazos del actuator.
+Lo esperado: el script de lotes recibe 429 sin afectar la latencia del dashboard, y si
+el servicio Python o MySQL se degradan aparecen 503 en lugar de latencias crecientes.
+
+Uso:
+  scripts/predict-load-test.py [--base http://localhost:8080] [--duration 30] [--batch-threads 16]
+"""
+import argparse
+import json
+import threading
+import time
+import urllib.error
+import urllib.request
+from collections import Counter
+
+PAYLOAD = json.dumps({
+    "ageRisk": 1, "numOfProducts": 1, "inactivo4070": 1, "productsRiskFlag": 0,
+    "countryRiskFlag": 1, "balance": 120000, "estimatedSalary": 90000,
+    "country": "Germany", "tenure": 3, "isActiveMember": False,
+}).encode()
+
+
+def call(base, path, body=None, token=None):
+    headers = {"Content-Type": "application/json"}
+    if token:
+        headers["Authorization"] = "Bearer " + token
+    request = urllib.request.Request(base + path, data=body, headers=headers,
+                                     method="POST" if body is not None else "GET")
+    try:
+        with urllib.request.urlopen(request, timeout=30) as response:
+            return response.status, response.read(), response.headers
+    except urllib.error.HTTPError as e:
+        return e.code, e.read(), e.headers
+
+
+def login(base, username):
+    password = username + "123"
+    call(base, "/api/auth/register", json.dumps({
+        "username": username, "password": password,
+        "email": username + "@load.local", "fullName": "Load Test",
+    }).encode())
+    status, body, _ = call(base, "/api/auth/login",
+                           json.dumps({"username": username, "password": password}).encode())
+    if status != 200:
+        raise SystemExit("No se pudo autenticar " + username + ": " + body.decode())
+    return json.loads(body)["token"]
+
+
+class Profile:
+    def __init__(self, name):
+        self.name = name
+        self.statuses = Counter()
+        self.latencies = []
+        self.retry_after = Counter()
+        self.lock = threading.Lock()
+
+    def record(self, status, millis, headers):
+        with self.lock:
+            self.statuses[status] += 1
+            if status == 200:
+                self.latencies.append(millis)
+            elif headers.get("Retry-After"):
+                self.retry_after[headers.get("Retry-After")] += 1
+
+    def report(self):
+        lat = sorted(self.latencies)
+
+        def pct(p):
+            return lat[min(len(lat) - 1, int(len(lat) * p))] if lat else 0.0
+
+        print("%-10s requests=%d status=%s" % (self.name, sum(self.statuses.values()), dict(self.statuses)))
+        print("%-10s ok p50=%.1f ms p95=%.1f ms p99=%.1f ms retry-after=%s"
+              % ("", pct(0.50), pct(0.95), pct(0.99), dict(self.retry_after)))
+
+
+def worker(base, token, profile, deadline, pause):
+    while time.time() < deadline:
+        start = time.perf_counter()
+        status, _, headers = call(base, "/api/churn/predict", PAYLOAD, token)
+        profile.record(status, (time.perf_counter() - start) * 1000, headers)
+        if pause:
+            time.sleep(pause)
+
+
+def metric(base, token, name):
+    status, body, _ = call(base, "/actuator/metrics/" + name, token=token)
+    if status != 200:
+        return None
+    return {m["statistic"]: m["value"] for m in json.loads(body)["measurements"]}
+
+
+def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument("--base", default="http://localhost:8080")
+    parser.add_argument("--duration", type=float, default=30)
+    parser.add_argument("--batch-threads", type=int, default=16)
+    parser.add_argument("--dashboard-pause", type=float, default=0.5)
+    args = parser.parse_args()
+
+    batch_token = login(args.base, "loadbatch")
+    dashboard_token = login(args.base, "loaddashboard")
+    batch, dashboard = Profile("batch"), Profile("dashboard")
+    deadline = time.time() + args.duration
+
+    threads = [threading.Thread(target=worker, args=(args.base, batch_token, batch, deadline, 0))
+               for _ in range(args.batch_threads)]
+    threads.append(threading.Thread(target=worker,
+                                    args=(args.base, dashboard_token, dashboard, deadline, args.dashboard_pause)))
+    for t in threads:
+        t.start()
+    for t in threads:
+        t.join()
+
+    batch.report()
+    dashboard.report()
+    print("limit     ", metric(args.base, dashboard_token, "churn.predict.concurrency.limit"))
+    print("rejected  ", metric(args.base, dashboard_token, "churn.predict.rejected"))
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+# Benchmark de arranque: tiempo hasta readiness, tiempo hasta la primera predicción y
+# RSS del proceso, en modo normal y en modo fast-start (AOT + CDS).
+#
+# Requisitos: MySQL disponible (DB_URL/DB_USERNAME/DB_PASSWORD) y el build previo:
+#   mvn -Pfast-start package
+# Uso:
+#   scripts/startup-benchmark.sh [repeticiones]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-3}"
+PORT="${BENCH_PORT:-8089}"
+BASE="http://localhost:${PORT}"
+JAR="backend-java-0.0.1-SNAPSHOT.jar"
+BENCH_USER="startupbench"
+BENCH_PASS="startupbench123"
+# Segundos máximos de espera a readiness por arranque
+READY_TIMEOUT_S="${BENCH_READY_TIMEOUT:-180}"
+
+# El scoring local evita depender del servicio Python durante la medición
+export CHURN_MODEL_SOURCE="${CHURN_MODEL_SOURCE:-registry}"
+
+now_ms() { date +%s%3N; }
+
+rss_kb() { awk '/VmRSS/ {print $2}' "/proc/$1/status"; }
+
+# Espera a que readiness responda UP; falla si la JVM termina o se agota el tiempo
+wait_ready() {
+  local pid="$1" deadline
+  deadline=$(( $(now_ms) + READY_TIMEOUT_S * 1000 ))
+  until curl -sf "${BASE}/actuator/health/readiness" >/dev/null 2>&1; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "La JVM terminó antes de estar lista (revisar DB_URL y el build fast-start)" >&2
+      exit 1
+    fi
+    if (( $(now_ms) > deadline )); then
+      echo "Readiness no respondió en ${READY_TIMEOUT_S} s" >&2
+      kill "$pid" 2>/dev/null || true
+      exit 1
+    fi
+    sleep 0.05
+  done
+}
+
+first_prediction() {
+  curl -s -o /dev/null -X POST "${BASE}/api/auth/register" -H 'Content-Type: application/json' \
+    -d "{\"username\":\"${BENCH_USER}\",\"password\":\"${BENCH_PASS}\",\"email\":\"${BENCH_USER}@bench.local\",\"fullName\":\"Startup Bench\"}" || true
+  local token
+  token=$(curl -sf -X POST "${BASE}/api/auth/login" -H 'Content-Type: application/json' \
+    -d "{\"username\":\"${BENCH_USER}\",\"password\":\"${BENCH_PASS}\"}" | sed -E 's/.*"token":"([^"]+)".*/\1/')
+  curl -sf -o /dev/null -X POST "${BASE}/api/churn/predict" \
+    -H "Authorization: Bearer ${token}" -H 'Content-Type: application/json' \
+    -d '{"ageRisk":1,"numOfProducts":1,"inactivo4070":1,"productsRiskFlag":0,"countryRiskFlag":1,"balance":120000,"estimatedSalary":90000,"country":"Germany","tenure":3,"isActiveMember":false}'
+}
+
+run_mode() {
+  local mode="$1"; shift
+  local dir="$1"; shift
+  local start ready first rss pid
+  start=$(now_ms)
+  (cd "$dir" && exec java "$@" -Dserver.port="${PORT}" -Dchurn-model.pmml-path=file:"$(pwd -P)"/../../../data-science/modelo_churn_banco.pmml \
+      -Dwarmup.csv-path=file:"$(pwd -P)"/../../../data-science/Banco_Churn.csv -jar "$JAR" >/dev/null 2>&1) &
+  pid=$!
+  wait_ready "$pid"
+  ready=$(now_ms)
+  first_prediction
+  first=$(now_ms)
+  rss=$(rss_kb "$pid")
+  kill "$pid" 2>/dev/null || true
+  wait "$pid" 2>/dev/null || true
+  printf '%-10s ready=%6d ms  first-prediction=%6d ms  rss=%7d KB\n' \
+    "$mode" $((ready - start)) $((first - start)) "$rss"
+}
+
+for i in $(seq 1 "$RUNS"); do
+  run_mode normal target/fast-start
+  run_mode fast-start target/fast-start \
+    -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=faststart
+done
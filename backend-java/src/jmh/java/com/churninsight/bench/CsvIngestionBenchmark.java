@@ -0,0 +1,81 @@
+package com.churninsight.bench;
+
+import com.churninsight.service.CsvIngestionService;
+import com.churninsight.service.TreeEnsembleModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingesta mapeada de un extracto de 1M filas (Banco_Churn.csv replicado) con distintos
+ * números de workers. El tiempo por operación es el de todo el archivo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class CsvIngestionBenchmark {
+
+    private static final int REPLICAS = 100;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private Path csv;
+    private TreeEnsembleModel model;
+    private CsvIngestionService service;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = Files.newInputStream(Paths.get("../data-science/modelo_churn_banco.pmml"))) {
+            model = TreeEnsembleModel.fromPmml(in);
+        } catch (Exception e) {
+            throw new IOException("No se pudo compilar el modelo: " + e.getMessage(), e);
+        }
+        List<String> lines = Files.readAllLines(Paths.get("../data-science/Banco_Churn.csv"), StandardCharsets.UTF_8);
+        csv = Files.createTempFile("ingestion-bench-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write(lines.get(0));
+            writer.newLine();
+            for (int r = 0; r < REPLICAS; r++) {
+                for (int i = 1; i < lines.size(); i++) {
+                    writer.write(lines.get(i));
+                    writer.newLine();
+                }
+            }
+        }
+        service = new CsvIngestionService(null, 4 * 1024 * 1024, parallelism);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csv);
+    }
+
+    @Benchmark
+    public CsvIngestionService.Summary ingestMillionRows() throws IOException {
+        return service.score(csv, model, OutputStream.nullOutputStream());
+    }
+}
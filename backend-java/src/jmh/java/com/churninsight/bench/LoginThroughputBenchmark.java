@@ -0,0 +1,106 @@
+package com.churninsight.bench;
+
+import com.churninsight.security.AdaptiveBCryptPasswordEncoder;
+import com.churninsight.security.PasswordVerificationExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ráfaga de logins concurrentes (15 hilos, como hilos de Tomcat) junto a un hilo que
+ * hace trabajo de CPU corto, representante de una predicción.
+ *
+ * {@code direct} verifica BCrypt en los hilos que llaman (comportamiento anterior);
+ * {@code pool} lo hace en {@link PasswordVerificationExecutor}. Comparar el throughput de
+ * {@code predict} entre grupos muestra cuánto CPU le quitan los logins; los logins
+ * rechazados por cola llena cuentan como operaciones (se responden con 503 en el acto).
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginThroughputBenchmark {
+
+    private static final String PASSWORD = "contraseña-de-prueba";
+
+    @Param({"10"})
+    private int cost;
+
+    @Param({"2"})
+    private int poolThreads;
+
+    private AdaptiveBCryptPasswordEncoder encoder;
+    private PasswordVerificationExecutor executor;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new AdaptiveBCryptPasswordEncoder(cost);
+        hash = encoder.encode(PASSWORD);
+        executor = new PasswordVerificationExecutor(poolThreads, 64, 3000, new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @Group("direct")
+    @GroupThreads(15)
+    public boolean directLogin() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    @Group("direct")
+    @GroupThreads(1)
+    public double directPredict() {
+        return predictionWork();
+    }
+
+    @Benchmark
+    @Group("pool")
+    @GroupThreads(15)
+    public boolean pooledLogin() {
+        try {
+            return executor.submit(() -> encoder.matches(PASSWORD, hash)).join();
+        } catch (RejectedExecutionException | CompletionException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    @Group("pool")
+    @GroupThreads(1)
+    public double pooledPredict() {
+        return predictionWork();
+    }
+
+    // Unos microsegundos de CPU, del orden de un scoring local
+    private static double predictionWork() {
+        double acc = 0.0;
+        for (int i = 1; i <= 2000; i++) {
+            acc += Math.sqrt(i) / i;
+        }
+        return acc;
+    }
+}
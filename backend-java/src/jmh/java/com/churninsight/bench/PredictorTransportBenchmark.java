@@ -0,0 +1,83 @@
+package com.churninsight.bench;
+
+import com.churninsight.service.UdsPredictorClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de una predicción contra el predictor Python por HTTP/JSON (como
+ * {@code ChurnModelClient} hasta ahora) y por el protocolo binario sobre socket Unix.
+ *
+ * Requiere el predictor corriendo con ambos transportes:
+ * {@code PREDICTOR_UDS_PATH=/tmp/churn-predictor.sock uvicorn predictor_fastapi:app}.
+ * Con 8 hilos se ve además el efecto del pipeline sobre las conexiones persistentes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class PredictorTransportBenchmark {
+
+    private static final double[] FEATURES = {1.0, 1.0, 0.0, 0.0, 1.0};
+
+    @Param({"http://localhost:8000"})
+    private String url;
+
+    @Param({"/tmp/churn-predictor.sock"})
+    private String udsPath;
+
+    @Param({"2"})
+    private int connections;
+
+    private RestTemplate rest;
+    private HttpEntity<Map<String, Object>> body;
+    private UdsPredictorClient uds;
+
+    @Setup
+    public void setUp() {
+        rest = new RestTemplate();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        body = new HttpEntity<>(Map.of("features", List.of(1.0, 1.0, 0.0, 0.0, 1.0)), headers);
+        uds = new UdsPredictorClient(udsPath, connections, 2000, new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        uds.close();
+    }
+
+    @Benchmark
+    @SuppressWarnings("rawtypes")
+    public Object http() {
+        return rest.postForEntity(url + "/predict", body, Map.class).getBody().get("probability");
+    }
+
+    @Benchmark
+    public double uds() {
+        return uds.predict(FEATURES, 1)[0];
+    }
+}
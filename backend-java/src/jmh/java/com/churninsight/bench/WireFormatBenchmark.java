@@ -0,0 +1,121 @@
+package com.churninsight.bench;
+
+import com.churninsight.controller.ChurnBinaryCodec;
+import com.churninsight.controller.ChurnPredictionRequest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de decodificar un lote de requests y codificar sus respuestas con Jackson
+ * (lo que hace hoy el endpoint JSON) frente a {@link ChurnBinaryCodec}.
+ * No incluye scoring ni persistencia: solo el formato de transporte.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<ChurnPredictionRequest>> REQUEST_LIST = new TypeReference<>() {
+    };
+    private static final String[] COUNTRIES = {"France", "Spain", "Germany"};
+
+    @Param({"1", "1000"})
+    private int records;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 16);
+    private byte[] jsonRequests;
+    private byte[] binaryRequests;
+    private double[] probabilities;
+    private String[] customerIds;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        List<ChurnPredictionRequest> requests = new ArrayList<>(records);
+        probabilities = new double[records];
+        customerIds = new String[records];
+        for (int i = 0; i < records; i++) {
+            ChurnPredictionRequest request = new ChurnPredictionRequest();
+            int products = 1 + random.nextInt(4);
+            boolean ageRisk = random.nextBoolean();
+            boolean active = random.nextBoolean();
+            String country = COUNTRIES[random.nextInt(COUNTRIES.length)];
+            request.setAgeRisk(ageRisk ? 1.0 : 0.0);
+            request.setNumOfProducts((double) products);
+            request.setInactivo4070(ageRisk && !active ? 1.0 : 0.0);
+            request.setProductsRiskFlag(products >= 3 ? 1.0 : 0.0);
+            request.setCountryRiskFlag("Germany".equals(country) ? 1.0 : 0.0);
+            request.setBalance(random.nextDouble() * 250_000);
+            request.setEstimatedSalary(random.nextDouble() * 200_000);
+            request.setCountry(country);
+            request.setTenure(random.nextInt(11));
+            request.setIsActiveMember(active);
+            requests.add(request);
+            probabilities[i] = random.nextDouble();
+            customerIds[i] = Integer.toHexString(random.nextInt());
+        }
+        jsonRequests = objectMapper.writeValueAsBytes(requests);
+
+        ChurnBinaryCodec.RequestWriter writer = new ChurnBinaryCodec.RequestWriter(out);
+        for (ChurnPredictionRequest request : requests) {
+            writer.write(request);
+        }
+        binaryRequests = out.toByteArray();
+    }
+
+    @Benchmark
+    public void jsonRoundTrip(Blackhole bh) throws IOException {
+        List<ChurnPredictionRequest> requests = objectMapper.readValue(jsonRequests, REQUEST_LIST);
+        List<Map<String, Object>> responses = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            bh.consume(requests.get(i));
+            Map<String, Object> response = new HashMap<>();
+            response.put("churn_probability", probabilities[i]);
+            response.put("customer_id", customerIds[i]);
+            responses.add(response);
+        }
+        bh.consume(objectMapper.writeValueAsBytes(responses));
+    }
+
+    @Benchmark
+    public void binaryRoundTrip(Blackhole bh) throws IOException {
+        ChurnBinaryCodec.RequestReader reader =
+            new ChurnBinaryCodec.RequestReader(new ByteArrayInputStream(binaryRequests));
+        out.reset();
+        ChurnBinaryCodec.ResponseWriter writer = new ChurnBinaryCodec.ResponseWriter(out);
+        ChurnPredictionRequest request;
+        int i = 0;
+        while ((request = reader.next()) != null) {
+            bh.consume(request);
+            writer.write(probabilities[i], customerIds[i]);
+            i++;
+        }
+        bh.consume(out.size());
+    }
+}
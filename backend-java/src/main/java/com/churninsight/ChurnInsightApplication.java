@@ -2,12 +2,14 @@ package com.churninsight;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Clase principal para iniciar la aplicación ChurnInsight con Spring Boot.
  * Sigue las mejores prácticas y estilo profesional.
  */
 @SpringBootApplication
+@EnableScheduling
 public class ChurnInsightApplication {
     public static void main(String[] args) {
         SpringApplication.run(ChurnInsightApplication.class, args);
@@ -0,0 +1,99 @@
+package com.churninsight.client;
+
+import com.churninsight.controller.ChurnBinaryCodec;
+import com.churninsight.controller.ChurnPredictionRequest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cliente de referencia del formato binario de predicción ({@link ChurnBinaryCodec}).
+ *
+ * Los requests se codifican mientras se envían y las respuestas se procesan a medida que
+ * llegan, así que un lote grande no se materializa completo en memoria de ningún lado.
+ * Las respuestas llegan en el mismo orden que los requests. Los requests con
+ * {@code customerId} se siguen por cliente (tendencias y alertas) como los de JSON.
+ *
+ * <pre>
+ * ChurnBinaryClient client = new ChurnBinaryClient("http://localhost:8080", token);
+ * client.predictBatch(requests.iterator(), (index, probability, status, text) -> ...);
+ * </pre>
+ */
+public class ChurnBinaryClient {
+
+    /**
+     * Recibe cada resultado. {@code text} es el customer_id si {@code status} es
+     * {@link ChurnBinaryCodec#STATUS_OK} y el mensaje de error en otro caso.
+     */
+    @FunctionalInterface
+    public interface ResultHandler {
+        void onResult(long index, double probability, int status, String text);
+    }
+
+    private final HttpClient http = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    private final String baseUrl;
+    private final String token;
+
+    public ChurnBinaryClient(String baseUrl, String token) {
+        this.baseUrl = baseUrl;
+        this.token = token;
+    }
+
+    /**
+     * Envía los requests a {@code /api/churn/predict/batch} y devuelve cuántos resultados llegaron.
+     */
+    public long predictBatch(Iterator<ChurnPredictionRequest> requests, ResultHandler handler)
+            throws IOException, InterruptedException {
+        PipedInputStream body = new PipedInputStream(64 * 1024);
+        PipedOutputStream pipe = new PipedOutputStream(body);
+
+        // El cuerpo se escribe en otro hilo mientras el HttpClient lo consume
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            try (OutputStream out = new BufferedOutputStream(pipe, 8192)) {
+                ChurnBinaryCodec.RequestWriter encoder = new ChurnBinaryCodec.RequestWriter(out);
+                while (requests.hasNext()) {
+                    encoder.write(requests.next());
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Error enviando el lote: " + e.getMessage(), e);
+            }
+        });
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/churn/predict/batch"))
+            .header("Authorization", "Bearer " + token)
+            .header("Content-Type", ChurnBinaryCodec.MEDIA_TYPE)
+            .header("Accept", ChurnBinaryCodec.MEDIA_TYPE)
+            .POST(HttpRequest.BodyPublishers.ofInputStream(() -> body))
+            .build();
+        HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+        try (InputStream in = new BufferedInputStream(response.body(), 8192)) {
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP " + response.statusCode() + ": "
+                    + new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            ChurnBinaryCodec.ResponseReader decoder = new ChurnBinaryCodec.ResponseReader(in);
+            long index = 0;
+            while (decoder.next()) {
+                handler.onResult(index++, decoder.probability(), decoder.status(), decoder.text());
+            }
+            writer.join();
+            return index;
+        }
+    }
+}
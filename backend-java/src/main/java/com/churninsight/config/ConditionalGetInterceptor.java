@@ -0,0 +1,48 @@
+package com.churninsight.config;
+
+import com.churninsight.service.DataVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * GET condicional del historial y las estadísticas: el ETag sale de {@link DataVersions}
+ * y, si coincide con {@code If-None-Match}, se responde 304 sin llegar al controlador
+ * (ni a la base).
+ *
+ * El ETag se calcula antes de consultar: si entra una predicción durante la consulta, la
+ * respuesta puede ser más nueva que su ETag y el próximo poll la descarga de nuevo, pero
+ * nunca se sirve un 304 con datos viejos.
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    @Value("${conditional-get.enabled:true}")
+    private boolean enabled;
+
+    private final DataVersions dataVersions;
+
+    public ConditionalGetInterceptor(DataVersions dataVersions) {
+        this.dataVersions = dataVersions;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || !"GET".equals(request.getMethod())) {
+            return true;
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String username = auth != null ? auth.getName() : "anonymous";
+        String fields = request.getParameter("fields");
+        String etag = dataVersions.etag(username, request.getRequestURI() + (fields != null ? "?" + fields : ""));
+        // El navegador guarda la respuesta pero la revalida en cada poll
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
@@ -0,0 +1,36 @@
+package com.churninsight.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parámetros de la búsqueda contrafactual: umbral objetivo por defecto y costo
+ * por unidad de cambio de cada variable accionable.
+ */
+@Component
+@ConfigurationProperties(prefix = "counterfactual")
+public class CounterfactualProperties {
+
+    private double defaultTarget = 0.5;
+
+    private Map<String, Double> costs = new LinkedHashMap<>();
+
+    public double getDefaultTarget() {
+        return defaultTarget;
+    }
+
+    public void setDefaultTarget(double defaultTarget) {
+        this.defaultTarget = defaultTarget;
+    }
+
+    public Map<String, Double> getCosts() {
+        return costs;
+    }
+
+    public void setCosts(Map<String, Double> costs) {
+        this.costs = costs;
+    }
+}
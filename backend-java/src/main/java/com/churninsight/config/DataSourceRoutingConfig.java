@@ -0,0 +1,87 @@
+package com.churninsight.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Dos pools Hikari: el primario ({@code spring.datasource}) para escrituras y el de
+ * lectura ({@code datasource.read}) para las transacciones de solo lectura (historial,
+ * estadísticas, KPIs). Así las consultas pesadas del dashboard no agotan las conexiones
+ * de {@code /api/churn/predict}. Sin {@code datasource.read.url} el pool de lectura apunta
+ * a la misma base; con una réplica se activa la guarda de lag de
+ * {@link ReadWriteRoutingDataSource}.
+ *
+ * Cada pool publica sus métricas {@code hikaricp.*} con su nombre (primary, read).
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.read.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceRoutingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceRoutingConfig.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.read.hikari")
+    public HikariDataSource readDataSource(DataSourceProperties properties,
+                                           @Value("${datasource.read.url:}") String url,
+                                           @Value("${datasource.read.username:}") String username,
+                                           @Value("${datasource.read.password:}") String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (!url.isBlank()) {
+            dataSource.setJdbcUrl(url);
+            // Una réplica rechaza escrituras; el pool lo declara para que el driver lo sepa
+            dataSource.setReadOnly(true);
+        }
+        if (!username.isBlank()) {
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+        }
+        dataSource.setPoolName(ReadWriteRoutingDataSource.READ);
+        return dataSource;
+    }
+
+    /**
+     * DataSource que usan JPA y el resto de la aplicación.
+     *
+     * @param maxLagMillis margen tras una escritura en que las lecturas del mismo actor
+     *                     siguen en el primario; solo aplica con réplica
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("readDataSource") DataSource read,
+                                 @Value("${datasource.read.url:}") String replicaUrl,
+                                 @Value("${datasource.read.max-lag-ms:2000}") long maxLagMillis,
+                                 MeterRegistry meterRegistry) {
+        boolean replica = !replicaUrl.isBlank();
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(replica ? maxLagMillis : 0, meterRegistry);
+        routing.setTargetDataSources(Map.of(ReadWriteRoutingDataSource.PRIMARY, primary,
+            ReadWriteRoutingDataSource.READ, read));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        logger.info("[DataSourceRouting] Lecturas en pool separado ({}), guarda de lag {} ms",
+            replica ? "réplica" : "misma base", replica ? maxLagMillis : 0);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,23 @@
+package com.churninsight.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Perfil de arranque rápido: con lazy-initialization activa, los beans propios de la
+ * aplicación (y por dependencia JPA, seguridad y el modelo) se siguen creando en el
+ * arranque para que la primera predicción no pague su inicialización. El resto
+ * (springdoc, infraestructura no usada en el camino de predicción) se difiere.
+ */
+@Configuration
+@Profile("faststart")
+public class FastStartConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter applicationBeansEager() {
+        return (beanName, beanDefinition, beanType) ->
+            beanType != null && beanType.getName().startsWith("com.churninsight.");
+    }
+}
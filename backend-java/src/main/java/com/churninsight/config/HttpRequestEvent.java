@@ -0,0 +1,29 @@
+package com.churninsight.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Un request instrumentado completo; sus etapas son los {@link RequestStageEvent} del
+ * mismo hilo dentro de su intervalo.
+ */
+@Name("com.churninsight.HttpRequest")
+@Label("HTTP Request")
+@Category({"ChurnInsight", "HTTP"})
+@Description("Request a un endpoint instrumentado, de la entrada del filtro al final de la respuesta")
+@StackTrace(false)
+class HttpRequestEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Status")
+    int status;
+
+    @Label("User")
+    String username;
+}
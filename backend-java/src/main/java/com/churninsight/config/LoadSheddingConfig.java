@@ -0,0 +1,40 @@
+package com.churninsight.config;
+
+import com.churninsight.service.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Límites de concurrencia del camino de predicción: uno para {@code /api/churn/predict} y
+ * otro, con su propio umbral de latencia, para {@code /api/churn/predict/batch}. Así un lote
+ * lento baja solo el límite de los lotes y no el de las predicciones interactivas.
+ */
+@Configuration
+public class LoadSheddingConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter predictConcurrencyLimiter(
+            @Value("${load-shedding.concurrency.initial-limit:20}") int initialLimit,
+            @Value("${load-shedding.concurrency.min-limit:4}") int minLimit,
+            @Value("${load-shedding.concurrency.max-limit:200}") int maxLimit,
+            @Value("${load-shedding.concurrency.latency-threshold-ms:500}") long latencyThresholdMillis,
+            @Value("${load-shedding.concurrency.backoff-ratio:0.9}") double backoffRatio,
+            MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter("predict", initialLimit, minLimit, maxLimit, latencyThresholdMillis,
+            backoffRatio, meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter batchConcurrencyLimiter(
+            @Value("${load-shedding.batch-concurrency.initial-limit:4}") int initialLimit,
+            @Value("${load-shedding.batch-concurrency.min-limit:1}") int minLimit,
+            @Value("${load-shedding.batch-concurrency.max-limit:16}") int maxLimit,
+            @Value("${load-shedding.batch-concurrency.latency-threshold-ms:30000}") long latencyThresholdMillis,
+            @Value("${load-shedding.batch-concurrency.backoff-ratio:0.9}") double backoffRatio,
+            MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter("batch", initialLimit, minLimit, maxLimit, latencyThresholdMillis,
+            backoffRatio, meterRegistry);
+    }
+}
@@ -0,0 +1,102 @@
+package com.churninsight.config;
+
+import com.churninsight.service.AdaptiveConcurrencyLimiter;
+import com.churninsight.service.UserRateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Control de admisión del camino de predicción: primero el token bucket del usuario
+ * (429) y después el límite de concurrencia adaptativo (503). Ambos rechazos son
+ * inmediatos e incluyen Retry-After. Los lotes tienen su propio límite de concurrencia
+ * ({@link LoadSheddingConfig}); el resto de sus registros se cobra al usuario en el
+ * controlador, cuando se conoce el tamaño del lote.
+ */
+@Component
+public class LoadSheddingInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadSheddingInterceptor.class);
+
+    private static final String START_ATTRIBUTE = LoadSheddingInterceptor.class.getName() + ".start";
+    private static final String LIMITER_ATTRIBUTE = LoadSheddingInterceptor.class.getName() + ".limiter";
+
+    @Value("${load-shedding.enabled:true}")
+    private boolean enabled;
+
+    @Value("${load-shedding.concurrency.retry-after-seconds:1}")
+    private long concurrencyRetryAfterSeconds;
+
+    private final AdaptiveConcurrencyLimiter predictLimiter;
+    private final AdaptiveConcurrencyLimiter batchLimiter;
+    private final UserRateLimiter userRateLimiter;
+
+    public LoadSheddingInterceptor(@Qualifier("predictConcurrencyLimiter") AdaptiveConcurrencyLimiter predictLimiter,
+                                   @Qualifier("batchConcurrencyLimiter") AdaptiveConcurrencyLimiter batchLimiter,
+                                   UserRateLimiter userRateLimiter) {
+        this.predictLimiter = predictLimiter;
+        this.batchLimiter = batchLimiter;
+        this.userRateLimiter = userRateLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!enabled || "OPTIONS".equals(request.getMethod())) {
+            return true;
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String username = auth != null ? auth.getName() : "anonymous";
+
+        long wait = userRateLimiter.tryAcquire(username);
+        if (wait > 0) {
+            logger.debug("[LoadShedding] Límite por usuario excedido: {}", username);
+            reject(response, 429, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999)),
+                "Demasiadas predicciones para el usuario, reintente más tarde");
+            return false;
+        }
+        AdaptiveConcurrencyLimiter limiter = request.getRequestURI().endsWith("/batch")
+            ? batchLimiter : predictLimiter;
+        if (!limiter.tryAcquire()) {
+            logger.debug("[LoadShedding] Límite de concurrencia alcanzado ({})", (int) limiter.getLimit());
+            reject(response, 503, concurrencyRetryAfterSeconds,
+                "Servicio de predicción saturado, reintente más tarde");
+            return false;
+        }
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        request.setAttribute(LIMITER_ATTRIBUTE, limiter);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start != null) {
+            request.removeAttribute(START_ATTRIBUTE);
+            AdaptiveConcurrencyLimiter limiter = (AdaptiveConcurrencyLimiter) request.getAttribute(LIMITER_ATTRIBUTE);
+            limiter.release(System.nanoTime() - (Long) start, ex != null || response.getStatus() >= 500);
+        }
+    }
+
+    private static void reject(HttpServletResponse response, int status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,27 @@
+package com.churninsight.config;
+
+import com.churninsight.security.AdaptiveBCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Encoder de contraseñas. Separado de {@link SecurityConfig} para que UserService no
+ * dependa de la cadena de filtros (la dependencia circular rompe el arranque con AOT).
+ *
+ * Con {@code security.bcrypt.cost} en 0 el costo se calibra al arrancar para que un hash
+ * tarde cerca de {@code target-ms}.
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.cost:0}") int cost,
+                                           @Value("${security.bcrypt.target-ms:250}") long targetMillis,
+                                           @Value("${security.bcrypt.min-cost:10}") int minCost,
+                                           @Value("${security.bcrypt.max-cost:14}") int maxCost) {
+        int effectiveCost = cost > 0 ? cost : AdaptiveBCryptPasswordEncoder.calibrate(targetMillis, minCost, maxCost);
+        return new AdaptiveBCryptPasswordEncoder(effectiveCost);
+    }
+}
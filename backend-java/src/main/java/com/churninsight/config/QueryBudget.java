@@ -0,0 +1,111 @@
+package com.churninsight.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Contadores de SQL del request en curso, alimentados por el {@link QueryCountingDataSource}
+ * (toda sentencia JDBC: Hibernate, JdbcTemplate) y el interceptor de entidades de
+ * {@link QueryBudgetConfig}. El alcance lo abre {@link QueryBudgetFilter}; sin alcance
+ * abierto los hooks no hacen nada.
+ */
+public final class QueryBudget {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private QueryBudget() {
+    }
+
+    static void onStatement(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.statement(sql);
+        }
+    }
+
+    static void onEntityLoaded() {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.entities++;
+        }
+    }
+
+    static Scope current() {
+        return CURRENT.get();
+    }
+
+    static void open(Scope scope) {
+        CURRENT.set(scope);
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Ejecuta {@code task} en otro hilo contando dentro del alcance del request que lo
+     * envía (por ejemplo el login en el pool de BCrypt).
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return task;
+        }
+        return () -> {
+            CURRENT.set(scope);
+            try {
+                return task.get();
+            } finally {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    /**
+     * Contadores de un request. Lo usa un hilo a la vez (el del request o, tras
+     * {@link #propagate}, el del pool).
+     */
+    static final class Scope {
+
+        final String endpoint;
+        final QueryBudgetProperties.Endpoint budget;
+        final int repeatedSelectLimit;
+        int statements;
+        int entities;
+        private final Map<String, Integer> selects = new HashMap<>();
+        private String repeatedSelect;
+
+        Scope(String endpoint, QueryBudgetProperties.Endpoint budget, int repeatedSelectLimit) {
+            this.endpoint = endpoint;
+            this.budget = budget;
+            this.repeatedSelectLimit = repeatedSelectLimit;
+        }
+
+        private void statement(String sql) {
+            statements++;
+            // El SQL preparado ya viene parametrizado: el mismo texto es la misma consulta
+            if (repeatedSelect == null && sql.regionMatches(true, 0, "select", 0, 6)
+                    && selects.merge(sql, 1, Integer::sum) > repeatedSelectLimit) {
+                repeatedSelect = sql;
+            }
+        }
+
+        /**
+         * Descripción del primer exceso (n+1, sentencias, entidades), o null si no hubo.
+         */
+        String violation() {
+            if (repeatedSelect != null) {
+                return "n+1: el mismo SELECT se ejecutó más de " + repeatedSelectLimit + " veces: "
+                    + (repeatedSelect.length() > 200 ? repeatedSelect.substring(0, 200) + "..." : repeatedSelect);
+            }
+            if (budget.getStatements() > 0 && statements > budget.getStatements()) {
+                return "statements: " + statements + " sentencias, presupuesto " + budget.getStatements();
+            }
+            if (budget.getEntities() > 0 && entities > budget.getEntities()) {
+                return "entities: " + entities + " entidades cargadas, presupuesto " + budget.getEntities();
+            }
+            return null;
+        }
+    }
+}
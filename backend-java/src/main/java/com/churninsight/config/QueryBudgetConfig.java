@@ -0,0 +1,52 @@
+package com.churninsight.config;
+
+import org.hibernate.Interceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Hooks que alimentan {@link QueryBudget}: el DataSource de la aplicación envuelto en un
+ * {@link QueryCountingDataSource}, que ve cada sentencia JDBC (Hibernate y JdbcTemplate),
+ * y un {@link Interceptor} de Hibernate por cada entidad cargada.
+ */
+@Configuration
+@ConditionalOnProperty(name = "query-budget.enabled", havingValue = "true")
+public class QueryBudgetConfig {
+
+    // Solo el DataSource que usan JPA y JdbcTemplate; los pools de DataSourceRoutingConfig quedan sin envolver
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new QueryCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryBudgetHooks() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.INTERCEPTOR, new EntityLoadCounter());
+    }
+
+    private static final class EntityLoadCounter implements Interceptor {
+
+        @Override
+        public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+            QueryBudget.onEntityLoaded();
+            return false;
+        }
+    }
+}
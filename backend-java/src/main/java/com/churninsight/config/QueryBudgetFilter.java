@@ -0,0 +1,128 @@
+package com.churninsight.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Presupuesto de consultas por endpoint. Cuenta las sentencias SQL y las entidades que
+ * carga cada request de los endpoints configurados en {@code query-budget.endpoints}
+ * (incluida la consulta del usuario que hace el filtro JWT), publica ambas cifras como
+ * métricas y detecta excesos: más sentencias o entidades que el presupuesto (una carga del
+ * historial completo) o el mismo SELECT repetido (N+1).
+ *
+ * Un exceso solo se registra y cuenta en {@code churn.db.budget_violations}; nunca cambia
+ * la respuesta. Los presupuestos se hacen cumplir en los tests de integración
+ * ({@code QueryBudgetIntegrationTest}). Reemplaza a {@code show-sql} como visibilidad de la
+ * capa de persistencia en producción.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final QueryBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public QueryBudgetFilter(QueryBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Map.Entry<String, QueryBudgetProperties.Endpoint> endpoint = properties.isEnabled() ? match(request) : null;
+        if (endpoint == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        QueryBudget.Scope scope = new QueryBudget.Scope(endpoint.getKey(), endpoint.getValue(),
+            properties.getRepeatedSelectLimit());
+        QueryBudget.open(scope);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryBudget.close();
+        }
+        if (request.isAsyncStarted()) {
+            // El trabajo sigue en otro hilo (login, con QueryBudget.propagate): las métricas
+            // se publican al completar
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    finish(scope);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+            return;
+        }
+        finish(scope);
+    }
+
+    private Map.Entry<String, QueryBudgetProperties.Endpoint> match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, QueryBudgetProperties.Endpoint> entry : properties.getEndpoints().entrySet()) {
+            QueryBudgetProperties.Endpoint budget = entry.getValue();
+            if (budget.getPath() != null && budget.getMethod().equalsIgnoreCase(request.getMethod())
+                    && pathMatcher.match(budget.getPath(), path)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    // Publica las métricas del request y registra el exceso, si hubo
+    private void finish(QueryBudget.Scope scope) {
+        DistributionSummary.builder("churn.db.statements")
+            .description("Sentencias SQL por request")
+            .tag("endpoint", scope.endpoint)
+            .register(meterRegistry)
+            .record(scope.statements);
+        DistributionSummary.builder("churn.db.entities")
+            .description("Entidades cargadas por request")
+            .tag("endpoint", scope.endpoint)
+            .register(meterRegistry)
+            .record(scope.entities);
+        String violation = scope.violation();
+        if (violation != null) {
+            Counter.builder("churn.db.budget_violations")
+                .description("Requests que excedieron su presupuesto de consultas")
+                .tag("endpoint", scope.endpoint)
+                .tag("kind", violation.substring(0, violation.indexOf(':')))
+                .register(meterRegistry)
+                .increment();
+            logger.warn("[QueryBudget] {} excedió su presupuesto: {}", scope.endpoint, violation);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.churninsight.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Presupuesto de consultas por endpoint: sentencias SQL y entidades cargadas por request.
+ * Ver {@link QueryBudgetFilter}.
+ */
+@Component
+@ConfigurationProperties(prefix = "query-budget")
+public class QueryBudgetProperties {
+
+    private boolean enabled;
+
+    // Veces que el mismo SELECT puede repetirse en un request antes de considerarlo N+1
+    private int repeatedSelectLimit = 10;
+
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getRepeatedSelectLimit() {
+        return repeatedSelectLimit;
+    }
+
+    public void setRepeatedSelectLimit(int repeatedSelectLimit) {
+        this.repeatedSelectLimit = repeatedSelectLimit;
+    }
+
+    public Map<String, Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Endpoint> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    public static class Endpoint {
+
+        private String method = "GET";
+
+        // Patrón Ant de la ruta, por ejemplo /api/churn/customer/*/history
+        private String path;
+
+        private int statements;
+
+        private int entities;
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public void setStatements(int statements) {
+            this.statements = statements;
+        }
+
+        public int getEntities() {
+            return entities;
+        }
+
+        public void setEntities(int entities) {
+            this.entities = entities;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.churninsight.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enruta las transacciones de solo lectura al pool de lectura y el resto al primario.
+ *
+ * Se envuelve en un {@code LazyConnectionDataSourceProxy}: la conexión real se pide recién
+ * en la primera sentencia, cuando la transacción ya publicó si es de solo lectura.
+ *
+ * Con una réplica, una lectura puede no ver una escritura recién confirmada. Si
+ * {@code maxLagMillis > 0}, las lecturas del mismo actor (usuario autenticado o, sin él,
+ * el hilo) dentro de ese margen desde su última escritura van al primario.
+ */
+final class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String READ = "read";
+
+    private final long maxLagMillis;
+    private final Map<String, Long> lastWriteByActor = new ConcurrentHashMap<>();
+    private final Counter routedPrimary;
+    private final Counter routedRead;
+    private final Counter lagFallbacks;
+
+    ReadWriteRoutingDataSource(long maxLagMillis, MeterRegistry meterRegistry) {
+        this.maxLagMillis = maxLagMillis;
+        this.routedPrimary = route(meterRegistry, PRIMARY);
+        this.routedRead = route(meterRegistry, READ);
+        this.lagFallbacks = Counter.builder("churn.datasource.lag_fallbacks")
+            .description("Lecturas enviadas al primario por una escritura reciente del mismo actor")
+            .register(meterRegistry);
+    }
+
+    private static Counter route(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("churn.datasource.routed")
+            .description("Conexiones pedidas por destino")
+            .tag("target", target)
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            routedPrimary.increment();
+            return PRIMARY;
+        }
+        String actor = currentActor();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (maxLagMillis > 0 && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recordWrite(actor);
+                    }
+                });
+            }
+            routedPrimary.increment();
+            return PRIMARY;
+        }
+        if (maxLagMillis > 0) {
+            Long lastWrite = lastWriteByActor.get(actor);
+            if (lastWrite != null && System.currentTimeMillis() - lastWrite < maxLagMillis) {
+                lagFallbacks.increment();
+                routedPrimary.increment();
+                return PRIMARY;
+            }
+        }
+        routedRead.increment();
+        return READ;
+    }
+
+    private void recordWrite(String actor) {
+        long now = System.currentTimeMillis();
+        lastWriteByActor.put(actor, now);
+        // Las entradas vencidas ya no desvían lecturas
+        if (lastWriteByActor.size() > 1024) {
+            lastWriteByActor.values().removeIf(time -> now - time >= maxLagMillis);
+        }
+    }
+
+    private static String currentActor() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? "user:" + auth.getName() : "thread:" + Thread.currentThread().getName();
+    }
+}
@@ -0,0 +1,26 @@
+package com.churninsight.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Una etapa de un request instrumentado (ver {@link RequestTiming}). Sin una grabación
+ * JFR activa, {@code begin}/{@code commit} no hacen nada.
+ */
+@Name("com.churninsight.RequestStage")
+@Label("Request Stage")
+@Category({"ChurnInsight", "HTTP"})
+@Description("Duración de una etapa de un request: jwt, user, validation, model, insert, query...")
+@StackTrace(false)
+class RequestStageEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Stage")
+    String stage;
+}
@@ -0,0 +1,136 @@
+package com.churninsight.config;
+
+import jdk.jfr.EventType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Desglose por etapas del request en curso. El código instrumentado marca el final de
+ * cada etapa con {@link #lap}: el tiempo desde la marca anterior se suma a esa etapa y se
+ * emite un evento JFR {@link RequestStageEvent}. El alcance lo abre
+ * {@link RequestTimingFilter}; sin alcance abierto (timing deshabilitado o endpoint no
+ * instrumentado) {@code lap} es una lectura de ThreadLocal y nada más.
+ */
+public final class RequestTiming {
+
+    private static final ThreadLocal<Timeline> CURRENT = new ThreadLocal<>();
+
+    // Sin una grabación JFR que lo incluya no se crea el evento de cada etapa
+    private static final EventType STAGE_EVENT = EventType.getEventType(RequestStageEvent.class);
+
+    private RequestTiming() {
+    }
+
+    /**
+     * Cierra la etapa {@code stage}: el tiempo desde la marca anterior se le asigna. Una
+     * etapa marcada varias veces acumula.
+     */
+    public static void lap(String stage) {
+        Timeline timeline = CURRENT.get();
+        if (timeline != null) {
+            timeline.lap(stage);
+        }
+    }
+
+    static Timeline current() {
+        return CURRENT.get();
+    }
+
+    static void open(Timeline timeline) {
+        CURRENT.set(timeline);
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Etapas de un request, en orden de primera aparición. Lo usa solo el hilo del request.
+     */
+    static final class Timeline {
+
+        private static final int MAX_STAGES = 16;
+
+        final String endpoint;
+        final long startNanos;
+        String username;
+        private final String[] names = new String[MAX_STAGES];
+        private final long[] nanos = new long[MAX_STAGES];
+        private int size;
+        private long lastNanos;
+        private RequestStageEvent event;
+
+        Timeline(String endpoint) {
+            this.endpoint = endpoint;
+            this.startNanos = System.nanoTime();
+            this.lastNanos = startNanos;
+            this.event = begin();
+        }
+
+        void lap(String stage) {
+            long now = System.nanoTime();
+            add(stage, now - lastNanos);
+            lastNanos = now;
+            if (event != null) {
+                event.stage = stage;
+                event.commit();
+            }
+            event = begin();
+        }
+
+        // null si el evento no está habilitado en ninguna grabación
+        private RequestStageEvent begin() {
+            if (!STAGE_EVENT.isEnabled()) {
+                return null;
+            }
+            RequestStageEvent next = new RequestStageEvent();
+            next.endpoint = endpoint;
+            next.begin();
+            return next;
+        }
+
+        private void add(String stage, long elapsed) {
+            for (int i = 0; i < size; i++) {
+                if (names[i].equals(stage)) {
+                    nanos[i] += elapsed;
+                    return;
+                }
+            }
+            if (size < MAX_STAGES) {
+                names[size] = stage;
+                nanos[size++] = elapsed;
+            }
+        }
+
+        long elapsedNanos() {
+            return System.nanoTime() - startNanos;
+        }
+
+        /**
+         * Valor del header {@code Server-Timing}: cada etapa hasta ahora más el total.
+         */
+        String serverTiming() {
+            StringBuilder header = new StringBuilder(24 * (size + 1));
+            for (int i = 0; i < size; i++) {
+                appendMetric(header, names[i], nanos[i]).append(", ");
+            }
+            return appendMetric(header, "total", elapsedNanos()).toString();
+        }
+
+        private static StringBuilder appendMetric(StringBuilder header, String name, long nanos) {
+            return header.append(name).append(";dur=").append(Math.round(nanos / 1_000.0) / 1_000.0);
+        }
+
+        /**
+         * Milisegundos por etapa, en orden.
+         */
+        Map<String, Double> stagesMillis() {
+            Map<String, Double> stages = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                stages.put(names[i], nanos[i] / 1_000_000.0);
+            }
+            return stages;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.churninsight.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import jdk.jfr.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Mide por etapas los requests de {@code request-timing.paths} (predicción, historial,
+ * estadísticas): abre la línea de tiempo de {@link RequestTiming} antes de la cadena de
+ * seguridad y la cierra al terminar la respuesta.
+ *
+ * El header {@code Server-Timing} se agrega cuando el controlador empieza a escribir el
+ * cuerpo, así que cubre todo salvo la serialización; ésta queda como etapa
+ * {@code serialize} en el evento JFR y en {@link SlowRequestLog}. Los requests asíncronos
+ * no se registran.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    private static final EventType HTTP_REQUEST_EVENT = EventType.getEventType(HttpRequestEvent.class);
+
+    @Value("${request-timing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${request-timing.header:true}")
+    private boolean header;
+
+    @Value("${request-timing.paths:/api/churn/predict,/api/churn/predict/batch,/api/churn/history,"
+        + "/api/churn/customer/*/history,/api/stats,/api/stats/kpis,/api/dashboard}")
+    private List<String> paths;
+
+    private final SlowRequestLog slowRequestLog;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RequestTimingFilter(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        for (String pattern : paths) {
+            if (pathMatcher.match(pattern, path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RequestTiming.Timeline timeline = new RequestTiming.Timeline(
+            request.getMethod() + " " + request.getRequestURI());
+        // Como las etapas: sin una grabación JFR que lo incluya no se crea el evento
+        HttpRequestEvent event = HTTP_REQUEST_EVENT.isEnabled() ? new HttpRequestEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        TimedResponse timed = new TimedResponse(response, timeline);
+        RequestTiming.open(timeline);
+        try {
+            filterChain.doFilter(request, timed);
+        } finally {
+            RequestTiming.close();
+        }
+        if (request.isAsyncStarted()) {
+            return;
+        }
+        // Sin cuerpo (304, errores) el header se agrega al final si todavía se puede
+        timed.bodyStarting();
+        timeline.lap("serialize");
+        long elapsed = timeline.elapsedNanos();
+        if (event != null) {
+            event.endpoint = timeline.endpoint;
+            event.status = response.getStatus();
+            event.username = timeline.username;
+            event.commit();
+        }
+        if (slowRequestLog.isSlow(elapsed)) {
+            slowRequestLog.add(new SlowRequestLog.SlowRequest(LocalDateTime.now(), timeline.endpoint,
+                timeline.username, response.getStatus(), elapsed / 1_000_000.0, timeline.stagesMillis()));
+        }
+    }
+
+    /**
+     * Cierra la etapa del controlador y agrega {@code Server-Timing} justo antes de que se
+     * escriba el primer byte del cuerpo.
+     */
+    private final class TimedResponse extends HttpServletResponseWrapper {
+
+        private final RequestTiming.Timeline timeline;
+        private boolean started;
+
+        TimedResponse(HttpServletResponse response, RequestTiming.Timeline timeline) {
+            super(response);
+            this.timeline = timeline;
+        }
+
+        void bodyStarting() {
+            if (started) {
+                return;
+            }
+            started = true;
+            timeline.lap("handler");
+            if (header && !isCommitted()) {
+                setHeader(HEADER, timeline.serverTiming());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            bodyStarting();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            bodyStarting();
+            return super.getWriter();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.churninsight.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Cierra la etapa {@code filters} (cadena de filtros e interceptores previos) al llegar
+ * al handler y anota el usuario del request, que al final del filtro ya no está en el
+ * contexto de seguridad. Se registra último en {@link WebConfig}.
+ */
+@Component
+public class RequestTimingInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestTiming.Timeline timeline = RequestTiming.current();
+        if (timeline != null) {
+            timeline.lap("filters");
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            timeline.username = auth != null ? auth.getName() : null;
+        }
+        return true;
+    }
+}
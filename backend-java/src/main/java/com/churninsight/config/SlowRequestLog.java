@@ -0,0 +1,72 @@
+package com.churninsight.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Últimos requests que superaron {@code request-timing.slow-threshold-ms}, con su
+ * desglose por etapas, en un buffer circular de {@code request-timing.slow-capacity}
+ * entradas. Se consulta en {@code /api/diagnostics/slow-requests}.
+ */
+@Component
+public class SlowRequestLog {
+
+    public record SlowRequest(LocalDateTime timestamp, String endpoint, String username, int status,
+                              double totalMillis, Map<String, Double> stages) {
+    }
+
+    private final long thresholdNanos;
+    private final SlowRequest[] ring;
+    private final Counter captured;
+    private long next;
+
+    public SlowRequestLog(@Value("${request-timing.slow-threshold-ms:500}") long thresholdMillis,
+                          @Value("${request-timing.slow-capacity:200}") int capacity,
+                          MeterRegistry meterRegistry) {
+        this.thresholdNanos = thresholdMillis * 1_000_000L;
+        this.ring = new SlowRequest[Math.max(1, capacity)];
+        this.captured = Counter.builder("churn.requests.slow")
+            .description("Requests instrumentados que superaron el umbral de lentitud")
+            .register(meterRegistry);
+    }
+
+    boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    void add(SlowRequest request) {
+        synchronized (ring) {
+            ring[(int) (next++ % ring.length)] = request;
+        }
+        captured.increment();
+    }
+
+    /**
+     * Hasta {@code limit} requests lentos, del más reciente al más viejo.
+     */
+    public List<SlowRequest> recent(int limit) {
+        synchronized (ring) {
+            int count = (int) Math.min(Math.min(limit, next), ring.length);
+            List<SlowRequest> result = new ArrayList<>(count);
+            for (long i = next - 1; i >= next - count; i--) {
+                result.add(ring[(int) (i % ring.length)]);
+            }
+            return result;
+        }
+    }
+
+    public void clear() {
+        synchronized (ring) {
+            Arrays.fill(ring, null);
+            next = 0;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.churninsight.config;
+
+import com.churninsight.controller.ChurnController;
+import com.churninsight.controller.StatsController;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Selección de campos ({@code ?fields=a,b}) en las respuestas JSON del historial y las
+ * estadísticas. Se aplica al primer nivel del objeto o de cada elemento de la lista; los
+ * campos desconocidos se ignoran. Sin el parámetro la respuesta no se toca.
+ */
+@RestControllerAdvice(assignableTypes = {StatsController.class, ChurnController.class})
+public class SparseFieldsetAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ObjectMapper objectMapper;
+
+    public SparseFieldsetAdvice(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return MappingJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || request.getMethod() != HttpMethod.GET
+                || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        String fields = servletRequest.getServletRequest().getParameter("fields");
+        if (fields == null || fields.isBlank()) {
+            return body;
+        }
+        Set<String> selected = Arrays.stream(fields.split(","))
+            .map(String::trim)
+            .filter(field -> !field.isEmpty())
+            .collect(Collectors.toSet());
+        JsonNode tree = objectMapper.valueToTree(body);
+        if (tree.isObject()) {
+            ((ObjectNode) tree).retain(selected);
+        } else if (tree.isArray()) {
+            for (JsonNode element : tree) {
+                if (element.isObject()) {
+                    ((ObjectNode) element).retain(selected);
+                }
+            }
+        }
+        return tree;
+    }
+}
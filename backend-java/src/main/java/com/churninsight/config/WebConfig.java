@@ -3,12 +3,15 @@ package com.churninsight.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig {
     @Bean
-    public WebMvcConfigurer corsConfigurer() {
+    public WebMvcConfigurer corsConfigurer(LoadSheddingInterceptor loadSheddingInterceptor,
+                                           ConditionalGetInterceptor conditionalGetInterceptor,
+                                           RequestTimingInterceptor requestTimingInterceptor) {
         return new WebMvcConfigurer() {
             @Override
             public void addCorsMappings(CorsRegistry registry) {
@@ -20,6 +23,18 @@ public class WebConfig {
                     .allowCredentials(true)
                     .maxAge(3600);
             }
+
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                // Control de admisión solo en el camino de predicción
+                registry.addInterceptor(loadSheddingInterceptor)
+                    .addPathPatterns("/api/churn/predict", "/api/churn/predict/batch");
+                // ETag y 304 en los endpoints que el dashboard consulta periódicamente
+                registry.addInterceptor(conditionalGetInterceptor)
+                    .addPathPatterns("/api/churn/history", "/api/stats", "/api/stats/kpis", "/api/dashboard");
+                // Último: lo anterior cuenta como etapa "filters" del desglose por etapas
+                registry.addInterceptor(requestTimingInterceptor);
+            }
         };
     }
 }
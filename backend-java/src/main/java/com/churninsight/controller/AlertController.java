@@ -0,0 +1,128 @@
+package com.churninsight.controller;
+
+import com.churninsight.model.AlertEvent;
+import com.churninsight.model.AlertEventRepository;
+import com.churninsight.model.AlertRule;
+import com.churninsight.model.AlertRuleRepository;
+import com.churninsight.service.AlertEngine;
+import com.churninsight.service.SseAlertSink;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reglas de alerta de riesgo y alertas disparadas (historial y stream SSE).
+ */
+@RestController
+@RequestMapping("/api/alerts")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
+public class AlertController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertController.class);
+
+    private static final int MAX_EVENTS = 500;
+
+    private final AlertRuleRepository alertRuleRepository;
+    private final AlertEventRepository alertEventRepository;
+    private final AlertEngine alertEngine;
+    private final SseAlertSink sseAlertSink;
+
+    public AlertController(AlertRuleRepository alertRuleRepository, AlertEventRepository alertEventRepository,
+                           AlertEngine alertEngine, SseAlertSink sseAlertSink) {
+        this.alertRuleRepository = alertRuleRepository;
+        this.alertEventRepository = alertEventRepository;
+        this.alertEngine = alertEngine;
+        this.sseAlertSink = sseAlertSink;
+    }
+
+    @GetMapping("/rules")
+    public ResponseEntity<List<AlertRule>> rules() {
+        return ResponseEntity.ok(alertRuleRepository.findAll());
+    }
+
+    /**
+     * Crea una regla, por ejemplo {"name": "Alto riesgo", "type": "PROBABILITY_CROSSES", "threshold": 0.75}
+     */
+    @PostMapping("/rules")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> createRule(@Valid @RequestBody AlertRule rule, Authentication authentication) {
+        if (rule.getType() != AlertRule.Type.DAILY_CAPITAL_AT_RISK && rule.getThreshold() > 1.0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "El umbral de probabilidad debe estar entre 0 y 1"));
+        }
+        if (rule.getType() == AlertRule.Type.RISE_WITHIN && rule.getWindowDays() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "RISE_WITHIN requiere windowDays"));
+        }
+        rule.setId(null);
+        rule.setCreatedBy(authentication.getName());
+        rule.setCreatedAt(LocalDateTime.now());
+        AlertRule saved = alertRuleRepository.save(rule);
+        alertEngine.reload();
+        logger.info("[AlertController] Regla {} creada por {}", saved.getName(), authentication.getName());
+        return ResponseEntity.status(201).body(saved);
+    }
+
+    @PutMapping("/rules/{id}/enabled")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> setEnabled(@PathVariable Long id, @RequestParam boolean value) {
+        return alertRuleRepository.findById(id)
+            .<ResponseEntity<?>>map(rule -> {
+                rule.setEnabled(value);
+                AlertRule saved = alertRuleRepository.save(rule);
+                alertEngine.reload();
+                return ResponseEntity.ok(saved);
+            })
+            .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error", "Regla no encontrada")));
+    }
+
+    @DeleteMapping("/rules/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> deleteRule(@PathVariable Long id) {
+        if (!alertRuleRepository.existsById(id)) {
+            return ResponseEntity.status(404).body(Map.of("error", "Regla no encontrada"));
+        }
+        alertRuleRepository.deleteById(id);
+        alertEngine.reload();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Últimas alertas guardadas por el sink de base de datos: las de las predicciones del
+     * usuario o, para un admin, todas
+     */
+    @GetMapping("/events")
+    public ResponseEntity<?> events(@RequestParam(defaultValue = "50") int limit, Authentication authentication) {
+        if (limit < 1 || limit > MAX_EVENTS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit debe estar entre 1 y " + MAX_EVENTS));
+        }
+        List<AlertEvent> events = isAdmin(authentication)
+            ? alertEventRepository.findByOrderByTriggeredAtDesc(PageRequest.of(0, limit))
+            : alertEventRepository.findByUsernameOrderByTriggeredAtDesc(authentication.getName(),
+                PageRequest.of(0, limit));
+        return ResponseEntity.ok(events);
+    }
+
+    /**
+     * Alertas en vivo por Server-Sent Events (evento "alert"), con el mismo filtro por
+     * usuario que {@code /events}
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication authentication) {
+        return sseAlertSink.subscribe(authentication.getName(), isAdmin(authentication));
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+            .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+}
@@ -1,8 +1,10 @@
 package com.churninsight.controller;
 
 import com.churninsight.security.JwtService;
+import com.churninsight.security.PasswordVerificationExecutor;
 import com.churninsight.service.UserService;
 import com.churninsight.model.User;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -12,6 +14,9 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -21,17 +26,43 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserService userService;
+    private final PasswordVerificationExecutor passwordVerificationExecutor;
     
     public AuthController(AuthenticationManager authenticationManager, 
                          JwtService jwtService,
-                         UserService userService) {
+                         UserService userService,
+                         PasswordVerificationExecutor passwordVerificationExecutor) {
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
         this.userService = userService;
+        this.passwordVerificationExecutor = passwordVerificationExecutor;
     }
     
+    /**
+     * Login asíncrono: la verificación BCrypt corre en el pool acotado y el hilo de Tomcat
+     * queda libre. Con el pool saturado responde 503 en el acto.
+     */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest loginRequest) {
+        try {
+            return passwordVerificationExecutor.<ResponseEntity<?>>submit(() -> authenticate(loginRequest))
+                .exceptionally(AuthController::loginUnavailable);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(loginUnavailable(e));
+        }
+    }
+    
+    private static ResponseEntity<?> loginUnavailable(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (!(cause instanceof RejectedExecutionException)) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "Error en el login"));
+        }
+        return ResponseEntity.status(503)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(Map.of("error", "Demasiados intentos de login simultáneos, reintente en unos segundos"));
+    }
+    
+    private ResponseEntity<?> authenticate(LoginRequest loginRequest) {
         try {
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
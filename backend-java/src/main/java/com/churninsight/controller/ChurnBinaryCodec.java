@@ -0,0 +1,307 @@
+package com.churninsight.controller;
+
+import org.springframework.http.MediaType;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Formato binario de registros para clientes de alto volumen ({@value #MEDIA_TYPE}).
+ *
+ * Cada registro va precedido por su largo en bytes (int32). Todos los números son
+ * big-endian. Un stream es una secuencia de registros hasta EOF, así que el mismo
+ * formato sirve para una predicción o para un lote de cualquier tamaño.
+ *
+ * <pre>
+ * Request (63 bytes fijos + país + customerId):
+ *   float64 x5  ageRisk, numOfProducts, inactivo4070, productsRiskFlag, countryRiskFlag (NaN = ausente)
+ *   float64     balance (NaN = ausente)
+ *   float64     estimatedSalary (NaN = ausente)
+ *   int32       tenure (-1 = ausente)
+ *   uint8       flags: bit 0 isActiveMember, bit 1 isActiveMember presente
+ *   uint8       largo del país (n)
+ *   uint8       largo del customerId (m, 0 = ausente: la predicción no se sigue por cliente)
+ *   n bytes     país en UTF-8
+ *   m bytes     customerId en ASCII
+ *
+ * Respuesta (10 bytes fijos + texto):
+ *   float64     churn_probability (NaN si hubo error)
+ *   uint8       estado: 0 ok, 1 registro inválido, 2 error del modelo
+ *   uint8 + n   customer_id si estado = 0, mensaje de error en otro caso
+ * </pre>
+ *
+ * Los lectores y escritores reutilizan un único buffer por instancia; no son thread-safe.
+ */
+public final class ChurnBinaryCodec {
+
+    public static final String MEDIA_TYPE = "application/x-churn-binary";
+    public static final MediaType MEDIA = MediaType.valueOf(MEDIA_TYPE);
+
+    public static final int STATUS_OK = 0;
+    public static final int STATUS_INVALID = 1;
+    public static final int STATUS_ERROR = 2;
+
+    static final int REQUEST_FIXED_BYTES = 63;
+    static final int RESPONSE_FIXED_BYTES = 10;
+    static final int MAX_TEXT_BYTES = 255;
+
+    private static final int FLAG_ACTIVE = 1;
+    private static final int FLAG_ACTIVE_PRESENT = 2;
+
+    private ChurnBinaryCodec() {
+    }
+
+    /**
+     * Lee requests de un stream. Los nombres de país se cachean para no crear un
+     * {@code String} por registro.
+     */
+    public static final class RequestReader {
+        private final InputStream in;
+        private final byte[] buf = new byte[REQUEST_FIXED_BYTES + 2 * MAX_TEXT_BYTES];
+        private final ByteBuffer bb = ByteBuffer.wrap(buf);
+        private final TextCache countries = new TextCache();
+
+        public RequestReader(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Siguiente request, o {@code null} al llegar a EOF en un límite de registro.
+         *
+         * @throws IOException si el stream termina a mitad de un registro o el largo es inválido
+         */
+        public ChurnPredictionRequest next() throws IOException {
+            int length = readLength(in, buf);
+            if (length < 0) {
+                return null;
+            }
+            if (length < REQUEST_FIXED_BYTES || length > buf.length) {
+                throw new IOException("Largo de registro inválido: " + length);
+            }
+            readFully(in, buf, length);
+            int countryLength = buf[61] & 0xFF;
+            int customerIdLength = buf[62] & 0xFF;
+            if (REQUEST_FIXED_BYTES + countryLength + customerIdLength != length) {
+                throw new IOException("Largo de país o customerId inconsistente con el registro");
+            }
+
+            ChurnPredictionRequest request = new ChurnPredictionRequest();
+            request.setAgeRisk(boxed(bb.getDouble(0)));
+            request.setNumOfProducts(boxed(bb.getDouble(8)));
+            request.setInactivo4070(boxed(bb.getDouble(16)));
+            request.setProductsRiskFlag(boxed(bb.getDouble(24)));
+            request.setCountryRiskFlag(boxed(bb.getDouble(32)));
+            request.setBalance(boxed(bb.getDouble(40)));
+            request.setEstimatedSalary(boxed(bb.getDouble(48)));
+            int tenure = bb.getInt(56);
+            request.setTenure(tenure < 0 ? null : tenure);
+            int flags = buf[60];
+            if ((flags & FLAG_ACTIVE_PRESENT) != 0) {
+                request.setIsActiveMember((flags & FLAG_ACTIVE) != 0);
+            }
+            request.setCountry(countries.decode(buf, REQUEST_FIXED_BYTES, countryLength));
+            if (customerIdLength > 0) {
+                request.setCustomerId(new String(buf, REQUEST_FIXED_BYTES + countryLength, customerIdLength,
+                    StandardCharsets.US_ASCII));
+            }
+            return request;
+        }
+
+        private static Double boxed(double value) {
+            return Double.isNaN(value) ? null : value;
+        }
+    }
+
+    /**
+     * Escribe requests a un stream (lado cliente).
+     */
+    public static final class RequestWriter {
+        private final OutputStream out;
+        private final byte[] buf = new byte[4 + REQUEST_FIXED_BYTES + 2 * MAX_TEXT_BYTES];
+        private final ByteBuffer bb = ByteBuffer.wrap(buf);
+
+        public RequestWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        public void write(ChurnPredictionRequest request) throws IOException {
+            int countryLength = putText(buf, 4 + REQUEST_FIXED_BYTES, request.getCountry());
+            int customerIdLength = putText(buf, 4 + REQUEST_FIXED_BYTES + countryLength, request.getCustomerId());
+            bb.putInt(0, REQUEST_FIXED_BYTES + countryLength + customerIdLength);
+            bb.putDouble(4, unboxed(request.getAgeRisk()));
+            bb.putDouble(12, unboxed(request.getNumOfProducts()));
+            bb.putDouble(20, unboxed(request.getInactivo4070()));
+            bb.putDouble(28, unboxed(request.getProductsRiskFlag()));
+            bb.putDouble(36, unboxed(request.getCountryRiskFlag()));
+            bb.putDouble(44, unboxed(request.getBalance()));
+            bb.putDouble(52, unboxed(request.getEstimatedSalary()));
+            bb.putInt(60, request.getTenure() != null ? request.getTenure() : -1);
+            Boolean active = request.getIsActiveMember();
+            buf[64] = (byte) (active == null ? 0 : FLAG_ACTIVE_PRESENT | (active ? FLAG_ACTIVE : 0));
+            buf[65] = (byte) countryLength;
+            buf[66] = (byte) customerIdLength;
+            out.write(buf, 0, 4 + REQUEST_FIXED_BYTES + countryLength + customerIdLength);
+        }
+
+        private static double unboxed(Double value) {
+            return value != null ? value : Double.NaN;
+        }
+    }
+
+    /**
+     * Escribe respuestas a un stream.
+     */
+    public static final class ResponseWriter {
+        private final OutputStream out;
+        private final byte[] buf = new byte[4 + RESPONSE_FIXED_BYTES + MAX_TEXT_BYTES];
+        private final ByteBuffer bb = ByteBuffer.wrap(buf);
+
+        public ResponseWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        public void write(double probability, String customerId) throws IOException {
+            write(probability, STATUS_OK, customerId);
+        }
+
+        public void writeError(int status, String message) throws IOException {
+            write(Double.NaN, status, message);
+        }
+
+        private void write(double probability, int status, String text) throws IOException {
+            int textLength = putText(buf, 4 + RESPONSE_FIXED_BYTES, text);
+            bb.putInt(0, RESPONSE_FIXED_BYTES + textLength);
+            bb.putDouble(4, probability);
+            buf[12] = (byte) status;
+            buf[13] = (byte) textLength;
+            out.write(buf, 0, 4 + RESPONSE_FIXED_BYTES + textLength);
+        }
+    }
+
+    /**
+     * Lee respuestas de un stream (lado cliente). Después de {@link #next()} los valores
+     * del registro actual quedan en los getters.
+     */
+    public static final class ResponseReader {
+        private final InputStream in;
+        private final byte[] buf = new byte[RESPONSE_FIXED_BYTES + MAX_TEXT_BYTES];
+        private final ByteBuffer bb = ByteBuffer.wrap(buf);
+        private double probability;
+        private int status;
+        private int textLength;
+
+        public ResponseReader(InputStream in) {
+            this.in = in;
+        }
+
+        public boolean next() throws IOException {
+            int length = readLength(in, buf);
+            if (length < 0) {
+                return false;
+            }
+            if (length < RESPONSE_FIXED_BYTES || length > buf.length) {
+                throw new IOException("Largo de registro inválido: " + length);
+            }
+            readFully(in, buf, length);
+            probability = bb.getDouble(0);
+            status = buf[8] & 0xFF;
+            textLength = buf[9] & 0xFF;
+            return true;
+        }
+
+        public double probability() {
+            return probability;
+        }
+
+        public int status() {
+            return status;
+        }
+
+        /** customer_id si el estado es OK, mensaje de error en otro caso. */
+        public String text() {
+            return new String(buf, RESPONSE_FIXED_BYTES, textLength, StandardCharsets.UTF_8);
+        }
+    }
+
+    // -1 si el stream terminó justo antes del registro
+    private static int readLength(InputStream in, byte[] buf) throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return -1;
+        }
+        buf[0] = (byte) first;
+        readFully(in, buf, 1, 3);
+        return ((buf[0] & 0xFF) << 24) | ((buf[1] & 0xFF) << 16) | ((buf[2] & 0xFF) << 8) | (buf[3] & 0xFF);
+    }
+
+    private static void readFully(InputStream in, byte[] buf, int length) throws IOException {
+        readFully(in, buf, 0, length);
+    }
+
+    private static void readFully(InputStream in, byte[] buf, int offset, int length) throws IOException {
+        while (length > 0) {
+            int n = in.read(buf, offset, length);
+            if (n < 0) {
+                throw new EOFException("Registro truncado");
+            }
+            offset += n;
+            length -= n;
+        }
+    }
+
+    // Escribe el texto en UTF-8 truncado a MAX_TEXT_BYTES sin partir un carácter;
+    // el caso ASCII no reserva memoria
+    private static int putText(byte[] buf, int offset, String text) {
+        if (text == null) {
+            return 0;
+        }
+        int n = Math.min(text.length(), MAX_TEXT_BYTES);
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+                int length = Math.min(utf8.length, MAX_TEXT_BYTES);
+                // Si el corte cae dentro de una secuencia multibyte se retrocede a su inicio
+                while (length < utf8.length && length > 0 && (utf8[length] & 0xC0) == 0x80) {
+                    length--;
+                }
+                System.arraycopy(utf8, 0, buf, offset, length);
+                return length;
+            }
+            buf[offset + i] = (byte) c;
+        }
+        return n;
+    }
+
+    /**
+     * Cache pequeño de textos decodificados. El país tiene pocos valores distintos,
+     * así que comparar bytes evita crear un String por registro.
+     */
+    private static final class TextCache {
+        private static final int SIZE = 8;
+        private final byte[][] keys = new byte[SIZE][];
+        private final String[] values = new String[SIZE];
+        private int next;
+
+        String decode(byte[] buf, int offset, int length) {
+            if (length == 0) {
+                return null;
+            }
+            for (int i = 0; i < SIZE && keys[i] != null; i++) {
+                if (Arrays.equals(keys[i], 0, keys[i].length, buf, offset, offset + length)) {
+                    return values[i];
+                }
+            }
+            String value = new String(buf, offset, length, StandardCharsets.UTF_8);
+            int slot = next++ % SIZE;
+            keys[slot] = Arrays.copyOfRange(buf, offset, offset + length);
+            values[slot] = value;
+            return value;
+        }
+    }
+}
@@ -1,22 +1,40 @@
 package com.churninsight.controller;
 
+import com.churninsight.config.RequestTiming;
 import com.churninsight.model.PredictionHistory;
 import com.churninsight.model.PredictionHistoryRepository;
-import com.churninsight.service.ChurnModelClient;
+import com.churninsight.service.CounterfactualService;
+import com.churninsight.service.HistoryExportService;
+import com.churninsight.service.PredictionService;
+import com.churninsight.service.UserRateLimiter;
+import com.churninsight.service.WhatIfService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @Validated
@@ -26,13 +44,36 @@ public class ChurnController {
     
     private static final Logger logger = LoggerFactory.getLogger(ChurnController.class);
     
-    private final ChurnModelClient churnModelClient;
+    private final PredictionService predictionService;
     private final PredictionHistoryRepository predictionHistoryRepository;
+    private final WhatIfService whatIfService;
+    private final CounterfactualService counterfactualService;
+    private final HistoryExportService historyExportService;
+    private final UserRateLimiter userRateLimiter;
+    private final Validator validator;
     
-    public ChurnController(ChurnModelClient churnModelClient,
-                          PredictionHistoryRepository predictionHistoryRepository) {
-        this.churnModelClient = churnModelClient;
+    // Máximo de registros por request en el lote JSON
+    @Value("${batch.max-size:1000}")
+    private int batchMaxSize;
+    
+    // Registros que se puntúan y guardan juntos en el stream binario
+    @Value("${batch.chunk-size:500}")
+    private int batchChunkSize;
+    
+    public ChurnController(PredictionService predictionService,
+                          PredictionHistoryRepository predictionHistoryRepository,
+                          WhatIfService whatIfService,
+                          CounterfactualService counterfactualService,
+                          HistoryExportService historyExportService,
+                          UserRateLimiter userRateLimiter,
+                          Validator validator) {
+        this.predictionService = predictionService;
         this.predictionHistoryRepository = predictionHistoryRepository;
+        this.whatIfService = whatIfService;
+        this.counterfactualService = counterfactualService;
+        this.historyExportService = historyExportService;
+        this.userRateLimiter = userRateLimiter;
+        this.validator = validator;
     }
     
     /**
@@ -40,6 +81,8 @@ public class ChurnController {
      */
     @PostMapping("/predict")
     public ResponseEntity<?> predictChurn(@Valid @RequestBody ChurnPredictionRequest request) {
+        // Lectura del body y @Valid
+        RequestTiming.lap("validation");
         try {
             logger.info("[ChurnController] Predicción solicitada por usuario autenticado");
             
@@ -51,50 +94,20 @@ public class ChurnController {
             logger.debug("[ChurnController] Request: ageRisk={}, numOfProducts={}", 
                 request.getAgeRisk(), request.getNumOfProducts());
             
-            // Llamar al servicio de ML para obtener la predicción
-            Map<String, Object> prediction = churnModelClient.predict(request);
-
-            // Extraer probabilidad con conversión segura
-            Object probabilityObj = prediction.get("churn_probability");
-            if (!(probabilityObj instanceof Number)) {
-                throw new IllegalStateException("Respuesta del modelo inválida: falta churn_probability numérica");
-            }
-            double probability = ((Number) probabilityObj).doubleValue();
-            
-            // Generar customer ID único
-            String customerId = UUID.randomUUID().toString().substring(0, 8);
-            
-            // Guardar en historial
-            PredictionHistory history = new PredictionHistory();
-            history.setCustomerId(customerId);
-            history.setChurnProbability(probability);
-            history.setAgeRisk(request.getAgeRisk());
-            history.setNumOfProducts(request.getNumOfProducts() != null ? request.getNumOfProducts().intValue() : 0);
-            history.setInactivo4070(request.getInactivo4070());
-            history.setProductsRiskFlag(request.getProductsRiskFlag());
-            history.setCountryRiskFlag(request.getCountryRiskFlag());
-            history.setIsActiveMember(request.getIsActiveMember());
-            history.setPredictionDate(LocalDateTime.now());
-            history.setUsername(username);
-            
-            // Guardar campos adicionales para análisis de negocio
-            history.setBalance(request.getBalance());
-            history.setEstimatedSalary(request.getEstimatedSalary());
-            history.setCountry(request.getCountry());
-            history.setTenure(request.getTenure());
-            
-            predictionHistoryRepository.save(history);
+            PredictionHistory saved = predictionService.predict(request, username);
             
             logger.info("[ChurnController] Predicción guardada. Customer ID: {}, Probability: {}", 
-                customerId, prediction.get("churn_probability"));
+                saved.getCustomerId(), saved.getChurnProbability());
             
             // Respuesta al cliente
             Map<String, Object> response = new HashMap<>();
-            response.put("churn_probability", prediction.get("churn_probability"));
-            response.put("customer_id", customerId);
+            response.put("churn_probability", saved.getChurnProbability());
+            response.put("customer_id", saved.getCustomerId());
             
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             logger.error("[ChurnController] Error en predicción: {}", e.getMessage(), e);
             Map<String, String> errorResponse = new HashMap<>();
@@ -104,10 +117,187 @@ public class ChurnController {
         }
     }
     
+    /**
+     * Endpoint de predicción por lote (JSON). Se guarda todo el lote en una sola operación
+     */
+    @PostMapping("/predict/batch")
+    public ResponseEntity<?> predictBatch(@RequestBody List<@Valid ChurnPredictionRequest> requests) {
+        RequestTiming.lap("validation");
+        if (requests.isEmpty() || requests.size() > batchMaxSize) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                "El lote debe tener entre 1 y " + batchMaxSize + " registros"));
+        }
+        try {
+            String username = currentUsername();
+            // La admisión cobró un token; el resto del lote se cobra por registro
+            userRateLimiter.charge(username, requests.size() - 1);
+            List<PredictionHistory> saved = predictionService.predictBatch(requests, username);
+            logger.info("[ChurnController] Lote guardado: {} predicciones de {}", saved.size(), username);
+            
+            List<ChurnPredictionResponse> response = new ArrayList<>(saved.size());
+            for (PredictionHistory history : saved) {
+                response.add(new ChurnPredictionResponse(history.getChurnProbability(), history.getCustomerId()));
+            }
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("[ChurnController] Error en predicción por lote: {}", e.getMessage(), e);
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Error al procesar el lote");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+    
+    /**
+     * Predicción con el formato binario ({@link ChurnBinaryCodec}). Acepta uno o más registros
+     */
+    @PostMapping(value = "/predict", consumes = ChurnBinaryCodec.MEDIA_TYPE, produces = ChurnBinaryCodec.MEDIA_TYPE)
+    public void predictChurnBinary(InputStream body, HttpServletResponse response) throws IOException {
+        streamBinary(body, response);
+    }
+    
+    /**
+     * Lote con el formato binario. Se lee, puntúa y responde por bloques, así que el
+     * tamaño del lote no está acotado por memoria
+     */
+    @PostMapping(value = "/predict/batch", consumes = ChurnBinaryCodec.MEDIA_TYPE, produces = ChurnBinaryCodec.MEDIA_TYPE)
+    public void predictBatchBinary(InputStream body, HttpServletResponse response) throws IOException {
+        streamBinary(body, response);
+    }
+    
+    private void streamBinary(InputStream body, HttpServletResponse response) throws IOException {
+        String username = currentUsername();
+        ChurnBinaryCodec.RequestReader reader = new ChurnBinaryCodec.RequestReader(body);
+        List<ChurnPredictionRequest> chunk = new ArrayList<>(batchChunkSize);
+        List<String> errors = new ArrayList<>(batchChunkSize);
+        
+        // El primer bloque se lee antes de comprometer la respuesta para poder devolver 400
+        boolean more;
+        try {
+            more = readChunk(reader, chunk, errors);
+        } catch (IOException e) {
+            response.sendError(400, "Registro binario inválido: " + e.getMessage());
+            return;
+        }
+        
+        response.setContentType(ChurnBinaryCodec.MEDIA_TYPE);
+        OutputStream out = new BufferedOutputStream(response.getOutputStream(), 8192);
+        ChurnBinaryCodec.ResponseWriter writer = new ChurnBinaryCodec.ResponseWriter(out);
+        int total = 0;
+        while (true) {
+            // Un token por registro; el de la admisión cubre el primero
+            userRateLimiter.charge(username, total == 0 ? chunk.size() - 1 : chunk.size());
+            writeChunk(chunk, errors, username, writer);
+            out.flush();
+            total += chunk.size();
+            if (!more) {
+                break;
+            }
+            more = readChunk(reader, chunk, errors);
+        }
+        logger.info("[ChurnController] Stream binario guardado: {} registros de {}", total, username);
+    }
+    
+    // Llena el bloque; para los registros inválidos deja el mensaje y un null en su lugar
+    private boolean readChunk(ChurnBinaryCodec.RequestReader reader, List<ChurnPredictionRequest> chunk,
+                              List<String> errors) throws IOException {
+        chunk.clear();
+        errors.clear();
+        while (chunk.size() < batchChunkSize) {
+            ChurnPredictionRequest request = reader.next();
+            if (request == null) {
+                return false;
+            }
+            Set<ConstraintViolation<ChurnPredictionRequest>> violations = validator.validate(request);
+            if (violations.isEmpty()) {
+                chunk.add(request);
+                errors.add(null);
+            } else {
+                ConstraintViolation<ChurnPredictionRequest> first = violations.iterator().next();
+                chunk.add(null);
+                errors.add(first.getPropertyPath() + ": " + first.getMessage());
+            }
+        }
+        return true;
+    }
+    
+    private void writeChunk(List<ChurnPredictionRequest> chunk, List<String> errors, String username,
+                            ChurnBinaryCodec.ResponseWriter writer) throws IOException {
+        List<ChurnPredictionRequest> valid = new ArrayList<>(chunk.size());
+        for (ChurnPredictionRequest request : chunk) {
+            if (request != null) {
+                valid.add(request);
+            }
+        }
+        List<PredictionHistory> saved;
+        String failure = null;
+        try {
+            saved = valid.isEmpty() ? List.of() : predictionService.predictBatch(valid, username);
+        } catch (Exception e) {
+            logger.error("[ChurnController] Error en bloque binario: {}", e.getMessage(), e);
+            saved = List.of();
+            failure = e.getMessage() != null ? e.getMessage() : "Error al procesar la predicción";
+        }
+        int next = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            if (chunk.get(i) == null) {
+                writer.writeError(ChurnBinaryCodec.STATUS_INVALID, errors.get(i));
+            } else if (failure != null) {
+                writer.writeError(ChurnBinaryCodec.STATUS_ERROR, failure);
+            } else {
+                PredictionHistory history = saved.get(next++);
+                writer.write(history.getChurnProbability(), history.getCustomerId());
+            }
+        }
+    }
+    
+    private static String currentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : "anonymous";
+    }
+    
+    /**
+     * Endpoint what-if: evalúa la grilla de escenarios sobre un cliente base sin guardar historial
+     */
+    @PostMapping("/what-if")
+    public ResponseEntity<?> whatIf(@Valid @RequestBody WhatIfRequest request) {
+        try {
+            WhatIfResponse response = whatIfService.evaluate(request);
+            logger.debug("[ChurnController] What-if evaluado: {} escenarios", response.getGridSize());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            logger.error("[ChurnController] Modelo local no disponible: {}", e.getMessage());
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Endpoint contrafactual: cambios accionables de menor costo para bajar del umbral de riesgo
+     */
+    @PostMapping("/counterfactual")
+    public ResponseEntity<?> counterfactual(@Valid @RequestBody CounterfactualRequest request) {
+        try {
+            CounterfactualResponse response = counterfactualService.search(request);
+            logger.debug("[ChurnController] Contrafactual: encontrado={}, nodos={}",
+                response.isFound(), response.getEvaluatedNodes());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            logger.error("[ChurnController] Modelo local no disponible: {}", e.getMessage());
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     /**
      * Endpoint para obtener el historial de predicciones del usuario
      */
     @GetMapping("/history")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<PredictionHistory>> getHistory() {
         try {
             // Obtener usuario autenticado
@@ -119,6 +309,7 @@ public class ChurnController {
             // Obtener últimas 50 predicciones del usuario
             List<PredictionHistory> history = predictionHistoryRepository
                 .findTop50ByUsernameOrderByPredictionDateDesc(username);
+            RequestTiming.lap("query");
             
             logger.debug("[ChurnController] Historial obtenido: {} registros", history.size());
             
@@ -130,16 +321,54 @@ public class ChurnController {
         }
     }
     
+    /**
+     * Exportación completa del historial del usuario en CSV o NDJSON, escrita a medida que
+     * se lee de la base (ver {@link HistoryExportService}). Filtros opcionales: rango de
+     * fechas inclusivo, país y banda de riesgo (low/medium/high o índice).
+     */
+    @GetMapping("/history/export")
+    public void exportHistory(@RequestParam(defaultValue = "csv") String format,
+                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                              @RequestParam(required = false) String country,
+                              @RequestParam(required = false) String band,
+                              HttpServletResponse response) throws IOException {
+        String username = currentUsername();
+        HistoryExportService.Format exportFormat;
+        HistoryExportService.Filter filter;
+        try {
+            exportFormat = HistoryExportService.Format.parse(format);
+            filter = historyExportService.filter(from, to, country, band);
+        } catch (IllegalArgumentException e) {
+            response.sendError(400, e.getMessage());
+            return;
+        }
+        
+        response.setContentType(exportFormat.contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"historial." + exportFormat.extension + "\"");
+        try {
+            historyExportService.export(username, filter, exportFormat, response.getOutputStream());
+        } catch (RejectedExecutionException e) {
+            // No se escribió nada: la respuesta todavía se puede rehacer
+            response.reset();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+            response.sendError(503, e.getMessage());
+        }
+    }
+    
     /**
      * Endpoint para obtener el historial de un cliente específico
      */
     @GetMapping("/customer/{customerId}/history")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<PredictionHistory>> getCustomerHistory(@PathVariable String customerId) {
         try {
             logger.info("[ChurnController] Historial solicitado para customer: {}", customerId);
             
             List<PredictionHistory> history = predictionHistoryRepository
                 .findByCustomerIdOrderByPredictionDateDesc(customerId);
+            RequestTiming.lap("query");
             
             logger.debug("[ChurnController] Historial obtenido: {} registros", history.size());
             
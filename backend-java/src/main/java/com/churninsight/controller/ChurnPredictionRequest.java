@@ -2,8 +2,11 @@ package com.churninsight.controller;
 
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.PositiveOrZero;
 
 public class ChurnPredictionRequest {
@@ -44,6 +47,16 @@ public class ChurnPredictionRequest {
     @NotNull
     private Boolean isActiveMember;
 
+    // Identificador estable del cliente (CustomerId del banco). Sin él se genera uno aleatorio
+    @Pattern(regexp = "0|[1-9]\\d{0,17}",
+             message = "customerId debe ser numérico, sin ceros a la izquierda (hasta 18 dígitos)")
+    private String customerId;
+
+    // Atributo crudo: si llega, las variables derivadas se calculan en el servidor (FeatureTransform)
+    @Min(0)
+    @Max(120)
+    private Integer age;
+
     // Getters para campos originales
     public Double getAgeRisk() { return ageRisk; }
     public Double getNumOfProducts() { return numOfProducts; }
@@ -71,4 +84,10 @@ public class ChurnPredictionRequest {
     public void setCountry(String country) { this.country = country; }
     public void setTenure(Integer tenure) { this.tenure = tenure; }
     public void setIsActiveMember(Boolean isActiveMember) { this.isActiveMember = isActiveMember; }
+
+    public String getCustomerId() { return customerId; }
+    public void setCustomerId(String customerId) { this.customerId = customerId; }
+
+    public Integer getAge() { return age; }
+    public void setAge(Integer age) { this.age = age; }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.churninsight.controller;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Map;
+
+/**
+ * Cliente base para la búsqueda contrafactual. {@code costs} reemplaza los costos
+ * configurados; solo las variables presentes se consideran accionables.
+ */
+public class CounterfactualRequest {
+
+    @Valid
+    @NotNull
+    private ChurnPredictionRequest base;
+
+    @DecimalMin(value = "0.0", inclusive = false)
+    @DecimalMax(value = "1.0", inclusive = false)
+    private Double target;
+
+    private Map<String, Double> costs;
+
+    public ChurnPredictionRequest getBase() { return base; }
+    public void setBase(ChurnPredictionRequest base) { this.base = base; }
+    public Double getTarget() { return target; }
+    public void setTarget(Double target) { this.target = target; }
+    public Map<String, Double> getCosts() { return costs; }
+    public void setCosts(Map<String, Double> costs) { this.costs = costs; }
+}
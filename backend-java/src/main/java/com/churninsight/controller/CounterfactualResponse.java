@@ -0,0 +1,136 @@
+package com.churninsight.controller;
+
+import java.util.List;
+
+/**
+ * Cambio de menor costo que lleva la probabilidad de churn bajo el objetivo.
+ */
+public class CounterfactualResponse {
+    private boolean found;
+    private double baseProbability;
+    private double targetProbability;
+    private Double resultingProbability;
+    private double totalCost;
+    private List<Change> changes;
+    private long evaluatedNodes;
+
+    public CounterfactualResponse() {
+    }
+
+    public CounterfactualResponse(boolean found, double baseProbability, double targetProbability,
+                                  Double resultingProbability, double totalCost, List<Change> changes,
+                                  long evaluatedNodes) {
+        this.found = found;
+        this.baseProbability = baseProbability;
+        this.targetProbability = targetProbability;
+        this.resultingProbability = resultingProbability;
+        this.totalCost = totalCost;
+        this.changes = changes;
+        this.evaluatedNodes = evaluatedNodes;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public void setFound(boolean found) {
+        this.found = found;
+    }
+
+    public double getBaseProbability() {
+        return baseProbability;
+    }
+
+    public void setBaseProbability(double baseProbability) {
+        this.baseProbability = baseProbability;
+    }
+
+    public double getTargetProbability() {
+        return targetProbability;
+    }
+
+    public void setTargetProbability(double targetProbability) {
+        this.targetProbability = targetProbability;
+    }
+
+    public Double getResultingProbability() {
+        return resultingProbability;
+    }
+
+    public void setResultingProbability(Double resultingProbability) {
+        this.resultingProbability = resultingProbability;
+    }
+
+    public double getTotalCost() {
+        return totalCost;
+    }
+
+    public void setTotalCost(double totalCost) {
+        this.totalCost = totalCost;
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<Change> changes) {
+        this.changes = changes;
+    }
+
+    public long getEvaluatedNodes() {
+        return evaluatedNodes;
+    }
+
+    public void setEvaluatedNodes(long evaluatedNodes) {
+        this.evaluatedNodes = evaluatedNodes;
+    }
+
+    public static class Change {
+        private String feature;
+        private double from;
+        private double to;
+        private double cost;
+
+        public Change() {
+        }
+
+        public Change(String feature, double from, double to, double cost) {
+            this.feature = feature;
+            this.from = from;
+            this.to = to;
+            this.cost = cost;
+        }
+
+        public String getFeature() {
+            return feature;
+        }
+
+        public void setFeature(String feature) {
+            this.feature = feature;
+        }
+
+        public double getFrom() {
+            return from;
+        }
+
+        public void setFrom(double from) {
+            this.from = from;
+        }
+
+        public double getTo() {
+            return to;
+        }
+
+        public void setTo(double to) {
+            this.to = to;
+        }
+
+        public double getCost() {
+            return cost;
+        }
+
+        public void setCost(double cost) {
+            this.cost = cost;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.churninsight.controller;
+
+import com.churninsight.service.CustomerRiskStore;
+import com.churninsight.service.CustomerRiskTrend;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Tendencia de riesgo por cliente, servida desde el estado en memoria
+ * ({@link CustomerRiskStore}) sin consultar el historial.
+ */
+@RestController
+@RequestMapping("/api/customers")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
+public class CustomerRiskController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final CustomerRiskStore customerRiskStore;
+
+    public CustomerRiskController(CustomerRiskStore customerRiskStore) {
+        this.customerRiskStore = customerRiskStore;
+    }
+
+    /**
+     * Último score, EWMA, tendencia y sparkline de un cliente
+     */
+    @GetMapping("/{customerId}/trend")
+    public ResponseEntity<?> trend(@PathVariable String customerId) {
+        return customerRiskStore.trend(customerId)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error", "Cliente sin predicciones registradas")));
+    }
+
+    /**
+     * Clientes cuyo riesgo sube más rápido: /api/customers/rising?limit=20&minSlope=0.01
+     */
+    @GetMapping("/rising")
+    public ResponseEntity<?> rising(@RequestParam(defaultValue = "20") int limit,
+                                    @RequestParam(defaultValue = "0.0") double minSlope) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit debe estar entre 1 y " + MAX_LIMIT));
+        }
+        return ResponseEntity.ok(customerRiskStore.rising(limit, minSlope));
+    }
+}
@@ -0,0 +1,49 @@
+package com.churninsight.controller;
+
+import com.churninsight.model.PredictionHistory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Todo lo que el dashboard muestra al cargar: lo mismo que {@code /api/stats},
+ * {@code /api/stats/kpis} y {@code /api/churn/history}, en una sola respuesta.
+ */
+public class DashboardDTO {
+    private Map<String, Object> stats;
+    private KPIsDTO kpis;
+    private List<PredictionHistory> history;
+
+    public DashboardDTO() {
+    }
+
+    public DashboardDTO(Map<String, Object> stats, KPIsDTO kpis, List<PredictionHistory> history) {
+        this.stats = stats;
+        this.kpis = kpis;
+        this.history = history;
+    }
+
+    public Map<String, Object> getStats() {
+        return stats;
+    }
+
+    public void setStats(Map<String, Object> stats) {
+        this.stats = stats;
+    }
+
+    public KPIsDTO getKpis() {
+        return kpis;
+    }
+
+    public void setKpis(KPIsDTO kpis) {
+        this.kpis = kpis;
+    }
+
+    public List<PredictionHistory> getHistory() {
+        return history;
+    }
+
+    public void setHistory(List<PredictionHistory> history) {
+        this.history = history;
+    }
+}
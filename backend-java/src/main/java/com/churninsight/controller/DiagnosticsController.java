@@ -0,0 +1,38 @@
+package com.churninsight.controller;
+
+import com.churninsight.config.SlowRequestLog;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Requests lentos capturados con su desglose por etapas ({@link SlowRequestLog}).
+ */
+@RestController
+@RequestMapping("/api/diagnostics")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
+public class DiagnosticsController {
+
+    private final SlowRequestLog slowRequestLog;
+
+    public DiagnosticsController(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @GetMapping("/slow-requests")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<SlowRequestLog.SlowRequest>> slowRequests(
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(slowRequestLog.recent(Math.max(0, limit)));
+    }
+
+    @DeleteMapping("/slow-requests")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> clearSlowRequests() {
+        slowRequestLog.clear();
+        return ResponseEntity.ok(Map.of("cleared", true));
+    }
+}
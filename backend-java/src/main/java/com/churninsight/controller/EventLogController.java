@@ -0,0 +1,98 @@
+package com.churninsight.controller;
+
+import com.churninsight.service.LogEvent;
+import com.churninsight.service.PredictionEventLog;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Lectura del log de eventos de predicción con long-poll. Cada consumidor guarda su
+ * offset y pide desde {@code nextOffset} de la respuesta anterior; si no hay eventos
+ * nuevos la respuesta se retiene hasta que llegue uno o venza {@code waitMs}, sin ocupar
+ * un hilo del servidor.
+ *
+ * Cada evento incluye la predicción completa de cualquier usuario, así que el log es solo
+ * para integraciones con rol ADMIN (BI, CRM, reentrenamiento).
+ */
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
+public class EventLogController {
+
+    private static final int MAX_EVENTS = 5000;
+    private static final long MAX_WAIT_MS = 60_000;
+
+    private final PredictionEventLog eventLog;
+
+    public EventLogController(PredictionEventLog eventLog) {
+        this.eventLog = eventLog;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public DeferredResult<ResponseEntity<?>> poll(@RequestParam(defaultValue = "0") long offset,
+                                                  @RequestParam(defaultValue = "500") int max,
+                                                  @RequestParam(defaultValue = "25000") long waitMs) {
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(Math.max(waitMs, 1));
+        if (!eventLog.isEnabled()) {
+            result.setResult(ResponseEntity.status(503).body(Map.of("error", "El log de eventos está deshabilitado")));
+            return result;
+        }
+        if (offset < 0 || max < 1 || max > MAX_EVENTS || waitMs < 0 || waitMs > MAX_WAIT_MS) {
+            result.setResult(ResponseEntity.badRequest().body(Map.of("error",
+                "offset debe ser >= 0, max estar entre 1 y " + MAX_EVENTS + " y waitMs entre 0 y " + MAX_WAIT_MS)));
+            return result;
+        }
+        if (offset < eventLog.earliestOffset()) {
+            result.setResult(ResponseEntity.status(410).body(Map.of(
+                "error", "Offset eliminado por retención",
+                "earliestOffset", eventLog.earliestOffset())));
+            return result;
+        }
+
+        CompletableFuture<Void> waiter = eventLog.awaitAppend(offset);
+        result.onTimeout(() -> {
+            eventLog.cancelWait(waiter);
+            result.setResult(ResponseEntity.ok(page(List.of(), offset)));
+        });
+        // La lectura no corre en el hilo que hizo el append
+        waiter.thenRunAsync(() -> {
+            try {
+                List<LogEvent> events = eventLog.read(offset, max);
+                long next = events.isEmpty() ? offset : events.get(events.size() - 1).offset() + 1;
+                result.setResult(ResponseEntity.ok(page(events, next)));
+            } catch (RuntimeException e) {
+                result.setResult(ResponseEntity.status(500).body(Map.of("error", String.valueOf(e.getMessage()))));
+            }
+        });
+        return result;
+    }
+
+    private Map<String, Object> page(List<LogEvent> events, long nextOffset) {
+        List<EventDto> dtos = new ArrayList<>(events.size());
+        for (LogEvent event : events) {
+            dtos.add(new EventDto(event.offset(), event.timestamp(),
+                new String(event.payload(), StandardCharsets.UTF_8)));
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("events", dtos);
+        response.put("nextOffset", nextOffset);
+        response.put("earliestOffset", eventLog.earliestOffset());
+        response.put("latestOffset", eventLog.nextOffset());
+        return response;
+    }
+
+    // El evento ya está en JSON y se incrusta sin volver a serializarlo
+    record EventDto(long offset, long timestamp, @JsonRawValue String event) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.churninsight.controller;
+
+import com.churninsight.service.CsvIngestionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Scoring de archivos CSV completos con el formato de Banco_Churn. La respuesta es un
+ * CSV {@code CustomerId,churn_probability} que se envía mientras se procesa.
+ */
+@RestController
+@RequestMapping("/api/ingest")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
+public class IngestionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionController.class);
+
+    private static final String TEXT_CSV = "text/csv";
+
+    // Mismo directorio de datasets que los trabajos de scoring masivo
+    @Value("${bulk-scoring.dataset-dir:../data-science}")
+    private String datasetDir;
+
+    @Value("${bulk-scoring.work-dir:${java.io.tmpdir}/churninsight-jobs}")
+    private String workDir;
+
+    // Tamaño máximo del CSV subido; el cuerpo no pasa por multipart, así que su límite no aplica
+    @Value("${ingestion.max-upload-bytes:209715200}")
+    private long maxUploadBytes;
+
+    private final CsvIngestionService csvIngestionService;
+
+    public IngestionController(CsvIngestionService csvIngestionService) {
+        this.csvIngestionService = csvIngestionService;
+    }
+
+    /**
+     * Puntúa el CSV enviado en el cuerpo. Se guarda en un archivo temporal para poder mapearlo;
+     * un cuerpo de más de {@code ingestion.max-upload-bytes} responde 413
+     */
+    @PostMapping(consumes = TEXT_CSV, produces = TEXT_CSV)
+    public void ingestUpload(HttpServletRequest request, HttpServletResponse response,
+                             Authentication authentication) throws IOException {
+        if (request.getContentLengthLong() > maxUploadBytes) {
+            response.sendError(413, "El CSV supera el máximo de " + maxUploadBytes + " bytes");
+            return;
+        }
+        Path dir = Paths.get(workDir);
+        Files.createDirectories(dir);
+        Path upload = Files.createTempFile(dir, "ingest-", ".csv");
+        try {
+            // Sin Content-Length (chunked) el límite se aplica mientras se copia
+            if (!copyWithinLimit(request.getInputStream(), upload)) {
+                logger.warn("[IngestionController] CSV de {} rechazado: supera {} bytes",
+                    authentication.getName(), maxUploadBytes);
+                response.sendError(413, "El CSV supera el máximo de " + maxUploadBytes + " bytes");
+                return;
+            }
+            logger.info("[IngestionController] CSV recibido de {}: {} bytes", authentication.getName(), Files.size(upload));
+            stream(upload, response);
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    /**
+     * Puntúa un dataset del servidor: /api/ingest/{dataset}, por ejemplo Banco_Churn.csv
+     */
+    @PostMapping(value = "/{dataset:.+}", produces = TEXT_CSV)
+    public void ingestDataset(@PathVariable String dataset, HttpServletResponse response,
+                              Authentication authentication) throws IOException {
+        Path base = Paths.get(datasetDir).toAbsolutePath().normalize();
+        Path path = base.resolve(dataset).normalize();
+        if (!path.startsWith(base) || !Files.isRegularFile(path)) {
+            response.sendError(404, "Dataset no encontrado: " + dataset);
+            return;
+        }
+        logger.info("[IngestionController] Ingesta de {} solicitada por {}", dataset, authentication.getName());
+        stream(path, response);
+    }
+
+    // false si el cuerpo supera maxUploadBytes; se deja de copiar en ese punto
+    private boolean copyWithinLimit(InputStream in, Path target) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long copied = 0;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                copied += n;
+                if (copied > maxUploadBytes) {
+                    return false;
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+        return true;
+    }
+
+    private void stream(Path csv, HttpServletResponse response) throws IOException {
+        response.setContentType(TEXT_CSV);
+        OutputStream out = new BufferedOutputStream(response.getOutputStream(), 64 * 1024);
+        try {
+            csvIngestionService.score(csv, out);
+        } catch (IllegalArgumentException e) {
+            // El encabezado se valida antes de escribir nada, así que todavía se puede responder 400
+            response.reset();
+            response.sendError(400, e.getMessage());
+        } catch (IllegalStateException e) {
+            response.reset();
+            response.sendError(503, e.getMessage());
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.churninsight.controller;
 
+import com.churninsight.service.ModelQualityMetrics;
+
 public class KPIsDTO {
     private long totalHighRiskClients;
     private double capitalAtRisk;
     private double accuracyLastMonth;
     private long totalPredictions;
     private double averageRisk;
+    private ModelQualityMetrics modelQuality;
     
     public KPIsDTO() {
     }
@@ -59,4 +62,12 @@ public class KPIsDTO {
     public void setAverageRisk(double averageRisk) {
         this.averageRisk = averageRisk;
     }
+    
+    public ModelQualityMetrics getModelQuality() {
+        return modelQuality;
+    }
+    
+    public void setModelQuality(ModelQualityMetrics modelQuality) {
+        this.modelQuality = modelQuality;
+    }
 }
@@ -0,0 +1,69 @@
+package com.churninsight.controller;
+
+import com.churninsight.service.ModelRegistry;
+import com.churninsight.service.ModelVersion;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Administración del registro de modelos: versiones cargadas, activación y shadow.
+ */
+@RestController
+@RequestMapping("/api/models")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
+public class ModelController {
+
+    private final ModelRegistry modelRegistry;
+
+    public ModelController(ModelRegistry modelRegistry) {
+        this.modelRegistry = modelRegistry;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getModels() {
+        return ResponseEntity.ok(modelRegistry.describe());
+    }
+
+    /**
+     * Fuerza la búsqueda de versiones nuevas en el directorio del registro
+     */
+    @PostMapping("/scan")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> scan() {
+        modelRegistry.scan();
+        return ResponseEntity.ok(modelRegistry.describe());
+    }
+
+    @PostMapping("/{version}/activate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> activate(@PathVariable String version) {
+        try {
+            ModelVersion active = modelRegistry.activate(version);
+            return ResponseEntity.ok(Map.of("active", active.getVersion()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{version}/shadow")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> startShadow(@PathVariable String version,
+                                         @RequestParam(defaultValue = "0.1") double sampleRate) {
+        try {
+            modelRegistry.startShadow(version, sampleRate);
+            return ResponseEntity.ok(modelRegistry.describe());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/shadow")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> stopShadow() {
+        modelRegistry.stopShadow();
+        return ResponseEntity.ok(modelRegistry.describe());
+    }
+}
@@ -0,0 +1,64 @@
+package com.churninsight.controller;
+
+import com.churninsight.service.ModelQualityEvaluator;
+import com.churninsight.service.ModelQualityMetrics;
+import com.churninsight.service.OutcomeService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultados reales de churn y métricas de calidad del modelo calculadas sobre ellos.
+ */
+@RestController
+@Validated
+@RequestMapping("/api/outcomes")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
+public class OutcomeController {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutcomeController.class);
+
+    @Value("${outcomes.max-batch-size:10000}")
+    private int maxBatchSize;
+
+    private final OutcomeService outcomeService;
+    private final ModelQualityEvaluator evaluator;
+
+    public OutcomeController(OutcomeService outcomeService, ModelQualityEvaluator evaluator) {
+        this.outcomeService = outcomeService;
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Carga un lote de resultados (JSON: customerId, churned, observedAt opcional)
+     */
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> ingest(@RequestBody List<@Valid OutcomeRequest> requests,
+                                    Authentication authentication) {
+        if (requests.isEmpty() || requests.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                "El lote debe tener entre 1 y " + maxBatchSize + " resultados"));
+        }
+        try {
+            return ResponseEntity.ok(outcomeService.ingest(requests, authentication.getName()));
+        } catch (Exception e) {
+            logger.error("[OutcomeController] Error cargando resultados: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "No se pudieron guardar los resultados"));
+        }
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<ModelQualityMetrics> metrics() {
+        return ResponseEntity.ok(evaluator.metrics());
+    }
+}
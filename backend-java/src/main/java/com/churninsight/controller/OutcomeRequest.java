@@ -0,0 +1,32 @@
+package com.churninsight.controller;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resultado real de un cliente para POST /api/outcomes. Sin {@code observedAt} se toma el
+ * momento de la carga.
+ */
+public class OutcomeRequest {
+
+    @NotBlank
+    @Pattern(regexp = "\\d{1,18}", message = "customerId debe ser numérico (hasta 18 dígitos)")
+    private String customerId;
+
+    @NotNull
+    private Boolean churned;
+
+    private LocalDateTime observedAt;
+
+    public String getCustomerId() { return customerId; }
+    public void setCustomerId(String customerId) { this.customerId = customerId; }
+
+    public Boolean getChurned() { return churned; }
+    public void setChurned(Boolean churned) { this.churned = churned; }
+
+    public LocalDateTime getObservedAt() { return observedAt; }
+    public void setObservedAt(LocalDateTime observedAt) { this.observedAt = observedAt; }
+}
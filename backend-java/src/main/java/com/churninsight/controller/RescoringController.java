@@ -0,0 +1,55 @@
+package com.churninsight.controller;
+
+import com.churninsight.model.RescoringRun;
+import com.churninsight.service.RescoringService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Corridas de re-scoring de la cartera: historial, detalle y lanzamiento manual.
+ */
+@RestController
+@RequestMapping("/api/rescoring")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
+public class RescoringController {
+
+    private final RescoringService rescoringService;
+
+    public RescoringController(RescoringService rescoringService) {
+        this.rescoringService = rescoringService;
+    }
+
+    @GetMapping("/runs")
+    public ResponseEntity<List<RescoringRun>> list() {
+        return ResponseEntity.ok(rescoringService.recentRuns());
+    }
+
+    @GetMapping("/runs/{id}")
+    public ResponseEntity<?> get(@PathVariable String id) {
+        return rescoringService.find(id)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error", "Corrida no encontrada")));
+    }
+
+    /**
+     * Lanza una corrida fuera del horario programado
+     */
+    @PostMapping("/runs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> start(Authentication authentication) {
+        try {
+            RescoringRun run = rescoringService.start(authentication.getName());
+            return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, "/api/rescoring/runs/" + run.getId())
+                .body(run);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        }
+    }
+}
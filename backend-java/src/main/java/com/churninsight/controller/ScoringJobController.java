@@ -0,0 +1,127 @@
+package com.churninsight.controller;
+
+import com.churninsight.model.ScoringJob;
+import com.churninsight.model.ScoringJobResult;
+import com.churninsight.service.ScoringJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Trabajos de scoring masivo: se crean con un CSV subido o con el nombre de un dataset
+ * del servidor, se consultan por polling y los resultados se leen paginados.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
+public class ScoringJobController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoringJobController.class);
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ScoringJobService scoringJobService;
+
+    public ScoringJobController(ScoringJobService scoringJobService) {
+        this.scoringJobService = scoringJobService;
+    }
+
+    /**
+     * Crea un trabajo con un CSV subido (multipart, campo "file")
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> submitUpload(@RequestParam("file") MultipartFile file, Authentication authentication) {
+        return submit(() -> scoringJobService.submitUpload(file, authentication.getName()));
+    }
+
+    /**
+     * Crea un trabajo sobre un dataset del servidor: {"dataset": "Banco_Churn.csv"}
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> submitReference(@RequestBody Map<String, String> body, Authentication authentication) {
+        return submit(() -> scoringJobService.submitReference(body.get("dataset"), authentication.getName()));
+    }
+
+    private ResponseEntity<?> submit(JobSubmission submission) {
+        try {
+            ScoringJob job = submission.submit();
+            return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, "/api/jobs/" + job.getId())
+                .body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(429).body(Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "30")
+                .body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            logger.error("[ScoringJobController] Error leyendo el dataset: {}", e.getMessage(), e);
+            return ResponseEntity.status(500).body(Map.of("error", "Error al leer el dataset"));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ScoringJob>> list(Authentication authentication) {
+        return ResponseEntity.ok(scoringJobService.list(authentication.getName()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> get(@PathVariable String id, Authentication authentication) {
+        return scoringJobService.find(id, authentication.getName())
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error", "Trabajo no encontrado")));
+    }
+
+    /**
+     * Resultados paginados en el orden del dataset. Se pueden leer mientras el trabajo corre
+     */
+    @GetMapping("/{id}/results")
+    public ResponseEntity<?> results(@PathVariable String id,
+                                     @RequestParam(defaultValue = "0") int page,
+                                     @RequestParam(defaultValue = "100") int size,
+                                     Authentication authentication) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                "page debe ser >= 0 y size estar entre 1 y " + MAX_PAGE_SIZE));
+        }
+        return scoringJobService.find(id, authentication.getName())
+            .<ResponseEntity<?>>map(job -> {
+                Page<ScoringJobResult> results = scoringJobService.results(job, page, size);
+                Map<String, Object> response = new HashMap<>();
+                response.put("jobId", job.getId());
+                response.put("status", job.getStatus());
+                response.put("content", results.getContent());
+                response.put("page", page);
+                response.put("size", size);
+                response.put("totalElements", results.getTotalElements());
+                response.put("totalPages", results.getTotalPages());
+                return ResponseEntity.ok(response);
+            })
+            .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error", "Trabajo no encontrado")));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancel(@PathVariable String id, Authentication authentication) {
+        return scoringJobService.find(id, authentication.getName())
+            .<ResponseEntity<?>>map(job -> ResponseEntity.ok(scoringJobService.cancel(job)))
+            .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error", "Trabajo no encontrado")));
+    }
+
+    @FunctionalInterface
+    private interface JobSubmission {
+        ScoringJob submit() throws IOException;
+    }
+}
@@ -1,19 +1,30 @@
 package com.churninsight.controller;
 
-import com.churninsight.model.PredictionHistory;
+import com.churninsight.config.RequestTiming;
 import com.churninsight.model.PredictionHistoryRepository;
+import com.churninsight.service.DashboardService;
+import com.churninsight.service.ExpectedLossSimulator;
+import com.churninsight.service.PredictionSummary;
+import com.churninsight.service.SegmentAnalytics;
+import com.churninsight.service.StatsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
+/**
+ * Estadísticas y KPIs del dashboard. Las consultas corren en transacciones de solo
+ * lectura, que van al pool de lectura ({@code DataSourceRoutingConfig}).
+ */
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
@@ -21,98 +32,104 @@ public class StatsController {
 
     @Autowired
     private PredictionHistoryRepository predictionHistoryRepository;
-    
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private ExpectedLossSimulator expectedLossSimulator;
+
+    @Autowired
+    private SegmentAnalytics segmentAnalytics;
+
     /**
      * Endpoint para obtener estadísticas en tiempo real del sistema
      */
     @GetMapping("/stats")
+    @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> getStats(Authentication authentication) {
-        Map<String, Object> stats = new HashMap<>();
-        
         String username = authentication.getName();
-        
-        // Obtener todas las predicciones del usuario
-        List<PredictionHistory> allPredictions = predictionHistoryRepository.findByUsernameOrderByPredictionDateDesc(username);
-        
-        // Contar clientes únicos analizados
-        long activeUsers = allPredictions.stream()
-            .map(PredictionHistory::getCustomerId)
-            .distinct()
-            .count();
-        
+
+        // Agregados de todas las predicciones del usuario, calculados en la base de datos
+        PredictionSummary summary = PredictionSummary.fromRow(
+            predictionHistoryRepository.summarizeByUsername(username).get(0));
+
         // Contar predicciones de hoy
         LocalDateTime startOfDay = LocalDateTime.of(LocalDate.now(), LocalTime.MIN);
         LocalDateTime endOfDay = LocalDateTime.of(LocalDate.now(), LocalTime.MAX);
         long todayPredictions = predictionHistoryRepository.countByUsernameAndPredictionDateBetween(
             username, startOfDay, endOfDay);
-        
-        // Calcular tasa de retención (clientes con probabilidad < 50%)
-        long lowRiskClients = allPredictions.stream()
-            .filter(p -> p.getChurnProbability() < 0.5)
-            .count();
-        double retentionRate = allPredictions.isEmpty() ? 0.0 : 
-            (lowRiskClients * 100.0) / allPredictions.size();
-        
-        stats.put("activeUsers", activeUsers);
-        stats.put("retentionRate", retentionRate);
-        stats.put("todayPredictions", todayPredictions);
-        
+        RequestTiming.lap("query");
+
+        Map<String, Object> stats = statsService.computeStats(summary, todayPredictions);
+        RequestTiming.lap("compute");
         return ResponseEntity.ok(stats);
     }
-    
+
     /**
      * Endpoint para obtener KPIs de negocio
      */
     @GetMapping("/stats/kpis")
+    @Transactional(readOnly = true)
     public ResponseEntity<KPIsDTO> getKPIs(Authentication authentication) {
         String username = authentication.getName();
-        
-        // Obtener predicciones del último mes
-        LocalDateTime lastMonth = LocalDateTime.now().minusMonths(1);
-        List<PredictionHistory> recentPredictions = predictionHistoryRepository
-            .findByUsernameOrderByPredictionDateDesc(username);
-        
-        // Filtrar predicciones del último mes
-        List<PredictionHistory> lastMonthPredictions = recentPredictions.stream()
-            .filter(p -> p.getPredictionDate().isAfter(lastMonth))
-            .toList();
-        
-        // Calcular clientes en riesgo crítico (probabilidad > 0.75)
-        long highRiskClients = recentPredictions.stream()
-            .filter(p -> p.getChurnProbability() > 0.75)
-            .map(PredictionHistory::getCustomerId)
-            .distinct()
-            .count();
-        
-        // Calcular capital en riesgo (suma de balances de clientes en riesgo crítico)
-        // Solo sumar balances que no sean null
-        double capitalAtRisk = recentPredictions.stream()
-            .filter(p -> p.getChurnProbability() > 0.75)
-            .filter(p -> p.getBalance() != null)
-            .mapToDouble(PredictionHistory::getBalance)
-            .sum();
-        
-        // Calcular riesgo promedio (como porcentaje)
-        double averageRisk = recentPredictions.stream()
-            .mapToDouble(PredictionHistory::getChurnProbability)
-            .average()
-            .orElse(0.0) * 100.0; // Convertir a porcentaje
-        
-        // Total de predicciones
-        long totalPredictions = recentPredictions.size();
-        
-        // Precisión del modelo (simulado - en producción se calcularía comparando con resultados reales)
-        // Por ahora, asumimos una precisión base de 0.85 (85%) como decimal
-        double accuracyLastMonth = lastMonthPredictions.isEmpty() ? 0.0 : 0.85;
-        
-        KPIsDTO kpis = new KPIsDTO(
-            (int) highRiskClients,
-            capitalAtRisk,
-            accuracyLastMonth,
-            (int) totalPredictions,
-            averageRisk
-        );
-        
+
+        PredictionSummary summary = PredictionSummary.fromRow(
+            predictionHistoryRepository.summarizeByUsername(username).get(0));
+        RequestTiming.lap("query");
+
+        KPIsDTO kpis = statsService.computeKpis(summary);
+        RequestTiming.lap("compute");
         return ResponseEntity.ok(kpis);
     }
+
+    /**
+     * Estadísticas, KPIs e historial reciente en una sola respuesta
+     */
+    @GetMapping("/dashboard")
+    @Transactional(readOnly = true)
+    public ResponseEntity<DashboardDTO> getDashboard(Authentication authentication) {
+        return ResponseEntity.ok(dashboardService.load(authentication.getName()));
+    }
+
+    /**
+     * Simulación Monte Carlo de la pérdida por churn de la cartera: pérdida esperada, VaR y
+     * percentiles, total y por país. Sin transacción propia: la simulación no debe retener
+     * una conexión mientras corre
+     */
+    @GetMapping("/stats/expected-loss")
+    public ResponseEntity<?> getExpectedLoss(Authentication authentication,
+                                             @RequestParam(defaultValue = "10000") int trials,
+                                             @RequestParam(defaultValue = "0.99") double confidence,
+                                             @RequestParam(required = false) Long seed) {
+        try {
+            return ResponseEntity.ok(expectedLossSimulator.simulate(authentication.getName(), trials, confidence, seed));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Riesgo por segmento: cantidad, probabilidad media, proporción en riesgo alto y capital
+     * en riesgo por cada combinación de las dimensiones de {@code groupBy} (country, tenure,
+     * products, active, band). Sin transacción propia: la carga del historial abre la suya
+     * solo si no está en cache
+     */
+    @GetMapping("/stats/segments")
+    public ResponseEntity<?> getSegments(Authentication authentication,
+                                         @RequestParam(defaultValue = "country") List<String> groupBy,
+                                         @RequestParam(defaultValue = "1") int minCount) {
+        try {
+            return ResponseEntity.ok(segmentAnalytics.segments(authentication.getName(), groupBy, minCount));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 }
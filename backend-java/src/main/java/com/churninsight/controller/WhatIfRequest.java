@@ -0,0 +1,54 @@
+package com.churninsight.controller;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Cliente base (con sus atributos crudos) más los rangos de atributos a recorrer en el
+ * análisis what-if.
+ */
+public class WhatIfRequest {
+
+    @Valid
+    @NotNull
+    private ChurnPredictionRequest base;
+
+    @Valid
+    @NotEmpty
+    private List<FeatureRange> ranges;
+
+    public ChurnPredictionRequest getBase() { return base; }
+    public void setBase(ChurnPredictionRequest base) { this.base = base; }
+    public List<FeatureRange> getRanges() { return ranges; }
+    public void setRanges(List<FeatureRange> ranges) { this.ranges = ranges; }
+
+    /**
+     * Valores de un atributo crudo del cliente (age, numOfProducts o isActiveMember como 0/1):
+     * lista explícita o bien min/max/step.
+     */
+    public static class FeatureRange {
+
+        @NotBlank
+        private String feature;
+
+        private List<Double> values;
+        private Double min;
+        private Double max;
+        private Double step;
+
+        public String getFeature() { return feature; }
+        public void setFeature(String feature) { this.feature = feature; }
+        public List<Double> getValues() { return values; }
+        public void setValues(List<Double> values) { this.values = values; }
+        public Double getMin() { return min; }
+        public void setMin(Double min) { this.min = min; }
+        public Double getMax() { return max; }
+        public void setMax(Double max) { this.max = max; }
+        public Double getStep() { return step; }
+        public void setStep(Double step) { this.step = step; }
+    }
+}
@@ -0,0 +1,95 @@
+package com.churninsight.controller;
+
+import java.util.List;
+
+/**
+ * Resultado del análisis what-if: un escenario por cada punto de la grilla.
+ * Los valores de cada escenario siguen el orden de {@code features}.
+ */
+public class WhatIfResponse {
+    private double baseProbability;
+    private List<String> features;
+    private int gridSize;
+    private List<Scenario> scenarios;
+
+    public WhatIfResponse() {
+    }
+
+    public WhatIfResponse(double baseProbability, List<String> features, List<Scenario> scenarios) {
+        this.baseProbability = baseProbability;
+        this.features = features;
+        this.gridSize = scenarios.size();
+        this.scenarios = scenarios;
+    }
+
+    public double getBaseProbability() {
+        return baseProbability;
+    }
+
+    public void setBaseProbability(double baseProbability) {
+        this.baseProbability = baseProbability;
+    }
+
+    public List<String> getFeatures() {
+        return features;
+    }
+
+    public void setFeatures(List<String> features) {
+        this.features = features;
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    public void setGridSize(int gridSize) {
+        this.gridSize = gridSize;
+    }
+
+    public List<Scenario> getScenarios() {
+        return scenarios;
+    }
+
+    public void setScenarios(List<Scenario> scenarios) {
+        this.scenarios = scenarios;
+    }
+
+    public static class Scenario {
+        private double[] values;
+        private double churnProbability;
+        private double delta;
+
+        public Scenario() {
+        }
+
+        public Scenario(double[] values, double churnProbability, double delta) {
+            this.values = values;
+            this.churnProbability = churnProbability;
+            this.delta = delta;
+        }
+
+        public double[] getValues() {
+            return values;
+        }
+
+        public void setValues(double[] values) {
+            this.values = values;
+        }
+
+        public double getChurnProbability() {
+            return churnProbability;
+        }
+
+        public void setChurnProbability(double churnProbability) {
+            this.churnProbability = churnProbability;
+        }
+
+        public double getDelta() {
+            return delta;
+        }
+
+        public void setDelta(double delta) {
+            this.delta = delta;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.churninsight.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Alerta disparada, guardada por el sink de base de datos.
+ */
+@Entity
+@Table(name = "alert_event", indexes = {
+    @Index(name = "idx_alert_event_time", columnList = "triggeredAt"),
+    @Index(name = "idx_alert_event_user_time", columnList = "username, triggeredAt")
+})
+public class AlertEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long ruleId;
+
+    @Column(nullable = false)
+    private String ruleName;
+
+    @Column(nullable = false, length = 32)
+    private String type;
+
+    // Dueño de la predicción; null en las alertas agregadas de todos los usuarios
+    @Column
+    private String username;
+
+    @Column
+    private String customerId;
+
+    @Column
+    private String country;
+
+    @Column(nullable = false)
+    private double value;
+
+    @Column(nullable = false)
+    private double threshold;
+
+    @Column(length = 512)
+    private String message;
+
+    @Column(nullable = false)
+    private LocalDateTime triggeredAt;
+
+    public AlertEvent() {}
+
+    public AlertEvent(Long ruleId, String ruleName, String type, String username, String customerId, String country,
+                      double value, double threshold, String message, LocalDateTime triggeredAt) {
+        this.ruleId = ruleId;
+        this.ruleName = ruleName;
+        this.type = type;
+        this.username = username;
+        this.customerId = customerId;
+        this.country = country;
+        this.value = value;
+        this.threshold = threshold;
+        this.message = message;
+        this.triggeredAt = triggeredAt;
+    }
+
+    public Long getId() { return id; }
+    public Long getRuleId() { return ruleId; }
+    public String getRuleName() { return ruleName; }
+    public String getType() { return type; }
+    public String getUsername() { return username; }
+    public String getCustomerId() { return customerId; }
+    public String getCountry() { return country; }
+    public double getValue() { return value; }
+    public double getThreshold() { return threshold; }
+    public String getMessage() { return message; }
+    public LocalDateTime getTriggeredAt() { return triggeredAt; }
+}
@@ -0,0 +1,14 @@
+package com.churninsight.model;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AlertEventRepository extends JpaRepository<AlertEvent, Long> {
+    List<AlertEvent> findByOrderByTriggeredAtDesc(Pageable pageable);
+
+    List<AlertEvent> findByUsernameOrderByTriggeredAtDesc(String username, Pageable pageable);
+}
@@ -0,0 +1,93 @@
+package com.churninsight.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.LocalDateTime;
+
+/**
+ * Regla de alerta de riesgo. Los tipos disponibles:
+ * <ul>
+ *   <li>{@code PROBABILITY_CROSSES}: la probabilidad de un cliente pasa de estar por debajo
+ *       a estar en o por encima de {@code threshold}. Sin probabilidad anterior (primera
+ *       predicción del cliente o CustomerId no estable) se toma como debajo del umbral.</li>
+ *   <li>{@code DAILY_CAPITAL_AT_RISK}: la suma diaria de {@code balance * probabilidad}
+ *       supera {@code threshold}; se dispara una vez por día. Un cliente ya seguido aporta
+ *       solo el cambio de su probabilidad, así que repredecirlo no lo cuenta dos veces. La
+ *       suma vive en memoria y se reinicia al reiniciar la aplicación.</li>
+ *   <li>{@code RISE_WITHIN}: la probabilidad de un cliente sube al menos {@code threshold}
+ *       dentro de {@code windowDays} días (requiere CustomerId estable).</li>
+ * </ul>
+ * {@code country}, si se indica, limita la regla a las predicciones de ese país.
+ */
+@Entity
+@Table(name = "alert_rule")
+public class AlertRule {
+
+    public enum Type { PROBABILITY_CROSSES, DAILY_CAPITAL_AT_RISK, RISE_WITHIN }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Column(nullable = false)
+    private String name;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Type type;
+
+    @NotNull
+    @Positive
+    @Column(nullable = false)
+    private Double threshold;
+
+    @Column
+    private String country;
+
+    @Positive
+    @Column
+    private Integer windowDays;
+
+    @Column(nullable = false)
+    private boolean enabled = true;
+
+    @Column
+    private String createdBy;
+
+    @Column
+    private LocalDateTime createdAt;
+
+    public AlertRule() {}
+
+    // Getters y Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public Double getThreshold() { return threshold; }
+    public void setThreshold(Double threshold) { this.threshold = threshold; }
+
+    public String getCountry() { return country; }
+    public void setCountry(String country) { this.country = country; }
+
+    public Integer getWindowDays() { return windowDays; }
+    public void setWindowDays(Integer windowDays) { this.windowDays = windowDays; }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,63 @@
+package com.churninsight.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Resultado real de un cliente (se fue o no), unido a la predicción que lo precedió.
+ * {@code predictedProbability} es null si no había una predicción anterior.
+ */
+@Entity
+@Table(name = "churn_outcome", indexes = {
+    @Index(name = "idx_outcome_observed", columnList = "observedAt"),
+    @Index(name = "idx_outcome_customer", columnList = "customerId")
+})
+public class ChurnOutcome {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String customerId;
+
+    @Column(nullable = false)
+    private boolean churned;
+
+    @Column(nullable = false)
+    private LocalDateTime observedAt;
+
+    @Column
+    private Double predictedProbability;
+
+    @Column
+    private Long predictionId;
+
+    @Column(nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column
+    private String username;
+
+    public ChurnOutcome() {}
+
+    public ChurnOutcome(String customerId, boolean churned, LocalDateTime observedAt, Double predictedProbability,
+                        Long predictionId, String username) {
+        this.customerId = customerId;
+        this.churned = churned;
+        this.observedAt = observedAt;
+        this.predictedProbability = predictedProbability;
+        this.predictionId = predictionId;
+        this.username = username;
+        this.receivedAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public String getCustomerId() { return customerId; }
+    public boolean isChurned() { return churned; }
+    public LocalDateTime getObservedAt() { return observedAt; }
+    public Double getPredictedProbability() { return predictedProbability; }
+    public Long getPredictionId() { return predictionId; }
+    public LocalDateTime getReceivedAt() { return receivedAt; }
+    public String getUsername() { return username; }
+}
@@ -0,0 +1,14 @@
+package com.churninsight.model;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ChurnOutcomeRepository extends JpaRepository<ChurnOutcome, Long> {
+    List<ChurnOutcome> findByIdGreaterThanAndObservedAtAfterAndPredictedProbabilityIsNotNullOrderById(
+        long afterId, LocalDateTime since, Pageable pageable);
+}
@@ -0,0 +1,84 @@
+package com.churninsight.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint del estado de riesgo de un cliente (ver {@code CustomerRiskStore}). La clave
+ * es el CustomerId numérico; el servicio indica con {@code isNew} si la fila ya existe, así
+ * los checkpoints se escriben en batch sin SELECT previo.
+ */
+@Entity
+@Table(name = "customer_risk_state")
+public class CustomerRiskSnapshot implements Persistable<Long> {
+
+    @Id
+    private Long customerKey;
+
+    @Column(nullable = false)
+    private double latestProbability;
+
+    @Column(nullable = false)
+    private double ewma;
+
+    @Column(nullable = false)
+    private double slope;
+
+    @Column(nullable = false)
+    private LocalDateTime lastSeen;
+
+    @Column(nullable = false)
+    private int band;
+
+    @Column(nullable = false)
+    private int bandTransitions;
+
+    @Column(nullable = false)
+    private long predictions;
+
+    // Últimas probabilidades (float32 big-endian, de la más antigua a la más reciente)
+    @Column(length = 64)
+    private byte[] sparkline;
+
+    @Transient
+    private boolean isNew;
+
+    public CustomerRiskSnapshot() {}
+
+    public CustomerRiskSnapshot(long customerKey, double latestProbability, double ewma, double slope,
+                                LocalDateTime lastSeen, int band, int bandTransitions, long predictions,
+                                byte[] sparkline, boolean isNew) {
+        this.customerKey = customerKey;
+        this.latestProbability = latestProbability;
+        this.ewma = ewma;
+        this.slope = slope;
+        this.lastSeen = lastSeen;
+        this.band = band;
+        this.bandTransitions = bandTransitions;
+        this.predictions = predictions;
+        this.sparkline = sparkline;
+        this.isNew = isNew;
+    }
+
+    @Override
+    public Long getId() {
+        return customerKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public Long getCustomerKey() { return customerKey; }
+    public double getLatestProbability() { return latestProbability; }
+    public double getEwma() { return ewma; }
+    public double getSlope() { return slope; }
+    public LocalDateTime getLastSeen() { return lastSeen; }
+    public int getBand() { return band; }
+    public int getBandTransitions() { return bandTransitions; }
+    public long getPredictions() { return predictions; }
+    public byte[] getSparkline() { return sparkline; }
+}
@@ -0,0 +1,12 @@
+package com.churninsight.model;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CustomerRiskSnapshotRepository extends JpaRepository<CustomerRiskSnapshot, Long> {
+    List<CustomerRiskSnapshot> findByCustomerKeyGreaterThanOrderByCustomerKey(long afterKey, Pageable pageable);
+}
@@ -4,7 +4,8 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "prediction_history")
+@Table(name = "prediction_history",
+       indexes = @Index(name = "idx_prediction_customer", columnList = "customerId, id"))
 public class PredictionHistory {
     
     @Id
@@ -54,6 +55,10 @@ public class PredictionHistory {
     @Column
     private Boolean isActiveMember;
     
+    // Versión del modelo que generó la predicción
+    @Column
+    private String modelVersion;
+    
     // Constructors
     public PredictionHistory() {
     }
@@ -193,4 +198,12 @@ public class PredictionHistory {
     public void setIsActiveMember(Boolean isActiveMember) {
         this.isActiveMember = isActiveMember;
     }
+    
+    public String getModelVersion() {
+        return modelVersion;
+    }
+    
+    public void setModelVersion(String modelVersion) {
+        this.modelVersion = modelVersion;
+    }
 }
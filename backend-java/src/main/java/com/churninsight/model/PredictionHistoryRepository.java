@@ -1,14 +1,19 @@
 package com.churninsight.model;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PredictionHistoryRepository extends JpaRepository<PredictionHistory, Long> {
-    List<PredictionHistory> findByUsernameOrderByPredictionDateDesc(String username);
+    List<PredictionHistory> findByUsernameOrderByPredictionDateDesc(String username, Pageable pageable);
     List<PredictionHistory> findTop10ByOrderByPredictionDateDesc();
     List<PredictionHistory> findTop50ByUsernameOrderByPredictionDateDesc(String username);
     long countByUsername(String username);
@@ -20,4 +25,38 @@ public interface PredictionHistoryRepository extends JpaRepository<PredictionHis
     List<PredictionHistory> findByCustomerIdAndPredictionDateAfterOrderByPredictionDateDesc(
         String customerId, LocalDateTime since);
     List<PredictionHistory> findByPredictionDateAfter(LocalDateTime since);
+    Optional<PredictionHistory> findFirstByCustomerIdAndPredictionDateLessThanEqualOrderByPredictionDateDesc(
+        String customerId, LocalDateTime until);
+
+    // Predicciones, clientes, predicciones de riesgo bajo (< 0.5), clientes y balance en riesgo
+    // crítico (> 0.75) y probabilidad media del usuario, en una fila (sin cargar entidades)
+    @Query("SELECT COUNT(p), COUNT(DISTINCT p.customerId), "
+        + "COUNT(CASE WHEN p.churnProbability < 0.5 THEN 1 END), "
+        + "COUNT(DISTINCT CASE WHEN p.churnProbability > 0.75 THEN p.customerId END), "
+        + "SUM(CASE WHEN p.churnProbability > 0.75 THEN p.balance END), AVG(p.churnProbability) "
+        + "FROM PredictionHistory p WHERE p.username = :username")
+    List<Object[]> summarizeByUsername(@Param("username") String username);
+
+    @Query("SELECT COALESCE(MAX(p.id), 0) FROM PredictionHistory p")
+    long findMaxId();
+
+    // Última predicción de cada cliente con id en (afterId, maxId], paginada por id (keyset)
+    @Query("SELECT p FROM PredictionHistory p WHERE p.id > :afterId AND p.id <= :maxId AND p.id = "
+        + "(SELECT MAX(h.id) FROM PredictionHistory h WHERE h.customerId = p.customerId) ORDER BY p.id")
+    List<PredictionHistory> findLatestPerCustomerBetween(@Param("afterId") long afterId, @Param("maxId") long maxId,
+                                                         Pageable pageable);
+
+    // Probabilidad, balance y país de la última predicción de cada cliente del usuario (sin cargar entidades)
+    @Query("SELECT p.churnProbability, p.balance, p.country FROM PredictionHistory p WHERE p.username = :username "
+        + "AND p.id = (SELECT MAX(h.id) FROM PredictionHistory h WHERE h.customerId = p.customerId "
+        + "AND h.username = :username)")
+    List<Object[]> findLatestExposureByUsername(@Param("username") String username);
+
+    // Cliente, fecha, id y probabilidad de las predicciones de varios clientes hasta una fecha,
+    // de la más reciente a la más antigua por cliente (sin cargar entidades)
+    @Query("SELECT p.customerId, p.predictionDate, p.id, p.churnProbability FROM PredictionHistory p "
+        + "WHERE p.customerId IN :customerIds AND p.predictionDate <= :until "
+        + "ORDER BY p.customerId, p.predictionDate DESC")
+    List<Object[]> findPredictionsByCustomerIdsUntil(@Param("customerIds") Collection<String> customerIds,
+                                                     @Param("until") LocalDateTime until);
 }
@@ -0,0 +1,102 @@
+package com.churninsight.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Resumen de una corrida de re-scoring de la cartera. Solo los clientes cuya probabilidad
+ * cambió más que {@code epsilon} o que cruzaron una banda de riesgo generan una fila nueva
+ * en el historial ({@code changedCustomers}).
+ */
+@Entity
+@Table(name = "rescoring_run")
+public class RescoringRun {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.RUNNING;
+
+    // "scheduled" o el usuario que la lanzó
+    @Column(nullable = false)
+    private String triggeredBy;
+
+    @Column
+    private String modelVersion;
+
+    @Column(nullable = false)
+    private double epsilon;
+
+    @Column(nullable = false)
+    private long scannedCustomers;
+
+    @Column(nullable = false)
+    private long changedCustomers;
+
+    @Column(nullable = false)
+    private long bandCrossings;
+
+    @Column(nullable = false)
+    private long failedCustomers;
+
+    @Column(length = 1024)
+    private String error;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column
+    private LocalDateTime finishedAt;
+
+    public RescoringRun() {}
+
+    public RescoringRun(String id, String triggeredBy, String modelVersion, double epsilon) {
+        this.id = id;
+        this.triggeredBy = triggeredBy;
+        this.modelVersion = modelVersion;
+        this.epsilon = epsilon;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    // Getters y Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public String getTriggeredBy() { return triggeredBy; }
+    public void setTriggeredBy(String triggeredBy) { this.triggeredBy = triggeredBy; }
+
+    public String getModelVersion() { return modelVersion; }
+    public void setModelVersion(String modelVersion) { this.modelVersion = modelVersion; }
+
+    public double getEpsilon() { return epsilon; }
+    public void setEpsilon(double epsilon) { this.epsilon = epsilon; }
+
+    public long getScannedCustomers() { return scannedCustomers; }
+    public void setScannedCustomers(long scannedCustomers) { this.scannedCustomers = scannedCustomers; }
+
+    public long getChangedCustomers() { return changedCustomers; }
+    public void setChangedCustomers(long changedCustomers) { this.changedCustomers = changedCustomers; }
+
+    public long getBandCrossings() { return bandCrossings; }
+    public void setBandCrossings(long bandCrossings) { this.bandCrossings = bandCrossings; }
+
+    public long getFailedCustomers() { return failedCustomers; }
+    public void setFailedCustomers(long failedCustomers) { this.failedCustomers = failedCustomers; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,12 @@
+package com.churninsight.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RescoringRunRepository extends JpaRepository<RescoringRun, String> {
+    List<RescoringRun> findTop20ByOrderByStartedAtDesc();
+    List<RescoringRun> findByStatus(RescoringRun.Status status);
+}
@@ -0,0 +1,121 @@
+package com.churninsight.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Trabajo de scoring masivo. {@code processedRecords} es el checkpoint: se actualiza en
+ * la misma transacción que guarda cada bloque de resultados, así que al reiniciar el
+ * trabajo continúa desde el primer registro sin resultado.
+ */
+@Entity
+@Table(name = "scoring_job", indexes = @Index(name = "idx_scoring_job_user", columnList = "username, status"))
+public class ScoringJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.QUEUED;
+
+    // Archivo CSV con el dataset (subido o referenciado)
+    @Column(nullable = false, length = 1024)
+    private String datasetPath;
+
+    @Column
+    private String datasetName;
+
+    @Column(nullable = false)
+    private long totalRecords;
+
+    @Column(nullable = false)
+    private long processedRecords;
+
+    @Column(nullable = false)
+    private long failedRecords;
+
+    @Column
+    private String modelVersion;
+
+    @Column(length = 1024)
+    private String error;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime startedAt;
+
+    @Column
+    private LocalDateTime finishedAt;
+
+    public ScoringJob() {}
+
+    public ScoringJob(String id, String username, String datasetPath, String datasetName, long totalRecords) {
+        this.id = id;
+        this.username = username;
+        this.datasetPath = datasetPath;
+        this.datasetName = datasetName;
+        this.totalRecords = totalRecords;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    // Porcentaje de avance para el polling
+    public double getProgress() {
+        if (totalRecords == 0) {
+            return isFinished() ? 100.0 : 0.0;
+        }
+        return processedRecords * 100.0 / totalRecords;
+    }
+
+    // Getters y Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public String getDatasetPath() { return datasetPath; }
+    public void setDatasetPath(String datasetPath) { this.datasetPath = datasetPath; }
+
+    public String getDatasetName() { return datasetName; }
+    public void setDatasetName(String datasetName) { this.datasetName = datasetName; }
+
+    public long getTotalRecords() { return totalRecords; }
+    public void setTotalRecords(long totalRecords) { this.totalRecords = totalRecords; }
+
+    public long getProcessedRecords() { return processedRecords; }
+    public void setProcessedRecords(long processedRecords) { this.processedRecords = processedRecords; }
+
+    public long getFailedRecords() { return failedRecords; }
+    public void setFailedRecords(long failedRecords) { this.failedRecords = failedRecords; }
+
+    public String getModelVersion() { return modelVersion; }
+    public void setModelVersion(String modelVersion) { this.modelVersion = modelVersion; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
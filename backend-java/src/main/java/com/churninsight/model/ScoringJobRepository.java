@@ -0,0 +1,15 @@
+package com.churninsight.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ScoringJobRepository extends JpaRepository<ScoringJob, String> {
+    List<ScoringJob> findByUsernameOrderByCreatedAtDesc(String username);
+    long countByUsernameAndStatusIn(String username, Collection<ScoringJob.Status> statuses);
+    long countByStatusIn(Collection<ScoringJob.Status> statuses);
+    List<ScoringJob> findByStatusInOrderByCreatedAt(Collection<ScoringJob.Status> statuses);
+}
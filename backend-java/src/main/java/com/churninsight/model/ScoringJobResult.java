@@ -0,0 +1,99 @@
+package com.churninsight.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Resultado de un registro de un {@link ScoringJob}. La clave es (jobId, recordIndex):
+ * al ser asignada, Hibernate puede agrupar los INSERT en batches JDBC (con IDENTITY no
+ * puede), y como siempre son filas nuevas {@link #isNew()} evita el SELECT previo de merge.
+ */
+@Entity
+@Table(name = "scoring_job_result")
+@IdClass(ScoringJobResult.Key.class)
+public class ScoringJobResult implements Persistable<ScoringJobResult.Key> {
+
+    @Id
+    @Column(length = 36)
+    private String jobId;
+
+    @Id
+    private long recordIndex;
+
+    // CustomerId del dataset
+    @Column
+    private String customerId;
+
+    // null si el registro no se pudo puntuar
+    @Column
+    private Double churnProbability;
+
+    @Column
+    private String error;
+
+    @Transient
+    private boolean persisted;
+
+    public ScoringJobResult() {}
+
+    public ScoringJobResult(String jobId, long recordIndex, String customerId, Double churnProbability, String error) {
+        this.jobId = jobId;
+        this.recordIndex = recordIndex;
+        this.customerId = customerId;
+        this.churnProbability = churnProbability;
+        this.error = error != null && error.length() > 255 ? error.substring(0, 255) : error;
+    }
+
+    @Override
+    @JsonIgnore
+    public Key getId() {
+        return new Key(jobId, recordIndex);
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+
+    public String getJobId() { return jobId; }
+    public long getRecordIndex() { return recordIndex; }
+    public String getCustomerId() { return customerId; }
+    public Double getChurnProbability() { return churnProbability; }
+    public String getError() { return error; }
+
+    public static class Key implements Serializable {
+        private String jobId;
+        private long recordIndex;
+
+        public Key() {}
+
+        public Key(String jobId, long recordIndex) {
+            this.jobId = jobId;
+            this.recordIndex = recordIndex;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return recordIndex == key.recordIndex && Objects.equals(jobId, key.jobId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(jobId, recordIndex);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.churninsight.model;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ScoringJobResultRepository extends JpaRepository<ScoringJobResult, ScoringJobResult.Key> {
+    Page<ScoringJobResult> findByJobIdOrderByRecordIndex(String jobId, Pageable pageable);
+}
@@ -0,0 +1,87 @@
+package com.churninsight.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * BCrypt con un costo calibrado para el hardware donde corre.
+ *
+ * {@link #upgradeEncoding} marca para re-hash todo hash guardado con un costo menor que
+ * el actual; Spring Security lo re-hashea con la contraseña en claro tras un login
+ * exitoso ({@code UserDetailsPasswordService}). Un hash con costo mayor se conserva: la
+ * calibración por tiempo varía entre instancias y reinicios, y el costo solo debe subir.
+ */
+public class AdaptiveBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveBCryptPasswordEncoder.class);
+
+    private static final String CALIBRATION_PASSWORD = "calibracion-bcrypt";
+
+    private final int cost;
+    private final BCryptPasswordEncoder delegate;
+
+    public AdaptiveBCryptPasswordEncoder(int cost) {
+        this.cost = cost;
+        this.delegate = new BCryptPasswordEncoder(cost);
+    }
+
+    /**
+     * Mayor costo cuyo hash tarda a lo sumo {@code targetMillis}, entre {@code minCost} y
+     * {@code maxCost}. Mide el costo mínimo y extrapola: cada punto de costo duplica el tiempo.
+     */
+    public static int calibrate(long targetMillis, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode(CALIBRATION_PASSWORD); // calentamiento del JIT
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            probe.encode(CALIBRATION_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double millis = best / 1_000_000.0;
+        int cost = minCost;
+        while (cost < maxCost && millis * 2 <= targetMillis) {
+            millis *= 2;
+            cost++;
+        }
+        logger.info("[BCrypt] Costo {} calibrado: ~{} ms por hash (objetivo {} ms)", cost,
+            Math.round(millis), targetMillis);
+        return cost;
+    }
+
+    public int cost() {
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int stored = storedCost(encodedPassword);
+        return stored >= 0 && stored < cost;
+    }
+
+    // Costo de un hash "$2a$NN$...", o -1 si no tiene ese formato
+    static int storedCost(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$'
+                || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = encodedPassword.charAt(4);
+        char units = encodedPassword.charAt(5);
+        if (tens < '0' || tens > '9' || units < '0' || units > '9') {
+            return -1;
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+}
@@ -1,5 +1,6 @@
 package com.churninsight.security;
 
+import com.churninsight.config.RequestTiming;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -36,6 +37,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
         
+        RequestTiming.lap("filters");
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
         final String username;
@@ -46,6 +48,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Permitir rutas públicas sin autenticación
         if (requestUri.startsWith("/api/auth/") || 
             requestUri.equals("/actuator/health") ||
+            requestUri.startsWith("/actuator/health/") ||
+            requestUri.equals("/actuator/info") ||
             requestUri.startsWith("/v3/api-docs") ||
             requestUri.startsWith("/swagger-ui")) {
             log.debug("[JWT-FILTER] Ruta pública, saltando autenticación: {}", requestUri);
@@ -70,14 +74,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         try {
             username = jwtService.extractUsername(jwt);
+            RequestTiming.lap("jwt");
             log.info("[JWT-FILTER] Username extraído del token: {}", username);
             
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 log.debug("[JWT-FILTER] Cargando detalles del usuario: {}", username);
                 UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                RequestTiming.lap("user");
                 log.debug("[JWT-FILTER] Usuario cargado con authorities: {}", userDetails.getAuthorities());
                 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                boolean valid = jwtService.isTokenValid(jwt, userDetails);
+                RequestTiming.lap("jwt");
+                if (valid) {
                     log.info("[JWT-FILTER] ✓ Token VÁLIDO - Autenticando usuario: {}", username);
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
@@ -0,0 +1,99 @@
+package com.churninsight.security;
+
+import com.churninsight.config.QueryBudget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool acotado donde corren los logins (verificación BCrypt), fuera de los hilos de
+ * Tomcat: una ráfaga de logins ocupa a lo sumo {@code threads} núcleos y el resto de la
+ * API sigue atendiendo predicciones.
+ *
+ * Con la cola llena el envío falla en el acto ({@link RejectedExecutionException}); una
+ * tarea que esperó en cola más de {@code maxQueueWaitMillis} se descarta sin calcular el
+ * hash, porque el cliente probablemente ya abandonó.
+ */
+@Component
+public class PasswordVerificationExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordVerificationExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final long maxQueueWaitMillis;
+    private final Counter rejected;
+    private final Counter expired;
+
+    public PasswordVerificationExecutor(@Value("${security.login.threads:0}") int threads,
+                                        @Value("${security.login.queue-capacity:64}") int queueCapacity,
+                                        @Value("${security.login.max-queue-wait-ms:3000}") long maxQueueWaitMillis,
+                                        MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "bcrypt-" + sequence.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        this.maxQueueWaitMillis = maxQueueWaitMillis;
+        this.rejected = Counter.builder("churn.login.rejected")
+            .description("Logins rechazados con la cola de verificación llena")
+            .register(meterRegistry);
+        this.expired = Counter.builder("churn.login.expired")
+            .description("Logins descartados por esperar demasiado en cola")
+            .register(meterRegistry);
+        Gauge.builder("churn.login.queued", executor, e -> e.getQueue().size())
+            .description("Logins esperando verificación")
+            .register(meterRegistry);
+        logger.info("[PasswordVerification] {} hilos, cola de {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Ejecuta {@code task} en el pool.
+     *
+     * @throws RejectedExecutionException si la cola está llena
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long enqueued = System.currentTimeMillis();
+        // El presupuesto de consultas del request sigue a la tarea al pool
+        Supplier<T> counted = QueryBudget.propagate(task);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (System.currentTimeMillis() - enqueued > maxQueueWaitMillis) {
+                    expired.increment();
+                    future.completeExceptionally(new RejectedExecutionException("Tiempo de espera en cola agotado"));
+                    return;
+                }
+                try {
+                    future.complete(counted.get());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+        return future;
+    }
+
+    @PreDestroy
+    public void shutdownNow() {
+        executor.shutdownNow();
+    }
+}
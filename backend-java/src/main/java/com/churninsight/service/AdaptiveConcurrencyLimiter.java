@@ -0,0 +1,112 @@
+package com.churninsight.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de concurrencia adaptativo (AIMD) para el camino de predicción.
+ * Hay uno por tipo de request ({@code LoadSheddingConfig}): un lote tarda mucho más que una
+ * predicción individual y con el mismo límite su latencia haría caer el de los interactivos.
+ *
+ * Cada request completado aporta su latencia: si supera el umbral o terminó en error
+ * el límite baja multiplicativamente (como mucho una vez por ventana de latencia, para
+ * que una ráfaga de requests lentos no lo derrumbe); si no, y el límite está en uso,
+ * sube de a uno. Cuando el servicio Python o MySQL se degradan el límite cae y el
+ * exceso se rechaza de inmediato en lugar de quedar esperando en hilos de Tomcat.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private long lastDecrease;
+
+    private final Counter rejected;
+
+    /**
+     * @param path tag de las métricas: predict o batch
+     */
+    public AdaptiveConcurrencyLimiter(String path, int initialLimit, int minLimit, int maxLimit,
+                                      long latencyThresholdMillis, double backoffRatio, MeterRegistry meterRegistry) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdMillis * 1_000_000;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+
+        Gauge.builder("churn.predict.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+            .tag("path", path)
+            .description("Límite de concurrencia adaptativo del camino de predicción")
+            .register(meterRegistry);
+        Gauge.builder("churn.predict.concurrency.in_flight", inFlight, AtomicInteger::get)
+            .tag("path", path)
+            .description("Predicciones en curso")
+            .register(meterRegistry);
+        // Mismas claves de tag que el rechazo por usuario (reason); el lote se distingue en el valor
+        this.rejected = Counter.builder("churn.predict.rejected")
+            .tag("reason", "batch".equals(path) ? "batch-concurrency" : "concurrency")
+            .description("Requests rechazados por el límite de concurrencia")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Reserva un lugar si hay capacidad. Nunca bloquea.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera el lugar y ajusta el límite con la latencia observada.
+     *
+     * @param failed true si el request terminó en error del servidor
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                if (now - lastDecrease >= latencyThresholdNanos) {
+                    double previous = limit;
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecrease = now;
+                    if ((int) previous != (int) limit) {
+                        logger.debug("[ConcurrencyLimiter] Límite {} -> {} (latencia {} ms, error={})",
+                            (int) previous, (int) limit, latencyNanos / 1_000_000, failed);
+                    }
+                }
+            } else if (current * 2 >= limit) {
+                // Solo crece si se está usando: un límite ocioso no demuestra capacidad
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
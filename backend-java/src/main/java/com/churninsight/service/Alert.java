@@ -0,0 +1,21 @@
+package com.churninsight.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Alerta disparada por una regla.
+ *
+ * @param username dueño de la predicción que la disparó; null en las alertas que suman
+ *                 predicciones de todos los usuarios (capital en riesgo diario)
+ * @param value    valor observado (probabilidad, suba o capital en riesgo según el tipo)
+ */
+public record Alert(Long ruleId, String ruleName, String type, String username, String customerId, String country,
+                    double value, double threshold, String message, LocalDateTime triggeredAt) {
+
+    /**
+     * Si el usuario puede ver la alerta: la propia o, para un admin, cualquiera.
+     */
+    public boolean visibleTo(String viewer, boolean admin) {
+        return admin || (username != null && username.equals(viewer));
+    }
+}
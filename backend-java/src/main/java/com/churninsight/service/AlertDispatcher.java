@@ -0,0 +1,96 @@
+package com.churninsight.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Entrega asíncrona de alertas. Cada sink habilitado tiene una cola acotada y un hilo
+ * propio: {@link #publish} solo hace {@code offer}, así que un sink lento o caído nunca
+ * frena la predicción; si su cola está llena la alerta se descarta y se cuenta.
+ */
+@Component
+public class AlertDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertDispatcher.class);
+
+    private static final int MAX_DRAIN = 100;
+
+    private final List<SinkWorker> workers = new ArrayList<>();
+
+    public AlertDispatcher(List<AlertSink> sinks, MeterRegistry meterRegistry,
+                           @Value("${alerts.queue-capacity:10000}") int queueCapacity) {
+        for (AlertSink sink : sinks) {
+            if (!sink.isEnabled()) {
+                logger.info("[AlertDispatcher] Sink {} deshabilitado", sink.name());
+                continue;
+            }
+            SinkWorker worker = new SinkWorker(sink, queueCapacity, meterRegistry);
+            workers.add(worker);
+            worker.thread.start();
+        }
+    }
+
+    public void publish(Alert alert) {
+        for (SinkWorker worker : workers) {
+            if (!worker.queue.offer(alert)) {
+                worker.dropped.increment();
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.forEach(worker -> worker.thread.interrupt());
+    }
+
+    private static final class SinkWorker implements Runnable {
+
+        private final AlertSink sink;
+        private final BlockingQueue<Alert> queue;
+        private final Counter delivered;
+        private final Counter dropped;
+        private final Counter failed;
+        private final Thread thread;
+
+        SinkWorker(AlertSink sink, int capacity, MeterRegistry meterRegistry) {
+            this.sink = sink;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.delivered = Counter.builder("churn.alerts.delivered").tag("sink", sink.name()).register(meterRegistry);
+            this.dropped = Counter.builder("churn.alerts.dropped").tag("sink", sink.name()).register(meterRegistry);
+            this.failed = Counter.builder("churn.alerts.failed").tag("sink", sink.name()).register(meterRegistry);
+            this.thread = new Thread(this, "alert-sink-" + sink.name());
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<Alert> batch = new ArrayList<>(MAX_DRAIN);
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    batch.add(queue.take());
+                    queue.drainTo(batch, MAX_DRAIN - 1);
+                    sink.deliver(batch);
+                    delivered.increment(batch.size());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    failed.increment(batch.size());
+                    logger.warn("[AlertDispatcher] Error entregando {} alertas a {}: {}",
+                        batch.size(), sink.name(), e.getMessage());
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.churninsight.service;
+
+import com.churninsight.model.AlertRule;
+import com.churninsight.model.AlertRuleRepository;
+import com.churninsight.model.PredictionHistory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Motor de reglas de alerta evaluado en línea con cada predicción guardada.
+ *
+ * Las reglas habilitadas se compilan en un índice por país: una predicción solo evalúa
+ * las reglas de su país más las que no filtran por país, y las reglas que necesitan el
+ * estado del cliente se saltan si el CustomerId no es estable. La evaluación es O(reglas
+ * relevantes) sin E/S; las alertas se entregan por {@link AlertDispatcher}.
+ */
+@Service
+public class AlertEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertEngine.class);
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private final AlertRuleRepository ruleRepository;
+    private final CustomerRiskStore customerRiskStore;
+    private final AlertDispatcher dispatcher;
+    private final Counter triggered;
+
+    // Acumulados diarios por regla; sobreviven a la recompilación del índice pero no a un
+    // reinicio: tras reiniciar, la suma del día vuelve a empezar desde cero
+    private final Map<Long, DailyTotal> dailyTotals = new ConcurrentHashMap<>();
+
+    private volatile RuleIndex index = RuleIndex.EMPTY;
+
+    public AlertEngine(AlertRuleRepository ruleRepository, CustomerRiskStore customerRiskStore,
+                       AlertDispatcher dispatcher, MeterRegistry meterRegistry) {
+        this.ruleRepository = ruleRepository;
+        this.customerRiskStore = customerRiskStore;
+        this.dispatcher = dispatcher;
+        this.triggered = Counter.builder("churn.alerts.triggered")
+            .description("Alertas disparadas por las reglas")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Recompila el índice con las reglas habilitadas. Se llama al arrancar y tras cada
+     * cambio de reglas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        try {
+            List<AlertRule> rules = ruleRepository.findByEnabledTrue();
+            index = RuleIndex.compile(rules);
+            dailyTotals.keySet().retainAll(rules.stream().map(AlertRule::getId).toList());
+            logger.info("[AlertEngine] {} reglas de alerta compiladas", rules.size());
+        } catch (Exception e) {
+            logger.error("[AlertEngine] No se pudieron cargar las reglas: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Evalúa las reglas relevantes para una predicción ya guardada. Nunca lanza: un error
+     * en las alertas no debe afectar la predicción.
+     *
+     * @param previous probabilidad anterior del cliente ({@link CustomerRiskStore#record}),
+     *                 NaN si no se seguía
+     */
+    public void evaluate(PredictionHistory history, double previous) {
+        try {
+            RuleIndex current = index;
+            if (current.isEmpty() || history.getChurnProbability() == null) {
+                return;
+            }
+            boolean tracked = CustomerRiskStore.parseKey(history.getCustomerId()) >= 0;
+            evaluate(current.global, history, previous, tracked);
+            if (history.getCountry() != null) {
+                AlertRule[] byCountry = current.byCountry.get(history.getCountry());
+                if (byCountry != null) {
+                    evaluate(byCountry, history, previous, tracked);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("[AlertEngine] Error evaluando reglas: {}", e.getMessage(), e);
+        }
+    }
+
+    private void evaluate(AlertRule[] rules, PredictionHistory history, double previous, boolean tracked) {
+        double probability = history.getChurnProbability();
+        for (AlertRule rule : rules) {
+            double threshold = rule.getThreshold();
+            switch (rule.getType()) {
+                case PROBABILITY_CROSSES -> {
+                    // Sin probabilidad anterior (primera predicción o cliente sin id estable) cuenta como debajo
+                    boolean wasBelow = Double.isNaN(previous) || previous < threshold;
+                    if (wasBelow && probability >= threshold) {
+                        fire(rule, history, probability, Double.isNaN(previous)
+                            ? String.format("Probabilidad %.3f cruzó %.3f (primera predicción)", probability, threshold)
+                            : String.format("Probabilidad %.3f cruzó %.3f (antes %.3f)", probability, threshold,
+                                previous));
+                    }
+                }
+                case RISE_WITHIN -> {
+                    // Solo si esta predicción subió el riesgo y la suba en la ventana cruza el umbral ahora
+                    if (tracked && probability > previous) {
+                        double rise = customerRiskStore.riseWithin(history.getCustomerId(),
+                            rule.getWindowDays() * DAY_MILLIS);
+                        if (rise >= threshold && rise - (probability - previous) < threshold) {
+                            fire(rule, history, rise, String.format("Riesgo subió %.3f en %d días",
+                                rise, rule.getWindowDays()));
+                        }
+                    }
+                }
+                case DAILY_CAPITAL_AT_RISK -> {
+                    // Un cliente ya seguido aporta solo el cambio de su probabilidad, para que
+                    // repredecirlo no vuelva a sumar todo su balance
+                    double delta = Double.isNaN(previous) ? probability : probability - previous;
+                    double capital = history.getBalance() != null ? history.getBalance() * delta : 0.0;
+                    LocalDate day = history.getPredictionDate() != null
+                        ? history.getPredictionDate().toLocalDate() : LocalDate.now();
+                    double total = dailyTotals.computeIfAbsent(rule.getId(), id -> new DailyTotal())
+                        .addAndCheck(day, capital, threshold);
+                    if (!Double.isNaN(total)) {
+                        fire(rule, history, total, String.format("Capital en riesgo del día %s: %.2f",
+                            day, total));
+                    }
+                }
+            }
+        }
+    }
+
+    private void fire(AlertRule rule, PredictionHistory history, double value, String message) {
+        triggered.increment();
+        // El capital diario suma predicciones de todos los usuarios: no tiene cliente ni dueño
+        boolean aggregate = rule.getType() == AlertRule.Type.DAILY_CAPITAL_AT_RISK;
+        dispatcher.publish(new Alert(rule.getId(), rule.getName(), rule.getType().name(),
+            aggregate ? null : history.getUsername(), aggregate ? null : history.getCustomerId(),
+            history.getCountry(), value, rule.getThreshold(), message, LocalDateTime.now()));
+    }
+
+    /**
+     * Suma diaria de una regla de capital en riesgo; dispara una sola vez por día.
+     */
+    private static final class DailyTotal {
+
+        private LocalDate day;
+        private double total;
+        private boolean fired;
+
+        // Retorna el total si esta suma cruzó el umbral, NaN si no
+        synchronized double addAndCheck(LocalDate date, double amount, double threshold) {
+            if (!date.equals(day)) {
+                day = date;
+                total = 0.0;
+                fired = false;
+            }
+            total += amount;
+            if (!fired && total > threshold) {
+                fired = true;
+                return total;
+            }
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Reglas habilitadas agrupadas por el país que filtran.
+     */
+    private record RuleIndex(AlertRule[] global, Map<String, AlertRule[]> byCountry) {
+
+        static final RuleIndex EMPTY = new RuleIndex(new AlertRule[0], Map.of());
+
+        static RuleIndex compile(List<AlertRule> rules) {
+            List<AlertRule> global = new ArrayList<>();
+            Map<String, List<AlertRule>> byCountry = new HashMap<>();
+            for (AlertRule rule : rules) {
+                if (rule.getCountry() == null || rule.getCountry().isBlank()) {
+                    global.add(rule);
+                } else {
+                    byCountry.computeIfAbsent(rule.getCountry(), c -> new ArrayList<>()).add(rule);
+                }
+            }
+            Map<String, AlertRule[]> compiled = new HashMap<>();
+            byCountry.forEach((country, list) -> compiled.put(country, list.toArray(new AlertRule[0])));
+            return new RuleIndex(global.toArray(new AlertRule[0]), Map.copyOf(compiled));
+        }
+
+        boolean isEmpty() {
+            return global.length == 0 && byCountry.isEmpty();
+        }
+    }
+}
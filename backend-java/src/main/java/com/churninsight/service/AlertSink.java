@@ -0,0 +1,18 @@
+package com.churninsight.service;
+
+import java.util.List;
+
+/**
+ * Destino de las alertas. {@link AlertDispatcher} llama a {@link #deliver} desde un hilo
+ * propio del sink, con las alertas acumuladas desde la última entrega.
+ */
+public interface AlertSink {
+
+    String name();
+
+    default boolean isEnabled() {
+        return true;
+    }
+
+    void deliver(List<Alert> alerts) throws Exception;
+}
@@ -0,0 +1,141 @@
+package com.churninsight.service;
+
+import com.churninsight.controller.ChurnPredictionRequest;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lector secuencial de datasets con el formato de {@code Banco_Churn.csv}. Las columnas se
+ * ubican por nombre en el encabezado y las variables del modelo se derivan con
+ * {@link FeatureTransform}.
+ */
+public class ChurnCsvReader implements Closeable {
+
+    /**
+     * Fila leída. {@code request} es null y {@code error} describe el problema si la fila
+     * no se pudo interpretar.
+     */
+    public record Row(long index, String customerId, ChurnPredictionRequest request, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final int country;
+    private final int age;
+    private final int tenure;
+    private final int balance;
+    private final int numOfProducts;
+    private final int isActiveMember;
+    private final int estimatedSalary;
+    private final int customerId;
+    private final int columns;
+    private long index;
+
+    public ChurnCsvReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IOException("Dataset vacío");
+        }
+        Map<String, Integer> positions = new HashMap<>();
+        String[] names = header.split(",");
+        for (int i = 0; i < names.length; i++) {
+            positions.put(names[i].trim(), i);
+        }
+        this.columns = names.length;
+        this.country = require(positions, "Country");
+        this.age = require(positions, "Age");
+        this.tenure = require(positions, "Tenure");
+        this.balance = require(positions, "Balance");
+        this.numOfProducts = require(positions, "NumOfProducts");
+        this.isActiveMember = require(positions, "IsActiveMember");
+        this.estimatedSalary = require(positions, "EstimatedSalary");
+        this.customerId = positions.getOrDefault("CustomerId", -1);
+    }
+
+    public static ChurnCsvReader open(Path path) throws IOException {
+        return new ChurnCsvReader(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Cantidad de filas de datos (sin encabezado ni líneas vacías).
+     */
+    public static long countRecords(Path path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            long count = -1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    count++;
+                }
+            }
+            return Math.max(count, 0);
+        }
+    }
+
+    private static int require(Map<String, Integer> positions, String column) throws IOException {
+        Integer position = positions.get(column);
+        if (position == null) {
+            throw new IOException("Falta la columna " + column + " en el dataset");
+        }
+        return position;
+    }
+
+    /**
+     * Siguiente fila, o {@code null} al final del archivo.
+     */
+    public Row next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        long current = index++;
+        String[] c = line.split(",", -1);
+        String id = customerId >= 0 && customerId < c.length ? c[customerId] : null;
+        if (c.length < columns) {
+            return new Row(current, id, null, "Fila incompleta: " + c.length + " columnas");
+        }
+        try {
+            return new Row(current, id, toRequest(c), null);
+        } catch (NumberFormatException e) {
+            return new Row(current, id, null, "Valor numérico inválido: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Salta filas de datos ya procesadas (reanudación desde un checkpoint).
+     */
+    public void skip(long rows) throws IOException {
+        while (index < rows && next() != null) {
+            // solo avanza
+        }
+    }
+
+    private ChurnPredictionRequest toRequest(String[] c) {
+        ChurnPredictionRequest request = new ChurnPredictionRequest();
+        request.setAge(Integer.parseInt(c[age]));
+        request.setNumOfProducts((double) Integer.parseInt(c[numOfProducts]));
+        request.setIsActiveMember("1".equals(c[isActiveMember]));
+        request.setCountry(c[country]);
+        request.setBalance(Double.parseDouble(c[balance]));
+        request.setEstimatedSalary(Double.parseDouble(c[estimatedSalary]));
+        request.setTenure(Integer.parseInt(c[tenure]));
+        FeatureTransform.apply(request);
+        return request;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
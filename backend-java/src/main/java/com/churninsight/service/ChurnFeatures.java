@@ -0,0 +1,61 @@
+package com.churninsight.service;
+
+import com.churninsight.controller.ChurnPredictionRequest;
+
+import java.util.List;
+
+/**
+ * Orden y nombres de las variables que consume el modelo de churn.
+ * Es el mismo orden que envía {@link ChurnModelClient} al servicio Python
+ * y el que usan las columnas del notebook.
+ */
+public final class ChurnFeatures {
+
+    public static final int AGE_RISK = 0;
+    public static final int NUM_OF_PRODUCTS = 1;
+    public static final int INACTIVO_40_70 = 2;
+    public static final int PRODUCTS_RISK_FLAG = 3;
+    public static final int COUNTRY_RISK_FLAG = 4;
+
+    public static final int COUNT = 5;
+
+    /** Nombres de los campos en {@link ChurnPredictionRequest}. */
+    public static final List<String> REQUEST_FIELDS = List.of(
+        "ageRisk", "numOfProducts", "inactivo4070", "productsRiskFlag", "countryRiskFlag");
+
+    /** Nombres de las columnas en el modelo entrenado (PMML / pkl). */
+    public static final List<String> MODEL_FIELDS = List.of(
+        "Age_Risk", "NumOfProducts", "Inactivo_40_70", "Products_Risk_Flag", "Country_Risk_Flag");
+
+    private ChurnFeatures() {
+    }
+
+    /**
+     * Índice de una variable a partir de su nombre en el request o en el modelo.
+     * Retorna -1 si el nombre no corresponde a ninguna variable del modelo.
+     */
+    public static int indexOf(String name) {
+        int index = REQUEST_FIELDS.indexOf(name);
+        return index >= 0 ? index : MODEL_FIELDS.indexOf(name);
+    }
+
+    /**
+     * Convierte el request en el vector de variables del modelo.
+     */
+    public static double[] toVector(ChurnPredictionRequest request) {
+        double[] x = new double[COUNT];
+        x[AGE_RISK] = require(request.getAgeRisk(), AGE_RISK);
+        x[NUM_OF_PRODUCTS] = require(request.getNumOfProducts(), NUM_OF_PRODUCTS);
+        x[INACTIVO_40_70] = require(request.getInactivo4070(), INACTIVO_40_70);
+        x[PRODUCTS_RISK_FLAG] = require(request.getProductsRiskFlag(), PRODUCTS_RISK_FLAG);
+        x[COUNTRY_RISK_FLAG] = require(request.getCountryRiskFlag(), COUNTRY_RISK_FLAG);
+        return x;
+    }
+
+    private static double require(Double value, int index) {
+        if (value == null) {
+            throw new IllegalArgumentException("Falta la variable del modelo: " + REQUEST_FIELDS.get(index));
+        }
+        return value;
+    }
+}
@@ -1,6 +1,8 @@
 package com.churninsight.service;
 
 import com.churninsight.controller.ChurnPredictionRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -17,17 +19,76 @@ import java.util.ArrayList;
 @Component
 public class ChurnModelClient {
 
+    private static final Logger logger = LoggerFactory.getLogger(ChurnModelClient.class);
+
     private final RestTemplate rest = new RestTemplate();
 
+    private final ModelRegistry modelRegistry;
+    private final UdsPredictorClient udsClient;
+
     @Value("${python-service.url}")
     private String pythonUrl;
 
+    @Value("${python-service.model-version:modelo_Banco_churn}")
+    private String pythonModelVersion;
+
+    // "python" (servicio FastAPI) o "registry" (versión activa del ModelRegistry)
+    @Value("${churn-model.source:python}")
+    private String source;
+
+    // "http" (JSON) o "uds" (protocolo binario sobre socket Unix, ver UdsPredictorClient)
+    @Value("${python-service.transport:http}")
+    private String transport;
+
+    public ChurnModelClient(ModelRegistry modelRegistry, UdsPredictorClient udsClient) {
+        this.modelRegistry = modelRegistry;
+        this.udsClient = udsClient;
+    }
+
     /**
-     * Realiza predicción de churn usando el servicio Python FastAPI
-     * Retorna un Map con churn_probability
+     * Realiza predicción de churn usando el servicio Python FastAPI o el registro local
+     * Retorna un Map con churn_probability y model_version
      */
-    @SuppressWarnings("unchecked")
     public Map<String, Object> predict(ChurnPredictionRequest request) {
+        Map<String, Object> result;
+        if ("registry".equals(source)) {
+            ModelVersion version = modelRegistry.active();
+            result = new HashMap<>();
+            result.put("churn_probability", version.getModel().predict(ChurnFeatures.toVector(request)));
+            result.put("model_version", version.getVersion());
+        } else {
+            result = predictRemote(request);
+        }
+        shadow(request, (Double) result.get("churn_probability"));
+        return result;
+    }
+
+    private void shadow(ChurnPredictionRequest request, double probability) {
+        if (!modelRegistry.isShadowing()) {
+            return;
+        }
+        try {
+            modelRegistry.shadowScore(ChurnFeatures.toVector(request), probability);
+        } catch (RuntimeException e) {
+            logger.debug("[ChurnModelClient] Muestra shadow omitida: {}", e.getMessage());
+        }
+    }
+
+    private Map<String, Object> predictRemote(ChurnPredictionRequest request) {
+        double probability = "uds".equals(transport)
+            ? udsClient.predict(ChurnFeatures.toVector(request), 1)[0]
+            : predictHttp(request);
+
+        // Retornar en formato esperado por el controlador
+        Map<String, Object> result = new HashMap<>();
+        result.put("churn_probability", probability);
+        result.put("model_version", pythonModelVersion);
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private double predictHttp(ChurnPredictionRequest request) {
         String url = pythonUrl + "/predict";
         
         // Convertir request a lista de features en el orden correcto
@@ -61,11 +122,6 @@ public class ChurnModelClient {
         } else {
             throw new RuntimeException("Invalid response from python service");
         }
-        
-        // Retornar en formato esperado por el controlador
-        Map<String, Object> result = new HashMap<>();
-        result.put("churn_probability", probability);
-        
-        return result;
+        return probability;
     }
-}
\ No newline at end of file
+}
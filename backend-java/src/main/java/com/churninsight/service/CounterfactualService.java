@@ -0,0 +1,223 @@
+package com.churninsight.service;
+
+import com.churninsight.config.CounterfactualProperties;
+import com.churninsight.controller.CounterfactualRequest;
+import com.churninsight.controller.CounterfactualResponse;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Búsqueda contrafactual: conjunto de cambios accionables de menor costo que deja la
+ * probabilidad de churn bajo un umbral.
+ *
+ * Solo se prueban valores en las fronteras de split del ensamble (un representante por
+ * intervalo entre umbrales) y la búsqueda en profundidad poda por costo acumulado y por
+ * factibilidad, usando como cota la hoja de menor valor alcanzable en cada árbol dentro
+ * del rango que aún pueden tomar las variables sin decidir.
+ */
+@Service
+public class CounterfactualService {
+
+    // "isActiveMember" se expresa en el modelo a través de Inactivo_40_70
+    private static final String IS_ACTIVE_MEMBER = "isActiveMember";
+
+    private final LocalChurnScorer scorer;
+    private final CounterfactualProperties properties;
+
+    public CounterfactualService(LocalChurnScorer scorer, CounterfactualProperties properties) {
+        this.scorer = scorer;
+        this.properties = properties;
+    }
+
+    public CounterfactualResponse search(CounterfactualRequest request) {
+        TreeEnsembleModel model = scorer.model();
+        FeatureTransform.apply(request.getBase());
+        double[] base = ChurnFeatures.toVector(request.getBase());
+        double target = request.getTarget() != null ? request.getTarget() : properties.getDefaultTarget();
+        Map<String, Double> costs = request.getCosts() != null ? request.getCosts() : properties.getCosts();
+
+        Search search = new Search(model, base, target, actionable(model, base, costs));
+        double baseProbability = model.predict(base);
+        if (baseProbability < target) {
+            return new CounterfactualResponse(true, baseProbability, target, baseProbability, 0.0, List.of(), 0);
+        }
+
+        search.run(0, 0.0);
+        if (search.best == null) {
+            return new CounterfactualResponse(false, baseProbability, target, null, 0.0, List.of(),
+                search.nodes);
+        }
+
+        List<CounterfactualResponse.Change> changes = new ArrayList<>();
+        for (int f = 0; f < ChurnFeatures.COUNT; f++) {
+            if (search.best[f] != base[f]) {
+                changes.add(new CounterfactualResponse.Change(ChurnFeatures.REQUEST_FIELDS.get(f),
+                    base[f], search.best[f], search.changeCost(f, search.best[f])));
+            }
+        }
+        return new CounterfactualResponse(true, baseProbability, target, model.predict(search.best),
+            search.bestCost, changes, search.nodes);
+    }
+
+    private List<Actionable> actionable(TreeEnsembleModel model, double[] base, Map<String, Double> costs) {
+        if (costs == null || costs.isEmpty()) {
+            throw new IllegalArgumentException("No hay variables accionables configuradas");
+        }
+        List<Actionable> result = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : costs.entrySet()) {
+            String name = IS_ACTIVE_MEMBER.equals(entry.getKey()) ? "inactivo4070" : entry.getKey();
+            int f = ChurnFeatures.indexOf(name);
+            if (f < 0) {
+                throw new IllegalArgumentException("Variable no accionable: " + entry.getKey());
+            }
+            Double weight = entry.getValue();
+            if (weight == null || weight < 0) {
+                throw new IllegalArgumentException("Costo inválido para " + entry.getKey());
+            }
+            if (result.stream().anyMatch(a -> a.feature == f)) {
+                continue;
+            }
+            result.add(new Actionable(f, weight, candidates(model, f, base[f], weight)));
+        }
+        return result;
+    }
+
+    /**
+     * Un valor por intervalo entre umbrales; el intervalo del valor actual se representa
+     * con el propio valor (costo cero). Ordenados por costo para encontrar primero
+     * soluciones baratas y podar antes.
+     */
+    private static double[][] candidates(TreeEnsembleModel model, int f, double current, double weight) {
+        float[] thresholds = model.thresholds(f);
+        int currentBin = model.bin(f, current);
+        List<double[]> values = new ArrayList<>();
+        for (int bin = 0; bin <= thresholds.length; bin++) {
+            double value;
+            if (bin == currentBin) {
+                value = current;
+            } else if (bin == 0) {
+                value = Math.max(0.0, Math.floor(thresholds[0] - 1.0));
+            } else {
+                value = thresholds[bin - 1];
+            }
+            if (bin != currentBin && model.bin(f, value) != bin) {
+                continue;
+            }
+            values.add(new double[] {value, weight * Math.abs(value - current)});
+        }
+        values.sort(Comparator.comparingDouble(v -> v[1]));
+        return values.toArray(new double[0][]);
+    }
+
+    private record Actionable(int feature, double weight, double[][] candidates) {
+    }
+
+    /**
+     * Estado de una búsqueda (una por request).
+     */
+    private static final class Search {
+        private final TreeEnsembleModel model;
+        private final double[] base;
+        private final double target;
+        private final List<Actionable> actionable;
+        // Products_Risk_Flag se deriva de NumOfProducts (>= 3) si no es accionable por sí misma
+        private final boolean coupleProductsFlag;
+
+        private final double[] x;
+        private final double[] lo;
+        private final double[] hi;
+
+        private double[] best;
+        private double bestCost = Double.POSITIVE_INFINITY;
+        private long nodes;
+
+        Search(TreeEnsembleModel model, double[] base, double target, List<Actionable> actionable) {
+            this.model = model;
+            this.base = base;
+            this.target = target;
+            this.actionable = actionable;
+            boolean products = false;
+            boolean flag = false;
+            for (Actionable a : actionable) {
+                products |= a.feature == ChurnFeatures.NUM_OF_PRODUCTS;
+                flag |= a.feature == ChurnFeatures.PRODUCTS_RISK_FLAG;
+            }
+            this.coupleProductsFlag = products && !flag;
+            this.x = base.clone();
+            this.lo = new double[ChurnFeatures.COUNT];
+            this.hi = new double[ChurnFeatures.COUNT];
+        }
+
+        void run(int depth, double cost) {
+            nodes++;
+            if (cost >= bestCost) {
+                return;
+            }
+            bounds(depth);
+            if (model.probability(model.minMargin(lo, hi)) >= target) {
+                return;
+            }
+            if (depth == actionable.size()) {
+                best = x.clone();
+                bestCost = cost;
+                return;
+            }
+            Actionable a = actionable.get(depth);
+            for (double[] candidate : a.candidates) {
+                if (cost + candidate[1] >= bestCost) {
+                    break;
+                }
+                set(a.feature, candidate[0]);
+                run(depth + 1, cost + candidate[1]);
+            }
+            set(a.feature, base[a.feature]);
+        }
+
+        // Rango de cada variable: fija si ya se decidió, el de sus candidatos si no
+        private void bounds(int depth) {
+            System.arraycopy(x, 0, lo, 0, x.length);
+            System.arraycopy(x, 0, hi, 0, x.length);
+            for (int i = depth; i < actionable.size(); i++) {
+                Actionable a = actionable.get(i);
+                for (double[] candidate : a.candidates) {
+                    widen(a.feature, candidate[0]);
+                    if (coupleProductsFlag && a.feature == ChurnFeatures.NUM_OF_PRODUCTS) {
+                        widen(ChurnFeatures.PRODUCTS_RISK_FLAG, productsFlag(candidate[0]));
+                    }
+                }
+            }
+        }
+
+        private void widen(int f, double value) {
+            lo[f] = Math.min(lo[f], value);
+            hi[f] = Math.max(hi[f], value);
+        }
+
+        private void set(int f, double value) {
+            x[f] = value;
+            if (coupleProductsFlag && f == ChurnFeatures.NUM_OF_PRODUCTS) {
+                x[ChurnFeatures.PRODUCTS_RISK_FLAG] = productsFlag(value);
+            }
+        }
+
+        private double productsFlag(double numOfProducts) {
+            if (numOfProducts == base[ChurnFeatures.NUM_OF_PRODUCTS]) {
+                return base[ChurnFeatures.PRODUCTS_RISK_FLAG];
+            }
+            return FeatureTransform.atLeast(numOfProducts, FeatureTransform.PRODUCTS_RISK_MIN);
+        }
+
+        double changeCost(int f, double value) {
+            for (Actionable a : actionable) {
+                if (a.feature == f) {
+                    return a.weight * Math.abs(value - base[f]);
+                }
+            }
+            return 0.0;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.churninsight.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ingesta de CSV con el formato de {@code Banco_Churn.csv} para scoring de alto volumen.
+ *
+ * El archivo se divide en bloques cortados en fin de línea; cada bloque se mapea en
+ * memoria y un worker lo tokeniza sobre los bytes mapeados (sin crear Strings ni objetos
+ * por fila), deriva las variables del modelo con {@link FeatureTransform} y lo puntúa con
+ * el modelo compilado activo.
+ * Los resultados se escriben como CSV {@code CustomerId,churn_probability} en el orden del
+ * archivo a medida que cada bloque termina, con una ventana acotada de bloques en vuelo.
+ *
+ * El tokenizador no soporta campos entre comillas (los extractos no los usan); una fila
+ * que no se puede interpretar sale con la probabilidad vacía.
+ */
+@Service
+public class CsvIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CsvIngestionService.class);
+
+    private static final int HEADER_PROBE_BYTES = 64 * 1024;
+    private static final byte[] OUTPUT_HEADER = "CustomerId,churn_probability\n".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Resultado de una ingesta.
+     */
+    public record Summary(long rows, long failed, long millis) {
+    }
+
+    private final LocalChurnScorer scorer;
+    private final int chunkBytes;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    public CsvIngestionService(LocalChurnScorer scorer,
+                               @Value("${ingestion.chunk-bytes:4194304}") int chunkBytes,
+                               @Value("${ingestion.parallelism:0}") int parallelism) {
+        this.scorer = scorer;
+        this.chunkBytes = chunkBytes;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.parallelism, r -> {
+            Thread t = new Thread(r, "csv-ingestion-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Puntúa el archivo completo y escribe los resultados en {@code out}.
+     *
+     * @throws IllegalArgumentException si faltan columnas requeridas en el encabezado
+     * @throws IllegalStateException si no hay modelo local cargado
+     */
+    public Summary score(Path csv, OutputStream out) throws IOException {
+        return score(csv, scorer.model(), out);
+    }
+
+    /**
+     * Igual que {@link #score(Path, OutputStream)} con un modelo explícito.
+     */
+    public Summary score(Path csv, TreeEnsembleModel model, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer probe = ByteBuffer.allocate((int) Math.min(HEADER_PROBE_BYTES, size));
+            channel.read(probe, 0);
+            int headerEnd = lineEnd(probe, 0, probe.position());
+            if (headerEnd < 0) {
+                throw new IllegalArgumentException("Encabezado no encontrado en el dataset");
+            }
+            Columns columns = Columns.parse(new String(probe.array(), 0, headerEnd, StandardCharsets.UTF_8));
+
+            out.write(OUTPUT_HEADER);
+            Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+            long rows = 0;
+            long failed = 0;
+            long position = headerEnd + 1L;
+            while (position < size || !inFlight.isEmpty()) {
+                // Ventana acotada: nunca más de 2 bloques por worker pendientes de escribir
+                while (position < size && inFlight.size() < parallelism * 2) {
+                    long end = chunkEnd(channel, position, size);
+                    MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, end - position);
+                    inFlight.add(executor.submit(() -> new ChunkScorer(columns, model).score(region)));
+                    position = end;
+                }
+                ChunkResult result = await(inFlight.poll());
+                out.write(result.output, 0, result.length);
+                rows += result.rows;
+                failed += result.failed;
+            }
+            out.flush();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            logger.info("[CsvIngestion] {}: {} filas ({} inválidas) en {} ms", csv.getFileName(), rows, failed, millis);
+            return new Summary(rows, failed, millis);
+        }
+    }
+
+    private static ChunkResult await(Future<ChunkResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Ingesta interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error procesando un bloque: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Fin del bloque que empieza en position: el primer salto de línea después del tamaño nominal
+    private long chunkEnd(FileChannel channel, long position, long size) throws IOException {
+        long nominal = position + chunkBytes;
+        if (nominal >= size) {
+            return size;
+        }
+        ByteBuffer probe = ByteBuffer.allocate(HEADER_PROBE_BYTES);
+        for (long scan = nominal; scan < size; scan += probe.capacity()) {
+            probe.clear();
+            int n = channel.read(probe, scan);
+            int newline = lineEnd(probe, 0, Math.max(n, 0));
+            if (newline >= 0) {
+                return scan + newline + 1;
+            }
+        }
+        return size;
+    }
+
+    private static int lineEnd(ByteBuffer buf, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Posiciones de las columnas que usa el modelo.
+     */
+    record Columns(int count, int age, int country, int numOfProducts, int isActiveMember, int customerId) {
+
+        static Columns parse(String header) {
+            String[] names = header.trim().split(",");
+            int[] found = {-1, -1, -1, -1, -1};
+            String[] wanted = {"Age", "Country", "NumOfProducts", "IsActiveMember", "CustomerId"};
+            for (int i = 0; i < names.length; i++) {
+                for (int w = 0; w < wanted.length; w++) {
+                    if (wanted[w].equals(names[i].trim())) {
+                        found[w] = i;
+                    }
+                }
+            }
+            for (int w = 0; w < 4; w++) {
+                if (found[w] < 0) {
+                    throw new IllegalArgumentException("Falta la columna " + wanted[w] + " en el dataset");
+                }
+            }
+            return new Columns(names.length, found[0], found[1], found[2], found[3], found[4]);
+        }
+    }
+
+    private record ChunkResult(byte[] output, int length, long rows, long failed) {
+    }
+
+    /**
+     * Tokeniza y puntúa un bloque. Una instancia por bloque; el vector de variables, los
+     * offsets de campos y el buffer de salida se reutilizan para todas sus filas.
+     */
+    static final class ChunkScorer {
+        private final Columns columns;
+        private final TreeEnsembleModel model;
+        private final int[] fieldStart;
+        private final int[] fieldEnd;
+        private final double[] x = new double[ChurnFeatures.COUNT];
+        private byte[] output;
+        private int length;
+
+        ChunkScorer(Columns columns, TreeEnsembleModel model) {
+            this.columns = columns;
+            this.model = model;
+            this.fieldStart = new int[columns.count()];
+            this.fieldEnd = new int[columns.count()];
+        }
+
+        ChunkResult score(ByteBuffer buf) {
+            int limit = buf.limit();
+            output = new byte[Math.max(1024, limit / 3)];
+            long rows = 0;
+            long failed = 0;
+            int lineStart = 0;
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && buf.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                int contentEnd = lineEnd > lineStart && buf.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                if (contentEnd > lineStart) {
+                    rows++;
+                    if (!scoreLine(buf, lineStart, contentEnd)) {
+                        failed++;
+                    }
+                }
+                lineStart = lineEnd + 1;
+            }
+            return new ChunkResult(output, length, rows, failed);
+        }
+
+        private boolean scoreLine(ByteBuffer buf, int start, int end) {
+            int fields = tokenize(buf, start, end);
+            int idColumn = columns.customerId();
+            if (idColumn >= 0 && idColumn < fields) {
+                copy(buf, fieldStart[idColumn], fieldEnd[idColumn]);
+            }
+            put((byte) ',');
+
+            if (fields < columns.count()) {
+                put((byte) '\n');
+                return false;
+            }
+            double age = parseNumber(buf, fieldStart[columns.age()], fieldEnd[columns.age()]);
+            double products = parseNumber(buf, fieldStart[columns.numOfProducts()], fieldEnd[columns.numOfProducts()]);
+            double active = parseNumber(buf, fieldStart[columns.isActiveMember()], fieldEnd[columns.isActiveMember()]);
+            if (Double.isNaN(age) || Double.isNaN(products) || Double.isNaN(active)) {
+                put((byte) '\n');
+                return false;
+            }
+            FeatureTransform.transform(age, products, active,
+                FeatureTransform.countryRisk(buf, fieldStart[columns.country()], fieldEnd[columns.country()]), x);
+
+            writeProbability(model.predict(x));
+            put((byte) '\n');
+            return true;
+        }
+
+        // Llena fieldStart/fieldEnd y devuelve la cantidad de campos de la línea
+        private int tokenize(ByteBuffer buf, int start, int end) {
+            int field = 0;
+            int fieldBegin = start;
+            for (int i = start; i < end && field < fieldStart.length; i++) {
+                if (buf.get(i) == ',') {
+                    fieldStart[field] = fieldBegin;
+                    fieldEnd[field] = i;
+                    field++;
+                    fieldBegin = i + 1;
+                }
+            }
+            if (field < fieldStart.length) {
+                fieldStart[field] = fieldBegin;
+                fieldEnd[field] = end;
+                field++;
+            }
+            return field;
+        }
+
+        // Decimal simple con signo opcional; NaN si el campo no es numérico
+        static double parseNumber(ByteBuffer buf, int start, int end) {
+            if (start >= end) {
+                return Double.NaN;
+            }
+            int i = start;
+            boolean negative = buf.get(i) == '-';
+            if (negative || buf.get(i) == '+') {
+                i++;
+            }
+            long integer = 0;
+            int digits = 0;
+            while (i < end && buf.get(i) >= '0' && buf.get(i) <= '9') {
+                integer = integer * 10 + (buf.get(i++) - '0');
+                digits++;
+            }
+            double value = integer;
+            if (i < end && buf.get(i) == '.') {
+                i++;
+                double scale = 0.1;
+                while (i < end && buf.get(i) >= '0' && buf.get(i) <= '9') {
+                    value += (buf.get(i++) - '0') * scale;
+                    scale *= 0.1;
+                    digits++;
+                }
+            }
+            if (i != end || digits == 0) {
+                return Double.NaN;
+            }
+            return negative ? -value : value;
+        }
+
+        // Probabilidad con 6 decimales sin pasar por String
+        private void writeProbability(double p) {
+            long micros = Math.round(Math.max(0.0, Math.min(1.0, p)) * 1_000_000);
+            ensure(8);
+            output[length++] = (byte) ('0' + micros / 1_000_000);
+            output[length++] = '.';
+            long fraction = micros % 1_000_000;
+            for (int divisor = 100_000; divisor > 0; divisor /= 10) {
+                output[length++] = (byte) ('0' + fraction / divisor % 10);
+            }
+        }
+
+        private void copy(ByteBuffer buf, int start, int end) {
+            ensure(end - start);
+            buf.get(start, output, length, end - start);
+            length += end - start;
+        }
+
+        private void put(byte b) {
+            ensure(1);
+            output[length++] = b;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > output.length) {
+                output = Arrays.copyOf(output, Math.max(output.length * 2, length + extra));
+            }
+        }
+    }
+}
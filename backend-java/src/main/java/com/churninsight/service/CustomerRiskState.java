@@ -0,0 +1,183 @@
+package com.churninsight.service;
+
+import com.churninsight.model.CustomerRiskSnapshot;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.DoubleToIntFunction;
+
+/**
+ * Estado mutable de un cliente dentro de {@link CustomerRiskStore}. Se modifica solo bajo
+ * el lock de su franja en {@link LongKeyedMap}.
+ *
+ * La tendencia usa suavizado exponencial doble (Holt): {@code ewma} es el nivel y
+ * {@code slope} el cambio suavizado por predicción, ambos actualizados en O(1).
+ */
+final class CustomerRiskState {
+
+    static final int SPARKLINE_LENGTH = 16;
+
+    final long customerKey;
+    double latestProbability;
+    double ewma;
+    double slope;
+    long lastSeenMillis;
+    int band;
+    int bandTransitions;
+    long predictions;
+
+    // Anillo con las últimas probabilidades y sus instantes; head es la próxima posición a
+    // escribir. Los instantes no se guardan en el checkpoint (quedan en 0 al recargar)
+    private final float[] sparkline = new float[SPARKLINE_LENGTH];
+    private final long[] sparklineTimes = new long[SPARKLINE_LENGTH];
+    private int head;
+
+    // Cambió desde el último checkpoint / ya tiene fila en la base
+    boolean dirty;
+    boolean persisted;
+
+    CustomerRiskState(long customerKey) {
+        this.customerKey = customerKey;
+    }
+
+    void update(double probability, long timestampMillis, int newBand, double alpha, double beta) {
+        if (predictions == 0) {
+            ewma = probability;
+            slope = 0.0;
+        } else {
+            double previous = ewma;
+            ewma = alpha * probability + (1.0 - alpha) * (ewma + slope);
+            slope = beta * (ewma - previous) + (1.0 - beta) * slope;
+            if (newBand != band) {
+                bandTransitions++;
+            }
+        }
+        band = newBand;
+        latestProbability = probability;
+        lastSeenMillis = Math.max(lastSeenMillis, timestampMillis);
+        sparkline[head] = (float) probability;
+        sparklineTimes[head] = timestampMillis;
+        head = (head + 1) % SPARKLINE_LENGTH;
+        predictions++;
+        dirty = true;
+    }
+
+    /**
+     * Subida de la última probabilidad respecto del mínimo de las predicciones desde
+     * {@code fromMillis} (0 si no bajó en ese período).
+     */
+    double riseSince(long fromMillis) {
+        int count = (int) Math.min(predictions, SPARKLINE_LENGTH);
+        double min = latestProbability;
+        for (int i = 1; i <= count; i++) {
+            int index = (head - i + SPARKLINE_LENGTH) % SPARKLINE_LENGTH;
+            if (sparklineTimes[index] < fromMillis) {
+                break;
+            }
+            min = Math.min(min, sparkline[index]);
+        }
+        return latestProbability - min;
+    }
+
+    /**
+     * Probabilidad de la última predicción hecha hasta {@code atMillis}, o NaN si no está
+     * en el anillo (más vieja, o recargada del checkpoint sin instantes).
+     */
+    double probabilityAt(long atMillis) {
+        if (predictions > 0 && lastSeenMillis <= atMillis) {
+            return latestProbability;
+        }
+        int count = (int) Math.min(predictions, SPARKLINE_LENGTH);
+        for (int i = 1; i <= count; i++) {
+            int index = (head - i + SPARKLINE_LENGTH) % SPARKLINE_LENGTH;
+            if (sparklineTimes[index] == 0) {
+                break;
+            }
+            if (sparklineTimes[index] <= atMillis) {
+                return sparkline[index];
+            }
+        }
+        return Double.NaN;
+    }
+
+    float[] sparkline() {
+        int count = (int) Math.min(predictions, SPARKLINE_LENGTH);
+        float[] ordered = new float[count];
+        int start = (head - count + SPARKLINE_LENGTH) % SPARKLINE_LENGTH;
+        for (int i = 0; i < count; i++) {
+            ordered[i] = sparkline[(start + i) % SPARKLINE_LENGTH];
+        }
+        return ordered;
+    }
+
+    CustomerRiskTrend toTrend() {
+        return new CustomerRiskTrend(Long.toString(customerKey), latestProbability, ewma, slope,
+            toDateTime(lastSeenMillis), band, bandTransitions, predictions, sparkline());
+    }
+
+    CustomerRiskSnapshot toSnapshot() {
+        float[] values = sparkline();
+        ByteBuffer bytes = ByteBuffer.allocate(values.length * Float.BYTES);
+        for (float value : values) {
+            bytes.putFloat(value);
+        }
+        return new CustomerRiskSnapshot(customerKey, latestProbability, ewma, slope, toDateTime(lastSeenMillis),
+            band, bandTransitions, predictions, bytes.array(), !persisted);
+    }
+
+    /**
+     * Adopta el estado recargado del checkpoint con las predicciones que este estado
+     * recibió antes de la carga reaplicadas encima (las que siguen en el anillo; del resto
+     * solo se suman a la cuenta). La fila ya existe en la base.
+     */
+    void mergeCheckpoint(CustomerRiskState loaded, DoubleToIntFunction bandOf, double alpha, double beta) {
+        int count = (int) Math.min(predictions, SPARKLINE_LENGTH);
+        int start = (head - count + SPARKLINE_LENGTH) % SPARKLINE_LENGTH;
+        for (int i = 0; i < count; i++) {
+            int index = (start + i) % SPARKLINE_LENGTH;
+            loaded.update(sparkline[index], sparklineTimes[index], bandOf.applyAsInt(sparkline[index]), alpha, beta);
+        }
+        // El anillo guarda floats; la última probabilidad se conserva exacta
+        if (count > 0) {
+            loaded.latestProbability = latestProbability;
+        }
+        predictions = loaded.predictions + (predictions - count);
+        latestProbability = loaded.latestProbability;
+        ewma = loaded.ewma;
+        slope = loaded.slope;
+        lastSeenMillis = Math.max(lastSeenMillis, loaded.lastSeenMillis);
+        band = loaded.band;
+        bandTransitions = loaded.bandTransitions;
+        System.arraycopy(loaded.sparkline, 0, sparkline, 0, SPARKLINE_LENGTH);
+        System.arraycopy(loaded.sparklineTimes, 0, sparklineTimes, 0, SPARKLINE_LENGTH);
+        head = loaded.head;
+        persisted = true;
+        dirty = true;
+    }
+
+    static CustomerRiskState fromSnapshot(CustomerRiskSnapshot snapshot) {
+        CustomerRiskState state = new CustomerRiskState(snapshot.getCustomerKey());
+        state.latestProbability = snapshot.getLatestProbability();
+        state.ewma = snapshot.getEwma();
+        state.slope = snapshot.getSlope();
+        state.lastSeenMillis = snapshot.getLastSeen().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        state.band = snapshot.getBand();
+        state.bandTransitions = snapshot.getBandTransitions();
+        state.predictions = snapshot.getPredictions();
+        if (snapshot.getSparkline() != null) {
+            ByteBuffer bytes = ByteBuffer.wrap(snapshot.getSparkline());
+            while (bytes.remaining() >= Float.BYTES) {
+                state.sparkline[state.head] = bytes.getFloat();
+                state.head = (state.head + 1) % SPARKLINE_LENGTH;
+            }
+        }
+        state.persisted = true;
+        return state;
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
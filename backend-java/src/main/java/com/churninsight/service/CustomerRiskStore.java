@@ -0,0 +1,239 @@
+package com.churninsight.service;
+
+import com.churninsight.model.CustomerRiskSnapshot;
+import com.churninsight.model.CustomerRiskSnapshotRepository;
+import com.churninsight.model.PredictionHistory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Último score y tendencia de riesgo por cliente, en memoria.
+ *
+ * Cada predicción con un CustomerId estable (numérico, como el de Banco_Churn) actualiza
+ * en O(1) el estado del cliente en un {@link LongKeyedMap}. Los estados modificados se
+ * guardan periódicamente en {@code customer_risk_state} y se recargan al arrancar, así
+ * las consultas de tendencia y de clientes con riesgo en alza no leen el historial.
+ */
+@Service
+public class CustomerRiskStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerRiskStore.class);
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    private static final int MAX_KEY_DIGITS = 18;
+
+    // Peso de la última predicción en el nivel y en la tendencia
+    @Value("${customer-state.alpha:0.3}")
+    private double alpha;
+
+    @Value("${customer-state.beta:0.2}")
+    private double beta;
+
+    private final RiskBands riskBands;
+    private final CustomerRiskSnapshotRepository snapshotRepository;
+    private final LongKeyedMap<CustomerRiskState> states = new LongKeyedMap<>();
+
+    public CustomerRiskStore(RiskBands riskBands, CustomerRiskSnapshotRepository snapshotRepository,
+                             MeterRegistry meterRegistry) {
+        this.riskBands = riskBands;
+        this.snapshotRepository = snapshotRepository;
+        Gauge.builder("churn.customers.tracked", states, LongKeyedMap::size)
+            .description("Clientes con estado de riesgo en memoria")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Clave numérica de un CustomerId, o -1 si no es un id estable (por ejemplo los ids
+     * aleatorios de las predicciones anónimas). Con ceros a la izquierda tampoco: "007" y
+     * "7" son clientes distintos y compartirían la clave.
+     */
+    public static long parseKey(String customerId) {
+        if (customerId == null || customerId.isEmpty() || customerId.length() > MAX_KEY_DIGITS
+            || (customerId.length() > 1 && customerId.charAt(0) == '0')) {
+            return -1;
+        }
+        long key = 0;
+        for (int i = 0; i < customerId.length(); i++) {
+            char c = customerId.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            key = key * 10 + (c - '0');
+        }
+        return key;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            long afterKey = -1;
+            int loaded = 0;
+            List<CustomerRiskSnapshot> page;
+            do {
+                page = snapshotRepository.findByCustomerKeyGreaterThanOrderByCustomerKey(
+                    afterKey, PageRequest.of(0, LOAD_PAGE_SIZE));
+                for (CustomerRiskSnapshot snapshot : page) {
+                    CustomerRiskState loadedState = CustomerRiskState.fromSnapshot(snapshot);
+                    // Las predicciones que llegaron antes de la carga se reaplican sobre el checkpoint
+                    states.compute(snapshot.getCustomerKey(), key -> loadedState, state -> {
+                        if (state != loadedState) {
+                            state.mergeCheckpoint(loadedState, riskBands::band, alpha, beta);
+                        }
+                    });
+                    afterKey = snapshot.getCustomerKey();
+                }
+                loaded += page.size();
+            } while (page.size() == LOAD_PAGE_SIZE);
+            logger.info("[CustomerRiskStore] {} clientes cargados desde el checkpoint", loaded);
+        } catch (Exception e) {
+            logger.error("[CustomerRiskStore] No se pudo cargar el checkpoint: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Registra una predicción guardada. Se ignoran las de clientes sin id estable.
+     *
+     * @return probabilidad anterior del cliente, o NaN si no se seguía
+     */
+    public double record(PredictionHistory history) {
+        long key = parseKey(history.getCustomerId());
+        if (key < 0 || history.getChurnProbability() == null) {
+            return Double.NaN;
+        }
+        double probability = history.getChurnProbability();
+        long timestamp = history.getPredictionDate() != null
+            ? history.getPredictionDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+            : System.currentTimeMillis();
+        int band = riskBands.band(probability);
+        double[] previous = {Double.NaN};
+        states.compute(key, CustomerRiskState::new, state -> {
+            if (state.predictions > 0) {
+                previous[0] = state.latestProbability;
+            }
+            state.update(probability, timestamp, band, alpha, beta);
+        });
+        return previous[0];
+    }
+
+    /**
+     * Cuánto subió el riesgo del cliente en la ventana (ver {@link CustomerRiskState#riseSince}).
+     */
+    public double riseWithin(String customerId, long windowMillis) {
+        long key = parseKey(customerId);
+        if (key < 0) {
+            return 0.0;
+        }
+        long from = System.currentTimeMillis() - windowMillis;
+        return states.read(key, state -> state != null ? state.riseSince(from) : 0.0);
+    }
+
+    /**
+     * Probabilidad de la predicción que precedió a {@code atMillis} según el estado en
+     * memoria, o NaN si no se puede resolver sin ir a la base.
+     */
+    public double probabilityAt(String customerId, long atMillis) {
+        long key = parseKey(customerId);
+        if (key < 0) {
+            return Double.NaN;
+        }
+        return states.read(key, state -> state != null ? state.probabilityAt(atMillis) : Double.NaN);
+    }
+
+    public Optional<CustomerRiskTrend> trend(String customerId) {
+        long key = parseKey(customerId);
+        if (key < 0) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(states.read(key, state -> state != null ? state.toTrend() : null));
+    }
+
+    /**
+     * Clientes con mayor tendencia al alza, con {@code slope >= minSlope}. Recorre los
+     * estados en memoria con un heap acotado a {@code limit}.
+     */
+    public List<CustomerRiskTrend> rising(int limit, double minSlope) {
+        PriorityQueue<CustomerRiskTrend> top = new PriorityQueue<>(limit + 1,
+            Comparator.comparingDouble(CustomerRiskTrend::slope));
+        states.forEach(state -> {
+            if (state.slope >= minSlope && (top.size() < limit || state.slope > top.peek().slope())) {
+                top.add(state.toTrend());
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        });
+        List<CustomerRiskTrend> result = new ArrayList<>(top);
+        result.sort(Comparator.comparingDouble(CustomerRiskTrend::slope).reversed());
+        return result;
+    }
+
+    /**
+     * Guarda los estados modificados desde el último checkpoint.
+     */
+    @Scheduled(fixedDelayString = "${customer-state.checkpoint-interval-ms:30000}",
+               initialDelayString = "${customer-state.checkpoint-interval-ms:30000}")
+    public void checkpoint() {
+        List<CustomerRiskSnapshot> snapshots = new ArrayList<>();
+        states.forEach(state -> {
+            if (state.dirty) {
+                snapshots.add(state.toSnapshot());
+                state.dirty = false;
+            }
+        });
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        try {
+            snapshotRepository.saveAll(snapshots);
+            for (CustomerRiskSnapshot snapshot : snapshots) {
+                markPersisted(snapshot);
+            }
+            logger.debug("[CustomerRiskStore] Checkpoint: {} clientes", snapshots.size());
+        } catch (Exception e) {
+            // Una fila mala no debe trabar al resto: se reintenta de a una
+            logger.warn("[CustomerRiskStore] Checkpoint en batch falló ({}), guardando de a uno", e.getMessage());
+            int failed = 0;
+            for (CustomerRiskSnapshot snapshot : snapshots) {
+                try {
+                    snapshotRepository.save(snapshot);
+                    markPersisted(snapshot);
+                } catch (Exception single) {
+                    failed++;
+                    // Puede que la fila ya exista (INSERT duplicado): el reintento va como merge
+                    states.compute(snapshot.getCustomerKey(), CustomerRiskState::new, state -> {
+                        state.persisted = true;
+                        state.dirty = true;
+                    });
+                    logger.error("[CustomerRiskStore] No se pudo guardar el cliente {}: {}",
+                        snapshot.getCustomerKey(), single.getMessage());
+                }
+            }
+            logger.info("[CustomerRiskStore] Checkpoint: {} clientes, {} con error", snapshots.size(), failed);
+        }
+    }
+
+    private void markPersisted(CustomerRiskSnapshot snapshot) {
+        states.compute(snapshot.getCustomerKey(), CustomerRiskState::new, state -> state.persisted = true);
+    }
+
+    @PreDestroy
+    void flush() {
+        checkpoint();
+    }
+}
@@ -0,0 +1,16 @@
+package com.churninsight.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vista inmutable del estado de riesgo de un cliente.
+ *
+ * @param ewma      nivel suavizado de la probabilidad
+ * @param slope     tendencia suavizada: cambio de probabilidad por predicción
+ * @param band      banda de riesgo actual (0 = bajo)
+ * @param sparkline últimas probabilidades, de la más antigua a la más reciente
+ */
+public record CustomerRiskTrend(String customerId, double latestProbability, double ewma, double slope,
+                                LocalDateTime lastSeen, int band, int bandTransitions, long predictions,
+                                float[] sparkline) {
+}
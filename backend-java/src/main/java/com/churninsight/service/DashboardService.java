@@ -0,0 +1,54 @@
+package com.churninsight.service;
+
+import com.churninsight.config.RequestTiming;
+import com.churninsight.controller.DashboardDTO;
+import com.churninsight.model.PredictionHistory;
+import com.churninsight.model.PredictionHistoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Carga del dashboard en un solo request: estadísticas, KPIs e historial reciente, que
+ * antes eran tres requests. Las estadísticas y los KPIs salen de una consulta de agregados
+ * ({@link PredictionSummary}); del historial solo se cargan las {@code history-size} filas
+ * más recientes, así que el costo no crece con el historial completo del usuario.
+ *
+ * Las consultas corren en el hilo del request, dentro de su transacción de solo lectura.
+ */
+@Service
+public class DashboardService {
+
+    private final PredictionHistoryRepository predictionHistoryRepository;
+    private final StatsService statsService;
+
+    @Value("${dashboard.history-size:50}")
+    private int historySize;
+
+    public DashboardService(PredictionHistoryRepository predictionHistoryRepository, StatsService statsService) {
+        this.predictionHistoryRepository = predictionHistoryRepository;
+        this.statsService = statsService;
+    }
+
+    public DashboardDTO load(String username) {
+        PredictionSummary summary = PredictionSummary.fromRow(
+            predictionHistoryRepository.summarizeByUsername(username).get(0));
+        LocalDateTime startOfDay = LocalDateTime.of(LocalDate.now(), LocalTime.MIN);
+        LocalDateTime endOfDay = LocalDateTime.of(LocalDate.now(), LocalTime.MAX);
+        long todayPredictions = predictionHistoryRepository.countByUsernameAndPredictionDateBetween(
+            username, startOfDay, endOfDay);
+        List<PredictionHistory> history = predictionHistoryRepository
+            .findByUsernameOrderByPredictionDateDesc(username, PageRequest.of(0, historySize));
+        RequestTiming.lap("query");
+
+        DashboardDTO dashboard = new DashboardDTO(statsService.computeStats(summary, todayPredictions),
+            statsService.computeKpis(summary), history);
+        RequestTiming.lap("compute");
+        return dashboard;
+    }
+}
@@ -0,0 +1,51 @@
+package com.churninsight.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión de los datos de cada usuario, para ETags de los endpoints del dashboard.
+ *
+ * Cada predicción guardada incrementa la versión de su usuario; los resultados reales
+ * incrementan una versión global (afectan a los KPIs de todos). El ETag incluye además el
+ * día, porque las ventanas "hoy" y "último mes" cambian sin escrituras, y el instante de
+ * arranque, porque las versiones viven en memoria y se reinician.
+ */
+@Component
+public class DataVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, AtomicLong> byUser = new ConcurrentHashMap<>();
+    private final AtomicLong global = new AtomicLong();
+
+    public void bump(String username) {
+        if (username != null) {
+            byUser.computeIfAbsent(username, u -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    public void bumpGlobal() {
+        global.incrementAndGet();
+    }
+
+    /**
+     * Versión actual de los datos del usuario, para caches derivados del historial.
+     */
+    public long version(String username) {
+        AtomicLong version = byUser.get(username);
+        return version != null ? version.get() : 0;
+    }
+
+    /**
+     * ETag débil para los datos del usuario; {@code variant} distingue representaciones
+     * del mismo dato (endpoint, campos pedidos).
+     */
+    public String etag(String username, String variant) {
+        return "W/\"" + epoch + "-" + version(username) + "-" + global.get() + "-"
+            + LocalDate.now().toEpochDay() + "-" + Integer.toHexString(variant.hashCode()) + "\"";
+    }
+}
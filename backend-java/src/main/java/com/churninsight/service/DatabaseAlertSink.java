@@ -0,0 +1,46 @@
+package com.churninsight.service;
+
+import com.churninsight.model.AlertEvent;
+import com.churninsight.model.AlertEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Guarda las alertas en {@code alert_event}, un {@code saveAll} por lote entregado.
+ */
+@Component
+public class DatabaseAlertSink implements AlertSink {
+
+    private final AlertEventRepository alertEventRepository;
+    private final boolean enabled;
+
+    public DatabaseAlertSink(AlertEventRepository alertEventRepository,
+                             @Value("${alerts.db.enabled:true}") boolean enabled) {
+        this.alertEventRepository = alertEventRepository;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public String name() {
+        return "db";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void deliver(List<Alert> alerts) {
+        alertEventRepository.saveAll(alerts.stream()
+            .map(alert -> new AlertEvent(alert.ruleId(), alert.ruleName(), alert.type(), alert.username(), alert.customerId(),
+                alert.country(), alert.value(), alert.threshold(), truncate(alert.message()), alert.triggeredAt()))
+            .toList());
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 512 ? message.substring(0, 512) : message;
+    }
+}
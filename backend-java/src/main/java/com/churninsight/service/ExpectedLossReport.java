@@ -0,0 +1,31 @@
+package com.churninsight.service;
+
+import java.util.Map;
+
+/**
+ * Distribución simulada de la pérdida por churn (suma de balances de los clientes que se
+ * van) sobre la última predicción de cada cliente, total y por país.
+ */
+public record ExpectedLossReport(
+    int trials,
+    long seed,
+    double confidence,
+    long millis,
+    LossDistribution total,
+    Map<String, LossDistribution> byCountry
+) {
+
+    /**
+     * @param analyticExpectedLoss  suma de balance * probabilidad, contra la que se puede
+     *                              contrastar la media simulada
+     * @param thresholdCapitalAtRisk suma de balances con probabilidad &gt; 0.75, como el
+     *                              {@code capitalAtRisk} de los KPIs
+     * @param valueAtRisk           pérdida que no se supera con probabilidad {@code confidence}
+     * @param expectedShortfall     pérdida media de los trials en o por encima del VaR
+     */
+    public record LossDistribution(int customers, double exposure, double expectedLoss,
+                                   double analyticExpectedLoss, double stdDev, double valueAtRisk,
+                                   double expectedShortfall, Map<String, Double> percentiles,
+                                   double thresholdCapitalAtRisk) {
+    }
+}
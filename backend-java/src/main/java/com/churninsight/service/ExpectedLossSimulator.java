@@ -0,0 +1,368 @@
+package com.churninsight.service;
+
+import com.churninsight.model.PredictionHistoryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Simulación Monte Carlo de la pérdida esperada de la cartera: en cada trial cada cliente
+ * se va con su última probabilidad de churn y la pérdida es la suma de sus balances.
+ *
+ * Los trials se reparten en bloques entre los hilos de {@code simulation.parallelism},
+ * cada bloque con su propio {@link SplittableRandom} derivado de la semilla (el resultado
+ * es reproducible con la misma semilla). La cartera se guarda en arreglos primitivos
+ * ordenados por país y probabilidad descendente, partidos en segmentos: en los de
+ * probabilidad alta se sortea cada cliente; en los de probabilidad baja se salta al
+ * próximo candidato con una distribución geométrica y se lo acepta con
+ * {@code p / pMax} (thinning), así el costo de un trial es proporcional a los clientes
+ * que se van y no al tamaño de la cartera.
+ */
+@Service
+public class ExpectedLossSimulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpectedLossSimulator.class);
+
+    // Desde esta probabilidad conviene sortear cada cliente antes que saltar
+    private static final double DENSE_PROBABILITY = 0.1;
+    // Probabilidad mínima de un segmento respecto de la máxima (tasa de aceptación del thinning)
+    private static final double SEGMENT_RATIO = 0.8;
+    private static final double HIGH_RISK_THRESHOLD = 0.75;
+    private static final double[] PERCENTILES = {5, 25, 50, 75, 95, 99};
+    private static final String UNKNOWN_COUNTRY = "Desconocido";
+    private static final double UNIT = 0x1.0p53;
+
+    private final PredictionHistoryRepository predictionHistoryRepository;
+    private final int parallelism;
+    private final ExecutorService executor;
+    private final Semaphore running;
+
+    @Value("${simulation.max-trials:1000000}")
+    private int maxTrials;
+
+    public ExpectedLossSimulator(PredictionHistoryRepository predictionHistoryRepository,
+                                 @Value("${simulation.parallelism:0}") int parallelism,
+                                 @Value("${simulation.max-concurrent:2}") int maxConcurrent) {
+        this.predictionHistoryRepository = predictionHistoryRepository;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "loss-simulation-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.running = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Simula la cartera del usuario.
+     *
+     * @param seed semilla del generador; null para una al azar
+     * @throws IllegalArgumentException si trials o confidence están fuera de rango
+     * @throws RejectedExecutionException si ya corren {@code simulation.max-concurrent} simulaciones
+     */
+    public ExpectedLossReport simulate(String username, int trials, double confidence, Long seed) {
+        if (trials < 1 || trials > maxTrials) {
+            throw new IllegalArgumentException("trials debe estar entre 1 y " + maxTrials);
+        }
+        if (!(confidence > 0.0 && confidence < 1.0)) {
+            throw new IllegalArgumentException("confidence debe estar entre 0 y 1");
+        }
+        if (!running.tryAcquire()) {
+            throw new RejectedExecutionException("Hay demasiadas simulaciones en curso");
+        }
+        try {
+            Portfolio portfolio = Portfolio.of(predictionHistoryRepository.findLatestExposureByUsername(username));
+            return simulate(portfolio, trials, confidence, seed != null ? seed : new SplittableRandom().nextLong());
+        } finally {
+            running.release();
+        }
+    }
+
+    ExpectedLossReport simulate(Portfolio portfolio, int trials, double confidence, long seed) {
+        long start = System.currentTimeMillis();
+        int countries = portfolio.countries.length;
+        // Una fila por país y la última para el total
+        double[][] losses = new double[countries + 1][trials];
+
+        int chunks = Math.min(trials, parallelism * 4);
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Future<?>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int from = (int) ((long) trials * c / chunks);
+            int to = (int) ((long) trials * (c + 1) / chunks);
+            SplittableRandom random = root.split();
+            tasks.add(executor.submit(() -> portfolio.run(random, from, to, losses)));
+        }
+        await(tasks);
+
+        List<Future<ExpectedLossReport.LossDistribution>> summaries = new ArrayList<>(countries + 1);
+        for (int k = 0; k <= countries; k++) {
+            int country = k < countries ? k : -1;
+            double[] sample = losses[k];
+            summaries.add(executor.submit(() -> summarize(portfolio, country, sample, confidence)));
+        }
+        Map<String, ExpectedLossReport.LossDistribution> byCountry = new LinkedHashMap<>();
+        for (int k = 0; k < countries; k++) {
+            byCountry.put(portfolio.countries[k], get(summaries.get(k)));
+        }
+        ExpectedLossReport.LossDistribution total = get(summaries.get(countries));
+        long millis = System.currentTimeMillis() - start;
+        logger.info("[ExpectedLossSimulator] {} trials sobre {} clientes en {} ms", trials, total.customers(), millis);
+        return new ExpectedLossReport(trials, seed, confidence, millis, total, byCountry);
+    }
+
+    private static ExpectedLossReport.LossDistribution summarize(Portfolio portfolio, int country, double[] sample,
+                                                                double confidence) {
+        Arrays.sort(sample);
+        int n = sample.length;
+        double sum = 0.0;
+        for (double loss : sample) {
+            sum += loss;
+        }
+        double mean = sum / n;
+        double squares = 0.0;
+        for (double loss : sample) {
+            squares += (loss - mean) * (loss - mean);
+        }
+        int varIndex = rank(confidence, n);
+        double tail = 0.0;
+        for (int i = varIndex; i < n; i++) {
+            tail += sample[i];
+        }
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            percentiles.put("p" + (int) percentile, sample[rank(percentile / 100.0, n)]);
+        }
+        return new ExpectedLossReport.LossDistribution(portfolio.customers(country), portfolio.exposure(country),
+            mean, portfolio.analyticExpectedLoss(country), n > 1 ? Math.sqrt(squares / (n - 1)) : 0.0,
+            sample[varIndex], tail / (n - varIndex), percentiles, portfolio.thresholdCapitalAtRisk(country));
+    }
+
+    // Índice del cuantil q (rango más cercano) en una muestra ordenada de tamaño n
+    private static int rank(double q, int n) {
+        return Math.min(n - 1, Math.max(0, (int) Math.ceil(q * n) - 1));
+    }
+
+    private static void await(List<Future<?>> tasks) {
+        for (Future<?> task : tasks) {
+            get(task);
+        }
+    }
+
+    private static <T> T get(Future<T> task) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error en la simulación: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulación interrumpida");
+        }
+    }
+
+    /**
+     * Cartera en arreglos primitivos, ordenada por país y probabilidad descendente.
+     * Inmutable una vez armada: los hilos de la simulación solo la leen.
+     */
+    static final class Portfolio {
+
+        final String[] countries;
+        final double[] probability;
+        final double[] balance;
+        final int[] country;
+        // probability * 2^53, para comparar contra los 53 bits altos de un long al azar
+        final long[] threshold;
+        // Segmentos [start, end) de un mismo país
+        final int[] segmentStart;
+        final int[] segmentEnd;
+        final int[] segmentCountry;
+        final double[] segmentMax;
+        final double[] segmentLog;
+        final boolean[] segmentDense;
+
+        private Portfolio(String[] countries, double[] probability, double[] balance, int[] country) {
+            this.countries = countries;
+            this.probability = probability;
+            this.balance = balance;
+            this.country = country;
+            this.threshold = new long[probability.length];
+            for (int i = 0; i < probability.length; i++) {
+                threshold[i] = (long) (probability[i] * UNIT);
+            }
+            List<int[]> segments = new ArrayList<>();
+            int i = 0;
+            while (i < probability.length) {
+                int start = i;
+                double max = probability[start];
+                boolean dense = max >= DENSE_PROBABILITY;
+                double min = dense ? DENSE_PROBABILITY : max * SEGMENT_RATIO;
+                while (i < probability.length && country[i] == country[start] && probability[i] >= min) {
+                    i++;
+                }
+                segments.add(new int[]{start, i});
+            }
+            int count = segments.size();
+            segmentStart = new int[count];
+            segmentEnd = new int[count];
+            segmentCountry = new int[count];
+            segmentMax = new double[count];
+            segmentLog = new double[count];
+            segmentDense = new boolean[count];
+            for (int s = 0; s < count; s++) {
+                int start = segments.get(s)[0];
+                segmentStart[s] = start;
+                segmentEnd[s] = segments.get(s)[1];
+                segmentCountry[s] = country[start];
+                segmentMax[s] = probability[start];
+                segmentDense[s] = probability[start] >= DENSE_PROBABILITY;
+                segmentLog[s] = Math.log1p(-probability[start]);
+            }
+        }
+
+        /**
+         * Arma la cartera con filas (probabilidad, balance, país). Los clientes sin balance
+         * o con probabilidad 0 no aportan pérdida y se omiten.
+         */
+        static Portfolio of(List<Object[]> rows) {
+            TreeMap<String, Integer> countryIndex = new TreeMap<>();
+            List<Object[]> kept = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                double p = row[0] != null ? ((Number) row[0]).doubleValue() : 0.0;
+                double b = row[1] != null ? ((Number) row[1]).doubleValue() : 0.0;
+                if (p > 0.0 && b > 0.0) {
+                    String name = row[2] != null ? (String) row[2] : UNKNOWN_COUNTRY;
+                    countryIndex.putIfAbsent(name, 0);
+                    kept.add(new Object[]{Math.min(p, 1.0), b, name});
+                }
+            }
+            String[] countries = countryIndex.keySet().toArray(new String[0]);
+            for (int k = 0; k < countries.length; k++) {
+                countryIndex.put(countries[k], k);
+            }
+            kept.sort(Comparator.<Object[], Integer>comparing(row -> countryIndex.get((String) row[2]))
+                .thenComparing(row -> -(double) row[0]));
+            double[] probability = new double[kept.size()];
+            double[] balance = new double[kept.size()];
+            int[] country = new int[kept.size()];
+            for (int i = 0; i < kept.size(); i++) {
+                Object[] row = kept.get(i);
+                probability[i] = (double) row[0];
+                balance[i] = (double) row[1];
+                country[i] = countryIndex.get((String) row[2]);
+            }
+            return new Portfolio(countries, probability, balance, country);
+        }
+
+        /**
+         * Trials [from, to): escribe la pérdida de cada país y el total.
+         */
+        void run(SplittableRandom random, int from, int to, double[][] losses) {
+            int countries = this.countries.length;
+            double[] byCountry = new double[countries];
+            for (int t = from; t < to; t++) {
+                Arrays.fill(byCountry, 0.0);
+                for (int s = 0; s < segmentStart.length; s++) {
+                    byCountry[segmentCountry[s]] += segmentDense[s] ? dense(random, s) : sparse(random, s);
+                }
+                double total = 0.0;
+                for (int k = 0; k < countries; k++) {
+                    losses[k][t] = byCountry[k];
+                    total += byCountry[k];
+                }
+                losses[countries][t] = total;
+            }
+        }
+
+        // Sin salto condicional: el resultado de cada sorteo es impredecible y un branch fallaría la mitad de las veces
+        private double dense(SplittableRandom random, int s) {
+            double loss = 0.0;
+            for (int i = segmentStart[s], end = segmentEnd[s]; i < end; i++) {
+                loss += (random.nextLong() >>> 11) < threshold[i] ? balance[i] : 0.0;
+            }
+            return loss;
+        }
+
+        // Candidatos a tasa pMax por saltos geométricos; cada uno se acepta con p / pMax
+        private double sparse(SplittableRandom random, int s) {
+            double loss = 0.0;
+            double max = segmentMax[s];
+            double log = segmentLog[s];
+            int end = segmentEnd[s];
+            int i = segmentStart[s] - 1;
+            while (true) {
+                double skip = Math.log(1.0 - random.nextDouble()) / log;
+                if (skip >= end - 1 - i) {
+                    return loss;
+                }
+                i += 1 + (int) skip;
+                if (random.nextDouble() * max < probability[i]) {
+                    loss += balance[i];
+                }
+            }
+        }
+
+        int customers(int k) {
+            int count = 0;
+            for (int c : country) {
+                if (k < 0 || c == k) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        double exposure(int k) {
+            double sum = 0.0;
+            for (int i = 0; i < balance.length; i++) {
+                if (k < 0 || country[i] == k) {
+                    sum += balance[i];
+                }
+            }
+            return sum;
+        }
+
+        double analyticExpectedLoss(int k) {
+            double sum = 0.0;
+            for (int i = 0; i < balance.length; i++) {
+                if (k < 0 || country[i] == k) {
+                    sum += balance[i] * probability[i];
+                }
+            }
+            return sum;
+        }
+
+        double thresholdCapitalAtRisk(int k) {
+            double sum = 0.0;
+            for (int i = 0; i < balance.length; i++) {
+                if ((k < 0 || country[i] == k) && probability[i] > HIGH_RISK_THRESHOLD) {
+                    sum += balance[i];
+                }
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.churninsight.service;
+
+import com.churninsight.controller.ChurnPredictionRequest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Derivación de las variables del modelo a partir de los atributos crudos del cliente,
+ * con las definiciones de {@code Banco_Churn_ML.ipynb}:
+ *
+ * <pre>
+ * Age_Risk           = 40 &lt;= Age &lt;= 70
+ * Inactivo_40_70     = 40 &lt;= Age &lt;= 70 y IsActiveMember == 0
+ * Products_Risk_Flag = NumOfProducts &gt;= 3
+ * Country_Risk_Flag  = Country == 'Germany'
+ * </pre>
+ *
+ * Los umbrales son constantes, así que el JIT los pliega en el código compilado; las
+ * comparaciones se resuelven con el bit de signo de la diferencia, sin saltos, y la
+ * transformación escribe en un vector provisto por el llamador. El país se resuelve una
+ * vez por registro a un 0/1 ({@link #countryRisk}). Es la única implementación de estas
+ * definiciones: la usan la predicción individual y por lote, los trabajos masivos y la
+ * ingesta de CSV.
+ */
+public final class FeatureTransform {
+
+    static final double AGE_RISK_MIN = 40;
+    static final double AGE_RISK_MAX = 70;
+    static final double PRODUCTS_RISK_MIN = 3;
+    static final String RISK_COUNTRY = "Germany";
+
+    private static final byte[] RISK_COUNTRY_BYTES = RISK_COUNTRY.getBytes(StandardCharsets.US_ASCII);
+
+    private FeatureTransform() {
+    }
+
+    /**
+     * Escribe las variables del modelo en {@code x} (orden de {@link ChurnFeatures}).
+     *
+     * @param isActiveMember 1 si es miembro activo, 0 si no
+     * @param countryRisk    resultado de {@link #countryRisk}
+     */
+    public static void transform(double age, double numOfProducts, double isActiveMember, double countryRisk,
+                                 double[] x) {
+        double ageRisk = atLeast(age, AGE_RISK_MIN) * atLeast(AGE_RISK_MAX, age);
+        x[ChurnFeatures.AGE_RISK] = ageRisk;
+        x[ChurnFeatures.NUM_OF_PRODUCTS] = numOfProducts;
+        x[ChurnFeatures.INACTIVO_40_70] = ageRisk * (1.0 - isActiveMember);
+        x[ChurnFeatures.PRODUCTS_RISK_FLAG] = atLeast(numOfProducts, PRODUCTS_RISK_MIN);
+        x[ChurnFeatures.COUNTRY_RISK_FLAG] = countryRisk;
+    }
+
+    // 1.0 si value >= bound: el bit de signo de (value - bound) es 0
+    static double atLeast(double value, double bound) {
+        return (double) (~Double.doubleToRawLongBits(value - bound) >>> 63);
+    }
+
+    public static double countryRisk(String country) {
+        return RISK_COUNTRY.equals(country) ? 1.0 : 0.0;
+    }
+
+    /**
+     * Igual que {@link #countryRisk(String)} sobre los bytes de un campo, sin crear el String.
+     */
+    public static double countryRisk(ByteBuffer buf, int start, int end) {
+        if (end - start != RISK_COUNTRY_BYTES.length) {
+            return 0.0;
+        }
+        for (int i = 0; i < RISK_COUNTRY_BYTES.length; i++) {
+            if (buf.get(start + i) != RISK_COUNTRY_BYTES[i]) {
+                return 0.0;
+            }
+        }
+        return 1.0;
+    }
+
+    /**
+     * Completa las variables del modelo de un request que trae la edad. Cuando llega la
+     * edad, las variables derivadas se calculan siempre en el servidor y reemplazan las
+     * que haya enviado el cliente.
+     *
+     * @return true si se derivaron las variables
+     * @throws IllegalArgumentException si falta algún atributo crudo necesario
+     */
+    public static boolean apply(ChurnPredictionRequest request) {
+        if (request.getAge() == null) {
+            return false;
+        }
+        if (request.getNumOfProducts() == null || request.getIsActiveMember() == null || request.getCountry() == null) {
+            throw new IllegalArgumentException("Para derivar las variables se requieren age, numOfProducts, "
+                + "isActiveMember y country");
+        }
+        double[] x = new double[ChurnFeatures.COUNT];
+        transform(request.getAge(), request.getNumOfProducts(), request.getIsActiveMember() ? 1.0 : 0.0,
+            countryRisk(request.getCountry()), x);
+        request.setAgeRisk(x[ChurnFeatures.AGE_RISK]);
+        request.setInactivo4070(x[ChurnFeatures.INACTIVO_40_70]);
+        request.setProductsRiskFlag(x[ChurnFeatures.PRODUCTS_RISK_FLAG]);
+        request.setCountryRiskFlag(x[ChurnFeatures.COUNTRY_RISK_FLAG]);
+        return true;
+    }
+}
@@ -0,0 +1,439 @@
+package com.churninsight.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Exportación completa del historial de predicciones de un usuario en CSV o NDJSON.
+ *
+ * Las filas se leen con un cursor de solo avance ({@code setFetchSize} con
+ * {@code useCursorFetch} en el pool de lectura, ver application.yml) y se escriben a
+ * medida que llegan, así la memoria no depende del tamaño del historial. La escritura es
+ * bloqueante sobre la respuesta: con un cliente lento el hilo espera al socket y el cursor
+ * no avanza. La consulta corre en una transacción de solo lectura (pool de lectura) y
+ * retiene la conexión durante toda la descarga; {@code export.max-concurrent} acota
+ * cuántas exportaciones la ocupan a la vez.
+ */
+@Service
+public class HistoryExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryExportService.class);
+
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    public enum Format {
+        CSV("text/csv;charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        public final String contentType;
+        public final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Formato no soportado: " + value + " (csv o ndjson)");
+        }
+    }
+
+    /**
+     * Filtros de la exportación; los nulos no filtran. {@code to} es inclusivo.
+     */
+    public record Filter(LocalDate from, LocalDate to, String country, Integer band) {
+    }
+
+    private enum Type { LONG, INT, DOUBLE, BOOLEAN, TEXT, DATETIME }
+
+    private record Column(String sql, String name, Type type) {
+    }
+
+    // Mismos nombres que el JSON de /api/churn/history
+    private static final Column[] COLUMNS = {
+        new Column("id", "id", Type.LONG),
+        new Column("customer_id", "customerId", Type.TEXT),
+        new Column("churn_probability", "churnProbability", Type.DOUBLE),
+        new Column("prediction_date", "predictionDate", Type.DATETIME),
+        new Column("country", "country", Type.TEXT),
+        new Column("balance", "balance", Type.DOUBLE),
+        new Column("estimated_salary", "estimatedSalary", Type.DOUBLE),
+        new Column("tenure", "tenure", Type.INT),
+        new Column("is_active_member", "isActiveMember", Type.BOOLEAN),
+        new Column("num_of_products", "numOfProducts", Type.INT),
+        new Column("age_risk", "ageRisk", Type.DOUBLE),
+        new Column("inactivo4070", "inactivo4070", Type.DOUBLE),
+        new Column("products_risk_flag", "productsRiskFlag", Type.DOUBLE),
+        new Column("country_risk_flag", "countryRiskFlag", Type.DOUBLE),
+        new Column("model_version", "modelVersion", Type.TEXT)
+    };
+
+    private static final String SELECT;
+
+    static {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < COLUMNS.length; i++) {
+            sql.append(i > 0 ? ", " : "").append(COLUMNS[i].sql());
+        }
+        SELECT = sql.append(" FROM prediction_history WHERE username = ?").toString();
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final RiskBands riskBands;
+    private final Semaphore running;
+    private final Counter csvRows;
+    private final Counter ndjsonRows;
+
+    // Filas que el driver trae por viaje al servidor
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    public HistoryExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper, RiskBands riskBands, MeterRegistry meterRegistry,
+                                @Value("${export.max-concurrent:2}") int maxConcurrent) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.riskBands = riskBands;
+        this.running = new Semaphore(Math.max(1, maxConcurrent));
+        this.csvRows = rowsCounter(meterRegistry, Format.CSV);
+        this.ndjsonRows = rowsCounter(meterRegistry, Format.NDJSON);
+    }
+
+    private static Counter rowsCounter(MeterRegistry meterRegistry, Format format) {
+        return Counter.builder("churn.export.rows")
+            .description("Filas escritas por la exportación del historial")
+            .tag("format", format.extension)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Arma y valida los filtros.
+     *
+     * @param band índice de banda (0 = bajo) o, con tres bandas, low/medium/high
+     * @throws IllegalArgumentException si el rango de fechas o la banda no son válidos
+     */
+    public Filter filter(LocalDate from, LocalDate to, String country, String band) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' no puede ser anterior a 'from'");
+        }
+        return new Filter(from, to, country == null || country.isBlank() ? null : country.trim(), parseBand(band));
+    }
+
+    private Integer parseBand(String band) {
+        if (band == null || band.isBlank()) {
+            return null;
+        }
+        String value = band.trim().toLowerCase(Locale.ROOT);
+        for (int i = 0; i < riskBands.count(); i++) {
+            if (riskBands.name(i).equals(value)) {
+                return i;
+            }
+        }
+        try {
+            int index = Integer.parseInt(value);
+            if (index >= 0 && index < riskBands.count()) {
+                return index;
+            }
+        } catch (NumberFormatException e) {
+            // Cae al error de abajo
+        }
+        throw new IllegalArgumentException("Banda de riesgo inválida: " + band);
+    }
+
+    /**
+     * Escribe el historial filtrado en {@code out}, en orden de id. No cierra el stream.
+     *
+     * @return filas escritas
+     * @throws RejectedExecutionException si ya corren {@code export.max-concurrent}
+     *                                    exportaciones; en ese caso no se escribió nada
+     * @throws IOException si el cliente cortó la descarga
+     */
+    public long export(String username, Filter filter, Format format, OutputStream out) throws IOException {
+        if (!running.tryAcquire()) {
+            throw new RejectedExecutionException("Hay demasiadas exportaciones en curso");
+        }
+        long start = System.nanoTime();
+        List<Object> params = new ArrayList<>();
+        String sql = buildQuery(username, filter, params);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+        try {
+            RowWriter rows = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+            rows.header();
+            Long written = readOnlyTransaction.execute(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < params.size(); i++) {
+                    statement.setObject(i + 1, params.get(i));
+                }
+                return statement;
+            }, resultSet -> {
+                long count = 0;
+                try {
+                    while (resultSet.next()) {
+                        rows.row(resultSet);
+                        count++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            }));
+            rows.finish();
+            writer.flush();
+            long count = written != null ? written : 0;
+            (format == Format.CSV ? csvRows : ndjsonRows).increment(count);
+            logger.info("[HistoryExport] {} filas en {} para {} en {} ms", count, format.extension, username,
+                (System.nanoTime() - start) / 1_000_000);
+            return count;
+        } catch (UncheckedIOException e) {
+            logger.info("[HistoryExport] Exportación de {} interrumpida: {}", username, e.getCause().getMessage());
+            throw e.getCause();
+        } finally {
+            running.release();
+        }
+    }
+
+    private String buildQuery(String username, Filter filter, List<Object> params) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        params.add(username);
+        if (filter.from() != null) {
+            sql.append(" AND prediction_date >= ?");
+            params.add(Timestamp.valueOf(filter.from().atStartOfDay()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND prediction_date < ?");
+            params.add(Timestamp.valueOf(filter.to().plusDays(1).atStartOfDay()));
+        }
+        if (filter.country() != null) {
+            sql.append(" AND country = ?");
+            params.add(filter.country());
+        }
+        if (filter.band() != null) {
+            double lower = riskBands.lowerBound(filter.band());
+            double upper = riskBands.upperBound(filter.band());
+            if (!Double.isInfinite(lower)) {
+                sql.append(" AND churn_probability >= ?");
+                params.add(lower);
+            }
+            if (!Double.isInfinite(upper)) {
+                sql.append(" AND churn_probability < ?");
+                params.add(upper);
+            }
+        }
+        return sql.append(" ORDER BY id").toString();
+    }
+
+    private interface RowWriter {
+        void header() throws IOException;
+
+        void row(ResultSet resultSet) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void header() throws IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(COLUMNS[i].name());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void row(ResultSet resultSet) throws SQLException, IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                int index = i + 1;
+                switch (COLUMNS[i].type()) {
+                    case LONG -> {
+                        long value = resultSet.getLong(index);
+                        if (!resultSet.wasNull()) {
+                            writer.write(Long.toString(value));
+                        }
+                    }
+                    case INT -> {
+                        int value = resultSet.getInt(index);
+                        if (!resultSet.wasNull()) {
+                            writer.write(Integer.toString(value));
+                        }
+                    }
+                    case DOUBLE -> {
+                        double value = resultSet.getDouble(index);
+                        if (!resultSet.wasNull()) {
+                            writer.write(Double.toString(value));
+                        }
+                    }
+                    case BOOLEAN -> {
+                        boolean value = resultSet.getBoolean(index);
+                        if (!resultSet.wasNull()) {
+                            writer.write(value ? "true" : "false");
+                        }
+                    }
+                    case DATETIME -> {
+                        Timestamp value = resultSet.getTimestamp(index);
+                        if (value != null) {
+                            writer.write(value.toLocalDateTime().toString());
+                        }
+                    }
+                    case TEXT -> text(resultSet.getString(index));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        // RFC 4180; un texto que empieza con = + - @ se prefija con ' para que Excel no lo evalúe
+        private void text(String value) throws IOException {
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            char first = value.charAt(0);
+            boolean formula = first == '=' || first == '+' || first == '-' || first == '@';
+            boolean quote = formula;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            if (formula) {
+                writer.write('\'');
+            }
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            // Cada objeto termina su propia línea; sin el espacio que Jackson pone entre valores raíz
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void header() {
+        }
+
+        @Override
+        public void row(ResultSet resultSet) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                Column column = COLUMNS[i];
+                int index = i + 1;
+                generator.writeFieldName(column.name());
+                switch (column.type()) {
+                    case LONG -> {
+                        long value = resultSet.getLong(index);
+                        if (resultSet.wasNull()) {
+                            generator.writeNull();
+                        } else {
+                            generator.writeNumber(value);
+                        }
+                    }
+                    case INT -> {
+                        int value = resultSet.getInt(index);
+                        if (resultSet.wasNull()) {
+                            generator.writeNull();
+                        } else {
+                            generator.writeNumber(value);
+                        }
+                    }
+                    case DOUBLE -> {
+                        double value = resultSet.getDouble(index);
+                        if (resultSet.wasNull()) {
+                            generator.writeNull();
+                        } else {
+                            generator.writeNumber(value);
+                        }
+                    }
+                    case BOOLEAN -> {
+                        boolean value = resultSet.getBoolean(index);
+                        if (resultSet.wasNull()) {
+                            generator.writeNull();
+                        } else {
+                            generator.writeBoolean(value);
+                        }
+                    }
+                    case DATETIME -> {
+                        Timestamp value = resultSet.getTimestamp(index);
+                        if (value == null) {
+                            generator.writeNull();
+                        } else {
+                            generator.writeString(value.toLocalDateTime().toString());
+                        }
+                    }
+                    case TEXT -> generator.writeString(resultSet.getString(index));
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.churninsight.service;
+
+import com.churninsight.controller.ChurnPredictionRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scoring en la JVM con la versión activa del {@link ModelRegistry}.
+ * Lo usan los endpoints que evalúan muchos escenarios por request, donde
+ * llamar al servicio Python por cada punto no es viable.
+ */
+@Component
+public class LocalChurnScorer {
+
+    private final ModelRegistry registry;
+
+    public LocalChurnScorer(ModelRegistry registry) {
+        this.registry = registry;
+    }
+
+    public boolean isAvailable() {
+        return registry.hasActive();
+    }
+
+    /**
+     * Modelo compilado activo.
+     *
+     * @throws IllegalStateException si no hay ningún modelo cargado
+     */
+    public TreeEnsembleModel model() {
+        return registry.active().getModel();
+    }
+
+    public double predict(ChurnPredictionRequest request) {
+        return model().predict(ChurnFeatures.toVector(request));
+    }
+}
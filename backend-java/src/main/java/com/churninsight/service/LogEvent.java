@@ -0,0 +1,7 @@
+package com.churninsight.service;
+
+/**
+ * Registro leído de {@link PredictionEventLog}. El payload es el evento en JSON (UTF-8).
+ */
+public record LogEvent(long offset, long timestamp, byte[] payload) {
+}
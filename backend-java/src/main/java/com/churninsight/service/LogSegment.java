@@ -0,0 +1,254 @@
+package com.churninsight.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Segmento de {@link PredictionEventLog}: un archivo {@code .log} preasignado y mapeado en
+ * memoria más un índice disperso {@code .idx}, también mapeado.
+ *
+ * Formato de cada registro (big-endian):
+ * <pre>
+ * int32  longitud del payload
+ * int32  CRC32C de offset + timestamp + payload
+ * int64  offset
+ * int64  timestamp (epoch millis)
+ * byte[] payload
+ * </pre>
+ * El índice guarda pares (offset relativo int32, posición int32) cada
+ * {@code indexInterval} bytes. Solo escribe un hilo (bajo el lock del log); los lectores
+ * usan lecturas absolutas y no pasan de {@link #nextOffset()}, que se publica al final
+ * de cada append.
+ */
+final class LogSegment {
+
+    static final int HEADER_BYTES = 24;
+    private static final int INDEX_ENTRY_BYTES = 8;
+
+    final long baseOffset;
+    private final Path logPath;
+    private final Path indexPath;
+    private final FileChannel logChannel;
+    private final FileChannel indexChannel;
+    private final MappedByteBuffer log;
+    private final MappedByteBuffer index;
+    private final int indexInterval;
+    private final CRC32C crc = new CRC32C();
+
+    // Estado del escritor
+    private int size;
+    private int bytesSinceIndex;
+
+    // Publicados para los lectores
+    private volatile long nextOffset;
+    private volatile int indexEntries;
+    private volatile long lastAppendMillis;
+
+    private LogSegment(Path dir, long baseOffset, int capacity, int indexInterval) throws IOException {
+        this.baseOffset = baseOffset;
+        this.indexInterval = indexInterval;
+        this.logPath = dir.resolve(String.format("%020d.log", baseOffset));
+        this.indexPath = dir.resolve(String.format("%020d.idx", baseOffset));
+        this.logChannel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        this.indexChannel = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        int logSize = (int) Math.max(capacity, logChannel.size());
+        int indexSize = (logSize / indexInterval + 2) * INDEX_ENTRY_BYTES;
+        this.log = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, logSize);
+        this.index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexSize);
+        this.nextOffset = baseOffset;
+    }
+
+    /**
+     * Abre un segmento nuevo o existente. En uno existente busca el final de los datos
+     * válidos desde la última entrada del índice, verificando CRC y offsets consecutivos:
+     * un registro a medio escribir por una caída marca el final y se sobrescribe.
+     */
+    static LogSegment open(Path dir, long baseOffset, int capacity, int indexInterval) throws IOException {
+        LogSegment segment = new LogSegment(dir, baseOffset, capacity, indexInterval);
+        segment.recover();
+        return segment;
+    }
+
+    private void recover() {
+        // Entradas del índice que apuntan a un registro íntegro con el offset esperado
+        int maxEntries = index.capacity() / INDEX_ENTRY_BYTES;
+        int entries = 0;
+        while (entries < maxEntries) {
+            int entry = entries * INDEX_ENTRY_BYTES;
+            if (readValidLength(index.getInt(entry + 4), baseOffset + index.getInt(entry)) < 0
+                    || (entries > 0 && index.getInt(entry + 4) == 0)) {
+                break;
+            }
+            entries++;
+        }
+        // Entradas sobrantes de una escritura interrumpida
+        for (int i = entries; i < maxEntries && index.getLong(i * INDEX_ENTRY_BYTES) != 0; i++) {
+            index.putLong(i * INDEX_ENTRY_BYTES, 0L);
+        }
+        int position = 0;
+        long offset = baseOffset;
+        if (entries > 0) {
+            int last = (entries - 1) * INDEX_ENTRY_BYTES;
+            offset = baseOffset + index.getInt(last);
+            position = index.getInt(last + 4);
+        }
+        int lastIndexed = position;
+        while (true) {
+            int length = readValidLength(position, offset);
+            if (length < 0) {
+                break;
+            }
+            position += HEADER_BYTES + length;
+            offset++;
+        }
+        size = position;
+        bytesSinceIndex = position - lastIndexed;
+        indexEntries = entries;
+        nextOffset = offset;
+        lastAppendMillis = offset > baseOffset ? lastModified() : System.currentTimeMillis();
+    }
+
+    private long lastModified() {
+        try {
+            return Files.getLastModifiedTime(logPath).toMillis();
+        } catch (IOException e) {
+            return System.currentTimeMillis();
+        }
+    }
+
+    // Longitud del payload si en la posición hay un registro íntegro con ese offset, -1 si no
+    private int readValidLength(int position, long expectedOffset) {
+        if (position < 0 || position + HEADER_BYTES > log.capacity()) {
+            return -1;
+        }
+        int length = log.getInt(position);
+        if (length <= 0 || position + HEADER_BYTES + length > log.capacity()
+                || log.getLong(position + 8) != expectedOffset) {
+            return -1;
+        }
+        return checksum(position, length) == log.getInt(position + 4) ? length : -1;
+    }
+
+    private int checksum(int position, int length) {
+        crc.reset();
+        crc.update(log.slice(position + 8, 16 + length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Agrega un registro. Retorna false si no entra en el segmento.
+     */
+    boolean append(long timestamp, byte[] payload) {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (size + recordBytes > log.capacity()) {
+            return false;
+        }
+        long offset = nextOffset;
+        if (indexEntries == 0 || bytesSinceIndex >= indexInterval) {
+            int entry = indexEntries * INDEX_ENTRY_BYTES;
+            if (entry + INDEX_ENTRY_BYTES <= index.capacity()) {
+                index.putInt(entry, (int) (offset - baseOffset));
+                index.putInt(entry + 4, size);
+                indexEntries = indexEntries + 1;
+                bytesSinceIndex = 0;
+            }
+        }
+        log.putLong(size + 8, offset);
+        log.putLong(size + 16, timestamp);
+        log.put(size + HEADER_BYTES, payload);
+        log.putInt(size + 4, checksum(size, payload.length));
+        log.putInt(size, payload.length);
+        size += recordBytes;
+        bytesSinceIndex += recordBytes;
+        lastAppendMillis = System.currentTimeMillis();
+        nextOffset = offset + 1;
+        return true;
+    }
+
+    /**
+     * Lee hasta {@code max} registros desde {@code offset} y los agrega a {@code out}.
+     *
+     * @throws IllegalStateException si un registro no pasa la verificación de CRC
+     */
+    int read(long offset, int max, List<LogEvent> out) {
+        long end = nextOffset;
+        if (offset >= end || max <= 0) {
+            return 0;
+        }
+        // Última entrada del índice con offset <= el pedido
+        int low = 0;
+        int high = indexEntries - 1;
+        int position = 0;
+        long current = baseOffset;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long entryOffset = baseOffset + index.getInt(mid * INDEX_ENTRY_BYTES);
+            if (entryOffset <= offset) {
+                current = entryOffset;
+                position = index.getInt(mid * INDEX_ENTRY_BYTES + 4);
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int read = 0;
+        while (current < end && read < max) {
+            int length = log.getInt(position);
+            if (current >= offset) {
+                if (checksumForRead(position, length) != log.getInt(position + 4)) {
+                    throw new IllegalStateException("Registro corrupto en el offset " + current);
+                }
+                byte[] payload = new byte[length];
+                log.get(position + HEADER_BYTES, payload);
+                out.add(new LogEvent(current, log.getLong(position + 16), payload));
+                read++;
+            }
+            position += HEADER_BYTES + length;
+            current++;
+        }
+        return read;
+    }
+
+    // El CRC del escritor no es thread-safe; los lectores usan uno propio
+    private int checksumForRead(int position, int length) {
+        CRC32C readCrc = new CRC32C();
+        readCrc.update(log.slice(position + 8, 16 + length));
+        return (int) readCrc.getValue();
+    }
+
+    long nextOffset() {
+        return nextOffset;
+    }
+
+    long lastAppendMillis() {
+        return lastAppendMillis;
+    }
+
+    void flush() {
+        log.force();
+        index.force();
+    }
+
+    void close() throws IOException {
+        logChannel.close();
+        indexChannel.close();
+    }
+
+    /**
+     * Cierra y borra los archivos. Los lectores que aún tengan el mapeo pueden terminar de
+     * leerlo: el sistema libera el espacio cuando el buffer se recolecta.
+     */
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(logPath);
+        Files.deleteIfExists(indexPath);
+    }
+}
@@ -0,0 +1,149 @@
+package com.churninsight.service;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * Mapa concurrente con claves {@code long} sin boxing.
+ *
+ * Las claves se reparten en franjas con su propio lock; cada franja es una tabla de
+ * direccionamiento abierto (sondeo lineal) sobre un {@code long[]} de claves y un arreglo
+ * de valores. No soporta borrado: los clientes solo se agregan.
+ */
+final class LongKeyedMap<V> {
+
+    private static final int STRIPES = 64;
+    private static final int INITIAL_CAPACITY = 64;
+
+    @SuppressWarnings("unchecked")
+    private final Stripe<V>[] stripes = new Stripe[STRIPES];
+
+    LongKeyedMap() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe<>();
+        }
+    }
+
+    // Mezcla de Fibonacci: los bits altos eligen la franja
+    private static long mix(long key) {
+        return key * 0x9E3779B97F4A7C15L;
+    }
+
+    // Posición dentro de la franja: pliega los bits altos sobre los bajos
+    private static int slot(long hash) {
+        return (int) (hash ^ (hash >>> 29));
+    }
+
+    private Stripe<V> stripe(long hash) {
+        return stripes[(int) (hash >>> 58)];
+    }
+
+    /**
+     * Aplica {@code update} al valor de la clave (creándolo si falta) bajo el lock de su
+     * franja.
+     */
+    void compute(long key, LongFunction<V> factory, Consumer<V> update) {
+        long hash = mix(key);
+        Stripe<V> stripe = stripe(hash);
+        synchronized (stripe) {
+            update.accept(stripe.getOrCreate(key, slot(hash), factory));
+        }
+    }
+
+    /**
+     * Lee el valor bajo el lock de su franja; {@code reader} recibe null si la clave no existe.
+     */
+    <R> R read(long key, Function<V, R> reader) {
+        long hash = mix(key);
+        Stripe<V> stripe = stripe(hash);
+        synchronized (stripe) {
+            return reader.apply(stripe.get(key, slot(hash)));
+        }
+    }
+
+    /**
+     * Recorre todos los valores, bloqueando una franja a la vez.
+     */
+    void forEach(Consumer<V> action) {
+        for (Stripe<V> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.forEach(action);
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe<V> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    private static final class Stripe<V> {
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private Object[] values = new Object[INITIAL_CAPACITY];
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        V get(long key, int hash) {
+            int mask = keys.length - 1;
+            for (int i = hash & mask; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return (V) values[i];
+                }
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        V getOrCreate(long key, int hash, LongFunction<V> factory) {
+            int mask = keys.length - 1;
+            int i = hash & mask;
+            for (; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return (V) values[i];
+                }
+            }
+            V value = factory.apply(key);
+            keys[i] = key;
+            values[i] = value;
+            // Factor de carga máximo 0.5
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+            return value;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Object[oldValues.length * 2];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldValues[j] != null) {
+                    int i = slot(mix(oldKeys[j])) & mask;
+                    while (values[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void forEach(Consumer<V> action) {
+            for (Object value : values) {
+                if (value != null) {
+                    action.accept((V) value);
+                }
+            }
+        }
+    }
+}
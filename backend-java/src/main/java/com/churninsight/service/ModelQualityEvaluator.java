@@ -0,0 +1,236 @@
+package com.churninsight.service;
+
+import com.churninsight.model.ChurnOutcome;
+import com.churninsight.model.ChurnOutcomeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Métricas de calidad del modelo (AUC, log-loss, calibración y precisión/recall por
+ * umbral) calculadas en línea a partir de los resultados reales.
+ *
+ * Cada resultado unido a su predicción suma en O(1) a un acumulador diario de tamaño fijo:
+ * histogramas de {@value #BINS} bins de probabilidad para positivos y negativos, la suma de
+ * log-loss y la matriz de confusión en cada umbral de {@link RiskBands}. La ventana móvil
+ * es un anillo de {@code windowDays} acumuladores; las métricas se obtienen sumando el
+ * anillo, sin leer la base. El AUC se calcula con Mann-Whitney sobre los bins (los pares
+ * del mismo bin cuentan como empate), con error menor a 1/{@value #BINS}.
+ */
+@Service
+public class ModelQualityEvaluator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelQualityEvaluator.class);
+
+    static final int BINS = 100;
+    private static final int CALIBRATION_BINS = 10;
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    // Evita log(0) con probabilidades extremas
+    private static final double EPSILON = 1e-15;
+
+    private final ChurnOutcomeRepository outcomeRepository;
+    private final double[] thresholds;
+    private final int windowDays;
+    private final DayBucket[] buckets;
+
+    public ModelQualityEvaluator(ChurnOutcomeRepository outcomeRepository, RiskBands riskBands,
+                                 @Value("${model-quality.window-days:30}") int windowDays,
+                                 MeterRegistry meterRegistry) {
+        this.outcomeRepository = outcomeRepository;
+        this.thresholds = riskBands.thresholds();
+        this.windowDays = Math.max(1, windowDays);
+        this.buckets = new DayBucket[this.windowDays];
+        for (int i = 0; i < this.windowDays; i++) {
+            buckets[i] = new DayBucket(thresholds.length);
+        }
+        Gauge.builder("churn.model.auc", this, evaluator -> {
+                Double auc = evaluator.metrics().auc();
+                return auc != null ? auc : Double.NaN;
+            })
+            .description("AUC del modelo sobre los resultados reales de la ventana")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Reconstruye la ventana con los resultados guardados.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            LocalDateTime since = LocalDate.now().minusDays(windowDays - 1L).atStartOfDay().minusNanos(1);
+            long afterId = 0;
+            int loaded = 0;
+            List<ChurnOutcome> page;
+            do {
+                page = outcomeRepository.findByIdGreaterThanAndObservedAtAfterAndPredictedProbabilityIsNotNullOrderById(
+                    afterId, since, PageRequest.of(0, LOAD_PAGE_SIZE));
+                for (ChurnOutcome outcome : page) {
+                    record(outcome.getPredictedProbability(), outcome.isChurned(), outcome.getObservedAt().toLocalDate());
+                    afterId = outcome.getId();
+                }
+                loaded += page.size();
+            } while (page.size() == LOAD_PAGE_SIZE);
+            logger.info("[ModelQuality] {} resultados cargados en la ventana de {} días", loaded, windowDays);
+        } catch (Exception e) {
+            logger.error("[ModelQuality] No se pudieron cargar los resultados: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Suma un resultado a la ventana. Los observados antes de la ventana o en el futuro se
+     * ignoran.
+     */
+    public synchronized void record(double probability, boolean churned, LocalDate observedOn) {
+        long day = observedOn.toEpochDay();
+        long today = LocalDate.now().toEpochDay();
+        if (day > today || day <= today - windowDays || Double.isNaN(probability)) {
+            return;
+        }
+        DayBucket bucket = buckets[(int) Math.floorMod(day, (long) windowDays)];
+        if (bucket.day != day) {
+            bucket.reset(day);
+        }
+        double p = Math.min(1.0, Math.max(0.0, probability));
+        int bin = Math.min(BINS - 1, (int) (p * BINS));
+        if (churned) {
+            bucket.positives[bin]++;
+            bucket.logLoss -= Math.log(Math.max(p, EPSILON));
+        } else {
+            bucket.negatives[bin]++;
+            bucket.logLoss -= Math.log(Math.max(1.0 - p, EPSILON));
+        }
+        bucket.predictedSum[bin] += p;
+        for (int t = 0; t < thresholds.length; t++) {
+            if (p >= thresholds[t]) {
+                if (churned) {
+                    bucket.truePositives[t]++;
+                } else {
+                    bucket.falsePositives[t]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Métricas de la ventana móvil: O(días × bins), independiente de la cantidad de resultados.
+     */
+    public ModelQualityMetrics metrics() {
+        long[] positives = new long[BINS];
+        long[] negatives = new long[BINS];
+        double[] predictedSum = new double[BINS];
+        long[] truePositives = new long[thresholds.length];
+        long[] falsePositives = new long[thresholds.length];
+        double logLoss = 0.0;
+        long today = LocalDate.now().toEpochDay();
+        synchronized (this) {
+            for (DayBucket bucket : buckets) {
+                if (bucket.day > today - windowDays && bucket.day <= today) {
+                    for (int i = 0; i < BINS; i++) {
+                        positives[i] += bucket.positives[i];
+                        negatives[i] += bucket.negatives[i];
+                        predictedSum[i] += bucket.predictedSum[i];
+                    }
+                    for (int t = 0; t < thresholds.length; t++) {
+                        truePositives[t] += bucket.truePositives[t];
+                        falsePositives[t] += bucket.falsePositives[t];
+                    }
+                    logLoss += bucket.logLoss;
+                }
+            }
+        }
+
+        long totalPositives = 0;
+        long totalNegatives = 0;
+        for (int i = 0; i < BINS; i++) {
+            totalPositives += positives[i];
+            totalNegatives += negatives[i];
+        }
+        long total = totalPositives + totalNegatives;
+
+        // Mann-Whitney: pares (positivo, negativo) ordenados correctamente, empates a la mitad
+        double concordant = 0.0;
+        long negativesBelow = 0;
+        for (int i = 0; i < BINS; i++) {
+            concordant += positives[i] * (negativesBelow + 0.5 * negatives[i]);
+            negativesBelow += negatives[i];
+        }
+        Double auc = ratio(concordant, (double) totalPositives * totalNegatives);
+
+        List<ModelQualityMetrics.ThresholdMetrics> byThreshold = new ArrayList<>(thresholds.length);
+        for (int t = 0; t < thresholds.length; t++) {
+            long tp = truePositives[t];
+            long fp = falsePositives[t];
+            long fn = totalPositives - tp;
+            byThreshold.add(new ModelQualityMetrics.ThresholdMetrics(thresholds[t], tp, fp, fn,
+                ratio(tp, tp + fp), ratio(tp, totalPositives)));
+        }
+
+        // Exactitud al primer umbral (0.5): aciertos positivos más negativos bajo el umbral
+        Double accuracy = thresholds.length > 0
+            ? ratio(truePositives[0] + totalNegatives - falsePositives[0], total) : null;
+
+        int perBin = BINS / CALIBRATION_BINS;
+        List<ModelQualityMetrics.CalibrationBin> calibration = new ArrayList<>(CALIBRATION_BINS);
+        for (int c = 0; c < CALIBRATION_BINS; c++) {
+            long count = 0;
+            long churned = 0;
+            double predicted = 0.0;
+            for (int i = c * perBin; i < (c + 1) * perBin; i++) {
+                count += positives[i] + negatives[i];
+                churned += positives[i];
+                predicted += predictedSum[i];
+            }
+            calibration.add(new ModelQualityMetrics.CalibrationBin((double) c / CALIBRATION_BINS,
+                (double) (c + 1) / CALIBRATION_BINS, count,
+                ratio(predicted, count), ratio(churned, count)));
+        }
+
+        return new ModelQualityMetrics(windowDays, total, totalPositives, auc,
+            ratio(logLoss, total), accuracy, byThreshold, calibration);
+    }
+
+    private static Double ratio(double numerator, double denominator) {
+        return denominator > 0 ? numerator / denominator : null;
+    }
+
+    /**
+     * Acumulador de un día; se reutiliza cuando el anillo vuelve a pasar por su posición.
+     */
+    private static final class DayBucket {
+
+        long day = Long.MIN_VALUE;
+        final long[] positives = new long[BINS];
+        final long[] negatives = new long[BINS];
+        final double[] predictedSum = new double[BINS];
+        final long[] truePositives;
+        final long[] falsePositives;
+        double logLoss;
+
+        DayBucket(int thresholds) {
+            truePositives = new long[thresholds];
+            falsePositives = new long[thresholds];
+        }
+
+        void reset(long newDay) {
+            day = newDay;
+            Arrays.fill(positives, 0);
+            Arrays.fill(negatives, 0);
+            Arrays.fill(predictedSum, 0.0);
+            Arrays.fill(truePositives, 0);
+            Arrays.fill(falsePositives, 0);
+            logLoss = 0.0;
+        }
+    }
+}
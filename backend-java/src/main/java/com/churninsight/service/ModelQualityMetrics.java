@@ -0,0 +1,33 @@
+package com.churninsight.service;
+
+import java.util.List;
+
+/**
+ * Métricas de calidad del modelo sobre los resultados reales de la ventana móvil.
+ * Las métricas son null si no hay resultados suficientes para calcularlas.
+ */
+public record ModelQualityMetrics(
+    int windowDays,
+    long outcomes,
+    long positives,
+    Double auc,
+    Double logLoss,
+    Double accuracy,
+    List<ThresholdMetrics> thresholds,
+    List<CalibrationBin> calibration
+) {
+
+    /**
+     * Precisión y recall clasificando como churn a {@code probability >= threshold}.
+     */
+    public record ThresholdMetrics(double threshold, long truePositives, long falsePositives,
+                                   long falseNegatives, Double precision, Double recall) {
+    }
+
+    /**
+     * Probabilidad media predicha frente a la tasa real de churn en un decil de probabilidad.
+     */
+    public record CalibrationBin(double lower, double upper, long count, Double meanPredicted,
+                                 Double observedRate) {
+    }
+}
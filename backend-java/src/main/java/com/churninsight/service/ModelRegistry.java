@@ -0,0 +1,324 @@
+package com.churninsight.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de versiones del modelo.
+ *
+ * Las versiones se leen como archivos {@code *.pmml} de un directorio local (el nombre
+ * del archivo es la versión). Cada versión se compila y se calienta fuera del camino de
+ * los requests y el modelo activo se reemplaza con un swap atómico, sin reinicios.
+ * Opcionalmente una versión candidata puede correr en modo shadow: puntúa en forma
+ * asíncrona una fracción del tráfico real y se registran diferencias y latencia.
+ *
+ * Una versión es inmutable: las predicciones guardan su nombre en {@code modelVersion}.
+ * Si el archivo de una versión ya cargada cambia de contenido, el cambio se rechaza con
+ * un error en el log y se sigue sirviendo el modelo cargado; un modelo nuevo se publica
+ * con otro nombre de archivo.
+ */
+@Component
+public class ModelRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelRegistry.class);
+
+    @Value("${churn-model.pmml-path:file:../data-science/modelo_churn_banco.pmml}")
+    private Resource defaultPmml;
+
+    @Value("${churn-model.registry-dir:../data-science/models}")
+    private String registryDir;
+
+    @Value("${churn-model.warmup-iterations:2000}")
+    private int warmupIterations;
+
+    private final Map<String, ModelVersion> versions = new ConcurrentHashMap<>();
+    private final AtomicReference<ModelVersion> active = new AtomicReference<>();
+    // Por versión del directorio: SHA-256 del archivo cargado y el último estado visto (solo en scan)
+    private final Map<String, String> loadedHashes = new HashMap<>();
+    private final Map<String, FileStamp> checked = new HashMap<>();
+    private final AtomicReference<Shadow> shadow = new AtomicReference<>();
+
+    // Cola acotada: si el shadow no da abasto se descartan muestras, nunca se frena el request
+    private final ThreadPoolExecutor shadowExecutor = new ThreadPoolExecutor(
+        1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1000),
+        r -> {
+            Thread t = new Thread(r, "model-shadow");
+            t.setDaemon(true);
+            return t;
+        },
+        new ThreadPoolExecutor.DiscardPolicy());
+
+    @PostConstruct
+    void init() {
+        try (InputStream in = defaultPmml.getInputStream()) {
+            String filename = defaultPmml.getFilename();
+            ModelVersion initial = compile(versionOf(filename != null ? filename : "default.pmml"),
+                in, defaultPmml.getDescription());
+            versions.put(initial.getVersion(), initial);
+            active.set(initial);
+            logger.info("[ModelRegistry] Versión activa inicial: {}", initial.getVersion());
+        } catch (Exception e) {
+            logger.error("[ModelRegistry] No se pudo cargar el modelo PMML desde {}: {}",
+                defaultPmml, e.getMessage());
+        }
+        scan();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        shadowExecutor.shutdownNow();
+    }
+
+    /**
+     * Busca versiones nuevas en el directorio del registro y las deja compiladas.
+     */
+    @Scheduled(fixedDelayString = "${churn-model.scan-interval-ms:30000}",
+               initialDelayString = "${churn-model.scan-interval-ms:30000}")
+    public synchronized void scan() {
+        Path dir = Paths.get(registryDir);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.pmml")) {
+            for (Path file : files) {
+                String version = versionOf(file.getFileName().toString());
+                try {
+                    FileStamp stamp = new FileStamp(Files.getLastModifiedTime(file).toMillis(), Files.size(file));
+                    if (stamp.equals(checked.get(version))) {
+                        continue;
+                    }
+                    checked.put(version, stamp);
+                    byte[] content = Files.readAllBytes(file);
+                    String hash = sha256(content);
+                    if (versions.containsKey(version)) {
+                        String loadedHash = loadedHashes.putIfAbsent(version, hash);
+                        if (loadedHash != null && !loadedHash.equals(hash)) {
+                            logger.error("[ModelRegistry] {} cambió pero la versión {} ya está cargada; se ignora "
+                                + "el cambio (publicar el modelo nuevo con otro nombre de archivo)", file, version);
+                        }
+                        continue;
+                    }
+                    ModelVersion loaded = compile(version, new ByteArrayInputStream(content), file.toString());
+                    versions.put(version, loaded);
+                    loadedHashes.put(version, hash);
+                    if (active.compareAndSet(null, loaded)) {
+                        logger.info("[ModelRegistry] Versión activa inicial: {}", version);
+                    }
+                } catch (Exception e) {
+                    logger.error("[ModelRegistry] Error compilando {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.error("[ModelRegistry] Error leyendo el directorio {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private record FileStamp(long modifiedMillis, long size) {
+    }
+
+    private static String sha256(byte[] content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    private ModelVersion compile(String version, InputStream in, String source) throws Exception {
+        long start = System.nanoTime();
+        TreeEnsembleModel model = TreeEnsembleModel.fromPmml(in);
+        long compiled = System.nanoTime();
+        warmUp(model);
+        long warmed = System.nanoTime();
+        ModelVersion loaded = new ModelVersion(version, model, source,
+            (compiled - start) / 1_000_000, (warmed - compiled) / 1_000_000);
+        logger.info("[ModelRegistry] Versión {} compilada: {} árboles, compilación {} ms, warm-up {} ms",
+            version, model.treeCount(), loaded.getCompileMillis(), loaded.getWarmupMillis());
+        return loaded;
+    }
+
+    // Recorre combinaciones de las variables binarias para que el JIT compile el scoring
+    // y de paso valida que la versión entregue probabilidades válidas antes de activarla
+    private void warmUp(TreeEnsembleModel model) {
+        double[] x = new double[ChurnFeatures.COUNT];
+        for (int i = 0; i < warmupIterations; i++) {
+            x[ChurnFeatures.AGE_RISK] = i & 1;
+            x[ChurnFeatures.NUM_OF_PRODUCTS] = 1 + (i >> 1) % 4;
+            x[ChurnFeatures.INACTIVO_40_70] = (i >> 3) & 1;
+            x[ChurnFeatures.PRODUCTS_RISK_FLAG] = x[ChurnFeatures.NUM_OF_PRODUCTS] >= 3 ? 1 : 0;
+            x[ChurnFeatures.COUNTRY_RISK_FLAG] = (i >> 4) & 1;
+            double p = model.predict(x);
+            if (!(p >= 0.0 && p <= 1.0)) {
+                throw new IllegalStateException("Probabilidad inválida en warm-up: " + p);
+            }
+        }
+    }
+
+    private static String versionOf(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+
+    /**
+     * Versión activa.
+     *
+     * @throws IllegalStateException si no hay ningún modelo cargado
+     */
+    public ModelVersion active() {
+        ModelVersion current = active.get();
+        if (current == null) {
+            throw new IllegalStateException("Modelo local no disponible");
+        }
+        return current;
+    }
+
+    public boolean hasActive() {
+        return active.get() != null;
+    }
+
+    /**
+     * Reemplaza atómicamente la versión activa. Los requests en curso terminan con la
+     * versión que ya tomaron.
+     */
+    public ModelVersion activate(String version) {
+        ModelVersion target = require(version);
+        ModelVersion previous = active.getAndSet(target);
+        Shadow current = shadow.get();
+        if (current != null && current.version == target) {
+            shadow.compareAndSet(current, null);
+        }
+        logger.info("[ModelRegistry] Versión activa: {} -> {}",
+            previous != null ? previous.getVersion() : "ninguna", version);
+        return target;
+    }
+
+    public void startShadow(String version, double sampleRate) {
+        if (sampleRate <= 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException("sampleRate debe estar en (0, 1]");
+        }
+        shadow.set(new Shadow(require(version), sampleRate));
+        logger.info("[ModelRegistry] Shadow iniciado: {} (muestra {})", version, sampleRate);
+    }
+
+    public void stopShadow() {
+        shadow.set(null);
+    }
+
+    public boolean isShadowing() {
+        return shadow.get() != null;
+    }
+
+    /**
+     * Envía una muestra del tráfico a la versión shadow. Nunca bloquea al llamador.
+     */
+    public void shadowScore(double[] features, double liveProbability) {
+        Shadow current = shadow.get();
+        if (current == null || ThreadLocalRandom.current().nextDouble() >= current.sampleRate) {
+            return;
+        }
+        double[] x = features.clone();
+        shadowExecutor.execute(() -> current.record(x, liveProbability));
+    }
+
+    private ModelVersion require(String version) {
+        ModelVersion found = versions.get(version);
+        if (found == null) {
+            throw new IllegalArgumentException("Versión desconocida: " + version);
+        }
+        return found;
+    }
+
+    /**
+     * Estado del registro para el endpoint de administración.
+     */
+    public Map<String, Object> describe() {
+        List<Map<String, Object>> list = new ArrayList<>();
+        versions.values().stream()
+            .sorted(Comparator.comparing(ModelVersion::getLoadedAt))
+            .forEach(v -> {
+                Map<String, Object> item = new HashMap<>();
+                item.put("version", v.getVersion());
+                item.put("source", v.getSource());
+                item.put("trees", v.getModel().treeCount());
+                item.put("loadedAt", v.getLoadedAt());
+                item.put("compileMillis", v.getCompileMillis());
+                item.put("warmupMillis", v.getWarmupMillis());
+                list.add(item);
+            });
+
+        Map<String, Object> result = new HashMap<>();
+        ModelVersion current = active.get();
+        result.put("active", current != null ? current.getVersion() : null);
+        result.put("versions", list);
+        Shadow s = shadow.get();
+        result.put("shadow", s != null ? s.describe() : null);
+        return result;
+    }
+
+    /**
+     * Versión candidata en shadow y sus métricas acumuladas.
+     */
+    private static final class Shadow {
+        private final ModelVersion version;
+        private final double sampleRate;
+        private final LongAdder samples = new LongAdder();
+        private final DoubleAdder sumAbsDiff = new DoubleAdder();
+        private final AtomicLong maxAbsDiffBits = new AtomicLong(Double.doubleToLongBits(0.0));
+        private final LongAdder sumNanos = new LongAdder();
+
+        Shadow(ModelVersion version, double sampleRate) {
+            this.version = version;
+            this.sampleRate = sampleRate;
+        }
+
+        void record(double[] x, double liveProbability) {
+            long start = System.nanoTime();
+            double p = version.getModel().predict(x);
+            sumNanos.add(System.nanoTime() - start);
+            double diff = Math.abs(p - liveProbability);
+            samples.increment();
+            sumAbsDiff.add(diff);
+            maxAbsDiffBits.accumulateAndGet(Double.doubleToLongBits(diff),
+                (a, b) -> Double.longBitsToDouble(a) >= Double.longBitsToDouble(b) ? a : b);
+        }
+
+        Map<String, Object> describe() {
+            long n = samples.sum();
+            Map<String, Object> result = new HashMap<>();
+            result.put("version", version.getVersion());
+            result.put("sampleRate", sampleRate);
+            result.put("samples", n);
+            result.put("meanAbsDiff", n == 0 ? 0.0 : sumAbsDiff.sum() / n);
+            result.put("maxAbsDiff", Double.longBitsToDouble(maxAbsDiffBits.get()));
+            result.put("meanLatencyMicros", n == 0 ? 0.0 : sumNanos.sum() / 1000.0 / n);
+            return result;
+        }
+    }
+}
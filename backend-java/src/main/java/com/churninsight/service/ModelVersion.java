@@ -0,0 +1,50 @@
+package com.churninsight.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Versión de modelo compilada y lista para usar desde el registro.
+ */
+public final class ModelVersion {
+
+    private final String version;
+    private final TreeEnsembleModel model;
+    private final String source;
+    private final LocalDateTime loadedAt;
+    private final long compileMillis;
+    private final long warmupMillis;
+
+    public ModelVersion(String version, TreeEnsembleModel model, String source,
+                        long compileMillis, long warmupMillis) {
+        this.version = version;
+        this.model = model;
+        this.source = source;
+        this.loadedAt = LocalDateTime.now();
+        this.compileMillis = compileMillis;
+        this.warmupMillis = warmupMillis;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public TreeEnsembleModel getModel() {
+        return model;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public LocalDateTime getLoadedAt() {
+        return loadedAt;
+    }
+
+    public long getCompileMillis() {
+        return compileMillis;
+    }
+
+    public long getWarmupMillis() {
+        return warmupMillis;
+    }
+}
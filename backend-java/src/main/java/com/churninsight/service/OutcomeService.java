@@ -0,0 +1,143 @@
+package com.churninsight.service;
+
+import com.churninsight.controller.OutcomeRequest;
+import com.churninsight.model.ChurnOutcome;
+import com.churninsight.model.ChurnOutcomeRepository;
+import com.churninsight.model.PredictionHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Carga de resultados reales de churn. Cada resultado se une a la última predicción del
+ * cliente hasta su {@code observedAt}: primero en el estado en memoria de
+ * {@link CustomerRiskStore} y, si no alcanza, con el historial: los clientes que faltan se
+ * buscan de a {@value #LOOKUP_BATCH} en una sola consulta {@code IN}. Los unidos alimentan a
+ * {@link ModelQualityEvaluator}.
+ */
+@Service
+public class OutcomeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutcomeService.class);
+
+    // Clientes por consulta al historial
+    static final int LOOKUP_BATCH = 500;
+
+    private final ChurnOutcomeRepository outcomeRepository;
+    private final PredictionHistoryRepository predictionHistoryRepository;
+    private final CustomerRiskStore customerRiskStore;
+    private final ModelQualityEvaluator evaluator;
+    private final DataVersions dataVersions;
+
+    public OutcomeService(ChurnOutcomeRepository outcomeRepository,
+                          PredictionHistoryRepository predictionHistoryRepository,
+                          CustomerRiskStore customerRiskStore, ModelQualityEvaluator evaluator,
+                          DataVersions dataVersions) {
+        this.outcomeRepository = outcomeRepository;
+        this.predictionHistoryRepository = predictionHistoryRepository;
+        this.customerRiskStore = customerRiskStore;
+        this.evaluator = evaluator;
+        this.dataVersions = dataVersions;
+    }
+
+    /**
+     * Une, guarda y evalúa un lote de resultados.
+     *
+     * @return cantidad recibida, unida a una predicción y sin predicción previa
+     */
+    public Map<String, Object> ingest(List<OutcomeRequest> requests, String username) {
+        LocalDateTime now = LocalDateTime.now();
+        int size = requests.size();
+        LocalDateTime[] observedAt = new LocalDateTime[size];
+        Double[] predicted = new Double[size];
+        Long[] predictionIds = new Long[size];
+        List<Integer> pending = new ArrayList<>();
+        int fromMemory = 0;
+        for (int i = 0; i < size; i++) {
+            OutcomeRequest request = requests.get(i);
+            observedAt[i] = request.getObservedAt() != null ? request.getObservedAt() : now;
+            double probability = customerRiskStore.probabilityAt(request.getCustomerId(),
+                observedAt[i].atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            if (!Double.isNaN(probability)) {
+                predicted[i] = probability;
+                fromMemory++;
+            } else if (request.getCustomerId() != null) {
+                pending.add(i);
+            }
+        }
+        for (int from = 0; from < pending.size(); from += LOOKUP_BATCH) {
+            matchFromHistory(requests, observedAt, pending.subList(from, Math.min(pending.size(), from + LOOKUP_BATCH)),
+                predicted, predictionIds);
+        }
+
+        List<ChurnOutcome> outcomes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            OutcomeRequest request = requests.get(i);
+            outcomes.add(new ChurnOutcome(request.getCustomerId(), request.getChurned(), observedAt[i],
+                predicted[i], predictionIds[i], username));
+        }
+
+        outcomeRepository.saveAll(outcomes);
+
+        int matched = 0;
+        for (ChurnOutcome outcome : outcomes) {
+            if (outcome.getPredictedProbability() != null) {
+                evaluator.record(outcome.getPredictedProbability(), outcome.isChurned(),
+                    outcome.getObservedAt().toLocalDate());
+                matched++;
+            }
+        }
+        if (matched > 0) {
+            dataVersions.bumpGlobal();
+        }
+        logger.info("[OutcomeService] {} resultados de {}: {} unidos ({} desde memoria), {} sin predicción",
+            outcomes.size(), username, matched, fromMemory, outcomes.size() - matched);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("received", outcomes.size());
+        result.put("matched", matched);
+        result.put("unmatched", outcomes.size() - matched);
+        return result;
+    }
+
+    // Une los resultados indicados a la última predicción de su cliente hasta observedAt con una sola consulta
+    private void matchFromHistory(List<OutcomeRequest> requests, LocalDateTime[] observedAt, List<Integer> batch,
+                                  Double[] predicted, Long[] predictionIds) {
+        Set<String> customerIds = new HashSet<>();
+        LocalDateTime until = null;
+        for (int i : batch) {
+            customerIds.add(requests.get(i).getCustomerId());
+            if (until == null || observedAt[i].isAfter(until)) {
+                until = observedAt[i];
+            }
+        }
+        // Por cliente, de la más reciente a la más antigua
+        Map<String, List<Object[]>> byCustomer = new HashMap<>();
+        for (Object[] row : predictionHistoryRepository.findPredictionsByCustomerIdsUntil(customerIds, until)) {
+            byCustomer.computeIfAbsent((String) row[0], id -> new ArrayList<>()).add(row);
+        }
+        for (int i : batch) {
+            List<Object[]> predictions = byCustomer.get(requests.get(i).getCustomerId());
+            if (predictions == null) {
+                continue;
+            }
+            for (Object[] row : predictions) {
+                if (!((LocalDateTime) row[1]).isAfter(observedAt[i])) {
+                    predicted[i] = (Double) row[3];
+                    predictionIds[i] = (Long) row[2];
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.churninsight.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Log local de eventos de predicción, de solo agregado, para consumidores externos (BI,
+ * sincronización con el CRM, reentrenamiento) que hoy consultan MySQL.
+ *
+ * Cada evento recibe un offset secuencial y se escribe en el segmento activo
+ * ({@link LogSegment}, mapeado en memoria y con CRC por registro); al llenarse se abre uno
+ * nuevo. Cada consumidor lleva su propio offset y lee con {@link #read} o espera eventos
+ * nuevos con {@link #awaitAppend} (long-poll en {@code /api/events}). Los segmentos más
+ * viejos que la retención se borran.
+ */
+@Component
+public class PredictionEventLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(PredictionEventLog.class);
+
+    @Value("${event-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${event-log.dir:${java.io.tmpdir}/churninsight-events}")
+    private String dir;
+
+    @Value("${event-log.segment-bytes:67108864}")
+    private int segmentBytes;
+
+    @Value("${event-log.index-interval-bytes:4096}")
+    private int indexIntervalBytes;
+
+    @Value("${event-log.retention-hours:168}")
+    private long retentionHours;
+
+    private final ObjectMapper objectMapper;
+    private final Counter appended;
+
+    private final ConcurrentSkipListMap<Long, LogSegment> segments = new ConcurrentSkipListMap<>();
+    private final Queue<CompletableFuture<Void>> waiters = new ConcurrentLinkedQueue<>();
+    private Path directory;
+    private volatile LogSegment active;
+
+    public PredictionEventLog(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.appended = Counter.builder("churn.event_log.appended")
+            .description("Eventos agregados al log de predicciones")
+            .register(meterRegistry);
+        Gauge.builder("churn.event_log.next_offset", this, PredictionEventLog::nextOffset)
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        directory = Paths.get(dir);
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".log")).sorted().toList()) {
+                String name = file.getFileName().toString();
+                long baseOffset = Long.parseLong(name.substring(0, name.length() - 4));
+                segments.put(baseOffset, LogSegment.open(directory, baseOffset, segmentBytes, indexIntervalBytes));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, LogSegment.open(directory, 0, segmentBytes, indexIntervalBytes));
+        }
+        active = segments.lastEntry().getValue();
+        logger.info("[EventLog] {} segmentos en {}, offsets {} a {}", segments.size(), directory,
+            earliestOffset(), nextOffset());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Agrega un evento de predicción. Un error al escribir se registra y no se propaga:
+     * el log no debe afectar la predicción.
+     *
+     * @param source origen del evento (predict, batch, rescoring, job)
+     */
+    public void append(String source, Object prediction) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("source", source);
+            event.put("prediction", prediction);
+            append(objectMapper.writeValueAsBytes(event));
+        } catch (Exception e) {
+            logger.error("[EventLog] No se pudo agregar el evento: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Agrega un payload y retorna su offset.
+     */
+    public long append(byte[] payload) throws IOException {
+        if (LogSegment.HEADER_BYTES + payload.length > segmentBytes) {
+            throw new IllegalArgumentException("Evento de " + payload.length + " bytes supera el tamaño de segmento");
+        }
+        long offset;
+        synchronized (this) {
+            offset = active.nextOffset();
+            if (!active.append(System.currentTimeMillis(), payload)) {
+                roll();
+                active.append(System.currentTimeMillis(), payload);
+            }
+        }
+        appended.increment();
+        CompletableFuture<Void> waiter;
+        while ((waiter = waiters.poll()) != null) {
+            waiter.complete(null);
+        }
+        return offset;
+    }
+
+    // Con el lock tomado
+    private void roll() throws IOException {
+        active.flush();
+        long baseOffset = active.nextOffset();
+        LogSegment segment = LogSegment.open(directory, baseOffset, segmentBytes, indexIntervalBytes);
+        segments.put(baseOffset, segment);
+        active = segment;
+        logger.info("[EventLog] Nuevo segmento desde el offset {}", baseOffset);
+    }
+
+    /**
+     * Lee hasta {@code max} eventos desde {@code offset}, atravesando segmentos.
+     *
+     * @throws IllegalArgumentException si el offset ya fue borrado por retención
+     */
+    public List<LogEvent> read(long offset, int max) {
+        List<LogEvent> events = new ArrayList<>(Math.min(max, 1024));
+        if (!enabled) {
+            return events;
+        }
+        if (offset < earliestOffset()) {
+            throw new IllegalArgumentException("El offset " + offset + " ya no está disponible; el primero es "
+                + earliestOffset());
+        }
+        Map.Entry<Long, LogSegment> entry = segments.floorEntry(offset);
+        long next = offset;
+        while (entry != null && events.size() < max) {
+            entry.getValue().read(next, max - events.size(), events);
+            next = entry.getValue().nextOffset();
+            entry = segments.higherEntry(entry.getKey());
+        }
+        return events;
+    }
+
+    /**
+     * Futuro que se completa cuando hay algún evento con offset &gt;= {@code offset}.
+     */
+    public CompletableFuture<Void> awaitAppend(long offset) {
+        if (!enabled || offset < nextOffset()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+        // Un append entre la comprobación y el registro ya no despertaría a este waiter
+        if (offset < nextOffset()) {
+            waiters.remove(waiter);
+            waiter.complete(null);
+        }
+        return waiter;
+    }
+
+    public void cancelWait(CompletableFuture<Void> waiter) {
+        waiters.remove(waiter);
+    }
+
+    public long earliestOffset() {
+        Map.Entry<Long, LogSegment> first = segments.firstEntry();
+        return first != null ? first.getKey() : 0;
+    }
+
+    public long nextOffset() {
+        LogSegment current = active;
+        return current != null ? current.nextOffset() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${event-log.flush-interval-ms:1000}")
+    public void flush() {
+        LogSegment current = active;
+        if (current != null) {
+            current.flush();
+        }
+    }
+
+    /**
+     * Borra los segmentos cerrados sin escrituras dentro de la retención.
+     */
+    @Scheduled(fixedDelay = 600_000)
+    public void applyRetention() {
+        if (!enabled) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - retentionHours * 3_600_000L;
+        for (LogSegment segment : segments.values()) {
+            if (segment == active || segment.lastAppendMillis() >= cutoff) {
+                continue;
+            }
+            segments.remove(segment.baseOffset);
+            try {
+                segment.delete();
+                logger.info("[EventLog] Segmento {} borrado por retención", segment.baseOffset);
+            } catch (IOException e) {
+                logger.warn("[EventLog] No se pudo borrar el segmento {}: {}", segment.baseOffset, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        waiters.forEach(waiter -> waiter.complete(null));
+        for (LogSegment segment : segments.values()) {
+            try {
+                segment.flush();
+                segment.close();
+            } catch (IOException e) {
+                logger.warn("[EventLog] Error cerrando el segmento {}: {}", segment.baseOffset, e.getMessage());
+            }
+        }
+    }
+}
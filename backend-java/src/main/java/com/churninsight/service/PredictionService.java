@@ -0,0 +1,126 @@
+package com.churninsight.service;
+
+import com.churninsight.config.RequestTiming;
+import com.churninsight.controller.ChurnPredictionRequest;
+import com.churninsight.model.PredictionHistory;
+import com.churninsight.model.PredictionHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Predicción y registro en el historial, compartido por los endpoints JSON y binarios.
+ */
+@Service
+public class PredictionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PredictionService.class);
+
+    static final String ANONYMOUS_PREFIX = "anon-";
+
+    private final ChurnModelClient churnModelClient;
+    private final PredictionHistoryRepository predictionHistoryRepository;
+    private final CustomerRiskStore customerRiskStore;
+    private final AlertEngine alertEngine;
+    private final PredictionEventLog eventLog;
+    private final DataVersions dataVersions;
+
+    public PredictionService(ChurnModelClient churnModelClient,
+                             PredictionHistoryRepository predictionHistoryRepository,
+                             CustomerRiskStore customerRiskStore, AlertEngine alertEngine,
+                             PredictionEventLog eventLog, DataVersions dataVersions) {
+        this.churnModelClient = churnModelClient;
+        this.predictionHistoryRepository = predictionHistoryRepository;
+        this.customerRiskStore = customerRiskStore;
+        this.alertEngine = alertEngine;
+        this.eventLog = eventLog;
+        this.dataVersions = dataVersions;
+    }
+
+    /**
+     * Puntúa un cliente y guarda la predicción en el historial del usuario.
+     */
+    public PredictionHistory predict(ChurnPredictionRequest request, String username) {
+        PredictionHistory history = score(request, username);
+        RequestTiming.lap("model");
+        predictionHistoryRepository.save(history);
+        RequestTiming.lap("insert");
+        recorded(history, "predict");
+        RequestTiming.lap("events");
+        return history;
+    }
+
+    /**
+     * Puntúa un lote y lo guarda con un único {@code saveAll}.
+     */
+    public List<PredictionHistory> predictBatch(List<ChurnPredictionRequest> requests, String username) {
+        List<PredictionHistory> batch = new ArrayList<>(requests.size());
+        for (ChurnPredictionRequest request : requests) {
+            batch.add(score(request, username));
+        }
+        RequestTiming.lap("model");
+        predictionHistoryRepository.saveAll(batch);
+        RequestTiming.lap("insert");
+        for (PredictionHistory history : batch) {
+            recorded(history, "batch");
+        }
+        RequestTiming.lap("events");
+        logger.debug("[PredictionService] Lote guardado: {} predicciones", batch.size());
+        return batch;
+    }
+
+    // Estado del cliente, alertas, log de eventos y versión de datos, sin consultas a la base
+    private void recorded(PredictionHistory history, String source) {
+        dataVersions.bump(history.getUsername());
+        double previous = customerRiskStore.record(history);
+        alertEngine.evaluate(history, previous);
+        eventLog.append(source, history);
+    }
+
+    private PredictionHistory score(ChurnPredictionRequest request, String username) {
+        // Con atributos crudos las variables del modelo se derivan aquí
+        FeatureTransform.apply(request);
+
+        // Llamar al servicio de ML para obtener la predicción
+        Map<String, Object> prediction = churnModelClient.predict(request);
+
+        // Extraer probabilidad con conversión segura
+        Object probabilityObj = prediction.get("churn_probability");
+        if (!(probabilityObj instanceof Number)) {
+            throw new IllegalStateException("Respuesta del modelo inválida: falta churn_probability numérica");
+        }
+        double probability = ((Number) probabilityObj).doubleValue();
+
+        // Id estable enviado por el cliente o, si no hay, uno aleatorio con prefijo no numérico:
+        // un hex de solo dígitos pasaría por un CustomerId real en CustomerRiskStore.parseKey
+        String customerId = request.getCustomerId() != null
+            ? request.getCustomerId()
+            : ANONYMOUS_PREFIX + UUID.randomUUID().toString().substring(0, 8);
+
+        PredictionHistory history = new PredictionHistory();
+        history.setCustomerId(customerId);
+        history.setChurnProbability(probability);
+        history.setAgeRisk(request.getAgeRisk());
+        history.setNumOfProducts(request.getNumOfProducts() != null ? request.getNumOfProducts().intValue() : 0);
+        history.setInactivo4070(request.getInactivo4070());
+        history.setProductsRiskFlag(request.getProductsRiskFlag());
+        history.setCountryRiskFlag(request.getCountryRiskFlag());
+        history.setIsActiveMember(request.getIsActiveMember());
+        history.setPredictionDate(LocalDateTime.now());
+        history.setUsername(username);
+
+        // Guardar campos adicionales para análisis de negocio
+        history.setBalance(request.getBalance());
+        history.setEstimatedSalary(request.getEstimatedSalary());
+        history.setCountry(request.getCountry());
+        history.setTenure(request.getTenure());
+        history.setModelVersion((String) prediction.get("model_version"));
+        return history;
+    }
+}
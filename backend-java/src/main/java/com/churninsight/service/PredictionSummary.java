@@ -0,0 +1,71 @@
+package com.churninsight.service;
+
+import com.churninsight.model.PredictionHistory;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Agregados de las predicciones de un usuario de los que salen las estadísticas y los KPIs.
+ * En los endpoints los calcula la base de datos
+ * ({@code PredictionHistoryRepository.summarizeByUsername}), sin cargar el historial.
+ *
+ * @param highRiskBalance suma de balances de las predicciones con probabilidad &gt; 0.75
+ */
+public record PredictionSummary(
+    long predictions,
+    long customers,
+    long lowRiskPredictions,
+    long highRiskCustomers,
+    double highRiskBalance,
+    double averageProbability
+) {
+
+    static final double LOW_RISK_MAX = 0.5;
+    static final double HIGH_RISK_MIN = 0.75;
+
+    /**
+     * Fila de {@code summarizeByUsername}; los agregados son null si el usuario no tiene predicciones.
+     */
+    public static PredictionSummary fromRow(Object[] row) {
+        return new PredictionSummary(longValue(row[0]), longValue(row[1]), longValue(row[2]), longValue(row[3]),
+            doubleValue(row[4]), doubleValue(row[5]));
+    }
+
+    /**
+     * Los mismos agregados sobre filas ya cargadas.
+     */
+    public static PredictionSummary of(List<PredictionHistory> predictions) {
+        Set<String> customers = new HashSet<>();
+        Set<String> highRiskCustomers = new HashSet<>();
+        long lowRisk = 0;
+        double highRiskBalance = 0;
+        double probabilitySum = 0;
+        for (PredictionHistory prediction : predictions) {
+            double probability = prediction.getChurnProbability();
+            customers.add(prediction.getCustomerId());
+            probabilitySum += probability;
+            if (probability < LOW_RISK_MAX) {
+                lowRisk++;
+            }
+            if (probability > HIGH_RISK_MIN) {
+                highRiskCustomers.add(prediction.getCustomerId());
+                if (prediction.getBalance() != null) {
+                    highRiskBalance += prediction.getBalance();
+                }
+            }
+        }
+        double average = predictions.isEmpty() ? 0.0 : probabilitySum / predictions.size();
+        return new PredictionSummary(predictions.size(), customers.size(), lowRisk, highRiskCustomers.size(),
+            highRiskBalance, average);
+    }
+
+    private static long longValue(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private static double doubleValue(Object value) {
+        return value != null ? ((Number) value).doubleValue() : 0.0;
+    }
+}
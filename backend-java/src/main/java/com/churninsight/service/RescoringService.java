@@ -0,0 +1,338 @@
+package com.churninsight.service;
+
+import com.churninsight.model.PredictionHistory;
+import com.churninsight.model.PredictionHistoryRepository;
+import com.churninsight.model.RescoringRun;
+import com.churninsight.model.RescoringRunRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Re-scoring periódico de toda la cartera.
+ *
+ * Recorre la última predicción de cada cliente por páginas (keyset sobre el id) y vuelve a
+ * puntuar su vector de variables con el modelo compilado activo. Cada página se reparte en
+ * un {@link ForkJoinPool} dividiéndola recursivamente en tramos; solo se guarda una fila
+ * nueva en el historial si la probabilidad se movió más que {@code epsilon} o si el
+ * cliente cambió de banda de riesgo. Toda la corrida usa la misma versión del modelo.
+ */
+@Service
+public class RescoringService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RescoringService.class);
+
+    // Tramo mínimo que un worker puntúa sin seguir dividiendo
+    private static final int LEAF_SIZE = 256;
+
+    // Resultado por cliente en cada página
+    private static final byte UNCHANGED = 0;
+    private static final byte MOVED = 1;
+    private static final byte CROSSED = 2;
+    private static final byte FAILED = 3;
+
+    @Value("${rescoring.epsilon:0.01}")
+    private double epsilon;
+
+    @Value("${rescoring.page-size:5000}")
+    private int pageSize;
+
+    // 0 = un worker por núcleo
+    @Value("${rescoring.parallelism:0}")
+    private int parallelism;
+
+    private final LocalChurnScorer scorer;
+    private final ModelRegistry modelRegistry;
+    private final RiskBands riskBands;
+    private final CustomerRiskStore customerRiskStore;
+    private final AlertEngine alertEngine;
+    private final PredictionEventLog eventLog;
+    private final PredictionHistoryRepository predictionHistoryRepository;
+    private final RescoringRunRepository runRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DataVersions dataVersions;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ForkJoinPool pool;
+
+    public RescoringService(LocalChurnScorer scorer, ModelRegistry modelRegistry, RiskBands riskBands,
+                            CustomerRiskStore customerRiskStore, AlertEngine alertEngine, PredictionEventLog eventLog,
+                            PredictionHistoryRepository predictionHistoryRepository,
+                            RescoringRunRepository runRepository, TransactionTemplate transactionTemplate,
+                            DataVersions dataVersions) {
+        this.scorer = scorer;
+        this.modelRegistry = modelRegistry;
+        this.riskBands = riskBands;
+        this.customerRiskStore = customerRiskStore;
+        this.alertEngine = alertEngine;
+        this.eventLog = eventLog;
+        this.predictionHistoryRepository = predictionHistoryRepository;
+        this.runRepository = runRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.dataVersions = dataVersions;
+    }
+
+    @PostConstruct
+    void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads, p -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("rescoring-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Una corrida interrumpida por un reinicio queda RUNNING; se marca como fallida. Las
+     * filas ya guardadas son válidas y la próxima corrida no las vuelve a escribir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void closeInterrupted() {
+        try {
+            for (RescoringRun run : runRepository.findByStatus(RescoringRun.Status.RUNNING)) {
+                run.setStatus(RescoringRun.Status.FAILED);
+                run.setError("Interrumpida por reinicio");
+                run.setFinishedAt(LocalDateTime.now());
+                runRepository.save(run);
+            }
+        } catch (Exception e) {
+            logger.error("[Rescoring] No se pudieron cerrar las corridas interrumpidas: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Corrida nocturna. Con {@code rescoring.cron: "-"} queda deshabilitada.
+     */
+    @Scheduled(cron = "${rescoring.cron:0 0 2 * * *}")
+    public void scheduledRun() {
+        try {
+            start("scheduled");
+        } catch (IllegalStateException e) {
+            logger.warn("[Rescoring] Corrida programada omitida: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Lanza una corrida en segundo plano.
+     *
+     * @throws IllegalStateException si ya hay una corrida en curso o no hay modelo local
+     */
+    public RescoringRun start(String triggeredBy) {
+        if (!scorer.isAvailable()) {
+            throw new IllegalStateException("No hay un modelo compilado activo para el re-scoring");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay una corrida de re-scoring en curso");
+        }
+        try {
+            ModelVersion version = modelRegistry.active();
+            RescoringRun run = runRepository.save(
+                new RescoringRun(UUID.randomUUID().toString(), triggeredBy, version.getVersion(), epsilon));
+            // La corrida se ejecuta en el pool y no ocupa el hilo del scheduler
+            pool.execute(() -> execute(run, version));
+            logger.info("[Rescoring] Corrida {} iniciada por {} con el modelo {}",
+                run.getId(), triggeredBy, version.getVersion());
+            return run;
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public Optional<RescoringRun> find(String id) {
+        return runRepository.findById(id);
+    }
+
+    public List<RescoringRun> recentRuns() {
+        return runRepository.findTop20ByOrderByStartedAtDesc();
+    }
+
+    private void execute(RescoringRun run, ModelVersion version) {
+        try {
+            // Las filas que escribe la propia corrida quedan por encima del corte y no se recorren
+            long maxId = predictionHistoryRepository.findMaxId();
+            long afterId = 0;
+            while (true) {
+                List<PredictionHistory> page = predictionHistoryRepository.findLatestPerCustomerBetween(
+                    afterId, maxId, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                PredictionHistory[] latest = page.toArray(new PredictionHistory[0]);
+                PredictionHistory[] changed = new PredictionHistory[latest.length];
+                byte[] outcome = new byte[latest.length];
+                // Se ejecuta dentro del pool, así que los tramos se reparten con work-stealing
+                new DeltaTask(version, latest, changed, outcome, 0, latest.length).invoke();
+                persistPage(run, latest.length, changed, outcome);
+                afterId = latest[latest.length - 1].getId();
+            }
+            finish(run, RescoringRun.Status.COMPLETED, null);
+            logger.info("[Rescoring] Corrida {} completada: {} clientes, {} actualizados ({} cambios de banda), {} fallidos",
+                run.getId(), run.getScannedCustomers(), run.getChangedCustomers(), run.getBandCrossings(),
+                run.getFailedCustomers());
+        } catch (Exception e) {
+            if (pool.isShutdown()) {
+                logger.info("[Rescoring] Corrida {} interrumpida por apagado", run.getId());
+                return;
+            }
+            logger.error("[Rescoring] Corrida {} falló: {}", run.getId(), e.getMessage(), e);
+            finish(run, RescoringRun.Status.FAILED, e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void persistPage(RescoringRun run, int scanned, PredictionHistory[] changed, byte[] outcome) {
+        List<PredictionHistory> rows = new ArrayList<>();
+        int crossings = 0;
+        int failed = 0;
+        for (int i = 0; i < outcome.length; i++) {
+            switch (outcome[i]) {
+                case CROSSED -> {
+                    crossings++;
+                    rows.add(changed[i]);
+                }
+                case MOVED -> rows.add(changed[i]);
+                case FAILED -> failed++;
+                default -> { }
+            }
+        }
+        int changedCount = rows.size();
+        int crossingCount = crossings;
+        int failedCount = failed;
+        transactionTemplate.executeWithoutResult(status -> {
+            predictionHistoryRepository.saveAll(rows);
+            run.setScannedCustomers(run.getScannedCustomers() + scanned);
+            run.setChangedCustomers(run.getChangedCustomers() + changedCount);
+            run.setBandCrossings(run.getBandCrossings() + crossingCount);
+            run.setFailedCustomers(run.getFailedCustomers() + failedCount);
+            runRepository.save(run);
+        });
+        for (PredictionHistory row : rows) {
+            dataVersions.bump(row.getUsername());
+            alertEngine.evaluate(row, customerRiskStore.record(row));
+            eventLog.append("rescoring", row);
+        }
+    }
+
+    private void finish(RescoringRun run, RescoringRun.Status status, String error) {
+        run.setStatus(status);
+        run.setError(error != null && error.length() > 1024 ? error.substring(0, 1024) : error);
+        run.setFinishedAt(LocalDateTime.now());
+        runRepository.save(run);
+    }
+
+    /**
+     * Puntúa el tramo [from, to) de la página. Cada worker escribe solo sus posiciones de
+     * {@code outcome} y, si el cliente debe actualizarse, la fila nueva en {@code changed}.
+     */
+    private final class DeltaTask extends RecursiveAction {
+
+        private final ModelVersion version;
+        private final PredictionHistory[] latest;
+        private final PredictionHistory[] changed;
+        private final byte[] outcome;
+        private final int from;
+        private final int to;
+
+        DeltaTask(ModelVersion version, PredictionHistory[] latest, PredictionHistory[] changed, byte[] outcome,
+                  int from, int to) {
+            this.version = version;
+            this.latest = latest;
+            this.changed = changed;
+            this.outcome = outcome;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new DeltaTask(version, latest, changed, outcome, from, mid),
+                    new DeltaTask(version, latest, changed, outcome, mid, to));
+                return;
+            }
+            TreeEnsembleModel model = version.getModel();
+            double[] x = new double[ChurnFeatures.COUNT];
+            for (int i = from; i < to; i++) {
+                PredictionHistory previous = latest[i];
+                if (!toVector(previous, x)) {
+                    outcome[i] = FAILED;
+                    continue;
+                }
+                double probability = model.predict(x);
+                double before = previous.getChurnProbability();
+                if (riskBands.band(probability) != riskBands.band(before)) {
+                    outcome[i] = CROSSED;
+                } else if (Math.abs(probability - before) > epsilon) {
+                    outcome[i] = MOVED;
+                } else {
+                    outcome[i] = UNCHANGED;
+                    continue;
+                }
+                changed[i] = rescored(previous, probability, version.getVersion());
+            }
+        }
+    }
+
+    private static boolean toVector(PredictionHistory history, double[] x) {
+        if (history.getAgeRisk() == null || history.getNumOfProducts() == null || history.getInactivo4070() == null
+                || history.getProductsRiskFlag() == null || history.getCountryRiskFlag() == null) {
+            return false;
+        }
+        x[ChurnFeatures.AGE_RISK] = history.getAgeRisk();
+        x[ChurnFeatures.NUM_OF_PRODUCTS] = history.getNumOfProducts();
+        x[ChurnFeatures.INACTIVO_40_70] = history.getInactivo4070();
+        x[ChurnFeatures.PRODUCTS_RISK_FLAG] = history.getProductsRiskFlag();
+        x[ChurnFeatures.COUNTRY_RISK_FLAG] = history.getCountryRiskFlag();
+        return true;
+    }
+
+    // Copia del último registro del cliente con la nueva probabilidad
+    private static PredictionHistory rescored(PredictionHistory previous, double probability, String modelVersion) {
+        PredictionHistory history = new PredictionHistory();
+        history.setCustomerId(previous.getCustomerId());
+        history.setChurnProbability(probability);
+        history.setAgeRisk(previous.getAgeRisk());
+        history.setNumOfProducts(previous.getNumOfProducts());
+        history.setInactivo4070(previous.getInactivo4070());
+        history.setProductsRiskFlag(previous.getProductsRiskFlag());
+        history.setCountryRiskFlag(previous.getCountryRiskFlag());
+        history.setIsActiveMember(previous.getIsActiveMember());
+        history.setPredictionDate(LocalDateTime.now());
+        history.setUsername(previous.getUsername());
+        history.setBalance(previous.getBalance());
+        history.setEstimatedSalary(previous.getEstimatedSalary());
+        history.setCountry(previous.getCountry());
+        history.setTenure(previous.getTenure());
+        history.setModelVersion(modelVersion);
+        return history;
+    }
+}
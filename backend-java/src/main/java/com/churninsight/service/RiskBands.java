@@ -0,0 +1,69 @@
+package com.churninsight.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Bandas de riesgo de churn. Los límites por defecto son los de los KPIs:
+ * bajo &lt; 0.5 &lt;= medio &lt; 0.75 &lt;= alto.
+ */
+@Component
+public class RiskBands {
+
+    // Nombres de la configuración por defecto de tres bandas
+    private static final String[] NAMES = {"low", "medium", "high"};
+
+    private final double[] thresholds;
+
+    public RiskBands(@Value("${risk.band-thresholds:0.5,0.75}") double[] thresholds) {
+        this.thresholds = thresholds.clone();
+        Arrays.sort(this.thresholds);
+    }
+
+    public double[] thresholds() {
+        return thresholds.clone();
+    }
+
+    /**
+     * Cantidad de bandas (límites + 1).
+     */
+    public int count() {
+        return thresholds.length + 1;
+    }
+
+    /**
+     * Nombre de la banda: low/medium/high con tres bandas, el índice con otra configuración.
+     */
+    public String name(int band) {
+        return thresholds.length + 1 == NAMES.length ? NAMES[band] : Integer.toString(band);
+    }
+
+    /**
+     * Límite inferior (inclusivo) de la banda, o -infinito para la primera.
+     */
+    public double lowerBound(int band) {
+        return band == 0 ? Double.NEGATIVE_INFINITY : thresholds[band - 1];
+    }
+
+    /**
+     * Límite superior (exclusivo) de la banda, o +infinito para la última.
+     */
+    public double upperBound(int band) {
+        return band == thresholds.length ? Double.POSITIVE_INFINITY : thresholds[band];
+    }
+
+    /**
+     * Índice de la banda (0 = bajo): cantidad de límites que la probabilidad alcanza.
+     */
+    public int band(double probability) {
+        int band = 0;
+        for (double threshold : thresholds) {
+            if (probability >= threshold) {
+                band++;
+            }
+        }
+        return band;
+    }
+}
@@ -0,0 +1,314 @@
+package com.churninsight.service;
+
+import com.churninsight.controller.ChurnPredictionRequest;
+import com.churninsight.model.ScoringJob;
+import com.churninsight.model.ScoringJobRepository;
+import com.churninsight.model.ScoringJobResult;
+import com.churninsight.model.ScoringJobResultRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.IntStream;
+
+/**
+ * Scoring masivo asíncrono.
+ *
+ * Cada trabajo recorre su dataset por bloques en un {@link ForkJoinPool} acotado: el
+ * bloque se puntúa en paralelo con work-stealing y sus resultados se guardan con un
+ * {@code saveAll} en la misma transacción que avanza el checkpoint. Al arrancar se
+ * reanudan los trabajos que quedaron en cola o en ejecución.
+ */
+@Service
+public class ScoringJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoringJobService.class);
+
+    private static final Set<ScoringJob.Status> ACTIVE = EnumSet.of(ScoringJob.Status.QUEUED, ScoringJob.Status.RUNNING);
+
+    @Value("${bulk-scoring.work-dir:${java.io.tmpdir}/churninsight-jobs}")
+    private String workDir;
+
+    // Directorio de datasets que se pueden referenciar por nombre
+    @Value("${bulk-scoring.dataset-dir:../data-science}")
+    private String datasetDir;
+
+    @Value("${bulk-scoring.parallelism:4}")
+    private int parallelism;
+
+    @Value("${bulk-scoring.chunk-size:1000}")
+    private int chunkSize;
+
+    // Trabajos en cola o en ejecución en total y por usuario
+    @Value("${bulk-scoring.max-active-jobs:16}")
+    private int maxActiveJobs;
+
+    @Value("${bulk-scoring.max-active-jobs-per-user:2}")
+    private int maxActiveJobsPerUser;
+
+    private final ChurnModelClient churnModelClient;
+    private final ScoringJobRepository jobRepository;
+    private final ScoringJobResultRepository resultRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PredictionEventLog eventLog;
+
+    private final Set<String> cancelRequested = ConcurrentHashMap.newKeySet();
+    private ForkJoinPool pool;
+
+    public ScoringJobService(ChurnModelClient churnModelClient, ScoringJobRepository jobRepository,
+                             ScoringJobResultRepository resultRepository, TransactionTemplate transactionTemplate,
+                             PredictionEventLog eventLog) {
+        this.churnModelClient = churnModelClient;
+        this.jobRepository = jobRepository;
+        this.resultRepository = resultRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventLog = eventLog;
+    }
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(parallelism, p -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("scoring-job-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Los trabajos interrumpidos quedan RUNNING y se reanudan desde su checkpoint
+        pool.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        try {
+            for (ScoringJob job : jobRepository.findByStatusInOrderByCreatedAt(ACTIVE)) {
+                logger.info("[ScoringJob] Reanudando trabajo {} desde el registro {}",
+                    job.getId(), job.getProcessedRecords());
+                pool.execute(() -> run(job.getId()));
+            }
+        } catch (Exception e) {
+            logger.error("[ScoringJob] No se pudieron reanudar los trabajos pendientes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Crea un trabajo a partir de un CSV subido.
+     */
+    public ScoringJob submitUpload(MultipartFile file, String username) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("El archivo está vacío");
+        }
+        String id = UUID.randomUUID().toString();
+        Path dir = Paths.get(workDir);
+        Files.createDirectories(dir);
+        Path target = dir.resolve(id + ".csv");
+        file.transferTo(target);
+        try {
+            return submit(id, target, file.getOriginalFilename(), username);
+        } catch (RuntimeException | IOException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+    }
+
+    /**
+     * Crea un trabajo sobre un dataset ya disponible en el directorio de datasets.
+     */
+    public ScoringJob submitReference(String dataset, String username) throws IOException {
+        if (dataset == null || dataset.isBlank()) {
+            throw new IllegalArgumentException("Falta el nombre del dataset");
+        }
+        Path base = Paths.get(datasetDir).toAbsolutePath().normalize();
+        Path path = base.resolve(dataset).normalize();
+        if (!path.startsWith(base) || !Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("Dataset no encontrado: " + dataset);
+        }
+        return submit(UUID.randomUUID().toString(), path, dataset, username);
+    }
+
+    private synchronized ScoringJob submit(String id, Path path, String name, String username) throws IOException {
+        if (jobRepository.countByUsernameAndStatusIn(username, ACTIVE) >= maxActiveJobsPerUser) {
+            throw new IllegalStateException("Se alcanzó el máximo de " + maxActiveJobsPerUser
+                + " trabajos activos por usuario");
+        }
+        if (jobRepository.countByStatusIn(ACTIVE) >= maxActiveJobs) {
+            throw new RejectedExecutionException("Cola de trabajos llena, reintente más tarde");
+        }
+        // Valida el encabezado antes de aceptar el trabajo
+        try (ChurnCsvReader reader = ChurnCsvReader.open(path)) {
+            reader.next();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+        ScoringJob job = jobRepository.save(new ScoringJob(id, username, path.toString(), name,
+            ChurnCsvReader.countRecords(path)));
+        pool.execute(() -> run(id));
+        logger.info("[ScoringJob] Trabajo {} creado por {}: {} registros", id, username, job.getTotalRecords());
+        return job;
+    }
+
+    public Optional<ScoringJob> find(String id, String username) {
+        return jobRepository.findById(id).filter(job -> job.getUsername().equals(username));
+    }
+
+    public List<ScoringJob> list(String username) {
+        return jobRepository.findByUsernameOrderByCreatedAtDesc(username);
+    }
+
+    public Page<ScoringJobResult> results(ScoringJob job, int page, int size) {
+        return resultRepository.findByJobIdOrderByRecordIndex(job.getId(), PageRequest.of(page, size));
+    }
+
+    /**
+     * Pide la cancelación. Un trabajo en ejecución se detiene al terminar el bloque en curso.
+     */
+    public ScoringJob cancel(ScoringJob job) {
+        if (job.isFinished()) {
+            return job;
+        }
+        cancelRequested.add(job.getId());
+        if (job.getStatus() == ScoringJob.Status.QUEUED) {
+            job.setStatus(ScoringJob.Status.CANCELLED);
+            job.setFinishedAt(LocalDateTime.now());
+            jobRepository.save(job);
+        }
+        return job;
+    }
+
+    private void run(String id) {
+        ScoringJob job = jobRepository.findById(id).orElse(null);
+        if (job == null || job.isFinished()) {
+            cancelRequested.remove(id);
+            return;
+        }
+        if (cancelRequested.remove(id)) {
+            finish(job, ScoringJob.Status.CANCELLED, null);
+            return;
+        }
+        job.setStatus(ScoringJob.Status.RUNNING);
+        if (job.getStartedAt() == null) {
+            job.setStartedAt(LocalDateTime.now());
+        }
+        job = jobRepository.save(job);
+
+        try (ChurnCsvReader reader = ChurnCsvReader.open(Paths.get(job.getDatasetPath()))) {
+            reader.skip(job.getProcessedRecords());
+            List<ChurnCsvReader.Row> chunk = new ArrayList<>(chunkSize);
+            while (true) {
+                if (cancelRequested.remove(id)) {
+                    finish(job, ScoringJob.Status.CANCELLED, null);
+                    logger.info("[ScoringJob] Trabajo {} cancelado en el registro {}", id, job.getProcessedRecords());
+                    return;
+                }
+                chunk.clear();
+                ChurnCsvReader.Row row;
+                while (chunk.size() < chunkSize && (row = reader.next()) != null) {
+                    chunk.add(row);
+                }
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                job = persistChunk(job, score(id, chunk));
+            }
+            finish(job, ScoringJob.Status.COMPLETED, null);
+            logger.info("[ScoringJob] Trabajo {} completado: {} registros, {} fallidos",
+                id, job.getProcessedRecords(), job.getFailedRecords());
+        } catch (Exception e) {
+            if (pool.isShutdown()) {
+                logger.info("[ScoringJob] Trabajo {} interrumpido por apagado en el registro {}",
+                    id, job.getProcessedRecords());
+                return;
+            }
+            logger.error("[ScoringJob] Trabajo {} falló: {}", id, e.getMessage(), e);
+            finish(job, ScoringJob.Status.FAILED, e.getMessage());
+        }
+    }
+
+    // Puntúa el bloque en paralelo; corre dentro del pool, así que usa sus mismos workers
+    private ScoredChunk score(String jobId, List<ChurnCsvReader.Row> chunk) {
+        ScoringJobResult[] results = new ScoringJobResult[chunk.size()];
+        String[] versions = new String[chunk.size()];
+        IntStream.range(0, chunk.size()).parallel().forEach(i -> {
+            ChurnCsvReader.Row row = chunk.get(i);
+            Double probability = null;
+            String error = row.error();
+            ChurnPredictionRequest request = row.request();
+            if (request != null) {
+                try {
+                    Map<String, Object> prediction = churnModelClient.predict(request);
+                    probability = ((Number) prediction.get("churn_probability")).doubleValue();
+                    versions[i] = (String) prediction.get("model_version");
+                } catch (IllegalArgumentException e) {
+                    // Registro sin alguna variable del modelo; otros errores (modelo caído) fallan el trabajo
+                    error = e.getMessage();
+                }
+            }
+            results[i] = new ScoringJobResult(jobId, row.index(), row.customerId(), probability, error);
+        });
+        int failed = 0;
+        String version = null;
+        for (int i = 0; i < results.length; i++) {
+            if (results[i].getChurnProbability() == null) {
+                failed++;
+            } else if (versions[i] != null) {
+                version = versions[i];
+            }
+        }
+        return new ScoredChunk(List.of(results), failed, version);
+    }
+
+    private ScoringJob persistChunk(ScoringJob job, ScoredChunk chunk) {
+        ScoringJob saved = transactionTemplate.execute(status -> {
+            resultRepository.saveAll(chunk.results());
+            job.setProcessedRecords(job.getProcessedRecords() + chunk.results().size());
+            job.setFailedRecords(job.getFailedRecords() + chunk.failed());
+            if (chunk.modelVersion() != null) {
+                job.setModelVersion(chunk.modelVersion());
+            }
+            return jobRepository.save(job);
+        });
+        // Solo los resultados ya confirmados; un bloque reintentado tras un reinicio puede repetirse
+        for (ScoringJobResult result : chunk.results()) {
+            if (result.getChurnProbability() != null) {
+                eventLog.append("job", result);
+            }
+        }
+        return saved;
+    }
+
+    private void finish(ScoringJob job, ScoringJob.Status status, String error) {
+        job.setStatus(status);
+        job.setError(error != null && error.length() > 1024 ? error.substring(0, 1024) : error);
+        job.setFinishedAt(LocalDateTime.now());
+        jobRepository.save(job);
+    }
+
+    private record ScoredChunk(List<ScoringJobResult> results, int failed, String modelVersion) {
+    }
+}
@@ -0,0 +1,276 @@
+package com.churninsight.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Riesgo por segmento (país, tramo de antigüedad, productos, miembro activo, banda de
+ * riesgo) sobre todas las predicciones del usuario.
+ *
+ * El historial se lee una vez con un cursor JDBC a {@link SegmentColumns} (columnas
+ * primitivas con las dimensiones codificadas por diccionario) y queda en un cache chico
+ * por usuario hasta que {@link DataVersions} cambia o vence {@code segments.cache-ttl-ms}.
+ * Cada consulta reparte las filas en bloques entre los hilos de {@code segments.parallelism};
+ * cada hilo calcula la clave de celda columna por columna y agrega en su propia tabla hash
+ * de direccionamiento abierto ({@link SegmentTable}), y al final se combinan las tablas.
+ */
+@Service
+public class SegmentAnalytics {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentAnalytics.class);
+
+    private static final String QUERY = "SELECT churn_probability, balance, country, tenure, num_of_products, "
+        + "is_active_member FROM prediction_history WHERE username = ?";
+    // Filas por tarea; por debajo de dos bloques se agrega en el hilo del request
+    private static final int CHUNK_ROWS = 1 << 16;
+    // Filas por pasada del cálculo de claves
+    private static final int BLOCK_ROWS = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final DataVersions dataVersions;
+    private final RiskBands riskBands;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int[] tenureEdges;
+    private final Object loadLock = new Object();
+    private final Map<String, SegmentColumns> cache;
+
+    @Value("${segments.fetch-size:5000}")
+    private int fetchSize;
+
+    @Value("${segments.cache-ttl-ms:60000}")
+    private long cacheTtlMillis;
+
+    public SegmentAnalytics(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            DataVersions dataVersions, RiskBands riskBands,
+                            @Value("${segments.parallelism:0}") int parallelism,
+                            @Value("${segments.tenure-buckets:2,5,8}") int[] tenureEdges,
+                            @Value("${segments.cache-users:2}") int cacheUsers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.dataVersions = dataVersions;
+        this.riskBands = riskBands;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.tenureEdges = tenureEdges.clone();
+        Arrays.sort(this.tenureEdges);
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "segments-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Orden de acceso: se descarta el usuario consultado hace más tiempo
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SegmentColumns> eldest) {
+                return size() > Math.max(0, cacheUsers);
+            }
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Agrega las predicciones del usuario por las dimensiones pedidas.
+     *
+     * @param groupBy  dimensiones: country, tenure, products, active, band
+     * @param minCount celdas con menos predicciones se omiten (y se cuentan en hiddenCells)
+     * @throws IllegalArgumentException si una dimensión no existe o está repetida
+     */
+    public SegmentReport segments(String username, List<String> groupBy, int minCount) {
+        int[] dimensions = dimensions(groupBy);
+        long start = System.currentTimeMillis();
+        SegmentColumns columns = columns(username);
+        SegmentReport report = aggregate(columns, groupBy, dimensions, minCount, start);
+        logger.debug("[SegmentAnalytics] {} celdas sobre {} predicciones de {} en {} ms", report.cells().size(),
+            columns.rows, username, report.millis());
+        return report;
+    }
+
+    private static int[] dimensions(List<String> groupBy) {
+        if (groupBy.isEmpty()) {
+            throw new IllegalArgumentException("groupBy necesita al menos una dimensión");
+        }
+        int[] dimensions = new int[groupBy.size()];
+        for (int i = 0; i < dimensions.length; i++) {
+            dimensions[i] = SegmentColumns.dimension(groupBy.get(i));
+            if (dimensions[i] < 0) {
+                throw new IllegalArgumentException("Dimensión desconocida: " + groupBy.get(i) + " (disponibles: "
+                    + String.join(", ", SegmentColumns.DIMENSIONS) + ")");
+            }
+            for (int j = 0; j < i; j++) {
+                if (dimensions[j] == dimensions[i]) {
+                    throw new IllegalArgumentException("Dimensión repetida: " + groupBy.get(i));
+                }
+            }
+        }
+        return dimensions;
+    }
+
+    // Columnas del cache si siguen vigentes; si no, una sola carga a la vez
+    private SegmentColumns columns(String username) {
+        long version = dataVersions.version(username);
+        SegmentColumns columns = cached(username, version);
+        if (columns != null) {
+            return columns;
+        }
+        synchronized (loadLock) {
+            columns = cached(username, version);
+            if (columns == null) {
+                columns = load(username, version);
+                synchronized (cache) {
+                    cache.put(username, columns);
+                }
+            }
+            return columns;
+        }
+    }
+
+    private SegmentColumns cached(String username, long version) {
+        synchronized (cache) {
+            SegmentColumns columns = cache.get(username);
+            return columns != null && columns.version == version
+                && System.currentTimeMillis() - columns.loadedAt < cacheTtlMillis ? columns : null;
+        }
+    }
+
+    private SegmentColumns load(String username, long version) {
+        long start = System.currentTimeMillis();
+        SegmentColumns.Builder builder = new SegmentColumns.Builder(riskBands, tenureEdges, version);
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(QUERY, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setString(1, username);
+            return statement;
+        }, resultSet -> {
+            builder.add(resultSet.getDouble(1), resultSet.getObject(2, Double.class), resultSet.getString(3),
+                resultSet.getObject(4, Integer.class), resultSet.getObject(5, Integer.class),
+                resultSet.getObject(6, Boolean.class));
+        }));
+        SegmentColumns columns = builder.build();
+        logger.info("[SegmentAnalytics] {} predicciones de {} cargadas en {} ms", columns.rows, username,
+            System.currentTimeMillis() - start);
+        return columns;
+    }
+
+    SegmentReport aggregate(SegmentColumns columns, List<String> groupBy, int[] dimensions, int minCount,
+                            long start) {
+        int[] cardinality = new int[dimensions.length];
+        long cells = 1;
+        for (int i = 0; i < dimensions.length; i++) {
+            cardinality[i] = columns.cardinality(dimensions[i]);
+            cells *= Math.max(1, cardinality[i]);
+        }
+        if (cells > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Demasiadas combinaciones de segmentos: " + cells);
+        }
+        // Tamaño inicial de cada tabla; crece si hay más celdas
+        int expected = (int) Math.min(cells, 1 << 12);
+
+        int chunks = columns.rows < 2 * CHUNK_ROWS ? 1 : Math.min(parallelism * 4, columns.rows / CHUNK_ROWS);
+        SegmentTable total;
+        if (chunks == 1) {
+            total = aggregateRange(columns, dimensions, cardinality, 0, columns.rows, expected);
+        } else {
+            List<Future<SegmentTable>> tasks = new ArrayList<>(chunks);
+            for (int c = 0; c < chunks; c++) {
+                int from = (int) ((long) columns.rows * c / chunks);
+                int to = (int) ((long) columns.rows * (c + 1) / chunks);
+                tasks.add(executor.submit(() -> aggregateRange(columns, dimensions, cardinality, from, to, expected)));
+            }
+            total = get(tasks.get(0));
+            for (int c = 1; c < chunks; c++) {
+                total.merge(get(tasks.get(c)));
+            }
+        }
+
+        List<SegmentReport.Cell> result = new ArrayList<>(total.size());
+        int hidden = 0;
+        int[] codes = new int[dimensions.length];
+        for (int slot = 0; slot < total.capacity(); slot++) {
+            int key = total.key(slot);
+            if (key < 0) {
+                continue;
+            }
+            long count = total.count(slot);
+            if (count < minCount) {
+                hidden++;
+                continue;
+            }
+            for (int i = dimensions.length - 1; i >= 0; i--) {
+                codes[i] = key % cardinality[i];
+                key /= cardinality[i];
+            }
+            Map<String, String> segment = new LinkedHashMap<>();
+            for (int i = 0; i < dimensions.length; i++) {
+                segment.put(groupBy.get(i), columns.labels[dimensions[i]][codes[i]]);
+            }
+            result.add(new SegmentReport.Cell(segment, count, total.probabilitySum(slot) / count,
+                (double) total.highRisk(slot) / count, total.capitalAtRisk(slot)));
+        }
+        result.sort(Comparator.comparingLong(SegmentReport.Cell::count).reversed());
+        return new SegmentReport(List.copyOf(groupBy), columns.rows, System.currentTimeMillis() - start, hidden,
+            result);
+    }
+
+    // Clave de base mixta por bloques de filas: una pasada por dimensión y luego la tabla
+    private static SegmentTable aggregateRange(SegmentColumns columns, int[] dimensions, int[] cardinality,
+                                               int from, int to, int expected) {
+        SegmentTable table = new SegmentTable(expected);
+        int[] keys = new int[BLOCK_ROWS];
+        double[] probability = columns.probability;
+        double[] balance = columns.balance;
+        for (int block = from; block < to; block += BLOCK_ROWS) {
+            int length = Math.min(BLOCK_ROWS, to - block);
+            Arrays.fill(keys, 0, length, 0);
+            for (int i = 0; i < dimensions.length; i++) {
+                short[] codes = columns.codes[dimensions[i]];
+                int radix = cardinality[i];
+                for (int j = 0; j < length; j++) {
+                    keys[j] = keys[j] * radix + codes[block + j];
+                }
+            }
+            for (int j = 0; j < length; j++) {
+                table.add(keys[j], probability[block + j], balance[block + j]);
+            }
+        }
+        return table;
+    }
+
+    private static <T> T get(Future<T> task) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error en la agregación: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Agregación interrumpida");
+        }
+    }
+}
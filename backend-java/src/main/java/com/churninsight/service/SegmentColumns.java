@@ -0,0 +1,171 @@
+package com.churninsight.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Historial de un usuario en columnas primitivas para {@link SegmentAnalytics}.
+ *
+ * Cada dimensión se guarda codificada por diccionario: un {@code short} por fila que
+ * indexa la lista de etiquetas de la dimensión. Así la clave de una celda es un entero
+ * de base mixta (código de cada dimensión por el producto de las cardinalidades que le
+ * siguen) y la agregación no toca Strings. Inmutable una vez armada.
+ */
+final class SegmentColumns {
+
+    static final String COUNTRY = "country";
+    static final String TENURE = "tenure";
+    static final String PRODUCTS = "products";
+    static final String ACTIVE = "active";
+    static final String BAND = "band";
+    static final List<String> DIMENSIONS = List.of(COUNTRY, TENURE, PRODUCTS, ACTIVE, BAND);
+
+    private static final String UNKNOWN = "Desconocido";
+    private static final String OTHER = "Otros";
+    private static final int MAX_CARDINALITY = Short.MAX_VALUE;
+
+    final int rows;
+    final double[] probability;
+    // 0 para las predicciones sin balance
+    final double[] balance;
+    // Por dimensión, en el orden de DIMENSIONS
+    final short[][] codes;
+    final String[][] labels;
+    final long version;
+    final long loadedAt;
+
+    private SegmentColumns(int rows, double[] probability, double[] balance, short[][] codes, String[][] labels,
+                           long version) {
+        this.rows = rows;
+        this.probability = probability;
+        this.balance = balance;
+        this.codes = codes;
+        this.labels = labels;
+        this.version = version;
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    static int dimension(String name) {
+        return DIMENSIONS.indexOf(name);
+    }
+
+    int cardinality(int dimension) {
+        return labels[dimension].length;
+    }
+
+    /**
+     * Arma las columnas fila a fila, con arreglos que crecen según haga falta.
+     */
+    static final class Builder {
+
+        private final RiskBands riskBands;
+        private final int[] tenureEdges;
+        private final long version;
+        private final Dictionary countries = new Dictionary();
+        private final Dictionary products = new Dictionary();
+        private final String[] tenureLabels;
+        private final String[] bandLabels;
+
+        private int rows;
+        private double[] probability = new double[1 << 16];
+        private double[] balance = new double[1 << 16];
+        private short[][] codes = new short[DIMENSIONS.size()][1 << 16];
+
+        /**
+         * @param tenureEdges límites superiores inclusivos de los tramos de antigüedad, ordenados
+         */
+        Builder(RiskBands riskBands, int[] tenureEdges, long version) {
+            this.riskBands = riskBands;
+            this.tenureEdges = tenureEdges;
+            this.version = version;
+            List<String> tenure = new ArrayList<>();
+            int low = 0;
+            for (int edge : tenureEdges) {
+                tenure.add(low == edge ? Integer.toString(edge) : low + "-" + edge);
+                low = edge + 1;
+            }
+            tenure.add(low + "+");
+            tenure.add(UNKNOWN);
+            this.tenureLabels = tenure.toArray(new String[0]);
+            this.bandLabels = new String[riskBands.count()];
+            for (int b = 0; b < bandLabels.length; b++) {
+                bandLabels[b] = riskBands.name(b);
+            }
+        }
+
+        void add(double p, Double rowBalance, String country, Integer tenure, Integer numOfProducts,
+                 Boolean isActiveMember) {
+            if (rows == probability.length) {
+                int capacity = rows + (rows >> 1);
+                probability = Arrays.copyOf(probability, capacity);
+                balance = Arrays.copyOf(balance, capacity);
+                for (int d = 0; d < codes.length; d++) {
+                    codes[d] = Arrays.copyOf(codes[d], capacity);
+                }
+            }
+            probability[rows] = p;
+            balance[rows] = rowBalance != null ? rowBalance : 0.0;
+            codes[0][rows] = countries.code(country != null ? country : UNKNOWN);
+            codes[1][rows] = (short) tenureBucket(tenure);
+            codes[2][rows] = products.code(numOfProducts != null ? numOfProducts.toString() : UNKNOWN);
+            codes[3][rows] = (short) (isActiveMember == null ? 2 : isActiveMember ? 1 : 0);
+            codes[4][rows] = (short) riskBands.band(p);
+            rows++;
+        }
+
+        private int tenureBucket(Integer tenure) {
+            if (tenure == null) {
+                return tenureEdges.length + 1;
+            }
+            int bucket = 0;
+            while (bucket < tenureEdges.length && tenure > tenureEdges[bucket]) {
+                bucket++;
+            }
+            return bucket;
+        }
+
+        SegmentColumns build() {
+            short[][] trimmed = new short[codes.length][];
+            for (int d = 0; d < codes.length; d++) {
+                trimmed[d] = Arrays.copyOf(codes[d], rows);
+            }
+            String[][] labels = {
+                countries.labels(), tenureLabels, products.labels(), new String[]{"false", "true", UNKNOWN}, bandLabels
+            };
+            return new SegmentColumns(rows, Arrays.copyOf(probability, rows), Arrays.copyOf(balance, rows), trimmed,
+                labels, version);
+        }
+    }
+
+    // Valores distintos en orden de aparición; al llenarse el resto cae en "Otros"
+    private static final class Dictionary {
+
+        private final Map<String, Short> index = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        short code(String value) {
+            Short code = index.get(value);
+            if (code != null) {
+                return code;
+            }
+            if (values.size() >= MAX_CARDINALITY - 1) {
+                value = OTHER;
+                code = index.get(OTHER);
+                if (code != null) {
+                    return code;
+                }
+            }
+            code = (short) values.size();
+            index.put(value, code);
+            values.add(value);
+            return code;
+        }
+
+        String[] labels() {
+            return values.toArray(new String[0]);
+        }
+    }
+}
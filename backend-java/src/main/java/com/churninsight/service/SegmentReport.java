@@ -0,0 +1,30 @@
+package com.churninsight.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Riesgo agregado por segmento: una celda por combinación de valores de las dimensiones
+ * pedidas, ordenadas por cantidad de predicciones.
+ *
+ * @param predictions predicciones del usuario consideradas
+ * @param hiddenCells celdas omitidas por tener menos de {@code minCount} predicciones
+ */
+public record SegmentReport(
+    List<String> groupBy,
+    int predictions,
+    long millis,
+    int hiddenCells,
+    List<Cell> cells
+) {
+
+    /**
+     * @param segment         valor de cada dimensión, en el orden de {@code groupBy}
+     * @param highRiskShare   fracción de predicciones con probabilidad &gt; 0.75
+     * @param capitalAtRisk   suma de balances con probabilidad &gt; 0.75, como el
+     *                        {@code capitalAtRisk} de los KPIs
+     */
+    public record Cell(Map<String, String> segment, long count, double meanProbability, double highRiskShare,
+                       double capitalAtRisk) {
+    }
+}
@@ -0,0 +1,136 @@
+package com.churninsight.service;
+
+import java.util.Arrays;
+
+/**
+ * Tabla hash de direccionamiento abierto (sondeo lineal) de clave de celda a acumuladores,
+ * en arreglos primitivos paralelos. Cada hilo de {@link SegmentAnalytics} usa la suya y
+ * al final se combinan con {@link #merge}; no es thread-safe.
+ */
+final class SegmentTable {
+
+    private static final int EMPTY = -1;
+    private static final double HIGH_RISK_THRESHOLD = 0.75;
+
+    private int[] keys;
+    private long[] count;
+    private double[] probabilitySum;
+    private long[] highRisk;
+    private double[] capitalAtRisk;
+    private int mask;
+    private int size;
+
+    SegmentTable(int expected) {
+        // Carga máxima 0.5
+        int capacity = Integer.highestOneBit(Math.max(8, expected) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        count = new long[capacity];
+        probabilitySum = new double[capacity];
+        highRisk = new long[capacity];
+        capitalAtRisk = new double[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    void add(int key, double probability, double balance) {
+        int slot = slot(key);
+        count[slot]++;
+        probabilitySum[slot] += probability;
+        if (probability > HIGH_RISK_THRESHOLD) {
+            highRisk[slot]++;
+            capitalAtRisk[slot] += balance;
+        }
+    }
+
+    void merge(SegmentTable other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] == EMPTY) {
+                continue;
+            }
+            int slot = slot(other.keys[i]);
+            count[slot] += other.count[i];
+            probabilitySum[slot] += other.probabilitySum[i];
+            highRisk[slot] += other.highRisk[i];
+            capitalAtRisk[slot] += other.capitalAtRisk[i];
+        }
+    }
+
+    // Posición de la clave, insertándola si no está
+    private int slot(int key) {
+        int slot = mix(key) & mask;
+        while (true) {
+            int current = keys[slot];
+            if (current == key) {
+                return slot;
+            }
+            if (current == EMPTY) {
+                if (size * 2 >= keys.length) {
+                    grow();
+                    return slot(key);
+                }
+                keys[slot] = key;
+                size++;
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        long[] oldCount = count;
+        double[] oldProbabilitySum = probabilitySum;
+        long[] oldHighRisk = highRisk;
+        double[] oldCapitalAtRisk = capitalAtRisk;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) {
+                continue;
+            }
+            int slot = slot(oldKeys[i]);
+            count[slot] = oldCount[i];
+            probabilitySum[slot] = oldProbabilitySum[i];
+            highRisk[slot] = oldHighRisk[i];
+            capitalAtRisk[slot] = oldCapitalAtRisk[i];
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    // EMPTY si la posición está libre
+    int key(int slot) {
+        return keys[slot];
+    }
+
+    long count(int slot) {
+        return count[slot];
+    }
+
+    double probabilitySum(int slot) {
+        return probabilitySum[slot];
+    }
+
+    long highRisk(int slot) {
+        return highRisk[slot];
+    }
+
+    double capitalAtRisk(int slot) {
+        return capitalAtRisk[slot];
+    }
+}
@@ -0,0 +1,54 @@
+package com.churninsight.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Reenvía las alertas a los clientes suscritos por Server-Sent Events. Cada suscriptor
+ * recibe solo las alertas de sus predicciones; un admin las recibe todas.
+ */
+@Component
+public class SseAlertSink implements AlertSink {
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private record Subscriber(SseEmitter emitter, String username, boolean admin) {
+    }
+
+    @Override
+    public String name() {
+        return "sse";
+    }
+
+    /**
+     * Nueva suscripción sin timeout; se quita al cerrarse la conexión.
+     */
+    public SseEmitter subscribe(String username, boolean admin) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, username, admin);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    @Override
+    public void deliver(List<Alert> alerts) {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                for (Alert alert : alerts) {
+                    if (alert.visibleTo(subscriber.username(), subscriber.admin())) {
+                        subscriber.emitter().send(SseEmitter.event().name("alert").data(alert));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+}
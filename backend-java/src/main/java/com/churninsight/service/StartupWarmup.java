@@ -0,0 +1,218 @@
+package com.churninsight.service;
+
+import com.churninsight.controller.ChurnPredictionRequest;
+import com.churninsight.model.PredictionHistory;
+import com.churninsight.model.PredictionHistoryRepository;
+import com.churninsight.security.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.core.io.Resource;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Warm-up del JIT al arrancar.
+ *
+ * Spring Boot ejecuta los {@link ApplicationRunner} antes de publicar el estado de
+ * readiness ACCEPTING_TRAFFIC, así que mientras corre el probe de readiness no reporta UP.
+ * Se reproduce una muestra de {@code Banco_Churn.csv} por validación, scoring local,
+ * serialización JSON, JWT y las agregaciones de estadísticas, sin persistir nada. Se
+ * detiene cuando la latencia por lote se estabiliza o al alcanzar el máximo configurado.
+ */
+@Component
+public class StartupWarmup implements ApplicationRunner, InfoContributor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final int BATCH_SIZE = 100;
+    private static final int STABLE_BATCHES = 3;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.csv-path:file:../data-science/Banco_Churn.csv}")
+    private Resource csv;
+
+    @Value("${warmup.sample-size:2000}")
+    private int sampleSize;
+
+    // Mínimo de iteraciones antes de permitir el corte anticipado (umbral de compilación C2)
+    @Value("${warmup.min-iterations:5000}")
+    private int minIterations;
+
+    @Value("${warmup.max-iterations:20000}")
+    private int maxIterations;
+
+    @Value("${warmup.max-duration-ms:60000}")
+    private long maxDurationMillis;
+
+    // Variación relativa máxima entre lotes consecutivos para considerar estable la latencia
+    @Value("${warmup.stable-tolerance:0.05}")
+    private double stableTolerance;
+
+    private final Validator validator;
+    private final LocalChurnScorer scorer;
+    private final StatsService statsService;
+    private final JwtService jwtService;
+    private final ObjectMapper objectMapper;
+    private final PredictionHistoryRepository predictionHistoryRepository;
+
+    private final Map<String, Object> report = new ConcurrentHashMap<>();
+
+    public StartupWarmup(Validator validator, LocalChurnScorer scorer, StatsService statsService,
+                         JwtService jwtService, ObjectMapper objectMapper,
+                         PredictionHistoryRepository predictionHistoryRepository) {
+        this.validator = validator;
+        this.scorer = scorer;
+        this.statsService = statsService;
+        this.jwtService = jwtService;
+        this.objectMapper = objectMapper;
+        this.predictionHistoryRepository = predictionHistoryRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            report.put("status", "disabled");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            List<ChurnPredictionRequest> sample = loadSample();
+            if (sample.isEmpty() || !scorer.isAvailable()) {
+                report.put("status", "skipped");
+                logger.warn("[Warmup] Sin muestra o sin modelo local, se omite el warm-up");
+                return;
+            }
+            warmRepository();
+            int iterations = replay(sample, start);
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            report.put("status", "completed");
+            report.put("iterations", iterations);
+            report.put("durationMillis", elapsed);
+            logger.info("[Warmup] Completado: {} iteraciones en {} ms", iterations, elapsed);
+        } catch (Exception e) {
+            // El warm-up nunca debe impedir que la aplicación quede lista
+            report.put("status", "failed");
+            report.put("error", e.getMessage());
+            logger.error("[Warmup] Error durante el warm-up: {}", e.getMessage(), e);
+        }
+    }
+
+    private int replay(List<ChurnPredictionRequest> sample, long start) throws Exception {
+        UserDetails user = new User("warmup", "", List.of(new SimpleGrantedAuthority("ROLE_ANALISTA")));
+        List<PredictionHistory> window = new ArrayList<>(BATCH_SIZE);
+        double previousBatch = -1;
+        int stable = 0;
+        int iteration = 0;
+        long deadline = start + maxDurationMillis * 1_000_000;
+
+        while (iteration < maxIterations && System.nanoTime() < deadline) {
+            long batchStart = System.nanoTime();
+            window.clear();
+            for (int i = 0; i < BATCH_SIZE; i++, iteration++) {
+                ChurnPredictionRequest request = sample.get(iteration % sample.size());
+                if (!validator.validate(request).isEmpty()) {
+                    continue;
+                }
+                double probability = scorer.predict(request);
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("churn_probability", probability);
+                response.put("customer_id", "warmup");
+                objectMapper.writeValueAsBytes(response);
+
+                PredictionHistory history = toHistory(request, probability);
+                window.add(history);
+                objectMapper.writeValueAsBytes(history);
+            }
+            String token = jwtService.generateToken(user);
+            jwtService.isTokenValid(token, user);
+            PredictionSummary summary = PredictionSummary.of(window);
+            objectMapper.writeValueAsBytes(statsService.computeStats(summary, window.size()));
+            objectMapper.writeValueAsBytes(statsService.computeKpis(summary));
+
+            double batchNanos = System.nanoTime() - batchStart;
+            if (previousBatch > 0 && Math.abs(batchNanos - previousBatch) / previousBatch <= stableTolerance) {
+                if (++stable >= STABLE_BATCHES && iteration >= minIterations) {
+                    report.put("stoppedEarly", true);
+                    break;
+                }
+            } else {
+                stable = 0;
+            }
+            previousBatch = batchNanos;
+        }
+        report.put("lastBatchMicros", previousBatch / 1000.0);
+        return iteration;
+    }
+
+    // Consultas de solo lectura para inicializar los proxies de repositorio y Hibernate
+    private void warmRepository() {
+        try {
+            for (int i = 0; i < 20; i++) {
+                predictionHistoryRepository.countByUsername("warmup");
+                predictionHistoryRepository.findTop50ByUsernameOrderByPredictionDateDesc("warmup");
+            }
+        } catch (Exception e) {
+            logger.warn("[Warmup] Base de datos no disponible para el warm-up: {}", e.getMessage());
+        }
+    }
+
+    private static PredictionHistory toHistory(ChurnPredictionRequest request, double probability) {
+        PredictionHistory history = new PredictionHistory("warmup", probability, request.getAgeRisk(),
+            request.getNumOfProducts().intValue(), request.getInactivo4070(), request.getProductsRiskFlag(),
+            request.getCountryRiskFlag(), "warmup");
+        history.setPredictionDate(LocalDateTime.now());
+        history.setBalance(request.getBalance());
+        history.setEstimatedSalary(request.getEstimatedSalary());
+        history.setCountry(request.getCountry());
+        history.setTenure(request.getTenure());
+        history.setIsActiveMember(request.getIsActiveMember());
+        return history;
+    }
+
+    /**
+     * Lee las primeras filas válidas del CSV.
+     */
+    private List<ChurnPredictionRequest> loadSample() throws Exception {
+        List<ChurnPredictionRequest> sample = new ArrayList<>();
+        if (!csv.exists()) {
+            return sample;
+        }
+        try (ChurnCsvReader reader = new ChurnCsvReader(new BufferedReader(
+                new InputStreamReader(csv.getInputStream(), StandardCharsets.UTF_8)))) {
+            ChurnCsvReader.Row row;
+            while (sample.size() < sampleSize && (row = reader.next()) != null) {
+                if (row.request() != null) {
+                    sample.add(row.request());
+                }
+            }
+        }
+        return sample;
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        builder.withDetail("warmup", report);
+    }
+}
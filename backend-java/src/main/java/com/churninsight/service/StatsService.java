@@ -0,0 +1,58 @@
+package com.churninsight.service;
+
+import com.churninsight.controller.KPIsDTO;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Estadísticas y KPIs sobre las predicciones de un usuario.
+ * No accede a la base de datos: recibe los agregados ya calculados, y la calidad del modelo
+ * sale de los acumuladores en memoria de {@link ModelQualityEvaluator}.
+ */
+@Service
+public class StatsService {
+
+    private final ModelQualityEvaluator modelQualityEvaluator;
+
+    public StatsService(ModelQualityEvaluator modelQualityEvaluator) {
+        this.modelQualityEvaluator = modelQualityEvaluator;
+    }
+
+    /**
+     * Estadísticas del dashboard a partir de los agregados de las predicciones del usuario.
+     */
+    public Map<String, Object> computeStats(PredictionSummary summary, long todayPredictions) {
+        Map<String, Object> stats = new HashMap<>();
+
+        // Tasa de retención: predicciones con probabilidad < 50%
+        double retentionRate = summary.predictions() == 0 ? 0.0 :
+            (summary.lowRiskPredictions() * 100.0) / summary.predictions();
+
+        stats.put("activeUsers", summary.customers());
+        stats.put("retentionRate", retentionRate);
+        stats.put("todayPredictions", todayPredictions);
+
+        return stats;
+    }
+
+    /**
+     * KPIs de negocio a partir de los agregados de las predicciones del usuario.
+     */
+    public KPIsDTO computeKpis(PredictionSummary summary) {
+        // Precisión del modelo contra los resultados reales de la ventana (0 si aún no hay)
+        ModelQualityMetrics modelQuality = modelQualityEvaluator.metrics();
+        double accuracyLastMonth = modelQuality.accuracy() != null ? modelQuality.accuracy() : 0.0;
+
+        KPIsDTO kpis = new KPIsDTO(
+            summary.highRiskCustomers(),
+            summary.highRiskBalance(),
+            accuracyLastMonth,
+            summary.predictions(),
+            summary.averageProbability() * 100.0 // Convertir a porcentaje
+        );
+        kpis.setModelQuality(modelQuality);
+        return kpis;
+    }
+}
@@ -0,0 +1,300 @@
+package com.churninsight.service;
+
+import org.dmg.pmml.DerivedField;
+import org.dmg.pmml.FieldRef;
+import org.dmg.pmml.LocalTransformations;
+import org.dmg.pmml.Model;
+import org.dmg.pmml.PMML;
+import org.dmg.pmml.Predicate;
+import org.dmg.pmml.SimplePredicate;
+import org.dmg.pmml.True;
+import org.dmg.pmml.mining.MiningModel;
+import org.dmg.pmml.mining.Segment;
+import org.dmg.pmml.regression.NumericPredictor;
+import org.dmg.pmml.regression.RegressionModel;
+import org.dmg.pmml.regression.RegressionTable;
+import org.dmg.pmml.tree.Node;
+import org.dmg.pmml.tree.TreeModel;
+import org.jpmml.model.PMMLUtil;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Ensamble de árboles (XGBoost exportado con sklearn2pmml) compilado a arreglos planos.
+ *
+ * Los árboles PMML usan la semántica "primer hijo verdadero / returnLastPrediction";
+ * al compilar se transforman en árboles binarios (split {@code x < umbral}) para que
+ * cada árbol se recorra con un bucle sin asignaciones. La instancia es inmutable y
+ * segura para usar desde varios hilos.
+ */
+public final class TreeEnsembleModel {
+
+    private static final int LEAF = -1;
+
+    // Nodos de todos los árboles, indexados desde treeRoots
+    private final int[] treeRoots;
+    private final int[] feature;
+    private final float[] threshold;
+    private final int[] trueChild;
+    private final int[] falseChild;
+    private final float[] value;
+
+    // Variables que usa cada árbol (bit i = variable i de ChurnFeatures)
+    private final int[] treeFeatureMask;
+    // Umbrales distintos por variable, ordenados
+    private final float[][] featureThresholds;
+
+    private final double intercept;
+    private final double coefficient;
+
+    private TreeEnsembleModel(Builder builder, double intercept, double coefficient) {
+        this.treeRoots = builder.roots.stream().mapToInt(Integer::intValue).toArray();
+        int size = builder.feature.size();
+        this.feature = new int[size];
+        this.threshold = new float[size];
+        this.trueChild = new int[size];
+        this.falseChild = new int[size];
+        this.value = new float[size];
+        for (int i = 0; i < size; i++) {
+            feature[i] = builder.feature.get(i);
+            threshold[i] = builder.threshold.get(i);
+            trueChild[i] = builder.trueChild.get(i);
+            falseChild[i] = builder.falseChild.get(i);
+            value[i] = builder.value.get(i);
+        }
+        this.treeFeatureMask = builder.masks.stream().mapToInt(Integer::intValue).toArray();
+        this.featureThresholds = new float[ChurnFeatures.COUNT][];
+        for (int f = 0; f < ChurnFeatures.COUNT; f++) {
+            TreeSet<Float> sorted = builder.thresholds.get(f);
+            float[] values = new float[sorted.size()];
+            int i = 0;
+            for (Float t : sorted) {
+                values[i++] = t;
+            }
+            featureThresholds[f] = values;
+        }
+        this.intercept = intercept;
+        this.coefficient = coefficient;
+    }
+
+    /**
+     * Carga y compila un PMML con la estructura que genera sklearn2pmml para XGBClassifier:
+     * un MiningModel "modelChain" cuyo primer segmento suma árboles de regresión y cuyo
+     * segundo segmento aplica la función logística.
+     */
+    public static TreeEnsembleModel fromPmml(InputStream in) throws Exception {
+        PMML pmml = PMMLUtil.unmarshal(in);
+        if (pmml.getModels().isEmpty() || !(pmml.getModels().get(0) instanceof MiningModel chain)) {
+            throw new IllegalArgumentException("El PMML no contiene un MiningModel");
+        }
+
+        Builder builder = new Builder();
+        double intercept = 0.0;
+        double coefficient = 1.0;
+        for (Segment segment : chain.getSegmentation().getSegments()) {
+            Model model = segment.getModel();
+            if (model instanceof MiningModel sum) {
+                Map<String, String> aliases = aliases(sum.getLocalTransformations());
+                for (Segment treeSegment : sum.getSegmentation().getSegments()) {
+                    if (!(treeSegment.getModel() instanceof TreeModel tree)) {
+                        throw new IllegalArgumentException("Segmento no soportado: " + treeSegment.getModel());
+                    }
+                    builder.addTree(tree.getNode(), aliases);
+                }
+            } else if (model instanceof RegressionModel regression) {
+                for (RegressionTable table : regression.getRegressionTables()) {
+                    if (!"1".equals(String.valueOf(table.getTargetCategory()))) {
+                        continue;
+                    }
+                    intercept = table.getIntercept() != null ? table.getIntercept().doubleValue() : 0.0;
+                    for (NumericPredictor predictor : table.getNumericPredictors()) {
+                        coefficient = predictor.getCoefficient().doubleValue();
+                    }
+                }
+            }
+        }
+        if (builder.roots.isEmpty()) {
+            throw new IllegalArgumentException("El PMML no contiene árboles");
+        }
+        return new TreeEnsembleModel(builder, intercept, coefficient);
+    }
+
+    // Resuelve los campos derivados "float(X)" a su campo de origen X
+    private static Map<String, String> aliases(LocalTransformations transformations) {
+        Map<String, String> aliases = new HashMap<>();
+        if (transformations == null) {
+            return aliases;
+        }
+        for (DerivedField field : transformations.getDerivedFields()) {
+            if (field.getExpression() instanceof FieldRef ref) {
+                aliases.put(field.getName(), ref.getField());
+            }
+        }
+        return aliases;
+    }
+
+    public int treeCount() {
+        return treeRoots.length;
+    }
+
+    /** Máscara de bits con las variables que usa el árbol. */
+    public int treeFeatureMask(int tree) {
+        return treeFeatureMask[tree];
+    }
+
+    /** Umbrales distintos (ordenados) en los que el ensamble divide la variable. */
+    public float[] thresholds(int feature) {
+        return featureThresholds[feature].clone();
+    }
+
+    /**
+     * Índice del intervalo entre umbrales en que cae el valor. Dos valores con el mismo
+     * intervalo recorren exactamente las mismas ramas en todos los árboles.
+     */
+    public int bin(int feature, double x) {
+        float[] t = featureThresholds[feature];
+        float v = (float) x;
+        int lo = 0;
+        int hi = t.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (v < t[mid]) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    /** Valor de la hoja que alcanza un árbol para el vector dado. */
+    public double evaluateTree(int tree, double[] x) {
+        int n = treeRoots[tree];
+        while (feature[n] != LEAF) {
+            n = (float) x[feature[n]] < threshold[n] ? trueChild[n] : falseChild[n];
+        }
+        return value[n];
+    }
+
+    /** Suma de todos los árboles (logit antes de la transformación). */
+    public double margin(double[] x) {
+        double sum = 0.0;
+        for (int t = 0; t < treeRoots.length; t++) {
+            sum += evaluateTree(t, x);
+        }
+        return sum;
+    }
+
+    /**
+     * Cota inferior del margen cuando cada variable puede tomar cualquier valor en
+     * {@code [lo[f], hi[f]]}: por cada árbol se toma la hoja alcanzable de menor valor.
+     * Con {@code lo == hi} coincide con {@link #margin(double[])}.
+     */
+    public double minMargin(double[] lo, double[] hi) {
+        double sum = 0.0;
+        for (int t = 0; t < treeRoots.length; t++) {
+            sum += minReachable(treeRoots[t], lo, hi);
+        }
+        return sum;
+    }
+
+    private double minReachable(int n, double[] lo, double[] hi) {
+        if (feature[n] == LEAF) {
+            return value[n];
+        }
+        int f = feature[n];
+        boolean canTrue = (float) lo[f] < threshold[n];
+        boolean canFalse = !((float) hi[f] < threshold[n]);
+        if (canTrue && canFalse) {
+            return Math.min(minReachable(trueChild[n], lo, hi), minReachable(falseChild[n], lo, hi));
+        }
+        return minReachable(canTrue ? trueChild[n] : falseChild[n], lo, hi);
+    }
+
+    /** Probabilidad de churn a partir del margen. */
+    public double probability(double margin) {
+        return 1.0 / (1.0 + Math.exp(-(intercept + coefficient * margin)));
+    }
+
+    public double predict(double[] x) {
+        return probability(margin(x));
+    }
+
+    /**
+     * Acumula los nodos mientras se compila el PMML.
+     */
+    private static final class Builder {
+        private final List<Integer> roots = new ArrayList<>();
+        private final List<Integer> masks = new ArrayList<>();
+        private final List<Integer> feature = new ArrayList<>();
+        private final List<Float> threshold = new ArrayList<>();
+        private final List<Integer> trueChild = new ArrayList<>();
+        private final List<Integer> falseChild = new ArrayList<>();
+        private final List<Float> value = new ArrayList<>();
+        private final List<TreeSet<Float>> thresholds = new ArrayList<>();
+        private int currentMask;
+
+        Builder() {
+            for (int f = 0; f < ChurnFeatures.COUNT; f++) {
+                thresholds.add(new TreeSet<>());
+            }
+        }
+
+        void addTree(Node root, Map<String, String> aliases) {
+            currentMask = 0;
+            roots.add(compile(root, 0, aliases));
+            masks.add(currentMask);
+        }
+
+        // Estado (nodo, k): evaluando el k-ésimo hijo de "node"; si no quedan hijos se
+        // retorna el score del propio nodo (returnLastPrediction)
+        private int compile(Node node, int k, Map<String, String> aliases) {
+            List<Node> children = node.hasNodes() ? node.getNodes() : List.of();
+            if (k == children.size()) {
+                return newNode(LEAF, 0f, Float.parseFloat(String.valueOf(node.getScore())));
+            }
+            Node child = children.get(k);
+            Predicate predicate = child.getPredicate();
+            if (predicate instanceof True) {
+                return compile(child, 0, aliases);
+            }
+            if (!(predicate instanceof SimplePredicate simple)) {
+                throw new IllegalArgumentException("Predicado no soportado: " + predicate);
+            }
+            String field = aliases.getOrDefault(simple.getField(), simple.getField());
+            int f = ChurnFeatures.indexOf(field);
+            if (f < 0) {
+                throw new IllegalArgumentException("Variable desconocida en el modelo: " + field);
+            }
+            float t = Float.parseFloat(String.valueOf(simple.getValue()));
+            boolean lessThan = switch (simple.getOperator()) {
+                case LESS_THAN -> true;
+                case GREATER_OR_EQUAL -> false;
+                default -> throw new IllegalArgumentException("Operador no soportado: " + simple.getOperator());
+            };
+
+            int index = newNode(f, t, 0f);
+            int whenTrue = compile(child, 0, aliases);
+            int whenFalse = compile(node, k + 1, aliases);
+            trueChild.set(index, lessThan ? whenTrue : whenFalse);
+            falseChild.set(index, lessThan ? whenFalse : whenTrue);
+            thresholds.get(f).add(t);
+            currentMask |= 1 << f;
+            return index;
+        }
+
+        private int newNode(int f, float t, float v) {
+            feature.add(f);
+            threshold.add(t);
+            trueChild.add(LEAF);
+            falseChild.add(LEAF);
+            value.add(v);
+            return feature.size() - 1;
+        }
+    }
+}
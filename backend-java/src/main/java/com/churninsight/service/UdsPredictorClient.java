@@ -0,0 +1,248 @@
+package com.churninsight.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cliente del predictor Python sobre un socket Unix con el protocolo binario de
+ * {@code predictor_uds.py}: frames con largo, id de correlación y features float64
+ * little-endian, sin HTTP ni JSON.
+ *
+ * Mantiene un pool chico de conexiones persistentes. Cada una acepta requests en pipeline:
+ * los hilos escriben su frame bajo el lock de escritura y un hilo lector por conexión
+ * completa el futuro correspondiente según el id de la respuesta. Una conexión caída
+ * falla sus requests pendientes y se reabre en el próximo uso.
+ */
+@Component
+public class UdsPredictorClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(UdsPredictorClient.class);
+
+    private static final int REQUEST_HEADER_BYTES = 4 + 8 + 4 + 4;
+    private static final int RESPONSE_HEADER_BYTES = 8 + 4;
+    private static final int MAX_FRAME_BYTES = 64 * 1024 * 1024;
+
+    private final String path;
+    private final long timeoutMillis;
+    private final Connection[] connections;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong ids = new AtomicLong();
+    private final Counter reconnects;
+
+    public UdsPredictorClient(@Value("${python-service.uds.path:/tmp/churn-predictor.sock}") String path,
+                              @Value("${python-service.uds.connections:2}") int connections,
+                              @Value("${python-service.uds.timeout-ms:2000}") long timeoutMillis,
+                              MeterRegistry meterRegistry) {
+        this.path = path;
+        this.timeoutMillis = timeoutMillis;
+        this.connections = new Connection[Math.max(1, connections)];
+        for (int i = 0; i < this.connections.length; i++) {
+            this.connections[i] = new Connection(i);
+        }
+        this.reconnects = Counter.builder("churn.predictor.uds.connects")
+            .description("Conexiones abiertas al predictor por socket Unix")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Probabilidades para {@code rows} filas de {@code features.length / rows} columnas.
+     *
+     * @throws IllegalStateException si el predictor responde con error, no responde a
+     *                               tiempo o no se puede conectar
+     */
+    public double[] predict(double[] features, int rows) {
+        CompletableFuture<double[]> future = submit(features, rows);
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new IllegalStateException("El predictor no respondió en " + timeoutMillis + " ms");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error del predictor: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Predicción interrumpida");
+        }
+    }
+
+    /**
+     * Envía el request sin esperar la respuesta (pipeline).
+     */
+    public CompletableFuture<double[]> submit(double[] features, int rows) {
+        if (rows <= 0 || features.length % rows != 0) {
+            throw new IllegalArgumentException("features no es múltiplo de " + rows + " filas");
+        }
+        Connection connection = connections[Math.floorMod(next.getAndIncrement(), connections.length)];
+        long id = ids.incrementAndGet();
+        CompletableFuture<double[]> future = new CompletableFuture<>();
+        try {
+            connection.send(id, features, rows, future);
+        } catch (IOException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Connection connection : connections) {
+            connection.close(new IOException("Cliente cerrado"));
+        }
+    }
+
+    private final class Connection {
+
+        private final int index;
+        private final Map<Long, CompletableFuture<double[]>> pending = new ConcurrentHashMap<>();
+        private SocketChannel channel;
+
+        Connection(int index) {
+            this.index = index;
+        }
+
+        void send(long id, double[] features, int rows, CompletableFuture<double[]> future) throws IOException {
+            ByteBuffer frame = ByteBuffer.allocate(REQUEST_HEADER_BYTES + features.length * Double.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            frame.putInt(frame.capacity() - 4).putLong(id).putInt(rows).putInt(features.length / rows);
+            frame.asDoubleBuffer().put(features);
+            frame.clear();
+            synchronized (this) {
+                SocketChannel current = open();
+                // Registrado antes de escribir: la respuesta puede llegar antes de que write retorne
+                pending.put(id, future);
+                future.whenComplete((result, error) -> pending.remove(id));
+                try {
+                    while (frame.hasRemaining()) {
+                        current.write(frame);
+                    }
+                } catch (IOException e) {
+                    close(current, e);
+                    throw e;
+                }
+            }
+        }
+
+        // Con el lock tomado
+        private SocketChannel open() throws IOException {
+            if (channel != null && channel.isOpen()) {
+                return channel;
+            }
+            SocketChannel opened = SocketChannel.open(StandardProtocolFamily.UNIX);
+            opened.connect(UnixDomainSocketAddress.of(path));
+            channel = opened;
+            reconnects.increment();
+            Thread reader = new Thread(() -> readLoop(opened), "predictor-uds-" + index);
+            reader.setDaemon(true);
+            reader.start();
+            logger.info("[UdsPredictor] Conexión {} abierta a {}", index, path);
+            return opened;
+        }
+
+        private void readLoop(SocketChannel source) {
+            ByteBuffer length = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer body = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+            try {
+                while (true) {
+                    length.clear();
+                    readFully(source, length);
+                    int size = length.getInt(0);
+                    if (size < RESPONSE_HEADER_BYTES || size > MAX_FRAME_BYTES) {
+                        throw new IOException("Frame inválido de " + size + " bytes");
+                    }
+                    if (body.capacity() < size) {
+                        body = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+                    }
+                    body.clear().limit(size);
+                    readFully(source, body);
+                    complete(body, size);
+                }
+            } catch (IOException e) {
+                close(source, e);
+            }
+        }
+
+        private void complete(ByteBuffer body, int size) {
+            long id = body.getLong(0);
+            int status = body.getInt(8);
+            CompletableFuture<double[]> future = pending.remove(id);
+            if (future == null) {
+                return; // request ya vencido
+            }
+            int payload = size - RESPONSE_HEADER_BYTES;
+            if (status != 0) {
+                byte[] message = new byte[payload];
+                body.get(RESPONSE_HEADER_BYTES, message);
+                future.completeExceptionally(new IllegalStateException(new String(message, StandardCharsets.UTF_8)));
+                return;
+            }
+            double[] probabilities = new double[payload / Double.BYTES];
+            body.position(RESPONSE_HEADER_BYTES);
+            body.asDoubleBuffer().get(probabilities);
+            future.complete(probabilities);
+        }
+
+        private void readFully(SocketChannel source, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (source.read(buffer) < 0) {
+                    throw new EOFException("El predictor cerró la conexión");
+                }
+            }
+        }
+
+        private void close(SocketChannel failed, IOException cause) {
+            synchronized (this) {
+                if (channel == failed) {
+                    channel = null;
+                }
+            }
+            try {
+                failed.close();
+            } catch (IOException ignored) {
+                // ya cerrado
+            }
+            failPending(cause);
+        }
+
+        void close(IOException cause) {
+            SocketChannel current;
+            synchronized (this) {
+                current = channel;
+                channel = null;
+            }
+            if (current != null) {
+                close(current, cause);
+            }
+        }
+
+        private void failPending(IOException cause) {
+            if (!pending.isEmpty()) {
+                logger.warn("[UdsPredictor] Conexión {} cerrada con {} requests pendientes: {}", index,
+                    pending.size(), cause.getMessage());
+            }
+            pending.values().forEach(future -> future.completeExceptionally(cause));
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.churninsight.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket por usuario para el camino de predicción. Evita que el script de lotes
+ * de un analista consuma toda la capacidad del límite de concurrencia y deje sin
+ * servicio a los dashboards del resto.
+ *
+ * Cada registro cuesta un token: el request se admite con un token ({@link #tryAcquire})
+ * y los registros restantes de un lote se cobran después ({@link #charge}). El saldo puede
+ * quedar negativo y los requests siguientes del usuario esperan a que se repague.
+ */
+@Component
+public class UserRateLimiter {
+
+    private static final long IDLE_EVICTION_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Counter rejected;
+
+    public UserRateLimiter(
+            @Value("${load-shedding.user-rate.burst:20}") int burst,
+            @Value("${load-shedding.user-rate.per-second:10}") double perSecond,
+            MeterRegistry meterRegistry) {
+        this.capacity = burst;
+        this.refillPerNano = perSecond / 1_000_000_000.0;
+        this.rejected = Counter.builder("churn.predict.rejected")
+            .tag("reason", "user-rate")
+            .description("Requests rechazados por el token bucket del usuario")
+            .register(meterRegistry);
+        Gauge.builder("churn.predict.rate.buckets", buckets, Map::size)
+            .description("Usuarios con token bucket activo")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Consume un token del usuario.
+     *
+     * @return 0 si se concedió; si no, nanosegundos hasta que haya un token disponible
+     */
+    public long tryAcquire(String username) {
+        Bucket bucket = buckets.computeIfAbsent(username, u -> new Bucket(capacity));
+        long wait = bucket.tryTake(capacity, refillPerNano, System.nanoTime());
+        if (wait > 0) {
+            rejected.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Cobra tokens sin rechazar, por ejemplo los registros de un lote ya admitido.
+     */
+    public void charge(String username, int tokens) {
+        if (tokens > 0) {
+            buckets.computeIfAbsent(username, u -> new Bucket(capacity))
+                .charge(tokens, capacity, refillPerNano, System.nanoTime());
+        }
+    }
+
+    // Descarta buckets llenos y sin uso reciente para que el mapa no crezca sin límite
+    @Scheduled(fixedDelay = 60_000)
+    void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(b -> b.isIdle(now, capacity, refillPerNano));
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        Bucket(double tokens) {
+            this.tokens = tokens;
+        }
+
+        synchronized long tryTake(double capacity, double refillPerNano, long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+            if (tokens >= 1.0) {
+                tokens -= 1.0;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1.0 - tokens) / refillPerNano));
+        }
+
+        synchronized void charge(int count, double capacity, double refillPerNano, long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano) - count;
+            lastRefill = now;
+        }
+
+        synchronized boolean isIdle(long now, double capacity, double refillPerNano) {
+            return now - lastRefill > IDLE_EVICTION_NANOS
+                && tokens + (now - lastRefill) * refillPerNano >= capacity;
+        }
+    }
+}
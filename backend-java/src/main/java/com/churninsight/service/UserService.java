@@ -6,6 +6,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -16,7 +17,7 @@ import java.util.Collections;
 import java.util.UUID;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
     
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     
@@ -52,6 +53,22 @@ public class UserService implements UserDetailsService {
         );
     }
     
+    /**
+     * Guarda el hash re-calculado tras un login exitoso cuando el costo de BCrypt cambió
+     * (lo invoca Spring Security; ver AdaptiveBCryptPasswordEncoder).
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+            .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        logger.info("[UserService] Hash de contraseña actualizado al costo actual: {}", user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+            .password(newPassword)
+            .build();
+    }
+    
     public User registerUser(String username, String password, String email, String fullName) {
         logger.info("[UserService] Registrando nuevo usuario: {}", username);
         
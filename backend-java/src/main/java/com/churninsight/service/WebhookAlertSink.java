@@ -0,0 +1,58 @@
+package com.churninsight.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Envía las alertas como un arreglo JSON por POST a {@code alerts.webhook.url}. Sin URL
+ * configurada el sink queda deshabilitado.
+ */
+@Component
+public class WebhookAlertSink implements AlertSink {
+
+    private final String url;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper;
+    private final HttpClient http;
+
+    public WebhookAlertSink(@Value("${alerts.webhook.url:}") String url,
+                            @Value("${alerts.webhook.timeout-ms:2000}") long timeoutMillis,
+                            ObjectMapper objectMapper) {
+        this.url = url;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.objectMapper = objectMapper;
+        this.http = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return url != null && !url.isBlank();
+    }
+
+    @Override
+    public void deliver(List<Alert> alerts) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .timeout(timeout)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(alerts)))
+            .build();
+        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("El webhook respondió " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.churninsight.service;
+
+import com.churninsight.controller.ChurnPredictionRequest;
+import com.churninsight.controller.WhatIfRequest;
+import com.churninsight.controller.WhatIfResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Análisis de sensibilidad what-if sobre la grilla cartesiana de rangos de atributos crudos
+ * del cliente ({@link #ATTRIBUTES}). Cada escenario vuelve a derivar todas las variables del
+ * modelo con {@link FeatureTransform}, así que un cambio de {@code numOfProducts} mueve
+ * también {@code productsRiskFlag}, y uno de {@code age} o {@code isActiveMember} mueve
+ * {@code ageRisk} e {@code inactivo4070}.
+ *
+ * En lugar de recorrer los 400 árboles por cada punto de la grilla:
+ * <ul>
+ *   <li>los valores de cada atributo se agrupan por clase: valores que derivan las mismas
+ *       variables dentro del mismo intervalo entre umbrales del ensamble producen el mismo
+ *       recorrido en todos los árboles;</li>
+ *   <li>los árboles se agrupan según los atributos de la grilla que afectan a las variables
+ *       que usan; los que no dependen de ninguno se evalúan una sola vez;</li>
+ *   <li>cada grupo se evalúa solo sobre la sub-grilla de sus atributos y el margen de cada
+ *       escenario se arma sumando las tablas parciales.</li>
+ * </ul>
+ * No persiste nada en el historial.
+ */
+@Service
+public class WhatIfService {
+
+    static final int AGE = 0;
+    static final int NUM_OF_PRODUCTS = 1;
+    static final int IS_ACTIVE_MEMBER = 2;
+
+    /** Atributos que se pueden recorrer, con los nombres de {@link ChurnPredictionRequest}. */
+    public static final List<String> ATTRIBUTES = List.of("age", "numOfProducts", "isActiveMember");
+
+    // Variables del modelo que deriva cada atributo
+    private static final int[] FEATURE_MASK = {
+        (1 << ChurnFeatures.AGE_RISK) | (1 << ChurnFeatures.INACTIVO_40_70),
+        (1 << ChurnFeatures.NUM_OF_PRODUCTS) | (1 << ChurnFeatures.PRODUCTS_RISK_FLAG),
+        1 << ChurnFeatures.INACTIVO_40_70
+    };
+
+    private final LocalChurnScorer scorer;
+
+    @Value("${what-if.max-grid-size:5000}")
+    private int maxGridSize;
+
+    public WhatIfService(LocalChurnScorer scorer) {
+        this.scorer = scorer;
+    }
+
+    public WhatIfResponse evaluate(WhatIfRequest request) {
+        TreeEnsembleModel model = scorer.model();
+        ChurnPredictionRequest base = request.getBase();
+        if (!FeatureTransform.apply(base)) {
+            throw new IllegalArgumentException("El cliente base requiere los atributos crudos: age, numOfProducts, "
+                + "isActiveMember y country");
+        }
+        double[] raw = {base.getAge(), base.getNumOfProducts(), base.getIsActiveMember() ? 1.0 : 0.0};
+        double countryRisk = FeatureTransform.countryRisk(base.getCountry());
+
+        int m = request.getRanges().size();
+        int[] dims = new int[m];
+        double[][] values = new double[m][];
+        List<String> names = new ArrayList<>(m);
+        long gridSize = 1;
+        for (int j = 0; j < m; j++) {
+            WhatIfRequest.FeatureRange range = request.getRanges().get(j);
+            int a = ATTRIBUTES.indexOf(range.getFeature());
+            if (a < 0) {
+                throw new IllegalArgumentException("Atributo desconocido: " + range.getFeature() + " (disponibles: "
+                    + String.join(", ", ATTRIBUTES) + ")");
+            }
+            for (int k = 0; k < j; k++) {
+                if (dims[k] == a) {
+                    throw new IllegalArgumentException("Atributo repetido: " + range.getFeature());
+                }
+            }
+            dims[j] = a;
+            values[j] = expand(range);
+            validate(a, values[j]);
+            names.add(ATTRIBUTES.get(a));
+            gridSize *= values[j].length;
+            if (gridSize > maxGridSize) {
+                throw new IllegalArgumentException("La grilla supera el máximo de " + maxGridSize + " escenarios");
+            }
+        }
+
+        double[] margins = gridMargins(model, raw, countryRisk, dims, values);
+        double baseProbability = model.predict(features(raw, countryRisk));
+
+        List<WhatIfResponse.Scenario> scenarios = new ArrayList<>(margins.length);
+        int[] counter = new int[m];
+        for (double margin : margins) {
+            double[] point = new double[m];
+            for (int j = 0; j < m; j++) {
+                point[j] = values[j][counter[j]];
+            }
+            double probability = model.probability(margin);
+            scenarios.add(new WhatIfResponse.Scenario(point, probability, probability - baseProbability));
+            increment(counter, values);
+        }
+        return new WhatIfResponse(baseProbability, names, scenarios);
+    }
+
+    private static void validate(int attribute, double[] values) {
+        for (double v : values) {
+            boolean valid = switch (attribute) {
+                case AGE -> v >= 0 && v <= 120;
+                case NUM_OF_PRODUCTS -> v >= 0;
+                default -> v == 0.0 || v == 1.0;
+            };
+            if (!valid) {
+                throw new IllegalArgumentException("Valor inválido para " + ATTRIBUTES.get(attribute) + ": " + v
+                    + (attribute == IS_ACTIVE_MEMBER ? " (se espera 0 o 1)" : ""));
+            }
+        }
+    }
+
+    static double[] features(double[] raw, double countryRisk) {
+        double[] x = new double[ChurnFeatures.COUNT];
+        FeatureTransform.transform(raw[AGE], raw[NUM_OF_PRODUCTS], raw[IS_ACTIVE_MEMBER], countryRisk, x);
+        return x;
+    }
+
+    // Clase de un valor: iguales si derivan las mismas variables en los mismos intervalos del ensamble.
+    // ageRisk e isActiveMember se toman exactos porque juntos definen inactivo4070.
+    private static long classOf(TreeEnsembleModel model, int attribute, double v) {
+        return switch (attribute) {
+            case AGE -> (long) FeatureTransform.atLeast(v, FeatureTransform.AGE_RISK_MIN)
+                * (long) FeatureTransform.atLeast(FeatureTransform.AGE_RISK_MAX, v);
+            case NUM_OF_PRODUCTS -> 2L * model.bin(ChurnFeatures.NUM_OF_PRODUCTS, v)
+                + (long) FeatureTransform.atLeast(v, FeatureTransform.PRODUCTS_RISK_MIN);
+            default -> (long) v;
+        };
+    }
+
+    /**
+     * Margen del ensamble para cada punto de la grilla (la última dimensión varía más rápido).
+     *
+     * @param raw         atributos crudos del cliente base, en el orden de {@link #ATTRIBUTES}
+     * @param countryRisk resultado de {@link FeatureTransform#countryRisk}
+     * @param dims        atributo de cada dimensión de la grilla
+     */
+    static double[] gridMargins(TreeEnsembleModel model, double[] raw, double countryRisk, int[] dims,
+                                double[][] values) {
+        int m = dims.length;
+
+        // Valores de cada dimensión reducidos a clases distintas
+        int[][] binOf = new int[m][];
+        double[][] representative = new double[m][];
+        for (int j = 0; j < m; j++) {
+            Map<Long, Integer> seen = new HashMap<>();
+            List<Double> reps = new ArrayList<>();
+            binOf[j] = new int[values[j].length];
+            for (int i = 0; i < values[j].length; i++) {
+                long bin = classOf(model, dims[j], values[j][i]);
+                Integer index = seen.get(bin);
+                if (index == null) {
+                    index = reps.size();
+                    seen.put(bin, index);
+                    reps.add(values[j][i]);
+                }
+                binOf[j][i] = index;
+            }
+            representative[j] = reps.stream().mapToDouble(Double::doubleValue).toArray();
+        }
+
+        // Árboles agrupados por los atributos de la grilla de los que dependen sus variables
+        double[] base = features(raw, countryRisk);
+        Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+        double constant = 0.0;
+        for (int t = 0; t < model.treeCount(); t++) {
+            int treeMask = model.treeFeatureMask(t);
+            int local = 0;
+            for (int j = 0; j < m; j++) {
+                if ((treeMask & FEATURE_MASK[dims[j]]) != 0) {
+                    local |= 1 << j;
+                }
+            }
+            if (local == 0) {
+                constant += model.evaluateTree(t, base);
+            } else {
+                groups.computeIfAbsent(local, k -> new ArrayList<>()).add(t);
+            }
+        }
+
+        // Tabla parcial por grupo sobre la sub-grilla de sus dimensiones. Los atributos fuera del
+        // grupo quedan en el valor base: los árboles del grupo no usan las variables que derivan.
+        int groupCount = groups.size();
+        double[][] tables = new double[groupCount][];
+        int[][] strides = new int[groupCount][m];
+        double[] point = raw.clone();
+        double[] x = new double[ChurnFeatures.COUNT];
+        int g = 0;
+        for (Map.Entry<Integer, List<Integer>> entry : groups.entrySet()) {
+            int mask = entry.getKey();
+            int size = 1;
+            for (int j = m - 1; j >= 0; j--) {
+                if ((mask & (1 << j)) != 0) {
+                    strides[g][j] = size;
+                    size *= representative[j].length;
+                }
+            }
+            double[] table = new double[size];
+            for (int cell = 0; cell < size; cell++) {
+                for (int j = 0; j < m; j++) {
+                    point[dims[j]] = strides[g][j] != 0
+                        ? representative[j][(cell / strides[g][j]) % representative[j].length]
+                        : raw[dims[j]];
+                }
+                FeatureTransform.transform(point[AGE], point[NUM_OF_PRODUCTS], point[IS_ACTIVE_MEMBER], countryRisk,
+                    x);
+                double sum = 0.0;
+                for (int t : entry.getValue()) {
+                    sum += model.evaluateTree(t, x);
+                }
+                table[cell] = sum;
+            }
+            tables[g++] = table;
+        }
+        int total = 1;
+        for (double[] v : values) {
+            total *= v.length;
+        }
+        double[] margins = new double[total];
+        int[] counter = new int[m];
+        for (int p = 0; p < total; p++) {
+            double margin = constant;
+            for (int k = 0; k < groupCount; k++) {
+                int cell = 0;
+                for (int j = 0; j < m; j++) {
+                    cell += binOf[j][counter[j]] * strides[k][j];
+                }
+                margin += tables[k][cell];
+            }
+            margins[p] = margin;
+            increment(counter, values);
+        }
+        return margins;
+    }
+
+    private double[] expand(WhatIfRequest.FeatureRange range) {
+        if (range.getValues() != null && !range.getValues().isEmpty()) {
+            double[] explicit = new double[range.getValues().size()];
+            for (int i = 0; i < explicit.length; i++) {
+                Double value = range.getValues().get(i);
+                if (value == null) {
+                    throw new IllegalArgumentException("Valor nulo en 'values' de " + range.getFeature());
+                }
+                explicit[i] = value;
+            }
+            return explicit;
+        }
+        Double min = range.getMin();
+        Double max = range.getMax();
+        Double step = range.getStep();
+        if (min == null || max == null || step == null || step <= 0 || max < min) {
+            throw new IllegalArgumentException("Rango inválido para " + range.getFeature()
+                + ": se requiere 'values' o 'min', 'max' y 'step' > 0");
+        }
+        long count = (long) Math.floor((max - min) / step + 1e-9) + 1;
+        if (count > maxGridSize) {
+            throw new IllegalArgumentException("La grilla supera el máximo de " + maxGridSize + " escenarios");
+        }
+        double[] expanded = new double[(int) count];
+        for (int i = 0; i < count; i++) {
+            expanded[i] = min + i * step;
+        }
+        return expanded;
+    }
+
+    private static void increment(int[] counter, double[][] values) {
+        for (int j = counter.length - 1; j >= 0; j--) {
+            if (++counter[j] < values[j].length) {
+                return;
+            }
+            counter[j] = 0;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+-- ============================================================================
+-- Script de Migración: Alertas de riesgo
+-- ============================================================================
+-- Proyecto: ChurnInsight Platform
+-- Descripción: Reglas de alerta (/api/alerts/rules) y alertas disparadas que
+--              guarda el sink de base de datos
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS alert_rule (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    type VARCHAR(32) NOT NULL,
+    threshold DOUBLE PRECISION NOT NULL,
+    country VARCHAR(255) NULL,
+    window_days INT NULL,
+    enabled BIT NOT NULL,
+    created_by VARCHAR(255) NULL,
+    created_at DATETIME(6) NULL
+);
+
+CREATE TABLE IF NOT EXISTS alert_event (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    rule_id BIGINT NOT NULL,
+    rule_name VARCHAR(255) NOT NULL,
+    type VARCHAR(32) NOT NULL,
+    customer_id VARCHAR(255) NULL,
+    country VARCHAR(255) NULL,
+    value DOUBLE PRECISION NOT NULL,
+    threshold DOUBLE PRECISION NOT NULL,
+    message VARCHAR(512) NULL,
+    triggered_at DATETIME(6) NOT NULL,
+    INDEX idx_alert_event_time (triggered_at)
+);
+
+-- ROLLBACK:
+-- DROP TABLE alert_event;
+-- DROP TABLE alert_rule;
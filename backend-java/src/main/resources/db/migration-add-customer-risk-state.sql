@@ -0,0 +1,22 @@
+-- ============================================================================
+-- Script de Migración: Estado de riesgo por cliente
+-- ============================================================================
+-- Proyecto: ChurnInsight Platform
+-- Descripción: Checkpoint del último score, EWMA, tendencia y transiciones de banda
+--              de cada cliente con CustomerId estable (/api/customers)
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS customer_risk_state (
+    customer_key BIGINT NOT NULL PRIMARY KEY,
+    latest_probability DOUBLE PRECISION NOT NULL,
+    ewma DOUBLE PRECISION NOT NULL,
+    slope DOUBLE PRECISION NOT NULL,
+    last_seen DATETIME(6) NOT NULL,
+    band INT NOT NULL,
+    band_transitions INT NOT NULL,
+    predictions BIGINT NOT NULL,
+    sparkline VARBINARY(64) NULL
+);
+
+-- ROLLBACK:
+-- DROP TABLE customer_risk_state;
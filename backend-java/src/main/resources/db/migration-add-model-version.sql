@@ -0,0 +1,19 @@
+-- ============================================================================
+-- Script de Migración: Versión de modelo en el historial
+-- ============================================================================
+-- Proyecto: ChurnInsight Platform
+-- Descripción: Agrega la versión del modelo que generó cada predicción
+--              (registro de modelos con hot swap y shadow scoring)
+-- ============================================================================
+
+ALTER TABLE prediction_history
+ADD COLUMN model_version VARCHAR(100) NULL
+COMMENT 'Versión del modelo que generó la predicción';
+
+-- Las filas anteriores fueron generadas por el modelo Python original
+UPDATE prediction_history
+SET model_version = 'modelo_Banco_churn'
+WHERE model_version IS NULL;
+
+-- ROLLBACK:
+-- ALTER TABLE prediction_history DROP COLUMN model_version;
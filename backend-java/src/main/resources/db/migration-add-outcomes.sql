@@ -0,0 +1,23 @@
+-- ============================================================================
+-- Script de Migración: Resultados reales de churn
+-- ============================================================================
+-- Proyecto: ChurnInsight Platform
+-- Descripción: Resultados cargados por /api/outcomes, unidos a la predicción que
+--              los precedió; alimentan las métricas de calidad del modelo
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS churn_outcome (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    customer_id VARCHAR(255) NOT NULL,
+    churned BIT NOT NULL,
+    observed_at DATETIME(6) NOT NULL,
+    predicted_probability DOUBLE PRECISION NULL,
+    prediction_id BIGINT NULL,
+    received_at DATETIME(6) NOT NULL,
+    username VARCHAR(255) NULL,
+    INDEX idx_outcome_observed (observed_at),
+    INDEX idx_outcome_customer (customer_id)
+);
+
+-- ROLLBACK:
+-- DROP TABLE churn_outcome;
@@ -0,0 +1,28 @@
+-- ============================================================================
+-- Script de Migración: Re-scoring nocturno de la cartera
+-- ============================================================================
+-- Proyecto: ChurnInsight Platform
+-- Descripción: Resumen de cada corrida de re-scoring (/api/rescoring) e índice
+--              para obtener la última predicción de cada cliente
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS rescoring_run (
+    id VARCHAR(36) NOT NULL PRIMARY KEY,
+    status VARCHAR(16) NOT NULL,
+    triggered_by VARCHAR(255) NOT NULL,
+    model_version VARCHAR(255) NULL,
+    epsilon DOUBLE PRECISION NOT NULL,
+    scanned_customers BIGINT NOT NULL,
+    changed_customers BIGINT NOT NULL,
+    band_crossings BIGINT NOT NULL,
+    failed_customers BIGINT NOT NULL,
+    error VARCHAR(1024) NULL,
+    started_at DATETIME(6) NOT NULL,
+    finished_at DATETIME(6) NULL
+);
+
+CREATE INDEX idx_prediction_customer ON prediction_history (customer_id, id);
+
+-- ROLLBACK:
+-- DROP INDEX idx_prediction_customer ON prediction_history;
+-- DROP TABLE rescoring_run;
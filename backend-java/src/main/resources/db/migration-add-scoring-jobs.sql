@@ -0,0 +1,38 @@
+-- ============================================================================
+-- Script de Migración: Trabajos de scoring masivo
+-- ============================================================================
+-- Proyecto: ChurnInsight Platform
+-- Descripción: Tablas de trabajos asíncronos (/api/jobs) y de sus resultados.
+--              processed_records es el checkpoint para reanudar tras un reinicio
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS scoring_job (
+    id VARCHAR(36) NOT NULL PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    dataset_path VARCHAR(1024) NOT NULL,
+    dataset_name VARCHAR(255) NULL,
+    total_records BIGINT NOT NULL,
+    processed_records BIGINT NOT NULL,
+    failed_records BIGINT NOT NULL,
+    model_version VARCHAR(255) NULL,
+    error VARCHAR(1024) NULL,
+    created_at DATETIME(6) NOT NULL,
+    started_at DATETIME(6) NULL,
+    finished_at DATETIME(6) NULL,
+    INDEX idx_scoring_job_user (username, status)
+);
+
+-- Clave asignada (job_id, record_index): permite INSERT en batch y paginar en orden del dataset
+CREATE TABLE IF NOT EXISTS scoring_job_result (
+    job_id VARCHAR(36) NOT NULL,
+    record_index BIGINT NOT NULL,
+    customer_id VARCHAR(255) NULL,
+    churn_probability DOUBLE PRECISION NULL,
+    error VARCHAR(255) NULL,
+    PRIMARY KEY (job_id, record_index)
+);
+
+-- ROLLBACK:
+-- DROP TABLE scoring_job_result;
+-- DROP TABLE scoring_job;
@@ -0,0 +1,205 @@
+package com.churninsight.config;
+
+import com.churninsight.model.PredictionHistory;
+import com.churninsight.model.PredictionHistoryRepository;
+import com.churninsight.model.User;
+import com.churninsight.model.UserRepository;
+import com.churninsight.security.JwtService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Presupuestos de {@code query-budget.endpoints} sobre H2: cada endpoint se llama con
+ * historial cargado y sus sentencias JDBC (Hibernate y JdbcTemplate) y entidades no pueden
+ * superar el presupuesto ni repetir un SELECT.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryBudgetIntegrationTest {
+
+    private static final String USERNAME = "budget-user";
+    private static final String PASSWORD = "budget-password";
+    // Más filas que el mayor presupuesto de entidades del dashboard (51): cargar el historial
+    // completo en /api/stats, /api/stats/kpis o /api/dashboard excede el presupuesto
+    private static final int PREDICTIONS = 60;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private QueryBudgetProperties properties;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PredictionHistoryRepository predictionHistoryRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private String token;
+
+    @BeforeEach
+    void seed() {
+        if (userRepository.findByUsername(USERNAME).isEmpty()) {
+            userRepository.save(new User(USERNAME, passwordEncoder.encode(PASSWORD), USERNAME + "@test.local",
+                "Budget User", "ANALISTA"));
+            List<PredictionHistory> history = new ArrayList<>();
+            for (int i = 0; i < PREDICTIONS; i++) {
+                history.add(history(1000 + i % 10, 0.3 + (i % 7) * 0.1));
+            }
+            predictionHistoryRepository.saveAll(history);
+        }
+        token = token();
+    }
+
+    @Test
+    void predictStaysWithinBudget() throws Exception {
+        assertWithinBudget("predict", post("/api/churn/predict").contentType(MediaType.APPLICATION_JSON)
+            .content(prediction(2000, 45, 3, false)));
+    }
+
+    @Test
+    void historyStaysWithinBudget() throws Exception {
+        assertWithinBudget("history", get("/api/churn/history"));
+    }
+
+    @Test
+    void customerHistoryStaysWithinBudget() throws Exception {
+        assertWithinBudget("customer-history", get("/api/churn/customer/1003/history"));
+    }
+
+    @Test
+    void statsStayWithinBudget() throws Exception {
+        assertWithinBudget("stats", get("/api/stats"));
+        assertWithinBudget("kpis", get("/api/stats/kpis"));
+        assertWithinBudget("dashboard", get("/api/dashboard"));
+    }
+
+    @Test
+    void expectedLossStaysWithinBudget() throws Exception {
+        assertWithinBudget("expected-loss", get("/api/stats/expected-loss").param("trials", "1000")
+            .param("seed", "7"));
+    }
+
+    @Test
+    void jdbcTemplateEndpointsAreCounted() throws Exception {
+        // Una nueva predicción invalida el cache de segmentos: la carga es una consulta JdbcTemplate
+        mvc.perform(post("/api/churn/predict").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON).content(prediction(3000, 52, 2, true)))
+            .andExpect(status().isOk());
+        long segments = assertWithinBudget("segments", get("/api/stats/segments").param("groupBy", "country,band"));
+        assertEquals(2, segments, "consulta del usuario + carga del historial");
+
+        long export = assertWithinBudget("history-export", get("/api/churn/history/export").param("format", "csv"));
+        assertEquals(2, export, "consulta del usuario + cursor del historial");
+    }
+
+    @Test
+    void loginStaysWithinBudget() throws Exception {
+        Snapshot before = snapshot("login");
+        MvcResult started = mvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}"))
+            .andReturn();
+        mvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+        check("login", before);
+    }
+
+    // Ejecuta el request autenticado y verifica el presupuesto; retorna las sentencias usadas
+    private long assertWithinBudget(String endpoint, MockHttpServletRequestBuilder request) throws Exception {
+        Snapshot before = snapshot(endpoint);
+        mvc.perform(request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)).andExpect(status().isOk());
+        return check(endpoint, before);
+    }
+
+    private long check(String endpoint, Snapshot before) {
+        QueryBudgetProperties.Endpoint budget = properties.getEndpoints().get(endpoint);
+        assertNotNull(budget, "sin presupuesto para " + endpoint);
+        Snapshot after = snapshot(endpoint);
+        assertEquals(before.requests + 1, after.requests, "el filtro no contó el request de " + endpoint);
+        long statements = Math.round(after.statements - before.statements);
+        long entities = Math.round(after.entities - before.entities);
+        assertTrue(statements > 0, endpoint + ": no se contó ninguna sentencia");
+        if (budget.getStatements() > 0) {
+            assertTrue(statements <= budget.getStatements(),
+                endpoint + ": " + statements + " sentencias, presupuesto " + budget.getStatements());
+        }
+        if (budget.getEntities() > 0) {
+            assertTrue(entities <= budget.getEntities(),
+                endpoint + ": " + entities + " entidades, presupuesto " + budget.getEntities());
+        }
+        assertEquals(before.violations, after.violations, endpoint + " excedió su presupuesto (ver log [QueryBudget])");
+        return statements;
+    }
+
+    private Snapshot snapshot(String endpoint) {
+        DistributionSummary statements = meterRegistry.find("churn.db.statements").tag("endpoint", endpoint).summary();
+        DistributionSummary entities = meterRegistry.find("churn.db.entities").tag("endpoint", endpoint).summary();
+        double violations = meterRegistry.find("churn.db.budget_violations").tag("endpoint", endpoint).counters()
+            .stream().mapToDouble(Counter::count).sum();
+        return new Snapshot(statements != null ? statements.count() : 0,
+            statements != null ? statements.totalAmount() : 0, entities != null ? entities.totalAmount() : 0,
+            violations);
+    }
+
+    private record Snapshot(long requests, double statements, double entities, double violations) {
+    }
+
+    private String token() {
+        UserDetails user = org.springframework.security.core.userdetails.User.withUsername(USERNAME)
+            .password("-").roles("ANALISTA").build();
+        return jwtService.generateToken(user);
+    }
+
+    // Historial cargado directo en la base: por la API el seed chocaría con el límite por usuario
+    private static PredictionHistory history(int customerId, double probability) {
+        PredictionHistory history = new PredictionHistory(String.valueOf(customerId), probability, 0.0,
+            1 + customerId % 4, 0.0, 0.0, customerId % 3 == 0 ? 1.0 : 0.0, USERNAME);
+        history.setBalance(customerId * 37.5);
+        history.setEstimatedSalary(50000.0);
+        history.setCountry(customerId % 3 == 0 ? "Germany" : "France");
+        history.setTenure(customerId % 10);
+        history.setIsActiveMember(customerId % 2 == 0);
+        return history;
+    }
+
+    private static String prediction(int customerId, int age, int numOfProducts, boolean active) {
+        return "{\"customerId\":\"" + customerId + "\",\"age\":" + age + ",\"numOfProducts\":" + numOfProducts
+            + ",\"isActiveMember\":" + active + ",\"country\":\"" + (customerId % 3 == 0 ? "Germany" : "France")
+            + "\",\"balance\":" + (customerId * 37.5) + ",\"estimatedSalary\":50000,\"tenure\":" + customerId % 10
+            + "}";
+    }
+}
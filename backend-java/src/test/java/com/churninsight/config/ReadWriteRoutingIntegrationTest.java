@@ -0,0 +1,152 @@
+package com.churninsight.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Enrutamiento de {@link DataSourceRoutingConfig} sobre dos bases H2 embebidas, una como
+ * primario y otra como réplica de lectura. Cada base tiene una tabla {@code marker} con su
+ * propio nombre, así que la consulta dice a qué pool fue la conexión.
+ */
+@SpringJUnitConfig(ReadWriteRoutingIntegrationTest.Config.class)
+class ReadWriteRoutingIntegrationTest {
+
+    // Margen de lag corto para poder verificar que vence
+    private static final long MAX_LAG_MS = 300;
+
+    @Autowired
+    private Probe probe;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReadPool() {
+        authenticate("reader");
+        assertEquals(ReadWriteRoutingDataSource.READ, probe.readOnly());
+    }
+
+    @Test
+    void writesAndNonTransactionalCallsGoToPrimary() {
+        authenticate("writer");
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, probe.write());
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, probe.withoutTransaction());
+    }
+
+    @Test
+    void readAfterOwnWriteFallsBackToPrimaryWithinMaxLag() throws InterruptedException {
+        authenticate("alice");
+        probe.write();
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, probe.readOnly());
+
+        // Otro usuario no se ve afectado por la escritura de alice
+        authenticate("bob");
+        assertEquals(ReadWriteRoutingDataSource.READ, probe.readOnly());
+
+        Thread.sleep(MAX_LAG_MS + 100);
+        authenticate("alice");
+        assertEquals(ReadWriteRoutingDataSource.READ, probe.readOnly());
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    @Component
+    static class Probe {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        Probe(DataSource dataSource) {
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+
+        @Transactional(readOnly = true)
+        public String readOnly() {
+            return marker();
+        }
+
+        @Transactional
+        public String write() {
+            jdbcTemplate.update("UPDATE marker SET writes = writes + 1");
+            return marker();
+        }
+
+        public String withoutTransaction() {
+            return marker();
+        }
+
+        private String marker() {
+            return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class Config {
+
+        @Bean
+        DataSource primaryDataSource() {
+            return database(ReadWriteRoutingDataSource.PRIMARY);
+        }
+
+        @Bean
+        DataSource readDataSource() {
+            return database(ReadWriteRoutingDataSource.READ);
+        }
+
+        // El mismo bean que la aplicación, con una URL de réplica para activar la guarda de lag
+        @Bean
+        DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                              @Qualifier("readDataSource") DataSource read) {
+            return new DataSourceRoutingConfig().dataSource(primary, read, "jdbc:h2:mem:replica", MAX_LAG_MS,
+                new SimpleMeterRegistry());
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(@Qualifier("dataSource") DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        Probe probe(@Qualifier("dataSource") DataSource dataSource) {
+            return new Probe(dataSource);
+        }
+
+        private static DataSource database(String name) {
+            DataSource dataSource = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(name + "-" + UUID.randomUUID())
+                .build();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE TABLE marker (name VARCHAR(16), writes INT)");
+            jdbcTemplate.update("INSERT INTO marker VALUES (?, 0)", name);
+            return dataSource;
+        }
+    }
+}
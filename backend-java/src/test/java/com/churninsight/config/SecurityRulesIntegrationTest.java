@@ -0,0 +1,126 @@
+package com.churninsight.config;
+
+import com.churninsight.model.AlertEvent;
+import com.churninsight.model.AlertEventRepository;
+import com.churninsight.model.User;
+import com.churninsight.model.UserRepository;
+import com.churninsight.security.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reglas de acceso de los endpoints nuevos: probes de actuator públicos, log de eventos y
+ * diagnóstico solo para admin, alertas filtradas por dueño y el resto autenticado.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecurityRulesIntegrationTest {
+
+    private static final String ALICE = "security-alice";
+    private static final String BOB = "security-bob";
+    private static final String ADMIN = "security-admin";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AlertEventRepository alertEventRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @BeforeEach
+    void seed() {
+        if (userRepository.findByUsername(ALICE).isPresent()) {
+            return;
+        }
+        userRepository.save(new User(ALICE, "-", ALICE + "@test.local", "Alice", "ANALISTA"));
+        userRepository.save(new User(BOB, "-", BOB + "@test.local", "Bob", "ANALISTA"));
+        userRepository.save(new User(ADMIN, "-", ADMIN + "@test.local", "Admin", "ADMIN"));
+        LocalDateTime now = LocalDateTime.now();
+        alertEventRepository.save(new AlertEvent(1L, "alta", "PROBABILITY_CROSSES", ALICE, "501", "France",
+            0.9, 0.75, "alerta de alice", now));
+        alertEventRepository.save(new AlertEvent(1L, "alta", "PROBABILITY_CROSSES", BOB, "502", "Spain",
+            0.8, 0.75, "alerta de bob", now.minusMinutes(1)));
+        alertEventRepository.save(new AlertEvent(2L, "capital", "DAILY_CAPITAL_AT_RISK", null, null, null,
+            2e6, 1e6, "alerta global", now.minusMinutes(2)));
+    }
+
+    @Test
+    void actuatorProbesAndInfoArePublic() throws Exception {
+        mvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mvc.perform(get("/actuator/health/liveness")).andExpect(status().isOk());
+        mvc.perform(get("/actuator/health/readiness")).andExpect(status().isOk());
+        mvc.perform(get("/actuator/info")).andExpect(status().isOk());
+        mvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void newEndpointsRequireAuthentication() throws Exception {
+        mvc.perform(get("/api/stats/segments")).andExpect(status().isForbidden());
+        mvc.perform(get("/api/churn/history/export")).andExpect(status().isForbidden());
+        mvc.perform(get("/api/alerts/events")).andExpect(status().isForbidden());
+        mvc.perform(get("/api/events")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void eventLogIsAdminOnly() throws Exception {
+        mvc.perform(as(ALICE, get("/api/events"))).andExpect(status().isForbidden());
+        // Un offset inválido responde 400 sin esperar eventos: el admin pasó la autorización
+        MvcResult started = mvc.perform(as(ADMIN, get("/api/events").param("offset", "-1")))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mvc.perform(asyncDispatch(started)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void diagnosticsAreAdminOnly() throws Exception {
+        mvc.perform(as(ALICE, get("/api/diagnostics/slow-requests"))).andExpect(status().isForbidden());
+        mvc.perform(as(ADMIN, get("/api/diagnostics/slow-requests"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void alertEventsAreScopedToTheirOwner() throws Exception {
+        mvc.perform(as(ALICE, get("/api/alerts/events")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].username", everyItem(is(ALICE))))
+            .andExpect(jsonPath("$[*].message", containsInAnyOrder("alerta de alice")));
+        mvc.perform(as(BOB, get("/api/alerts/events")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].message", containsInAnyOrder("alerta de bob")));
+        mvc.perform(as(ADMIN, get("/api/alerts/events")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].message", hasItems("alerta de alice", "alerta de bob", "alerta global")));
+    }
+
+    private MockHttpServletRequestBuilder as(String username, MockHttpServletRequestBuilder request) {
+        UserDetails user = org.springframework.security.core.userdetails.User.withUsername(username)
+            .password("-").authorities("ROLE_ANY").build();
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateToken(user));
+    }
+}
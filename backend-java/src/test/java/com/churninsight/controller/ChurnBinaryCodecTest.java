@@ -0,0 +1,121 @@
+package com.churninsight.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChurnBinaryCodecTest {
+
+    @Test
+    void requestRoundTripKeepsEveryField() throws IOException {
+        ChurnPredictionRequest first = new ChurnPredictionRequest();
+        first.setAgeRisk(1.0);
+        first.setNumOfProducts(3.0);
+        first.setInactivo4070(0.0);
+        first.setProductsRiskFlag(1.0);
+        first.setCountryRiskFlag(0.0);
+        first.setBalance(125_000.5);
+        first.setEstimatedSalary(48_000.0);
+        first.setTenure(7);
+        first.setIsActiveMember(false);
+        first.setCountry("España");
+        first.setCustomerId("15634602");
+        ChurnPredictionRequest empty = new ChurnPredictionRequest();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ChurnBinaryCodec.RequestWriter writer = new ChurnBinaryCodec.RequestWriter(out);
+        writer.write(first);
+        writer.write(empty);
+
+        ChurnBinaryCodec.RequestReader reader =
+            new ChurnBinaryCodec.RequestReader(new ByteArrayInputStream(out.toByteArray()));
+        ChurnPredictionRequest read = reader.next();
+        assertEquals(1.0, read.getAgeRisk());
+        assertEquals(3.0, read.getNumOfProducts());
+        assertEquals(0.0, read.getInactivo4070());
+        assertEquals(1.0, read.getProductsRiskFlag());
+        assertEquals(0.0, read.getCountryRiskFlag());
+        assertEquals(125_000.5, read.getBalance());
+        assertEquals(48_000.0, read.getEstimatedSalary());
+        assertEquals(7, read.getTenure());
+        assertEquals(false, read.getIsActiveMember());
+        assertEquals("España", read.getCountry());
+        assertEquals("15634602", read.getCustomerId());
+
+        ChurnPredictionRequest readEmpty = reader.next();
+        assertNull(readEmpty.getAgeRisk());
+        assertNull(readEmpty.getBalance());
+        assertNull(readEmpty.getTenure());
+        assertNull(readEmpty.getIsActiveMember());
+        assertNull(readEmpty.getCountry());
+        assertNull(readEmpty.getCustomerId());
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    void responseRoundTripKeepsStatusAndText() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ChurnBinaryCodec.ResponseWriter writer = new ChurnBinaryCodec.ResponseWriter(out);
+        writer.write(0.42, "cliente-17");
+        writer.writeError(ChurnBinaryCodec.STATUS_INVALID, "Campo requerido: edad");
+
+        ChurnBinaryCodec.ResponseReader reader =
+            new ChurnBinaryCodec.ResponseReader(new ByteArrayInputStream(out.toByteArray()));
+        assertTrue(reader.next());
+        assertEquals(0.42, reader.probability());
+        assertEquals(ChurnBinaryCodec.STATUS_OK, reader.status());
+        assertEquals("cliente-17", reader.text());
+        assertTrue(reader.next());
+        assertTrue(Double.isNaN(reader.probability()));
+        assertEquals(ChurnBinaryCodec.STATUS_INVALID, reader.status());
+        assertEquals("Campo requerido: edad", reader.text());
+        assertFalse(reader.next());
+    }
+
+    @Test
+    void longTextIsCutOnCharacterBoundary() throws IOException {
+        // 254 bytes ASCII + "é" (2 bytes): el corte en 255 caería dentro de la "é"
+        String twoByte = "a".repeat(254) + "é" + "fin";
+        // 253 bytes ASCII + "€" (3 bytes) y un emoji de 4 bytes después
+        String threeByte = "b".repeat(253) + "€" + "😀";
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ChurnBinaryCodec.ResponseWriter writer = new ChurnBinaryCodec.ResponseWriter(out);
+        writer.writeError(ChurnBinaryCodec.STATUS_ERROR, twoByte);
+        writer.writeError(ChurnBinaryCodec.STATUS_ERROR, threeByte);
+        writer.writeError(ChurnBinaryCodec.STATUS_ERROR, "😀".repeat(100));
+
+        ChurnBinaryCodec.ResponseReader reader =
+            new ChurnBinaryCodec.ResponseReader(new ByteArrayInputStream(out.toByteArray()));
+        assertTrue(reader.next());
+        assertEquals("a".repeat(254), reader.text());
+        assertTrue(reader.next());
+        assertEquals("b".repeat(253), reader.text());
+        assertTrue(reader.next());
+        String emojis = reader.text();
+        assertEquals("😀".repeat(63), emojis);
+        assertTrue(emojis.getBytes(StandardCharsets.UTF_8).length <= ChurnBinaryCodec.MAX_TEXT_BYTES);
+    }
+
+    @Test
+    void truncatedRecordIsRejected() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ChurnBinaryCodec.RequestWriter(out).write(new ChurnPredictionRequest());
+        byte[] bytes = out.toByteArray();
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 5);
+
+        ChurnBinaryCodec.RequestReader reader = new ChurnBinaryCodec.RequestReader(new ByteArrayInputStream(truncated));
+        assertThrows(IOException.class, reader::next);
+    }
+}
@@ -0,0 +1,39 @@
+package com.churninsight.service;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Paridad de {@link FeatureTransform} con las expresiones de {@code Banco_Churn_ML.ipynb}
+ * escritas tal cual, sobre una grilla que cubre los bordes (edades fraccionarias incluidas).
+ */
+class FeatureTransformTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"France", "Spain", "Germany", "germany", ""})
+    void matchesNotebookDefinitions(String country) {
+        double[] x = new double[ChurnFeatures.COUNT];
+        for (int a = 0; a <= 240; a++) {
+            double age = a * 0.5;
+            for (int products = 0; products <= 10; products++) {
+                for (int active = 0; active <= 1; active++) {
+                    FeatureTransform.transform(age, products, active, FeatureTransform.countryRisk(country), x);
+                    // Expresiones del notebook
+                    double ageRisk = (age >= 40) && (age <= 70) ? 1 : 0;
+                    double inactivo = (age >= 40) && (age <= 70) && (active == 0) ? 1 : 0;
+                    double productsRisk = products >= 3 ? 1 : 0;
+                    double countryFlag = country.equals("Germany") ? 1 : 0;
+
+                    String at = "age=" + age + ", numOfProducts=" + products + ", isActiveMember=" + active;
+                    assertEquals(ageRisk, x[ChurnFeatures.AGE_RISK], at);
+                    assertEquals(inactivo, x[ChurnFeatures.INACTIVO_40_70], at);
+                    assertEquals(productsRisk, x[ChurnFeatures.PRODUCTS_RISK_FLAG], at);
+                    assertEquals(countryFlag, x[ChurnFeatures.COUNTRY_RISK_FLAG], at);
+                    assertEquals(products, x[ChurnFeatures.NUM_OF_PRODUCTS], at);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.churninsight.service;
+
+import com.churninsight.controller.OutcomeRequest;
+import com.churninsight.model.ChurnOutcome;
+import com.churninsight.model.ChurnOutcomeRepository;
+import com.churninsight.model.PredictionHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutcomeServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 10, 12, 0);
+
+    private ChurnOutcomeRepository outcomeRepository;
+    private PredictionHistoryRepository historyRepository;
+    private CustomerRiskStore customerRiskStore;
+    private ModelQualityEvaluator evaluator;
+    private DataVersions dataVersions;
+    private OutcomeService service;
+
+    @BeforeEach
+    void setUp() {
+        outcomeRepository = mock(ChurnOutcomeRepository.class);
+        historyRepository = mock(PredictionHistoryRepository.class);
+        customerRiskStore = mock(CustomerRiskStore.class);
+        evaluator = mock(ModelQualityEvaluator.class);
+        dataVersions = mock(DataVersions.class);
+        when(customerRiskStore.probabilityAt(any(), anyLong())).thenReturn(Double.NaN);
+        service = new OutcomeService(outcomeRepository, historyRepository, customerRiskStore, evaluator, dataVersions);
+    }
+
+    @Test
+    void joinsFromMemoryThenFromHistory() {
+        when(customerRiskStore.probabilityAt(eq("1"), anyLong())).thenReturn(0.8);
+        // Predicciones del cliente 2, de la más reciente a la más antigua
+        when(historyRepository.findPredictionsByCustomerIdsUntil(any(), any())).thenReturn(List.of(
+            new Object[]{"2", NOW.minusDays(1), 11L, 0.6},
+            new Object[]{"2", NOW.minusDays(3), 10L, 0.3}));
+
+        Map<String, Object> result = service.ingest(List.of(
+            outcome("1", true, NOW),
+            outcome("2", false, NOW.minusDays(2)),
+            outcome("2", true, NOW),
+            outcome("3", false, NOW)), "analyst");
+
+        assertEquals(4, result.get("received"));
+        assertEquals(3, result.get("matched"));
+        assertEquals(1, result.get("unmatched"));
+
+        List<ChurnOutcome> saved = saved();
+        assertEquals(0.8, saved.get(0).getPredictedProbability());
+        assertNull(saved.get(0).getPredictionId());
+        // La última predicción hasta observedAt, no la más reciente
+        assertEquals(0.3, saved.get(1).getPredictedProbability());
+        assertEquals(10L, saved.get(1).getPredictionId());
+        assertEquals(0.6, saved.get(2).getPredictedProbability());
+        assertEquals(11L, saved.get(2).getPredictionId());
+        assertNull(saved.get(3).getPredictedProbability());
+        assertEquals("analyst", saved.get(3).getUsername());
+
+        // Una sola consulta para los clientes que no estaban en memoria, hasta el observedAt más tardío
+        ArgumentCaptor<Collection<String>> ids = idsCaptor();
+        verify(historyRepository, times(1)).findPredictionsByCustomerIdsUntil(ids.capture(), eq(NOW));
+        assertEquals(2, ids.getValue().size());
+        assertFalse(ids.getValue().contains("1"));
+        verify(evaluator, times(3)).record(anyDouble(), anyBoolean(), any());
+        verify(dataVersions).bumpGlobal();
+    }
+
+    @Test
+    void looksUpUnmatchedOutcomesInChunks() {
+        when(historyRepository.findPredictionsByCustomerIdsUntil(any(), any())).thenReturn(List.of());
+        List<OutcomeRequest> requests = new ArrayList<>();
+        int count = 2 * OutcomeService.LOOKUP_BATCH + 7;
+        for (int i = 0; i < count; i++) {
+            requests.add(outcome(Integer.toString(i), i % 2 == 0, NOW));
+        }
+
+        Map<String, Object> result = service.ingest(requests, "analyst");
+
+        assertEquals(count, result.get("unmatched"));
+        verify(historyRepository, times(3)).findPredictionsByCustomerIdsUntil(any(), any());
+        verify(historyRepository, never())
+            .findFirstByCustomerIdAndPredictionDateLessThanEqualOrderByPredictionDateDesc(any(), any());
+        verify(dataVersions, never()).bumpGlobal();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ChurnOutcome> saved() {
+        ArgumentCaptor<List<ChurnOutcome>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outcomeRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Collection<String>> idsCaptor() {
+        return ArgumentCaptor.forClass(Collection.class);
+    }
+
+    private static OutcomeRequest outcome(String customerId, boolean churned, LocalDateTime observedAt) {
+        OutcomeRequest request = new OutcomeRequest();
+        request.setCustomerId(customerId);
+        request.setChurned(churned);
+        request.setObservedAt(observedAt);
+        return request;
+    }
+}
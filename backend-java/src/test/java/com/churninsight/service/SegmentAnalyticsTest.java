@@ -0,0 +1,175 @@
+package com.churninsight.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * La agregación por columnas y bloques en paralelo contra una agregación ingenua fila a
+ * fila con mapas de etiquetas.
+ */
+class SegmentAnalyticsTest {
+
+    private static final int[] TENURE_EDGES = {2, 5, 8};
+    private static final String[] COUNTRIES = {"France", "Spain", "Germany", null};
+
+    private final RiskBands riskBands = new RiskBands(new double[]{0.5, 0.75});
+    private SegmentAnalytics analytics;
+
+    @BeforeEach
+    void setUp() {
+        analytics = new SegmentAnalytics(mock(JdbcTemplate.class), mock(PlatformTransactionManager.class),
+            new DataVersions(), riskBands, 2, TENURE_EDGES, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        analytics.shutdown();
+    }
+
+    @Test
+    void matchesNaiveAggregationForEveryGrouping() {
+        List<Row> rows = rows(200_000, 42);
+        SegmentColumns columns = columns(rows);
+        List<List<String>> groupings = List.of(
+            List.of("country"),
+            List.of("band", "country"),
+            List.of("tenure", "products", "active"),
+            List.of("country", "tenure", "products", "active", "band"));
+
+        for (List<String> groupBy : groupings) {
+            SegmentReport report = aggregate(columns, groupBy, 1);
+            Map<List<String>, Naive> expected = naive(rows, groupBy);
+
+            assertEquals(rows.size(), report.predictions());
+            assertEquals(0, report.hiddenCells());
+            assertEquals(expected.size(), report.cells().size(), groupBy.toString());
+            long total = 0;
+            for (SegmentReport.Cell cell : report.cells()) {
+                Naive naive = expected.get(new ArrayList<>(cell.segment().values()));
+                assertNotNull(naive, () -> "celda inesperada " + cell.segment());
+                assertEquals(naive.count, cell.count());
+                assertEquals(naive.probabilitySum / naive.count, cell.meanProbability(), 1e-9);
+                assertEquals((double) naive.highRisk / naive.count, cell.highRiskShare(), 1e-12);
+                assertEquals(naive.capitalAtRisk, cell.capitalAtRisk(), 1e-6 * Math.max(1, naive.capitalAtRisk));
+                total += cell.count();
+            }
+            assertEquals(rows.size(), total);
+            for (int i = 1; i < report.cells().size(); i++) {
+                assertTrue(report.cells().get(i - 1).count() >= report.cells().get(i).count());
+            }
+        }
+    }
+
+    @Test
+    void smallCellsAreHidden() {
+        List<Row> rows = rows(5_000, 7);
+        SegmentReport all = aggregate(columns(rows), List.of("country", "tenure", "products"), 1);
+        int minCount = 60;
+        long small = all.cells().stream().filter(c -> c.count() < minCount).count();
+
+        SegmentReport report = aggregate(columns(rows), List.of("country", "tenure", "products"), minCount);
+
+        assertTrue(small > 0);
+        assertEquals(small, report.hiddenCells());
+        assertEquals(all.cells().size() - small, report.cells().size());
+    }
+
+    @Test
+    void unknownOrRepeatedDimensionsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> analytics.segments("analyst", List.of("city"), 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> analytics.segments("analyst", List.of("country", "country"), 1));
+        assertThrows(IllegalArgumentException.class, () -> analytics.segments("analyst", List.of(), 1));
+    }
+
+    private SegmentReport aggregate(SegmentColumns columns, List<String> groupBy, int minCount) {
+        int[] dimensions = groupBy.stream().mapToInt(SegmentColumns::dimension).toArray();
+        return analytics.aggregate(columns, groupBy, dimensions, minCount, System.currentTimeMillis());
+    }
+
+    private SegmentColumns columns(List<Row> rows) {
+        SegmentColumns.Builder builder = new SegmentColumns.Builder(riskBands, TENURE_EDGES, 0);
+        for (Row row : rows) {
+            builder.add(row.probability, row.balance, row.country, row.tenure, row.products, row.active);
+        }
+        return builder.build();
+    }
+
+    // Una fila por predicción, con etiquetas String por dimensión
+    private Map<List<String>, Naive> naive(List<Row> rows, List<String> groupBy) {
+        Map<List<String>, Naive> cells = new HashMap<>();
+        for (Row row : rows) {
+            List<String> key = new ArrayList<>();
+            for (String dimension : groupBy) {
+                key.add(switch (dimension) {
+                    case "country" -> row.country != null ? row.country : "Desconocido";
+                    case "tenure" -> tenureLabel(row.tenure);
+                    case "products" -> row.products != null ? row.products.toString() : "Desconocido";
+                    case "active" -> row.active != null ? row.active.toString() : "Desconocido";
+                    default -> riskBands.name(riskBands.band(row.probability));
+                });
+            }
+            Naive cell = cells.computeIfAbsent(key, k -> new Naive());
+            cell.count++;
+            cell.probabilitySum += row.probability;
+            if (row.probability > 0.75) {
+                cell.highRisk++;
+                cell.capitalAtRisk += row.balance != null ? row.balance : 0.0;
+            }
+        }
+        return cells;
+    }
+
+    private static String tenureLabel(Integer tenure) {
+        if (tenure == null) {
+            return "Desconocido";
+        }
+        if (tenure <= 2) {
+            return "0-2";
+        }
+        if (tenure <= 5) {
+            return "3-5";
+        }
+        return tenure <= 8 ? "6-8" : "9+";
+    }
+
+    private static List<Row> rows(int count, long seed) {
+        Random random = new Random(seed);
+        List<Row> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Row(random.nextDouble(),
+                random.nextInt(20) == 0 ? null : random.nextDouble() * 250_000,
+                COUNTRIES[random.nextInt(COUNTRIES.length)],
+                random.nextInt(15) == 0 ? null : random.nextInt(11),
+                random.nextInt(25) == 0 ? null : 1 + random.nextInt(4),
+                random.nextInt(30) == 0 ? null : random.nextBoolean()));
+        }
+        return rows;
+    }
+
+    private record Row(double probability, Double balance, String country, Integer tenure, Integer products,
+                       Boolean active) {
+    }
+
+    private static final class Naive {
+        long count;
+        double probabilitySum;
+        long highRisk;
+        double capitalAtRisk;
+    }
+}
@@ -0,0 +1,148 @@
+package com.churninsight.service;
+
+import com.churninsight.controller.ChurnPredictionRequest;
+import com.churninsight.controller.WhatIfRequest;
+import com.churninsight.controller.WhatIfResponse;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WhatIfServiceTest {
+
+    private static TreeEnsembleModel model;
+
+    private WhatIfService service;
+
+    @BeforeAll
+    static void loadModel() throws Exception {
+        try (InputStream in = Files.newInputStream(Path.of("../data-science/modelo_churn_banco.pmml"))) {
+            model = TreeEnsembleModel.fromPmml(in);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        LocalChurnScorer scorer = mock(LocalChurnScorer.class);
+        when(scorer.model()).thenReturn(model);
+        service = new WhatIfService(scorer);
+        ReflectionTestUtils.setField(service, "maxGridSize", 5000);
+    }
+
+    @Test
+    void gridMatchesScoringEveryScenarioWithDerivedFeatures() {
+        WhatIfRequest request = request(base(35, 1.0, true, "Germany"),
+            range("age", 18.0, 90.0, 1.0),
+            values("numOfProducts", 1.0, 2.0, 3.0, 4.0),
+            values("isActiveMember", 0.0, 1.0));
+
+        WhatIfResponse response = service.evaluate(request);
+
+        assertEquals(List.of("age", "numOfProducts", "isActiveMember"), response.getFeatures());
+        assertEquals(73 * 4 * 2, response.getGridSize());
+        double baseProbability = model.predict(features(35, 1, 1, "Germany"));
+        assertEquals(baseProbability, response.getBaseProbability(), 1e-12);
+        for (WhatIfResponse.Scenario scenario : response.getScenarios()) {
+            double[] v = scenario.getValues();
+            double expected = model.predict(features(v[0], v[1], v[2], "Germany"));
+            assertEquals(expected, scenario.getChurnProbability(), 1e-9, () -> Arrays.toString(v));
+            assertEquals(expected - baseProbability, scenario.getDelta(), 1e-9);
+        }
+    }
+
+    @Test
+    void changingProductsAlsoMovesProductsRiskFlag() {
+        WhatIfResponse response = service.evaluate(request(base(45, 2.0, false, "France"),
+            values("numOfProducts", 2.0, 3.0)));
+
+        double[] withFlag = features(45, 3, 0, "France");
+        assertEquals(1.0, withFlag[ChurnFeatures.PRODUCTS_RISK_FLAG]);
+        assertEquals(model.predict(withFlag), response.getScenarios().get(1).getChurnProbability(), 1e-9);
+        // Con el flag viejo (0) el escenario daría otra probabilidad
+        double[] stale = withFlag.clone();
+        stale[ChurnFeatures.PRODUCTS_RISK_FLAG] = 0.0;
+        assertNotEquals(model.predict(stale), response.getScenarios().get(1).getChurnProbability(), 1e-9);
+    }
+
+    @Test
+    void nullValueIsRejected() {
+        WhatIfRequest.FeatureRange range = new WhatIfRequest.FeatureRange();
+        range.setFeature("age");
+        range.setValues(new ArrayList<>(Arrays.asList(30.0, null)));
+
+        assertThrows(IllegalArgumentException.class, () -> service.evaluate(request(base(35, 1.0, true, "Spain"),
+            range)));
+    }
+
+    @Test
+    void derivedFeaturesAndInvalidValuesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.evaluate(request(base(35, 1.0, true, "Spain"),
+            values("productsRiskFlag", 0.0, 1.0))));
+        assertThrows(IllegalArgumentException.class, () -> service.evaluate(request(base(35, 1.0, true, "Spain"),
+            values("isActiveMember", 0.5))));
+        assertThrows(IllegalArgumentException.class, () -> service.evaluate(request(base(35, 1.0, true, "Spain"),
+            values("age", 30.0), values("age", 40.0))));
+    }
+
+    @Test
+    void baseWithoutRawAttributesIsRejected() {
+        ChurnPredictionRequest base = base(35, 1.0, true, "Spain");
+        base.setAge(null);
+
+        assertThrows(IllegalArgumentException.class, () -> service.evaluate(request(base, values("age", 50.0))));
+    }
+
+    private static double[] features(double age, double numOfProducts, double active, String country) {
+        double[] x = new double[ChurnFeatures.COUNT];
+        FeatureTransform.transform(age, numOfProducts, active, FeatureTransform.countryRisk(country), x);
+        return x;
+    }
+
+    private static ChurnPredictionRequest base(int age, double numOfProducts, boolean active, String country) {
+        ChurnPredictionRequest base = new ChurnPredictionRequest();
+        base.setAge(age);
+        base.setNumOfProducts(numOfProducts);
+        base.setIsActiveMember(active);
+        base.setCountry(country);
+        base.setBalance(50_000.0);
+        base.setEstimatedSalary(60_000.0);
+        base.setTenure(4);
+        return base;
+    }
+
+    private static WhatIfRequest request(ChurnPredictionRequest base, WhatIfRequest.FeatureRange... ranges) {
+        WhatIfRequest request = new WhatIfRequest();
+        request.setBase(base);
+        request.setRanges(List.of(ranges));
+        return request;
+    }
+
+    private static WhatIfRequest.FeatureRange values(String feature, Double... values) {
+        WhatIfRequest.FeatureRange range = new WhatIfRequest.FeatureRange();
+        range.setFeature(feature);
+        range.setValues(List.of(values));
+        return range;
+    }
+
+    private static WhatIfRequest.FeatureRange range(String feature, double min, double max, double step) {
+        WhatIfRequest.FeatureRange range = new WhatIfRequest.FeatureRange();
+        range.setFeature(feature);
+        range.setMin(min);
+        range.setMax(max);
+        range.setStep(step);
+        return range;
+    }
+}
@@ -45,6 +45,14 @@ except Exception as e1:
     except Exception as e2:
         print(f"ERROR: no se pudo cargar el modelo. joblib error: {e1}; pickle error: {e2}")
 
+# Transporte binario opcional sobre socket Unix (ver predictor_uds.py)
+@app.on_event("startup")
+def start_uds_transport():
+    uds_path = os.environ.get("PREDICTOR_UDS_PATH")
+    if uds_path and model is not None:
+        from predictor_uds import start_in_background
+        start_in_background(uds_path, model)
+
 @app.get("/health")
 def health():
     return {"status": "ok" if model is not None else "model_not_loaded"}
@@ -0,0 +1,116 @@
+"""
+Transporte binario del predictor sobre un socket Unix (alternativa a HTTP/JSON).
+
+Cada conexión es persistente y admite requests en pipeline; las respuestas llevan el id
+de correlación del request. Todos los enteros y floats son little-endian:
+
+    request:   u32 largo | u64 id | u32 filas | u32 columnas | f64[filas * columnas]
+    respuesta: u32 largo | u64 id | u32 estado | f64[filas]        (estado 0)
+                                             | mensaje UTF-8       (estado 1)
+
+"largo" cuenta los bytes que siguen al propio campo.
+
+Uso standalone:  python predictor_uds.py /tmp/churn-predictor.sock
+Desde predictor_fastapi.py se levanta en segundo plano si PREDICTOR_UDS_PATH está definido.
+"""
+import os
+import pickle
+import socketserver
+import struct
+import sys
+import threading
+import warnings
+
+HEADER = struct.Struct("<QII")      # id, filas, columnas
+RESPONSE_HEADER = struct.Struct("<IQI")  # largo, id, estado
+LENGTH = struct.Struct("<I")
+FEATURES = 5
+MAX_FRAME_BYTES = 64 * 1024 * 1024
+
+try:
+    import numpy as np
+except ImportError:  # solo para pruebas del protocolo sin el stack de ML
+    np = None
+
+# El modelo se entrenó con un DataFrame; con arreglos sklearn avisa en cada llamada
+warnings.filterwarnings("ignore", message="X does not have valid feature names")
+
+
+def _read_exact(sock_file, size):
+    data = sock_file.read(size)
+    if data is None or len(data) < size:
+        raise EOFError
+    return data
+
+
+def _probabilities(model, body, rows, cols):
+    if np is not None:
+        x = np.frombuffer(body, dtype="<f8", offset=HEADER.size, count=rows * cols).reshape(rows, cols)
+    else:
+        flat = struct.unpack_from("<%dd" % (rows * cols), body, HEADER.size)
+        x = [list(flat[i * cols:(i + 1) * cols]) for i in range(rows)]
+    if hasattr(model, "predict_proba"):
+        proba = model.predict_proba(x)
+        return [float(row[1]) for row in proba]
+    return [float(p) for p in model.predict(x)]
+
+
+class _Handler(socketserver.StreamRequestHandler):
+
+    def handle(self):
+        model = self.server.model
+        while True:
+            try:
+                (length,) = LENGTH.unpack(_read_exact(self.rfile, LENGTH.size))
+                if length < HEADER.size or length > MAX_FRAME_BYTES:
+                    return  # framing roto: se cierra la conexión
+                body = _read_exact(self.rfile, length)
+            except (EOFError, ConnectionError):
+                return
+            request_id, rows, cols = HEADER.unpack_from(body)
+            try:
+                if cols != FEATURES or length != HEADER.size + rows * cols * 8:
+                    raise ValueError("Se esperan %d features por fila" % FEATURES)
+                probs = _probabilities(model, body, rows, cols)
+                payload = struct.pack("<%dd" % len(probs), *probs)
+                status = 0
+            except Exception as e:  # el error viaja en la respuesta, la conexión sigue
+                payload = str(e).encode("utf-8")
+                status = 1
+            self.wfile.write(RESPONSE_HEADER.pack(8 + 4 + len(payload), request_id, status) + payload)
+            self.wfile.flush()
+
+
+class PredictorServer(socketserver.ThreadingMixIn, socketserver.UnixStreamServer):
+    daemon_threads = True
+
+    def __init__(self, path, model):
+        if os.path.exists(path):
+            os.unlink(path)
+        super().__init__(path, _Handler)
+        self.model = model
+
+
+def start_in_background(path, model):
+    server = PredictorServer(path, model)
+    thread = threading.Thread(target=server.serve_forever, name="predictor-uds", daemon=True)
+    thread.start()
+    print(f"Predictor UDS escuchando en {path}")
+    return server
+
+
+def _load_model(model_path):
+    try:
+        import joblib
+        return joblib.load(model_path)
+    except Exception:
+        with open(model_path, "rb") as f:
+            return pickle.load(f)
+
+
+if __name__ == "__main__":
+    socket_path = sys.argv[1] if len(sys.argv) > 1 else os.environ.get("PREDICTOR_UDS_PATH", "/tmp/churn-predictor.sock")
+    loaded = _load_model(os.path.join(os.path.dirname(__file__), "modelo_Banco_churn.pkl"))
+    server = PredictorServer(socket_path, loaded)
+    print(f"Predictor UDS escuchando en {socket_path}")
+    server.serve_forever()
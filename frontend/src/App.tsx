@@ -22,7 +22,7 @@ import {
 } from "@mui/icons-material";
 import theme from "./theme";
 import PredictionForm from "./PredictionForm";
-import { predictChurn, fetchStats } from "./services/api";
+import { predictChurn, fetchDashboard } from "./services/api";
 import { ChurnPredictionRequest, ChurnPredictionResponse } from "./types";
 import { Header } from "./components";
 import Login from "./components/Login";
@@ -113,8 +113,12 @@ function App() {
 
     const loadStats = async () => {
       try {
-        const statsData = await fetchStats();
-        setStats(statsData);
+        const dashboard = await fetchDashboard();
+        setStats(
+          dashboard
+            ? dashboard.stats
+            : { activeUsers: null, retentionRate: null, todayPredictions: null },
+        );
       } catch (err) {
         console.error("Error cargando estadísticas:", err);
         setStats({
@@ -152,8 +156,10 @@ function App() {
         const result = await predictChurn(formData);
         setPrediction(result);
 
-        const statsData = await fetchStats();
-        setStats(statsData);
+        const dashboard = await fetchDashboard();
+        if (dashboard) {
+          setStats(dashboard.stats);
+        }
 
         setTabValue(1);
       } catch (err) {
@@ -64,19 +64,10 @@ const PredictionForm: React.FC<PredictionFormProps> = ({
 
   const onFormSubmit = useCallback(
     (data: ClientFormData) => {
-      // Transformar los datos del usuario a los parámetros del modelo
-      const ageRisk = data.age >= 40 && data.age <= 70 ? 1 : 0;
-      const inactivo4070 =
-        data.age >= 40 && data.age <= 70 && data.isActiveMember === 0 ? 1 : 0;
-      const productsRiskFlag = data.numOfProducts >= 3 ? 1 : 0;
-      const countryRiskFlag = data.country === "Germany" ? 1 : 0;
-
+      // Se envían los atributos crudos: el backend deriva las variables del modelo
       const modelData = {
-        ageRisk,
+        age: data.age,
         numOfProducts: data.numOfProducts,
-        inactivo4070,
-        productsRiskFlag,
-        countryRiskFlag,
         balance: data.balance,
         estimatedSalary: data.estimatedSalary,
         tenure: data.tenure,
@@ -23,8 +23,7 @@ import {
 import { PersonOutline, Lightbulb, FileDownload } from "@mui/icons-material";
 import * as XLSX from "xlsx";
 import {
-  fetchHistory,
-  fetchKPIs,
+  fetchDashboard,
   PredictionHistory,
   KPIsData,
 } from "../services/api";
@@ -54,8 +53,7 @@ const HistoryPanel: React.FC = () => {
   const [showProfile, setShowProfile] = useState(false);
 
   useEffect(() => {
-    loadHistory();
-    loadKPIs();
+    loadDashboard();
   }, []);
 
   // Función para el semáforo de riesgo
@@ -129,11 +127,15 @@ const HistoryPanel: React.FC = () => {
     };
   };
 
-  const loadHistory = async () => {
+  // Historial y KPIs llegan en el mismo request
+  const loadDashboard = async () => {
     setLoading(true);
     try {
-      const data = await fetchHistory();
-      setHistory(data);
+      const data = await fetchDashboard();
+      if (data) {
+        setHistory(data.history);
+        setKpis(data.kpis);
+      }
     } catch (error) {
       console.error("Error cargando historial:", error);
     } finally {
@@ -141,15 +143,6 @@ const HistoryPanel: React.FC = () => {
     }
   };
 
-  const loadKPIs = async () => {
-    try {
-      const data = await fetchKPIs();
-      setKpis(data);
-    } catch (error) {
-      console.error("Error cargando KPIs:", error);
-    }
-  };
-
   // Filtrar historial
   const filteredHistory = useMemo(() => {
     return history.filter((item) => {
@@ -316,10 +309,18 @@ const HistoryPanel: React.FC = () => {
                 Precisión del Modelo
               </Typography>
               <Typography variant="h3" color="success.main" fontWeight={700}>
-                {(kpis.accuracyLastMonth * 100).toFixed(1)}%
+                {kpis.modelQuality?.outcomes
+                  ? `${(kpis.accuracyLastMonth * 100).toFixed(1)}%`
+                  : "—"}
               </Typography>
               <Typography variant="caption" color="text.secondary">
-                Mes anterior
+                {kpis.modelQuality?.outcomes
+                  ? `${kpis.modelQuality.outcomes} resultados reales${
+                      kpis.modelQuality.auc != null
+                        ? ` · AUC ${kpis.modelQuality.auc.toFixed(3)}`
+                        : ""
+                    }`
+                  : "Sin resultados reales cargados"}
               </Typography>
             </CardContent>
           </Card>
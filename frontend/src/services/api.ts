@@ -40,6 +40,17 @@ export interface KPIsData {
   accuracyLastMonth: number;
   totalPredictions: number;
   averageRisk: number;
+  modelQuality?: ModelQuality;
+}
+
+// Métricas del modelo contra resultados reales (null sin resultados suficientes)
+export interface ModelQuality {
+  windowDays: number;
+  outcomes: number;
+  positives: number;
+  auc: number | null;
+  logLoss: number | null;
+  accuracy: number | null;
 }
 
 export interface HistoricalPrediction {
@@ -121,7 +132,11 @@ export const predictChurn = async (
   data: ChurnPredictionRequest,
 ): Promise<ChurnPredictionResponse> => {
   // Validaciones de seguridad adicionales
-  if (data.ageRisk < 0 || data.ageRisk > 1) {
+  if (data.age !== undefined && (data.age < 0 || data.age > 120)) {
+    throw new Error("Edad inválida");
+  }
+
+  if (data.ageRisk !== undefined && (data.ageRisk < 0 || data.ageRisk > 1)) {
     throw new Error("Age Risk debe ser 0 o 1");
   }
 
@@ -131,6 +146,8 @@ export const predictChurn = async (
 
   // Preparar datos para enviar al backend Java (que luego envía a FastAPI)
   const backendData = {
+    customerId: data.customerId,
+    age: data.age,
     ageRisk: data.ageRisk,
     numOfProducts: data.numOfProducts,
     inactivo4070: data.inactivo4070,
@@ -401,6 +418,74 @@ export const fetchKPIs = async (): Promise<KPIsData> => {
   }
 };
 
+export interface DashboardData {
+  stats: StatsData;
+  kpis: KPIsData;
+  history: PredictionHistory[];
+}
+
+const EMPTY_STATS: StatsData = {
+  activeUsers: null,
+  retentionRate: null,
+  todayPredictions: null,
+};
+
+let dashboardRequest: Promise<DashboardData | null> | null = null;
+
+/**
+ * Estadísticas, KPIs e historial en un solo request (/dashboard). Las llamadas
+ * simultáneas (App y HistoryPanel al cargar) comparten el mismo request.
+ * Retorna null si no hay sesión o el request falla.
+ */
+export const fetchDashboard = (): Promise<DashboardData | null> => {
+  if (!isTokenValid()) {
+    console.warn("[API] fetchDashboard: No hay token válido");
+    return Promise.resolve(null);
+  }
+  if (!dashboardRequest) {
+    dashboardRequest = loadDashboard().finally(() => {
+      dashboardRequest = null;
+    });
+  }
+  return dashboardRequest;
+};
+
+const loadDashboard = async (): Promise<DashboardData | null> => {
+  try {
+    const controller = new AbortController();
+    const timeoutId = setTimeout(() => controller.abort(), 10000);
+
+    const response = await fetch(`${API_BASE_URL}/dashboard`, {
+      method: "GET",
+      headers: getAuthHeaders(),
+      signal: controller.signal,
+      credentials: "include",
+    });
+
+    clearTimeout(timeoutId);
+
+    if (!response.ok) {
+      console.error("[API] fetchDashboard error. Status:", response.status);
+      return null;
+    }
+
+    const result: DashboardData = await response.json();
+    const stats = result.stats;
+    // Igual que fetchStats: todo en 0 indica una BD vacía
+    if (
+      stats.activeUsers === 0 &&
+      stats.retentionRate === 0 &&
+      stats.todayPredictions === 0
+    ) {
+      result.stats = { ...EMPTY_STATS };
+    }
+    return result;
+  } catch (error) {
+    console.error("[API] Error fetching dashboard:", error);
+    return null;
+  }
+};
+
 /**
  * Obtiene el historial de predicciones de un cliente específico
  */
@@ -1,11 +1,13 @@
 // Types for API requests and responses
 
 export interface ChurnPredictionRequest {
-  ageRisk: number;
+  customerId?: string; // CustomerId estable (numérico); sin él el backend genera uno
+  age?: number; // Si se envía, el backend deriva las variables de riesgo
+  ageRisk?: number;
   numOfProducts: number;
-  inactivo4070: number;
-  productsRiskFlag: number;
-  countryRiskFlag: number;
+  inactivo4070?: number;
+  productsRiskFlag?: number;
+  countryRiskFlag?: number;
   balance: number;
   estimatedSalary: number;
   tenure: number;